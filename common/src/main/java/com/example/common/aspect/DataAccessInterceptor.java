@@ -1,19 +1,28 @@
 package com.example.common.aspect;
 
+import com.example.common.aspect.stage.DataAccessStage;
 import com.example.common.dto.DataAccessContext;
-import com.example.common.exception.DataAccessDeniedException;
-import com.example.common.service.DataOperationLogger;
-import com.example.common.service.ServicePermissionChecker;
 import com.example.common.utils.DataAccessContextExtractor;
+import com.example.common.utils.MapperMethodDescriptor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 
+import javax.annotation.PostConstruct;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 数据访问拦截器
  *
@@ -37,6 +46,10 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
  *   <li>如果无权限，抛出权限拒绝异常并记录日志</li>
  * </ol>
  *
+ * <p>拦截器只声明一个通知，权限检查、慢查询检测、修改日志、审计日志等处理以
+ * {@link DataAccessStage} 的形式插入。每个Mapper方法首次被拦截时解析出方法描述符和适用的阶段列表并缓存，
+ * 之后每次调用不再重复做切点匹配、元数据反射和阶段筛选。
+ *
  * <p>切点定义：
  * <ul>
  *   <li>拦截所有以Mapper结尾的接口方法</li>
@@ -62,203 +75,91 @@ public class DataAccessInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(DataAccessInterceptor.class);
     private static final ThreadLocal<Boolean> IN_GUARD = ThreadLocal.withInitial(() -> false);
 
-    @Autowired
-    private ServicePermissionChecker permissionChecker;
-
-    @Autowired
-    private DataOperationLogger operationLogger;
+    /**
+     * 不做任何处理、直接执行目标方法的流水线
+     */
+    private static final MethodPipeline PASS_THROUGH = new MethodPipeline(null, new DataAccessStage[0]);
 
     @Autowired
     private DataAccessContextExtractor contextExtractor;
 
+    @Autowired(required = false)
+    private List<DataAccessStage> stages = Collections.emptyList();
+
     /**
-     * 拦截Mapper方法调用
-     *
-     * <p>拦截所有Mapper接口的方法调用，执行权限检查和审计日志记录。
-     * 切点表达式匹配所有以Mapper结尾的接口中的方法。
-     *
-     * @param joinPoint AOP连接点
-     * @return 方法执行结果
-     * @throws Throwable 方法执行过程中的异常
+     * 按Mapper方法缓存的处理流水线
      */
-    @Around("execution(* com.example..mapper..*.*(..)) && !execution(* com.example.common.mapper..*.*(..)) && !execution(* com.example.auth.mapper..*.*(..)) && !@annotation(com.example.common.annotation.DataAccessIgnore) && !@within(com.example.common.annotation.DataAccessIgnore)")
-    public Object interceptDataAccess(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (!isInterceptorEnabled()) {
-            return joinPoint.proceed();
-        }
-        if (Boolean.TRUE.equals(IN_GUARD.get()) || isExcluded(joinPoint)) {
-            return joinPoint.proceed();
-        }
-        IN_GUARD.set(true);
-        DataAccessContext context = null;
-
-        try {
-            // 1. 提取数据访问上下文
-            context = contextExtractor.extractContext(joinPoint);
-
-            logger.debug("拦截数据访问: {}", context.getOperationSummary());
-
-            // 2. 执行权限检查
-            if (!permissionChecker.hasPermission(context)) {
-                String reason = String.format("服务 [%s] 无权限对表 [%s] 执行 [%s] 操作",
-                        context.getServiceName(), context.getTableName(), context.getOperationType());
-
-                // 记录权限拒绝日志
-                operationLogger.logDenied(context, reason);
-
-                // 抛出权限拒绝异常
-                throw new DataAccessDeniedException(context, reason);
-            }
-
-            // 3. 执行原始方法
-            Object result = joinPoint.proceed();
-
-            // 4. 标记操作完成
-            context.markCompleted();
-            context.setResult(result);
-
-            // 5. 记录操作成功日志
-            operationLogger.logSuccess(context, result);
-
-            logger.debug("数据访问成功: {} -> {}", context.getOperationSummary(),
-                    result != null ? result.getClass().getSimpleName() : "null");
-
-            return result;
-
-        } catch (DataAccessDeniedException e) {
-            // 权限拒绝异常已经在上面处理过了，直接重新抛出
-            throw e;
-
-        } catch (Exception e) {
-            // 6. 处理其他异常
-            if (context != null) {
-                context.markFailed(e);
-                operationLogger.logFailure(context, e);
-            }
-
-            logger.error("数据访问失败: {}",
-                    context != null ? context.getOperationSummary() : "unknown", e);
-
-            throw e;
-        } finally {
-            // 确保守卫标志在任何情况下都能复位，避免递归拦截导致的栈溢出
-            IN_GUARD.set(false);
-        }
-    }
+    private final ConcurrentMap<Method, MethodPipeline> pipelines = new ConcurrentHashMap<>();
 
     /**
-     * 拦截特定的查询方法（可选的额外拦截点）
-     *
-     * <p>为特定的查询方法提供额外的拦截逻辑，例如慢查询监控。
-     *
-     * @param joinPoint AOP连接点
-     * @return 方法执行结果
-     * @throws Throwable 方法执行过程中的异常
+     * 启动时计算的拦截器开关，避免每次调用重新解析排除服务列表
      */
-    @Around("(execution(* com.example..mapper..*.select*(..)) || " +
-            "execution(* com.example..mapper..*.find*(..)) || " +
-            "execution(* com.example..mapper..*.get*(..))) && !execution(* com.example.common.mapper..*.*(..)) && !execution(* com.example.auth.mapper..*.*(..)) && !@annotation(com.example.common.annotation.DataAccessIgnore) && !@within(com.example.common.annotation.DataAccessIgnore)")
-    public Object interceptQueryMethods(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (!isInterceptorEnabled()) {
-            return joinPoint.proceed();
-        }
-        if (Boolean.TRUE.equals(IN_GUARD.get()) || isExcluded(joinPoint)) {
-            return joinPoint.proceed();
-        }
-        IN_GUARD.set(true);
-        DataAccessContext context = null;
-        long startTime = System.currentTimeMillis();
-
-        try {
-            // 提取上下文
-            context = contextExtractor.extractContext(joinPoint);
-
-            // 执行方法
-            Object result = joinPoint.proceed();
-
-            // 计算执行时间
-            long executionTime = System.currentTimeMillis() - startTime;
-            context.setExecutionTime((int) executionTime);
-
-            // 检查是否为慢查询（超过1秒）
-            if (executionTime > 1000) {
-                logger.warn("检测到慢查询: {} 执行时间: {}ms",
-                        context.getOperationSummary(), executionTime);
-            }
-
-            return result;
-
-        } catch (Exception e) {
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            if (context != null) {
-                context.setExecutionTime((int) executionTime);
-            }
-
-            logger.error("查询方法执行失败: {} 执行时间: {}ms",
-                    context != null ? context.getOperationSummary() : "unknown", executionTime, e);
+    private volatile Boolean interceptorEnabled;
 
-            throw e;
-        } finally {
-            IN_GUARD.set(false);
-        }
+    /**
+     * 初始化拦截器开关
+     */
+    @PostConstruct
+    public void init() {
+        interceptorEnabled = computeInterceptorEnabled();
+        logger.info("DataAccessInterceptor initialized: enabled={}, stages={}", interceptorEnabled, stages.size());
     }
 
     /**
-     * 拦截修改操作方法
+     * 拦截Mapper方法调用
      *
-     * <p>为INSERT、UPDATE、DELETE操作提供特殊的拦截逻辑，
-     * 例如记录数据变更前后的状态。
+     * <p>拦截所有Mapper接口的方法调用，依次执行该方法适用的处理阶段。
+     * 切点表达式匹配com.example..mapper包下的所有方法。
      *
      * @param joinPoint AOP连接点
      * @return 方法执行结果
      * @throws Throwable 方法执行过程中的异常
      */
-    @Around("(execution(* com.example..mapper..*.insert*(..)) || " +
-            "execution(* com.example..mapper..*.update*(..)) || " +
-            "execution(* com.example..mapper..*.delete*(..))) && !execution(* com.example.common.mapper..*.*(..)) && !execution(* com.example.auth.mapper..*.*(..)) && !@annotation(com.example.common.annotation.DataAccessIgnore) && !@within(com.example.common.annotation.DataAccessIgnore)")
-    public Object interceptModifyMethods(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (!isInterceptorEnabled()) {
+    @Around("execution(* com.example..mapper..*.*(..)) && !execution(* com.example.common.mapper..*.*(..)) && !execution(* com.example.auth.mapper..*.*(..)) && !@annotation(com.example.common.annotation.DataAccessIgnore) && !@within(com.example.common.annotation.DataAccessIgnore)")
+    public Object interceptDataAccess(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!isInterceptorEnabled() || Boolean.TRUE.equals(IN_GUARD.get())) {
             return joinPoint.proceed();
         }
-        if (Boolean.TRUE.equals(IN_GUARD.get()) || isExcluded(joinPoint)) {
+        MethodPipeline pipeline = pipelineFor(joinPoint);
+        if (pipeline == PASS_THROUGH) {
             return joinPoint.proceed();
         }
-        IN_GUARD.set(true);
-        DataAccessContext context = null;
 
+        IN_GUARD.set(true);
         try {
-            // 提取上下文
-            context = contextExtractor.extractContext(joinPoint);
+            DataAccessStage[] methodStages = pipeline.stages;
 
-            // 对于修改操作，可以在这里记录操作前的数据状态
-            // Object beforeData = getBeforeData(joinPoint); // 可选实现
+            // 1. 构建数据访问上下文（静态信息来自缓存的方法描述符）
+            DataAccessContext context = contextExtractor.extractContext(pipeline.descriptor);
 
-            // 执行方法
-            Object result = joinPoint.proceed();
+            // 2. 执行前置阶段（权限检查等），抛出异常则不执行目标方法
+            for (DataAccessStage stage : methodStages) {
+                stage.beforeInvocation(context);
+            }
 
-            // 记录影响的行数
-            if (result instanceof Number) {
-                context.setAffectedRows(((Number) result).intValue());
+            // 3. 执行原始方法
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = joinPoint.proceed();
+            } catch (Throwable ex) {
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                for (DataAccessStage stage : methodStages) {
+                    stage.afterThrowing(context, ex, elapsedMillis);
+                }
+                throw ex;
             }
 
-            // 对于修改操作，记录详细的数据变更日志
-            if (context.isModifyOperation()) {
-                // operationLogger.logWithDataChange(context, beforeData, afterData, result);
-                logger.info("数据修改操作: {} 影响行数: {}",
-                        context.getOperationSummary(),
-                        result instanceof Number ? result : "unknown");
+            // 4. 执行后置阶段（慢查询检测、修改日志、审计日志等）
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            for (DataAccessStage stage : methodStages) {
+                stage.afterReturning(context, result, elapsedMillis);
             }
 
             return result;
 
-        } catch (Exception e) {
-            if (context != null) {
-                logger.error("修改操作失败: {}", context.getOperationSummary(), e);
-            }
-
-            throw e;
         } finally {
+            // 确保守卫标志在任何情况下都能复位，避免递归拦截导致的栈溢出
             IN_GUARD.set(false);
         }
     }
@@ -269,6 +170,15 @@ public class DataAccessInterceptor {
      * @return 是否启用拦截器
      */
     public boolean isInterceptorEnabled() {
+        Boolean cached = interceptorEnabled;
+        if (cached == null) {
+            cached = computeInterceptorEnabled();
+            interceptorEnabled = cached;
+        }
+        return cached;
+    }
+
+    private boolean computeInterceptorEnabled() {
         if (!enabled) return false;
         try {
             if (excludeServices != null && !excludeServices.isEmpty() && applicationName != null && !applicationName.isEmpty()) {
@@ -283,10 +193,39 @@ public class DataAccessInterceptor {
         return true;
     }
 
-    private boolean isExcluded(org.aspectj.lang.JoinPoint joinPoint) {
+    /**
+     * 获取Mapper方法的处理流水线，首次调用时解析并缓存
+     */
+    private MethodPipeline pipelineFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodPipeline pipeline = pipelines.get(method);
+        if (pipeline == null) {
+            pipeline = pipelines.computeIfAbsent(method, m -> buildPipeline(joinPoint, m));
+        }
+        return pipeline;
+    }
+
+    private MethodPipeline buildPipeline(ProceedingJoinPoint joinPoint, Method method) {
+        if (isExcluded(method)) {
+            return PASS_THROUGH;
+        }
+        MapperMethodDescriptor descriptor = contextExtractor.describe(joinPoint);
+        List<DataAccessStage> selected = new ArrayList<>();
+        for (DataAccessStage stage : stages) {
+            if (stage.supports(descriptor)) {
+                selected.add(stage);
+            }
+        }
+        if (selected.isEmpty()) {
+            return PASS_THROUGH;
+        }
+        logger.debug("数据访问拦截流水线: {} -> {}", descriptor, selected);
+        return new MethodPipeline(descriptor, selected.toArray(new DataAccessStage[0]));
+    }
+
+    private boolean isExcluded(Method method) {
         try {
-            org.aspectj.lang.reflect.MethodSignature ms = (org.aspectj.lang.reflect.MethodSignature) joinPoint.getSignature();
-            Class<?> decl = ms.getMethod().getDeclaringClass();
+            Class<?> decl = method.getDeclaringClass();
             String name = decl != null ? decl.getName() : null;
             if (name == null) return false;
             return name.startsWith("com.example.common.mapper") || name.contains("ServicePermissionMapper") || name.startsWith("com.example.auth.mapper");
@@ -301,6 +240,20 @@ public class DataAccessInterceptor {
      * @return 拦截器统计信息
      */
     public String getInterceptorStats() {
-        return String.format("DataAccessInterceptor[enabled=%s]", isInterceptorEnabled());
+        return String.format("DataAccessInterceptor[enabled=%s, stages=%d, methods=%d]",
+                isInterceptorEnabled(), stages.size(), pipelines.size());
+    }
+
+    /**
+     * 单个Mapper方法的处理流水线：方法描述符加适用的阶段
+     */
+    private static final class MethodPipeline {
+        private final MapperMethodDescriptor descriptor;
+        private final DataAccessStage[] stages;
+
+        private MethodPipeline(MapperMethodDescriptor descriptor, DataAccessStage[] stages) {
+            this.descriptor = descriptor;
+            this.stages = stages;
+        }
     }
 }
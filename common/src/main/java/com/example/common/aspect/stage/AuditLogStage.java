@@ -0,0 +1,69 @@
+package com.example.common.aspect.stage;
+
+import com.example.common.dto.DataAccessContext;
+import com.example.common.service.DataOperationLogger;
+import com.example.common.utils.MapperMethodDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计日志阶段
+ *
+ * <p>标记操作完成并通过 {@link DataOperationLogger} 记录成功或失败的审计日志。
+ * 适用于所有被拦截的Mapper方法，排在其他阶段之后执行。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@Component
+@Order(1000)
+@ConditionalOnProperty(name = "data.access.interceptor.enabled", havingValue = "true", matchIfMissing = false)
+public class AuditLogStage implements DataAccessStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogStage.class);
+
+    @Autowired
+    private DataOperationLogger operationLogger;
+
+    public AuditLogStage() {
+    }
+
+    public AuditLogStage(DataOperationLogger operationLogger) {
+        this.operationLogger = operationLogger;
+    }
+
+    @Override
+    public boolean supports(MapperMethodDescriptor descriptor) {
+        return true;
+    }
+
+    @Override
+    public void afterReturning(DataAccessContext context, Object result, long elapsedMillis) {
+        context.markCompleted();
+        context.setResult(result);
+
+        operationLogger.logSuccess(context, result);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("数据访问成功: {} -> {}", context.getOperationSummary(),
+                    result != null ? result.getClass().getSimpleName() : "null");
+        }
+    }
+
+    @Override
+    public void afterThrowing(DataAccessContext context, Throwable ex, long elapsedMillis) {
+        if (ex instanceof Exception) {
+            context.markFailed((Exception) ex);
+            operationLogger.logFailure(context, (Exception) ex);
+        } else {
+            context.markCompleted();
+        }
+
+        logger.error("数据访问失败: {} 执行时间: {}ms", context.getOperationSummary(), elapsedMillis, ex);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.common.aspect.stage;
+
+import com.example.common.dto.DataAccessContext;
+import com.example.common.utils.MapperMethodDescriptor;
+
+/**
+ * 数据访问拦截阶段
+ *
+ * <p>{@link com.example.common.aspect.DataAccessInterceptor} 的可插拔处理阶段。
+ * 拦截器在每个Mapper方法首次被调用时，根据 {@link #supports(MapperMethodDescriptor)}
+ * 为该方法选出适用的阶段并缓存，之后每次调用只依次执行这些阶段，不再重复匹配。
+ *
+ * <p>阶段按 {@link org.springframework.core.annotation.Order} 排序执行，
+ * 各服务可以声明自己的 {@code DataAccessStage} Bean 加入拦截流程。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+public interface DataAccessStage {
+
+    /**
+     * 判断该阶段是否适用于指定的Mapper方法，每个方法只调用一次
+     *
+     * @param descriptor Mapper方法描述符
+     * @return 是否适用
+     */
+    boolean supports(MapperMethodDescriptor descriptor);
+
+    /**
+     * 目标方法执行前调用，抛出异常将阻止目标方法执行
+     *
+     * @param context 数据访问上下文
+     */
+    default void beforeInvocation(DataAccessContext context) {
+    }
+
+    /**
+     * 目标方法正常返回后调用
+     *
+     * @param context 数据访问上下文
+     * @param result 方法返回值
+     * @param elapsedMillis 目标方法执行耗时（毫秒）
+     */
+    default void afterReturning(DataAccessContext context, Object result, long elapsedMillis) {
+    }
+
+    /**
+     * 目标方法抛出异常后调用
+     *
+     * @param context 数据访问上下文
+     * @param ex 方法抛出的异常
+     * @param elapsedMillis 目标方法执行耗时（毫秒）
+     */
+    default void afterThrowing(DataAccessContext context, Throwable ex, long elapsedMillis) {
+    }
+}
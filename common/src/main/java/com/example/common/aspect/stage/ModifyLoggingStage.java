@@ -0,0 +1,44 @@
+package com.example.common.aspect.stage;
+
+import com.example.common.dto.DataAccessContext;
+import com.example.common.utils.MapperMethodDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 修改操作日志阶段
+ *
+ * <p>为INSERT、UPDATE、DELETE操作记录影响行数。只适用于修改类Mapper方法。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@Component
+@Order(300)
+@ConditionalOnProperty(name = "data.access.interceptor.enabled", havingValue = "true", matchIfMissing = false)
+public class ModifyLoggingStage implements DataAccessStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModifyLoggingStage.class);
+
+    @Override
+    public boolean supports(MapperMethodDescriptor descriptor) {
+        return descriptor.isModifyOperation();
+    }
+
+    @Override
+    public void afterReturning(DataAccessContext context, Object result, long elapsedMillis) {
+        // 记录影响的行数
+        if (result instanceof Number) {
+            context.setAffectedRows(((Number) result).intValue());
+        }
+
+        // operationLogger.logWithDataChange(context, beforeData, afterData, result);
+        logger.info("数据修改操作: {} 影响行数: {}",
+                context.getOperationSummary(),
+                result instanceof Number ? result : "unknown");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.common.aspect.stage;
+
+import com.example.common.dto.DataAccessContext;
+import com.example.common.exception.DataAccessDeniedException;
+import com.example.common.service.DataOperationLogger;
+import com.example.common.service.ServicePermissionChecker;
+import com.example.common.utils.MapperMethodDescriptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 权限检查阶段
+ *
+ * <p>在目标方法执行前校验服务对表的操作权限，无权限时记录拒绝日志并抛出 {@link DataAccessDeniedException}。
+ * 适用于所有被拦截的Mapper方法。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@Component
+@Order(100)
+@ConditionalOnProperty(name = "data.access.interceptor.enabled", havingValue = "true", matchIfMissing = false)
+public class PermissionCheckStage implements DataAccessStage {
+
+    @Autowired
+    private ServicePermissionChecker permissionChecker;
+
+    @Autowired
+    private DataOperationLogger operationLogger;
+
+    public PermissionCheckStage() {
+    }
+
+    public PermissionCheckStage(ServicePermissionChecker permissionChecker, DataOperationLogger operationLogger) {
+        this.permissionChecker = permissionChecker;
+        this.operationLogger = operationLogger;
+    }
+
+    @Override
+    public boolean supports(MapperMethodDescriptor descriptor) {
+        return true;
+    }
+
+    @Override
+    public void beforeInvocation(DataAccessContext context) {
+        if (!permissionChecker.hasPermission(context)) {
+            String reason = String.format("服务 [%s] 无权限对表 [%s] 执行 [%s] 操作",
+                    context.getServiceName(), context.getTableName(), context.getOperationType());
+
+            // 记录权限拒绝日志
+            operationLogger.logDenied(context, reason);
+
+            // 抛出权限拒绝异常
+            throw new DataAccessDeniedException(context, reason);
+        }
+    }
+}
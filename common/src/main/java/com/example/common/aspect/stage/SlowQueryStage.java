@@ -0,0 +1,59 @@
+package com.example.common.aspect.stage;
+
+import com.example.common.dto.DataAccessContext;
+import com.example.common.utils.MapperMethodDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 慢查询检测阶段
+ *
+ * <p>记录查询方法的执行耗时，超过阈值（默认1秒）时输出慢查询告警。
+ * 只适用于查询类Mapper方法。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@Component
+@Order(200)
+@ConditionalOnProperty(name = "data.access.interceptor.enabled", havingValue = "true", matchIfMissing = false)
+public class SlowQueryStage implements DataAccessStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryStage.class);
+
+    @Value("${data.access.interceptor.slow-query-threshold-ms:1000}")
+    private long slowQueryThresholdMs = 1000L;
+
+    public SlowQueryStage() {
+    }
+
+    public SlowQueryStage(long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    @Override
+    public boolean supports(MapperMethodDescriptor descriptor) {
+        return descriptor.isSelectOperation();
+    }
+
+    @Override
+    public void afterReturning(DataAccessContext context, Object result, long elapsedMillis) {
+        context.setExecutionTime((int) elapsedMillis);
+
+        // 检查是否为慢查询
+        if (elapsedMillis > slowQueryThresholdMs) {
+            logger.warn("检测到慢查询: {} 执行时间: {}ms",
+                    context.getOperationSummary(), elapsedMillis);
+        }
+    }
+
+    @Override
+    public void afterThrowing(DataAccessContext context, Throwable ex, long elapsedMillis) {
+        context.setExecutionTime((int) elapsedMillis);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.common.config;
+
+import com.example.common.service.PermissionNearCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 权限缓存配置
+ *
+ * <p>订阅权限缓存失效频道，使每个服务实例在其他实例修改或清理权限缓存时同步失效本地近端缓存。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@Configuration
+public class PermissionCacheConfig {
+
+    /**
+     * 权限缓存失效消息监听容器
+     */
+    @Bean
+    public RedisMessageListenerContainer permissionCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          PermissionNearCache permissionNearCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(permissionNearCache, new ChannelTopic(PermissionNearCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
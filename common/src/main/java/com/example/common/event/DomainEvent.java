@@ -42,9 +42,13 @@ import java.util.UUID;
 @JsonSubTypes({
     // 用户相关事件
     @JsonSubTypes.Type(value = com.example.common.event.domain.UserCreatedEvent.class, name = "UserCreatedEvent"),
+    @JsonSubTypes.Type(value = com.example.common.event.domain.UserStatusChangedEvent.class, name = "UserStatusChangedEvent"),
+    @JsonSubTypes.Type(value = com.example.common.event.domain.UserDeletedEvent.class, name = "UserDeletedEvent"),
     
     // 客资相关事件
     @JsonSubTypes.Type(value = com.example.common.event.domain.LeadCreatedEvent.class, name = "LeadCreatedEvent"),
+    @JsonSubTypes.Type(value = com.example.common.event.domain.LeadsAuditedEvent.class, name = "LeadsAuditedEvent"),
+    @JsonSubTypes.Type(value = com.example.common.event.domain.LeadFollowUpDueEvent.class, name = "LeadFollowUpDueEvent"),
     
     // 推广相关事件
     @JsonSubTypes.Type(value = com.example.common.event.domain.PromotionApprovedEvent.class, name = "PromotionApprovedEvent"),
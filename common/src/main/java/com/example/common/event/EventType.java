@@ -38,6 +38,7 @@ public enum EventType {
     LEAD_ASSIGNED("lead.assigned", "客资分配事件"),
     LEAD_CONVERTED("lead.converted", "客资转换成功事件"),
     LEAD_DUPLICATE_DETECTED("lead.duplicate.detected", "客资重复检测事件"),
+    LEAD_FOLLOW_UP_DUE("lead.follow-up.due", "客资跟进到期提醒事件"),
     
     // ========== 推广相关事件 ==========
     PROMOTION_SUBMITTED("promotion.submitted", "推广任务提交事件"),
@@ -0,0 +1,69 @@
+package com.example.common.event.domain;
+
+import com.example.common.event.DomainEvent;
+import com.example.common.event.EventType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * 客资跟进到期提醒事件
+ * 
+ * <p>客资距上次跟进超过跟进间隔时发布，同一时刻到期的客资按归属销售合并为一条事件，
+ * 由通知服务提醒销售跟进。
+ * 
+ * @author Event-Driven Architecture Team
+ * @since 1.0.0
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonTypeName("LeadFollowUpDueEvent")
+public class LeadFollowUpDueEvent extends DomainEvent {
+
+    /**
+     * 归属销售ID
+     */
+    @NotNull(message = "销售ID不能为空")
+    @JsonProperty("salespersonId")
+    private Long salespersonId;
+
+    /**
+     * 跟进到期的客资ID
+     */
+    @NotEmpty(message = "客资ID不能为空")
+    @JsonProperty("leadIds")
+    private List<Long> leadIds;
+
+    /**
+     * 创建跟进到期提醒事件
+     * 
+     * @param salespersonId 归属销售ID
+     * @param leadIds 跟进到期的客资ID
+     * @param correlationId 关联ID
+     * @return 跟进到期提醒事件
+     */
+    public static LeadFollowUpDueEvent create(Long salespersonId, List<Long> leadIds, String correlationId) {
+        return LeadFollowUpDueEvent.builder()
+                .salespersonId(salespersonId)
+                .leadIds(leadIds)
+                .correlationId(correlationId)
+                .eventType(EventType.LEAD_FOLLOW_UP_DUE)
+                .build();
+    }
+
+    @Override
+    public boolean isValid() {
+        return super.isValid()
+                && salespersonId != null
+                && leadIds != null && !leadIds.isEmpty();
+    }
+}
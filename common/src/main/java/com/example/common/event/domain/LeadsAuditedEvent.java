@@ -0,0 +1,111 @@
+package com.example.common.event.domain;
+
+import com.example.common.event.DomainEvent;
+import com.example.common.event.EventType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * 客资批量审核事件
+ * 
+ * <p>批量审核按块提交，每个块提交后发布一条聚合事件，包含该块内审核状态实际发生变化的客资。
+ * 同一次批量审核的各块事件使用相同的关联ID，事件类型按审核结果为
+ * {@link EventType#LEAD_APPROVED} 或 {@link EventType#LEAD_REJECTED}。
+ * 
+ * @author Event-Driven Architecture Team
+ * @since 1.0.0
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonTypeName("LeadsAuditedEvent")
+public class LeadsAuditedEvent extends DomainEvent {
+
+    /**
+     * 本块内审核状态发生变化的客资ID
+     */
+    @NotEmpty(message = "客资ID不能为空")
+    @JsonProperty("leadIds")
+    private List<Long> leadIds;
+
+    /**
+     * 审核后的状态（APPROVED / REJECTED）
+     */
+    @NotBlank(message = "审核状态不能为空")
+    @JsonProperty("auditStatus")
+    private String auditStatus;
+
+    /**
+     * 审核人ID
+     */
+    @JsonProperty("auditorId")
+    private Long auditorId;
+
+    /**
+     * 审核意见
+     */
+    @JsonProperty("comment")
+    private String comment;
+
+    /**
+     * 拒绝原因
+     */
+    @JsonProperty("rejectReason")
+    private String rejectReason;
+
+    /**
+     * 块序号（从1开始）
+     */
+    @JsonProperty("chunkIndex")
+    private int chunkIndex;
+
+    /**
+     * 本次批量审核的总块数
+     */
+    @JsonProperty("chunkCount")
+    private int chunkCount;
+
+    /**
+     * 创建批量审核事件
+     * 
+     * @param leadIds 审核状态发生变化的客资ID
+     * @param auditStatus 审核后的状态
+     * @param auditorId 审核人ID
+     * @param comment 审核意见
+     * @param rejectReason 拒绝原因
+     * @param chunkIndex 块序号
+     * @param chunkCount 总块数
+     * @param correlationId 关联ID（同一次批量审核相同）
+     * @return 批量审核事件
+     */
+    public static LeadsAuditedEvent create(List<Long> leadIds, String auditStatus, Long auditorId, String comment,
+                                           String rejectReason, int chunkIndex, int chunkCount, String correlationId) {
+        return LeadsAuditedEvent.builder()
+                .leadIds(leadIds)
+                .auditStatus(auditStatus)
+                .auditorId(auditorId)
+                .comment(comment)
+                .rejectReason(rejectReason)
+                .chunkIndex(chunkIndex)
+                .chunkCount(chunkCount)
+                .correlationId(correlationId)
+                .eventType("APPROVED".equals(auditStatus) ? EventType.LEAD_APPROVED : EventType.LEAD_REJECTED)
+                .build();
+    }
+
+    @Override
+    public boolean isValid() {
+        return super.isValid()
+                && leadIds != null && !leadIds.isEmpty()
+                && auditStatus != null && !auditStatus.trim().isEmpty();
+    }
+}
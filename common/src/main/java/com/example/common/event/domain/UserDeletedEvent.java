@@ -0,0 +1,81 @@
+package com.example.common.event.domain;
+
+import com.example.common.event.DomainEvent;
+import com.example.common.event.EventType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * 用户删除事件
+ * 
+ * <p>用户删除提交后发布，通知各服务清理与该用户关联的数据。批量删除时每个用户一条事件，
+ * 同一次批量操作的事件使用相同的关联ID。
+ * 
+ * @author Event-Driven Architecture Team
+ * @since 1.0.0
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonTypeName("UserDeletedEvent")
+public class UserDeletedEvent extends DomainEvent {
+
+    /**
+     * 用户ID
+     */
+    @NotNull(message = "用户ID不能为空")
+    @JsonProperty("userId")
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    @JsonProperty("username")
+    private String username;
+
+    /**
+     * 用户角色
+     */
+    @JsonProperty("role")
+    private String role;
+
+    /**
+     * 删除前的上级用户ID
+     */
+    @JsonProperty("parentId")
+    private Long parentId;
+
+    /**
+     * 创建用户删除事件
+     * 
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param role 用户角色
+     * @param parentId 删除前的上级用户ID
+     * @param correlationId 关联ID
+     * @return 用户删除事件
+     */
+    public static UserDeletedEvent create(Long userId, String username, String role, Long parentId,
+                                          String correlationId) {
+        return UserDeletedEvent.builder()
+                .userId(userId)
+                .username(username)
+                .role(role)
+                .parentId(parentId)
+                .correlationId(correlationId)
+                .eventType(EventType.USER_DELETED)
+                .build();
+    }
+
+    @Override
+    public boolean isValid() {
+        return super.isValid() && userId != null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.common.event.domain;
+
+import com.example.common.event.DomainEvent;
+import com.example.common.event.EventType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 用户状态变更事件
+ * 
+ * <p>用户状态（启用、停用、封禁等）实际发生变化并提交后发布。批量操作时每个用户一条事件，
+ * 同一次批量操作的事件使用相同的关联ID。
+ * 
+ * @author Event-Driven Architecture Team
+ * @since 1.0.0
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonTypeName("UserStatusChangedEvent")
+public class UserStatusChangedEvent extends DomainEvent {
+
+    /**
+     * 用户ID
+     */
+    @NotNull(message = "用户ID不能为空")
+    @JsonProperty("userId")
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    @JsonProperty("username")
+    private String username;
+
+    /**
+     * 变更前的状态
+     */
+    @JsonProperty("oldStatus")
+    private String oldStatus;
+
+    /**
+     * 变更后的状态
+     */
+    @NotBlank(message = "新状态不能为空")
+    @JsonProperty("newStatus")
+    private String newStatus;
+
+    /**
+     * 创建用户状态变更事件
+     * 
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param oldStatus 变更前的状态
+     * @param newStatus 变更后的状态
+     * @param correlationId 关联ID
+     * @return 用户状态变更事件
+     */
+    public static UserStatusChangedEvent create(Long userId, String username, String oldStatus, String newStatus,
+                                                String correlationId) {
+        return UserStatusChangedEvent.builder()
+                .userId(userId)
+                .username(username)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .correlationId(correlationId)
+                .eventType(EventType.USER_STATUS_CHANGED)
+                .build();
+    }
+
+    @Override
+    public boolean isValid() {
+        return super.isValid()
+                && userId != null
+                && newStatus != null && !newStatus.trim().isEmpty();
+    }
+}
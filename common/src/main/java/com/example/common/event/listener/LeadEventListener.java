@@ -131,10 +131,10 @@ public class LeadEventListener {
             logger.debug("分配客资给销售人员: leadId={}, submitterId={}", 
                 event.getLeadId(), event.getSubmitterId());
             
-            // TODO: 调用分配服务执行分配逻辑
-            // assignmentService.assignLeadToSales(event.getLeadId(), event.getSubmitterId());
+            // 归属销售由lead-service在创建客资时选择（LeadAssignmentEngine，lead.assignment.enabled），
+            // 事件到达时已完成分配，这里不再修改，避免与其他服务的消费者重复分配
             
-            logger.info("客资分配成功: leadId={}, submitterId={}", event.getLeadId(), event.getSubmitterId());
+            logger.info("客资分配已在创建时完成: leadId={}, submitterId={}", event.getLeadId(), event.getSubmitterId());
             
         } catch (Exception e) {
             logger.error("客资分配失败: leadId={}, submitterId={}", event.getLeadId(), event.getSubmitterId(), e);
@@ -0,0 +1,281 @@
+package com.example.common.service;
+
+import com.example.common.utils.JsonUtils;
+import com.example.common.utils.NGramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内关键词搜索索引
+ *
+ * <p>基于 {@link NGramIndex}，把关键词转换为候选ID列表，由Mapper按主键回表并用原LIKE条件复核，
+ * 避免LIKE '%keyword%' 扫描全表。子类提供数据加载方式和通知频道。
+ *
+ * <ul>
+ *   <li>候选包括索引命中的ID和基础段最大ID之后的全部ID（主键范围），其他服务直接写入的新数据不经过本索引也能查到</li>
+ *   <li>启动后异步按ID分批加载，加载完成前 {@link #search} 返回null，调用方按原方式查询</li>
+ *   <li>写入时先更新本实例，再通过Redis频道把文档内容广播给其他实例</li>
+ *   <li>修改只追加词元、删除不处理，多出的候选由回表复核过滤；增量写入累积过多或到达重建周期时重新加载</li>
+ *   <li>最近写入的文档在重建完成后重放到新索引，覆盖加载期间的写入</li>
+ * </ul>
+ */
+public abstract class NGramSearchIndex implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NGramSearchIndex.class);
+
+    /**
+     * 保留最近写入的文档数量
+     */
+    private static final int RECENT_DOCS_LIMIT = 10000;
+
+    private final String name;
+
+    private final String channel;
+
+    private final int maxCandidates;
+
+    private final int batchSize;
+
+    private final long rebuildIntervalMinutes;
+
+    private final double staleRebuildRatio;
+
+    @Autowired(required = false)
+    private StringRedisTemplate redis;
+
+    private volatile NGramIndex index;
+
+    private final Queue<String[]> recentDocs = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger recentDocsSize = new AtomicInteger();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param name 索引名称，用于线程名和日志
+     * @param channel 写入通知的Redis频道
+     * @param maxCandidates 候选ID数量上限，超过时视为关键词区分度太低，由调用方按原方式查询
+     * @param batchSize 重建时每批加载的文档数
+     * @param rebuildIntervalMinutes 定期重建周期（分钟）
+     * @param staleRebuildRatio 增量写入次数超过基础段文档数的该比例时提前重建
+     */
+    protected NGramSearchIndex(String name, String channel, int maxCandidates, int batchSize,
+                               long rebuildIntervalMinutes, double staleRebuildRatio) {
+        this.name = name;
+        this.channel = channel;
+        this.maxCandidates = maxCandidates;
+        this.batchSize = batchSize;
+        this.rebuildIntervalMinutes = rebuildIntervalMinutes;
+        this.staleRebuildRatio = staleRebuildRatio;
+    }
+
+    /**
+     * 按ID升序加载ID大于afterId的文档
+     *
+     * @return 每个文档为字符串数组，第一个元素是ID，其余是要索引的字段
+     */
+    protected abstract List<String[]> loadAfter(long afterId, int limit);
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 搜索关键词的候选ID
+     *
+     * @return 候选结果；索引未就绪、关键词不足两个字符或区分度太低时返回null
+     */
+    public Hits search(String keyword) {
+        NGramIndex current = index;
+        if (current == null) {
+            return null;
+        }
+        long[] ids = current.search(keyword, maxCandidates);
+        if (ids == null) {
+            return null;
+        }
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return new Hits(result, current.getBaseMaxId());
+    }
+
+    /**
+     * 索引新增或修改的文档并通知其他实例
+     */
+    public void index(long id, String... fields) {
+        indexAll(Collections.singletonList(document(id, fields)));
+    }
+
+    /**
+     * 批量索引文档并合并为一条通知
+     *
+     * @param documents 每个文档第一个元素是ID，其余是字段
+     */
+    public void indexAll(Collection<String[]> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        for (String[] document : documents) {
+            addLocal(document);
+        }
+        if (redis != null) {
+            try {
+                redis.convertAndSend(channel, JsonUtils.toJson(documents));
+            } catch (Exception e) {
+                log.warn("发送搜索索引通知失败: index={}, count={}", name, documents.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        List<String[]> documents = JsonUtils.fromJsonList(new String(message.getBody(), StandardCharsets.UTF_8), String[].class);
+        if (documents != null) {
+            documents.forEach(this::addLocal);
+        }
+    }
+
+    /**
+     * 从数据库重新加载索引，加载完成后整体替换
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            NGramIndex.Builder builder = NGramIndex.builder();
+            long afterId = 0;
+            while (true) {
+                List<String[]> documents = loadAfter(afterId, batchSize);
+                for (String[] document : documents) {
+                    long id = Long.parseLong(document[0]);
+                    builder.add(id, fields(document));
+                    afterId = id;
+                }
+                if (documents.size() < batchSize) {
+                    break;
+                }
+            }
+            NGramIndex next = builder.build();
+            index = next;
+            for (String[] document : recentDocs) {
+                next.add(Long.parseLong(document[0]), fields(document));
+            }
+            log.info("搜索索引加载完成: index={}, count={}, 耗时{}ms", name, next.getBaseDocCount(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("搜索索引加载失败，保留原索引: index={}", name, e);
+            if (index == null && scheduler != null && !scheduler.isShutdown()) {
+                scheduler.schedule(this::rebuild, 1, TimeUnit.MINUTES);
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    protected static String[] document(long id, String... fields) {
+        String[] document = new String[fields.length + 1];
+        document[0] = String.valueOf(id);
+        System.arraycopy(fields, 0, document, 1, fields.length);
+        return document;
+    }
+
+    private void addLocal(String[] document) {
+        if (document == null || document.length == 0) {
+            return;
+        }
+        recentDocs.offer(document);
+        if (recentDocsSize.incrementAndGet() > RECENT_DOCS_LIMIT && recentDocs.poll() != null) {
+            recentDocsSize.decrementAndGet();
+        }
+        NGramIndex current = index;
+        if (current == null) {
+            return;
+        }
+        current.add(Long.parseLong(document[0]), fields(document));
+        if (current.getDeltaDocCount() > Math.max(1000, current.getBaseDocCount() * staleRebuildRatio)
+                && scheduler != null && !rebuilding.get()) {
+            scheduler.execute(this::rebuild);
+        }
+    }
+
+    private static String[] fields(String[] document) {
+        String[] fields = new String[document.length - 1];
+        System.arraycopy(document, 1, fields, 0, fields.length);
+        return fields;
+    }
+
+    /**
+     * 搜索候选：ID在ids中或大于indexedUpToId的记录
+     */
+    public static final class Hits {
+
+        private final List<Long> ids;
+
+        private final long indexedUpToId;
+
+        public Hits(List<Long> ids, long indexedUpToId) {
+            this.ids = ids;
+            this.indexedUpToId = indexedUpToId;
+        }
+
+        /**
+         * 升序候选ID（须回表复核）
+         */
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        /**
+         * 索引基础段已覆盖的最大ID
+         */
+        public long getIndexedUpToId() {
+            return indexedUpToId;
+        }
+    }
+}
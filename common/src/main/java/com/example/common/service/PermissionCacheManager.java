@@ -1,25 +1,31 @@
 package com.example.common.service;
 
+import com.example.common.utils.RedisScanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 权限缓存管理器
  * 
- * <p>专门负责权限相关数据的Redis缓存管理，提供统一的缓存操作接口。
+ * <p>专门负责权限相关数据的两级缓存管理（本地近端缓存 + Redis），提供统一的缓存操作接口。
  * 该组件封装了权限缓存的具体实现细节，提供了缓存的读写、清理、统计等功能。
  * 
  * <p>主要功能：
  * <ul>
  *   <li>权限配置的缓存读写操作</li>
  *   <li>缓存的批量清理和模式匹配删除</li>
- *   <li>缓存统计和监控功能</li>
+ *   <li>缓存统计和监控功能（本实例计数 + 集群汇总）</li>
  *   <li>缓存降级和故障恢复机制</li>
  * </ul>
  * 
@@ -29,8 +35,13 @@ import java.util.concurrent.TimeUnit;
  *   <li>缓存键命名规范：perm:{serviceName}:{tableName}:{operationType}</li>
  *   <li>缓存值格式：权限级别代码（FULL/RESTRICTED/DENIED）</li>
  *   <li>支持缓存预热和批量操作</li>
+ *   <li>删除缓存时通过 {@link PermissionNearCache} 广播失效消息，模式删除使用SCAN分批进行</li>
  * </ul>
  * 
+ * <p>统计策略：命中/未命中先累加到本地 {@link LongAdder}，由后台线程按
+ * data.permission.cache.stats-flush-interval-ms（默认5000ms）定期把增量合并写入Redis的perm:stats，
+ * 缓存读取路径上不产生额外的Redis请求。
+ * 
  * @author Edom
  * @date 2025-08-01
  * @since 1.0.0
@@ -46,6 +57,51 @@ public class PermissionCacheManager {
     @Autowired
     private StringRedisTemplate redisTemplate;
     
+    @Autowired
+    private PermissionNearCache nearCache;
+    
+    @Value("${data.permission.cache.stats-flush-interval-ms:5000}")
+    private long statsFlushIntervalMs = 5000L;
+    
+    /**
+     * 本实例累计的命中/未命中次数
+     */
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    
+    /**
+     * 尚未写入Redis的命中/未命中增量
+     */
+    private final LongAdder pendingHits = new LongAdder();
+    private final LongAdder pendingMisses = new LongAdder();
+    
+    private ScheduledExecutorService statsFlusher;
+    
+    /**
+     * 启动统计信息定期刷新线程
+     */
+    @PostConstruct
+    public void start() {
+        statsFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "permission-cache-stats-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        statsFlusher.scheduleWithFixedDelay(this::flushStats,
+                statsFlushIntervalMs, statsFlushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 停止刷新线程并写入剩余的统计增量
+     */
+    @PreDestroy
+    public void stop() {
+        if (statsFlusher != null) {
+            statsFlusher.shutdownNow();
+        }
+        flushStats();
+    }
+    
     /**
      * 获取权限缓存
      * 
@@ -54,8 +110,14 @@ public class PermissionCacheManager {
      */
     public String getPermission(String cacheKey) {
         try {
-            String permission = redisTemplate.opsForValue().get(cacheKey);
+            String permission = nearCache.get(cacheKey);
+            if (permission != null) {
+                incrementCacheHit();
+                return permission;
+            }
+            permission = redisTemplate.opsForValue().get(cacheKey);
             if (permission != null) {
+                nearCache.put(cacheKey, permission);
                 // 记录缓存命中
                 incrementCacheHit();
                 log.debug("缓存命中: {} -> {}", cacheKey, permission);
@@ -91,6 +153,7 @@ public class PermissionCacheManager {
      * @param timeUnit 时间单位
      */
     public void cachePermission(String cacheKey, String permissionLevel, long timeout, TimeUnit timeUnit) {
+        nearCache.put(cacheKey, permissionLevel);
         try {
             redisTemplate.opsForValue().set(cacheKey, permissionLevel, timeout, timeUnit);
             log.debug("缓存权限配置: {} -> {} (TTL: {} {})", cacheKey, permissionLevel, timeout, timeUnit);
@@ -113,6 +176,9 @@ public class PermissionCacheManager {
         } catch (Exception e) {
             log.warn("删除权限缓存失败: cacheKey={}", cacheKey, e);
             return false;
+        } finally {
+            // 先删Redis再失效本地缓存，避免本地缓存被旧的Redis值重新填充
+            nearCache.invalidate(cacheKey);
         }
     }
     
@@ -124,16 +190,14 @@ public class PermissionCacheManager {
      */
     public long deletePermissionsByPattern(String pattern) {
         try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                Long deleted = redisTemplate.delete(keys);
-                log.info("批量删除权限缓存: pattern={}, count={}", pattern, deleted);
-                return deleted != null ? deleted : 0;
-            }
-            return 0;
+            long deleted = RedisScanUtils.deleteByPattern(redisTemplate, pattern);
+            log.info("批量删除权限缓存: pattern={}, count={}", pattern, deleted);
+            return deleted;
         } catch (Exception e) {
             log.warn("批量删除权限缓存失败: pattern={}", pattern, e);
             return 0;
+        } finally {
+            nearCache.invalidatePattern(pattern);
         }
     }
     
@@ -193,9 +257,13 @@ public class PermissionCacheManager {
     /**
      * 获取权限缓存统计信息
      * 
+     * <p>返回集群汇总数据（Redis中已合并的计数加上本实例尚未刷新的增量），
+     * 本实例的计数可通过 {@link CacheStats#getLocal()} 获取。Redis不可用时集群数据退化为本实例数据。
+     * 
      * @return 缓存统计信息
      */
     public CacheStats getCacheStats() {
+        CacheStats local = getLocalCacheStats();
         try {
             Object hitCountObj = redisTemplate.opsForHash().get(CACHE_STATS_KEY, "hit");
             Object missCountObj = redisTemplate.opsForHash().get(CACHE_STATS_KEY, "miss");
@@ -203,17 +271,30 @@ public class PermissionCacheManager {
             long hitCount = hitCountObj != null ? Long.parseLong(hitCountObj.toString()) : 0;
             long missCount = missCountObj != null ? Long.parseLong(missCountObj.toString()) : 0;
             
-            return new CacheStats(hitCount, missCount);
+            return new CacheStats(hitCount + pendingHits.sum(), missCount + pendingMisses.sum(), local);
         } catch (Exception e) {
             log.warn("获取缓存统计信息失败", e);
-            return new CacheStats(0, 0);
+            return new CacheStats(local.getHitCount(), local.getMissCount(), local);
         }
     }
     
+    /**
+     * 获取本实例的权限缓存统计信息（不访问Redis）
+     * 
+     * @return 本实例启动或重置以来的缓存统计信息
+     */
+    public CacheStats getLocalCacheStats() {
+        return new CacheStats(localHits.sum(), localMisses.sum());
+    }
+    
     /**
      * 重置缓存统计信息
      */
     public void resetCacheStats() {
+        localHits.reset();
+        localMisses.reset();
+        pendingHits.reset();
+        pendingMisses.reset();
         try {
             redisTemplate.delete(CACHE_STATS_KEY);
             log.info("重置权限缓存统计信息");
@@ -223,25 +304,42 @@ public class PermissionCacheManager {
     }
     
     /**
-     * 增加缓存命中计数
+     * 将本地统计增量合并写入Redis
+     * 写入失败时增量会加回，在下次刷新时重试
      */
-    private void incrementCacheHit() {
+    public void flushStats() {
+        long hits = pendingHits.sumThenReset();
+        long misses = pendingMisses.sumThenReset();
         try {
-            redisTemplate.opsForHash().increment(CACHE_STATS_KEY, "hit", 1);
+            if (hits > 0) {
+                redisTemplate.opsForHash().increment(CACHE_STATS_KEY, "hit", hits);
+                hits = 0;
+            }
+            if (misses > 0) {
+                redisTemplate.opsForHash().increment(CACHE_STATS_KEY, "miss", misses);
+                misses = 0;
+            }
         } catch (Exception e) {
-            log.debug("增加缓存命中计数失败", e);
+            pendingHits.add(hits);
+            pendingMisses.add(misses);
+            log.debug("刷新缓存统计信息失败", e);
         }
     }
     
+    /**
+     * 增加缓存命中计数
+     */
+    private void incrementCacheHit() {
+        localHits.increment();
+        pendingHits.increment();
+    }
+    
     /**
      * 增加缓存未命中计数
      */
     private void incrementCacheMiss() {
-        try {
-            redisTemplate.opsForHash().increment(CACHE_STATS_KEY, "miss", 1);
-        } catch (Exception e) {
-            log.debug("增加缓存未命中计数失败", e);
-        }
+        localMisses.increment();
+        pendingMisses.increment();
     }
     
     /**
@@ -250,10 +348,16 @@ public class PermissionCacheManager {
     public static class CacheStats {
         private final long hitCount;
         private final long missCount;
+        private final CacheStats local;
         
         public CacheStats(long hitCount, long missCount) {
+            this(hitCount, missCount, null);
+        }
+        
+        public CacheStats(long hitCount, long missCount, CacheStats local) {
             this.hitCount = hitCount;
             this.missCount = missCount;
+            this.local = local;
         }
         
         public long getHitCount() {
@@ -273,10 +377,18 @@ public class PermissionCacheManager {
             return total > 0 ? (double) hitCount / total : 0.0;
         }
         
+        /**
+         * 本实例的统计信息，仅集群汇总数据包含该项
+         */
+        public CacheStats getLocal() {
+            return local;
+        }
+        
         @Override
         public String toString() {
-            return String.format("CacheStats{hit=%d, miss=%d, total=%d, hitRate=%.2f%%}", 
+            String stats = String.format("CacheStats{hit=%d, miss=%d, total=%d, hitRate=%.2f%%", 
                     hitCount, missCount, getTotalCount(), getHitRate() * 100);
+            return local != null ? stats + ", local=" + local + "}" : stats + "}";
         }
     }
 }
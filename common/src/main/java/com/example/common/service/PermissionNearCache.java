@@ -0,0 +1,184 @@
+package com.example.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 权限本地近端缓存
+ *
+ * <p>位于Redis权限缓存（perm:*）之前的进程内缓存，命中时权限检查不产生任何网络IO。
+ * 缓存容量和TTL有上限，TTL同时是失效消息丢失时本地数据可能过期的最长时间。
+ *
+ * <p>失效通知：
+ * <ul>
+ *   <li>删除或清理权限缓存时，先失效本实例，再通过Redis pub/sub向频道 {@value #INVALIDATION_CHANNEL} 广播</li>
+ *   <li>消息内容为缓存键或带通配符的键模式，所有实例（包括发送方）收到后失效本地对应条目</li>
+ *   <li>订阅由 {@link com.example.common.config.PermissionCacheConfig} 注册</li>
+ * </ul>
+ *
+ * <p>配置项：
+ * <ul>
+ *   <li>data.permission.near-cache.max-size：最大条目数，默认10000</li>
+ *   <li>data.permission.near-cache.ttl-seconds：写入后过期时间，默认60秒</li>
+ * </ul>
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@Component
+public class PermissionNearCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionNearCache.class);
+
+    /**
+     * 权限缓存失效通知频道
+     */
+    public static final String INVALIDATION_CHANNEL = "perm:invalidate";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Cache<String, String> cache;
+
+    @Autowired
+    public PermissionNearCache(StringRedisTemplate redisTemplate,
+                               @Value("${data.permission.near-cache.max-size:10000}") long maxSize,
+                               @Value("${data.permission.near-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取本地缓存的权限级别
+     *
+     * @param cacheKey 缓存键
+     * @return 权限级别，未缓存返回null
+     */
+    public String get(String cacheKey) {
+        return cache.getIfPresent(cacheKey);
+    }
+
+    /**
+     * 写入本地缓存（不广播）
+     *
+     * @param cacheKey 缓存键
+     * @param permissionLevel 权限级别
+     */
+    public void put(String cacheKey, String permissionLevel) {
+        cache.put(cacheKey, permissionLevel);
+    }
+
+    /**
+     * 失效指定缓存键并通知其他实例
+     *
+     * @param cacheKey 缓存键
+     */
+    public void invalidate(String cacheKey) {
+        evictLocal(cacheKey);
+        publish(cacheKey);
+    }
+
+    /**
+     * 失效匹配模式的缓存键并通知其他实例
+     *
+     * @param pattern 缓存键模式，支持Redis风格的 * 和 ? 通配符
+     */
+    public void invalidatePattern(String pattern) {
+        evictLocal(pattern);
+        publish(pattern);
+    }
+
+    /**
+     * 只失效本实例的缓存，不广播
+     *
+     * @param keyOrPattern 缓存键或缓存键模式
+     * @return 失效的条目数
+     */
+    public int evictLocal(String keyOrPattern) {
+        if (keyOrPattern == null || keyOrPattern.isEmpty()) {
+            return 0;
+        }
+        if (!hasWildcard(keyOrPattern)) {
+            return cache.asMap().remove(keyOrPattern) != null ? 1 : 0;
+        }
+        Predicate<String> matcher = matcher(keyOrPattern);
+        int before = cache.asMap().size();
+        cache.asMap().keySet().removeIf(matcher);
+        return Math.max(0, before - cache.asMap().size());
+    }
+
+    /**
+     * 当前本地缓存条目数（近似值）
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 处理其他实例广播的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String keyOrPattern = new String(message.getBody(), StandardCharsets.UTF_8);
+        int evicted = evictLocal(keyOrPattern);
+        log.debug("收到权限缓存失效通知: {}, 本地失效 {} 条", keyOrPattern, evicted);
+    }
+
+    private void publish(String keyOrPattern) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, keyOrPattern);
+        } catch (Exception e) {
+            // 广播失败时其他实例的本地缓存最迟在TTL后过期
+            log.warn("发送权限缓存失效通知失败: {}", keyOrPattern, e);
+        }
+    }
+
+    private static boolean hasWildcard(String keyOrPattern) {
+        return keyOrPattern.indexOf('*') >= 0 || keyOrPattern.indexOf('?') >= 0;
+    }
+
+    /**
+     * 将Redis键模式转换为匹配器，只以 * 结尾的模式按前缀匹配
+     */
+    private static Predicate<String> matcher(String pattern) {
+        int firstWildcard = pattern.indexOf('*');
+        if (firstWildcard == pattern.length() - 1 && pattern.indexOf('?') < 0) {
+            String prefix = pattern.substring(0, firstWildcard);
+            return key -> key.startsWith(prefix);
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        Pattern compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        return key -> compiled.matcher(key).matches();
+    }
+}
@@ -4,6 +4,7 @@ import com.example.common.dto.DataAccessContext;
 import com.example.common.entity.ServiceDataPermission;
 import com.example.common.enums.PermissionLevel;
 import com.example.common.mapper.ServicePermissionMapper;
+import com.example.common.utils.RedisScanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,13 +25,14 @@ import java.util.concurrent.TimeUnit;
  * <ul>
  *   <li>验证服务对数据表的访问权限</li>
  *   <li>支持表级和操作级的细粒度权限控制</li>
- *   <li>集成Redis缓存机制提高查询性能</li>
+ *   <li>本地近端缓存 + Redis两级缓存提高查询性能</li>
  *   <li>支持权限级别的判断和条件验证</li>
  * </ul>
  * 
  * <p>权限检查流程：
  * <ol>
- *   <li>从缓存中查询权限配置</li>
+ *   <li>从本地近端缓存查询权限配置</li>
+ *   <li>本地未命中时查询Redis缓存</li>
  *   <li>如果缓存未命中，从数据库查询</li>
  *   <li>根据权限级别进行访问控制判断</li>
  *   <li>将查询结果缓存以提高后续性能</li>
@@ -39,8 +41,9 @@ import java.util.concurrent.TimeUnit;
  * <p>缓存策略：
  * <ul>
  *   <li>缓存键格式：perm:{serviceName}:{tableName}:{operationType}</li>
- *   <li>缓存TTL：1小时</li>
+ *   <li>缓存TTL：Redis 1小时，本地近端缓存见 {@link PermissionNearCache}</li>
  *   <li>缓存值：权限级别代码（FULL/RESTRICTED/DENIED）</li>
+ *   <li>清除缓存时通过Redis pub/sub通知所有实例失效本地缓存，按模式清除使用SCAN</li>
  * </ul>
  * 
  * @author Edom
@@ -62,6 +65,9 @@ public class ServicePermissionChecker {
     @Autowired
     private StringRedisTemplate redisTemplate;
     
+    @Autowired
+    private PermissionNearCache nearCache;
+    
     /**
      * 检查服务是否有权限访问指定的数据表和操作
      * 
@@ -82,21 +88,28 @@ public class ServicePermissionChecker {
             // 构建缓存键
             String cacheKey = buildCacheKey(serviceName, tableName, operationType);
             
-            // 1. 从缓存获取权限
-            String cachedPermission = redisTemplate.opsForValue().get(cacheKey);
+            // 1. 从本地近端缓存获取权限
+            String cachedPermission = nearCache.get(cacheKey);
+            if (cachedPermission != null) {
+                return !DENIED_PERMISSION.equals(cachedPermission);
+            }
+            
+            // 2. 从Redis缓存获取权限
+            cachedPermission = redisTemplate.opsForValue().get(cacheKey);
             if (cachedPermission != null) {
                 log.debug("从缓存获取权限: {} -> {}", cacheKey, cachedPermission);
+                nearCache.put(cacheKey, cachedPermission);
                 return !DENIED_PERMISSION.equals(cachedPermission);
             }
             
-            // 2. 从数据库查询权限
+            // 3. 从数据库查询权限
             ServiceDataPermission permission = permissionMapper.findPermission(serviceName, tableName, operationType);
             
-            // 3. 判断权限级别
+            // 4. 判断权限级别
             String permissionLevel = evaluatePermission(permission);
             boolean hasAccess = !DENIED_PERMISSION.equals(permissionLevel);
             
-            // 4. 缓存结果
+            // 5. 缓存结果
             cachePermission(cacheKey, permissionLevel);
             
             log.debug("权限检查结果: serviceName={}, tableName={}, operationType={}, result={}, level={}", 
@@ -155,6 +168,7 @@ public class ServicePermissionChecker {
     public void clearPermissionCache(String serviceName, String tableName, String operationType) {
         String cacheKey = buildCacheKey(serviceName, tableName, operationType);
         redisTemplate.delete(cacheKey);
+        nearCache.invalidate(cacheKey);
         log.info("清除权限缓存: {}", cacheKey);
     }
     
@@ -165,8 +179,9 @@ public class ServicePermissionChecker {
      */
     public void clearServicePermissionCache(String serviceName) {
         String pattern = PERMISSION_CACHE_PREFIX + serviceName + ":*";
-        redisTemplate.delete(redisTemplate.keys(pattern));
-        log.info("清除服务权限缓存: {}", pattern);
+        long deleted = RedisScanUtils.deleteByPattern(redisTemplate, pattern);
+        nearCache.invalidatePattern(pattern);
+        log.info("清除服务权限缓存: {}, count={}", pattern, deleted);
     }
     
     /**
@@ -221,12 +236,13 @@ public class ServicePermissionChecker {
     }
     
     /**
-     * 缓存权限结果
+     * 缓存权限结果（同时写入本地近端缓存和Redis）
      * 
      * @param cacheKey 缓存键
      * @param permissionLevel 权限级别
      */
     private void cachePermission(String cacheKey, String permissionLevel) {
+        nearCache.put(cacheKey, permissionLevel);
         try {
             redisTemplate.opsForValue().set(cacheKey, permissionLevel, CACHE_TTL_HOURS, TimeUnit.HOURS);
             log.debug("缓存权限结果: {} -> {}", cacheKey, permissionLevel);
@@ -0,0 +1,197 @@
+package com.example.common.utils;
+
+import java.util.Arrays;
+
+/**
+ * 上下级关系索引
+ *
+ * <p>保存每个节点的上级（{@link LongLongHashMap}，节点ID -> 上级ID），并按欧拉序为每个节点编号：
+ * 深度优先遍历时进入节点记为enter，离开时记为exit，X是Y的下级当且仅当 enter(Y) &lt; enter(X) &lt; exit(Y)，
+ * 判断只需两次哈希查找和一次区间比较。
+ *
+ * <p>修改上级关系后编号失效，在下一次 {@link #renumber} 之前判断改为沿上级链向上查找（只读内存）。
+ * 调用方应在修改后尽快（可以合并多次修改）调用 {@link #renumber}，重新编号的开销与节点总数成正比。
+ *
+ * <p>线程安全：修改和沿上级链查找已同步；编号有效时的判断不加锁。
+ */
+public final class AncestryIndex {
+
+    /**
+     * 上级ID：没有上级
+     */
+    public static final long ROOT = 0L;
+
+    /**
+     * 上级ID：节点不在索引中
+     */
+    public static final long MISSING = -1L;
+
+    private final LongLongHashMap parents;
+
+    /**
+     * 节点ID -> (enter &lt;&lt; 32 | exit)；上级关系修改后为null，直到重新编号
+     */
+    private volatile LongLongHashMap intervals;
+
+    public AncestryIndex(int expectedSize) {
+        this.parents = new LongLongHashMap(expectedSize, MISSING);
+    }
+
+    /**
+     * 新增节点或修改节点的上级，节点的下级随之移动
+     *
+     * @param parentId 上级ID，没有上级时传 {@link #ROOT}
+     */
+    public synchronized void setParent(long id, long parentId) {
+        if (parents.put(id, parentId) != parentId) {
+            intervals = null;
+        }
+    }
+
+    /**
+     * 删除节点，其直属下级变为没有上级（与users表外键ON DELETE SET NULL一致）
+     */
+    public synchronized void remove(long id) {
+        if (parents.remove(id) == MISSING) {
+            return;
+        }
+        intervals = null;
+        long[] children = new long[parents.size()];
+        int[] count = new int[1];
+        parents.forEach((child, parent) -> {
+            if (parent == id) {
+                children[count[0]++] = child;
+            }
+        });
+        for (int i = 0; i < count[0]; i++) {
+            parents.put(children[i], ROOT);
+        }
+    }
+
+    /**
+     * 节点的上级ID
+     *
+     * @return 上级ID；没有上级时返回 {@link #ROOT}，节点不在索引中时返回 {@link #MISSING}
+     */
+    public synchronized long parentOf(long id) {
+        return parents.get(id);
+    }
+
+    public synchronized boolean contains(long id) {
+        return parents.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return parents.size();
+    }
+
+    /**
+     * 编号是否有效（上次编号后没有修改）
+     */
+    public boolean isNumbered() {
+        return intervals != null;
+    }
+
+    /**
+     * 判断id是否为ancestorId的（直属或间接）下级，节点本身不算自己的下级
+     *
+     * @return 任一节点不在索引中时返回false
+     */
+    public boolean isDescendant(long id, long ancestorId) {
+        if (id == ancestorId) {
+            return false;
+        }
+        LongLongHashMap current = intervals;
+        if (current != null) {
+            long descendant = current.get(id);
+            long ancestor = current.get(ancestorId);
+            if (descendant == MISSING || ancestor == MISSING) {
+                return false;
+            }
+            long enter = descendant >>> 32;
+            return (ancestor >>> 32) < enter && enter < (ancestor & 0xFFFFFFFFL);
+        }
+        return walk(id, ancestorId);
+    }
+
+    /**
+     * 按当前上级关系重新编号，编号有效时直接返回
+     */
+    public synchronized void renumber() {
+        if (intervals != null) {
+            return;
+        }
+        int n = parents.size();
+        long[] ids = new long[n];
+        long[] parentIds = new long[n];
+        int[] count = new int[1];
+        parents.forEach((id, parent) -> {
+            ids[count[0]] = id;
+            parentIds[count[0]++] = parent;
+        });
+        LongLongHashMap positions = new LongLongHashMap(n, MISSING);
+        for (int i = 0; i < n; i++) {
+            positions.put(ids[i], i);
+        }
+
+        // 下级链表：firstChild[i]为i的第一个下级，nextSibling[c]为c的下一个兄弟
+        int[] firstChild = new int[n];
+        int[] nextSibling = new int[n];
+        Arrays.fill(firstChild, -1);
+        int[] roots = new int[n];
+        int rootCount = 0;
+        for (int i = 0; i < n; i++) {
+            long parent = parentIds[i] == ROOT ? MISSING : positions.get(parentIds[i]);
+            if (parent == MISSING) {
+                roots[rootCount++] = i;
+            } else {
+                nextSibling[i] = firstChild[(int) parent];
+                firstChild[(int) parent] = i;
+            }
+        }
+
+        // 非递归深度优先遍历；成环的节点没有根可达，不编号
+        LongLongHashMap next = new LongLongHashMap(n, MISSING);
+        int[] stack = new int[n];
+        int[] cursor = firstChild.clone();
+        long[] enter = new long[n];
+        long clock = 0;
+        for (int r = 0; r < rootCount; r++) {
+            int depth = 0;
+            stack[depth++] = roots[r];
+            enter[roots[r]] = clock++;
+            while (depth > 0) {
+                int top = stack[depth - 1];
+                int child = cursor[top];
+                if (child >= 0) {
+                    cursor[top] = nextSibling[child];
+                    enter[child] = clock++;
+                    stack[depth++] = child;
+                } else {
+                    next.put(ids[top], (enter[top] << 32) | clock);
+                    depth--;
+                }
+            }
+        }
+        intervals = next;
+    }
+
+    private synchronized boolean walk(long id, long ancestorId) {
+        if (!parents.containsKey(ancestorId)) {
+            return false;
+        }
+        long current = id;
+        // 最多走节点总数步，防止成环时死循环
+        for (int i = parents.size(); i > 0; i--) {
+            long parent = parents.get(current);
+            if (parent == ROOT || parent == MISSING) {
+                return false;
+            }
+            if (parent == ancestorId) {
+                return true;
+            }
+            current = parent;
+        }
+        return false;
+    }
+}
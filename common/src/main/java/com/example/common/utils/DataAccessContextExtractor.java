@@ -15,7 +15,10 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 
 /**
  * 数据访问上下文提取器
@@ -29,6 +32,7 @@ import java.util.UUID;
  *   <li>获取当前服务名和用户信息</li>
  *   <li>提取HTTP请求的上下文信息</li>
  *   <li>生成唯一的请求标识</li>
+ *   <li>按Mapper方法缓存静态元数据，避免每次调用重复反射解析</li>
  * </ul>
  * 
  * <p>提取规则：
@@ -50,46 +54,65 @@ public class DataAccessContextExtractor {
 
     private static final String DEFAULT_SERVICE_NAME = "unknown-service";
 
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final String REQUEST_ID_ATTRIBUTE = DataAccessContextExtractor.class.getName() + ".REQUEST_ID";
+
+    private static final Pattern CAMEL_BOUNDARY = Pattern.compile("([a-z])([A-Z])");
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Mapper方法静态元数据缓存，Mapper方法集合有限，无需淘汰
+     */
+    private final ConcurrentMap<Method, MapperMethodDescriptor> descriptorCache = new ConcurrentHashMap<>();
+
     @Autowired(required = false)
     private Environment environment;
     
     /**
      * 从AOP切点提取数据访问上下文
      * 
+     * <p>服务名、表名、操作类型等静态信息按Mapper方法缓存，每次调用只解析用户和请求相关的动态字段。
+     * 
      * @param joinPoint AOP切点
      * @return 数据访问上下文
      */
     public DataAccessContext extractContext(ProceedingJoinPoint joinPoint) {
         try {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            Method method = signature.getMethod();
-            
-            // 提取基本信息
-            String serviceName = extractServiceName(joinPoint);
-            String tableName = extractTableName(joinPoint);
-            String operationType = extractOperationType(method);
-            String methodName = method.getName();
-            
-            // 提取用户和请求信息
-            Long userId = extractUserId();
-            String ipAddress = extractIpAddress();
-            String userAgent = extractUserAgent();
-            String requestId = generateRequestId();
+            return extractContext(describe(joinPoint));
+        } catch (Exception e) {
+            log.error("提取数据访问上下文失败", e);
+            return createDefaultContext();
+        }
+    }
+    
+    /**
+     * 基于已解析的方法描述符构建数据访问上下文
+     * 
+     * @param descriptor Mapper方法描述符
+     * @return 数据访问上下文
+     */
+    public DataAccessContext extractContext(MapperMethodDescriptor descriptor) {
+        try {
+            // 一次获取当前请求，填充用户和请求信息
+            HttpServletRequest request = getCurrentRequest();
             
-            // 构建上下文
             DataAccessContext context = DataAccessContext.builder()
-                .requestId(requestId)
-                .serviceName(serviceName)
-                .tableName(tableName)
-                .operationType(operationType)
-                .userId(userId)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .methodName(methodName)
+                .requestId(resolveRequestId(request))
+                .serviceName(descriptor.getServiceName())
+                .tableName(descriptor.getTableName())
+                .operationType(descriptor.getOperationType())
+                .userId(extractUserId(request))
+                .ipAddress(extractIpAddress(request))
+                .userAgent(extractUserAgent(request))
+                .methodName(descriptor.getMethodName())
                 .startTime(LocalDateTime.now())
                 .build();
             
-            log.debug("提取数据访问上下文: {}", context.getOperationSummary());
+            if (log.isDebugEnabled()) {
+                log.debug("提取数据访问上下文: {}", descriptor.getOperationSummary());
+            }
             
             return context;
             
@@ -99,6 +122,32 @@ public class DataAccessContextExtractor {
         }
     }
     
+    /**
+     * 获取切点对应Mapper方法的描述符，首次访问时解析并缓存
+     * 
+     * @param joinPoint AOP切点
+     * @return Mapper方法描述符
+     */
+    public MapperMethodDescriptor describe(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        MapperMethodDescriptor descriptor = descriptorCache.get(method);
+        if (descriptor == null) {
+            descriptor = descriptorCache.computeIfAbsent(method, m -> new MapperMethodDescriptor(m,
+                extractServiceName(joinPoint), extractTableName(joinPoint), extractOperationType(m)));
+        }
+        return descriptor;
+    }
+    
+    /**
+     * 已缓存的Mapper方法描述符数量
+     * 
+     * @return 缓存大小
+     */
+    public int getCachedDescriptorCount() {
+        return descriptorCache.size();
+    }
+    
     /**
      * 提取服务名称
      * 
@@ -189,16 +238,16 @@ public class DataAccessContextExtractor {
     /**
      * 提取用户ID
      * 
+     * @param request 当前HTTP请求，可能为空
      * @return 用户ID
      */
-    private Long extractUserId() {
+    private Long extractUserId(HttpServletRequest request) {
         try {
             // TODO: 从安全上下文或会话中获取用户ID
             // 这里需要根据实际的用户认证机制来实现
             // 例如：从JWT token、Session、SecurityContext等获取
             
             // 临时实现：从请求头中获取
-            HttpServletRequest request = getCurrentRequest();
             if (request != null) {
                 String userIdHeader = request.getHeader("X-User-Id");
                 if (StringUtils.hasText(userIdHeader)) {
@@ -217,11 +266,11 @@ public class DataAccessContextExtractor {
     /**
      * 提取客户端IP地址
      * 
+     * @param request 当前HTTP请求，可能为空
      * @return IP地址
      */
-    private String extractIpAddress() {
+    private String extractIpAddress(HttpServletRequest request) {
         try {
-            HttpServletRequest request = getCurrentRequest();
             if (request == null) {
                 return null;
             }
@@ -259,11 +308,11 @@ public class DataAccessContextExtractor {
     /**
      * 提取用户代理信息
      * 
+     * @param request 当前HTTP请求，可能为空
      * @return User-Agent
      */
-    private String extractUserAgent() {
+    private String extractUserAgent(HttpServletRequest request) {
         try {
-            HttpServletRequest request = getCurrentRequest();
             return request != null ? request.getHeader("User-Agent") : null;
         } catch (Exception e) {
             log.debug("提取User-Agent失败", e);
@@ -271,13 +320,51 @@ public class DataAccessContextExtractor {
         }
     }
     
+    /**
+     * 获取请求唯一标识
+     * 
+     * <p>同一次HTTP请求内的多个数据操作共享同一个请求ID：优先使用上游传入的X-Request-Id，
+     * 否则生成后缓存在请求属性中；非Web调用每次生成新的ID。
+     * 
+     * @param request 当前HTTP请求，可能为空
+     * @return 请求ID
+     */
+    private String resolveRequestId(HttpServletRequest request) {
+        if (request == null) {
+            return generateRequestId();
+        }
+        Object cached = request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        if (cached instanceof String) {
+            return (String) cached;
+        }
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (!StringUtils.hasText(requestId)) {
+            requestId = generateRequestId();
+        }
+        request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+        return requestId;
+    }
+    
     /**
      * 生成请求唯一标识
      * 
+     * <p>使用ThreadLocalRandom生成32位十六进制ID，避免UUID.randomUUID()在SecureRandom上的竞争。
+     * 
      * @return 请求ID
      */
     private String generateRequestId() {
-        return UUID.randomUUID().toString().replace("-", "");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] buf = new char[32];
+        fillHex(buf, 0, random.nextLong());
+        fillHex(buf, 16, random.nextLong());
+        return new String(buf);
+    }
+    
+    private static void fillHex(char[] buf, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            buf[offset + i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
     }
     
     /**
@@ -306,7 +393,7 @@ public class DataAccessContextExtractor {
             return camelCase;
         }
         
-        return camelCase.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+        return CAMEL_BOUNDARY.matcher(camelCase).replaceAll("$1_$2").toLowerCase();
     }
     
     /**
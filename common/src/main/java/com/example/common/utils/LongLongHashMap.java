@@ -0,0 +1,199 @@
+package com.example.common.utils;
+
+import java.util.Arrays;
+
+/**
+ * long到long的开放寻址哈希表
+ *
+ * <p>键和值直接存放在基本类型数组中（线性探测，删除时回移后续元素），不为每个条目创建对象，
+ * 适合常驻内存、条目数以十万计的映射。不存在的键返回构造时指定的缺省值，因此缺省值不能作为有效值存入。
+ *
+ * <p>非线程安全，并发访问由调用方同步。
+ */
+public final class LongLongHashMap {
+
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final long missingValue;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private boolean[] used;
+
+    private int mask;
+
+    private int size;
+
+    private int resizeAt;
+
+    /**
+     * @param expectedSize 预计条目数
+     * @param missingValue 键不存在时返回的值
+     */
+    public LongLongHashMap(int expectedSize, long missingValue) {
+        this.missingValue = missingValue;
+        allocate(capacityFor(Math.max(expectedSize, 4)));
+    }
+
+    /**
+     * 查询键对应的值
+     *
+     * @return 值；键不存在时返回缺省值
+     */
+    public long get(long key) {
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 写入键值
+     *
+     * @return 原值；键原先不存在时返回缺省值
+     */
+    public long put(long key, long value) {
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            resize(keys.length << 1);
+        }
+        return missingValue;
+    }
+
+    /**
+     * 删除键
+     *
+     * @return 原值；键不存在时返回缺省值
+     */
+    public long remove(long key) {
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * 遍历全部条目，遍历过程中不能修改本表
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 条目回调
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    /**
+     * 删除slot处的条目后，把同一探测链上后面的条目前移，保证查找不会在空位提前结束
+     */
+    private void shiftBack(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (used[next]) {
+            int home = slotOf(keys[next]);
+            // home不在(hole, next]区间内时，next处的条目可以移到hole
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[hole] = false;
+    }
+
+    private int slotOf(long key) {
+        long h = key * PHI;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / 0.75) + 1;
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("条目数过大: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.common.utils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Mapper方法描述符
+ *
+ * <p>保存一个Mapper方法在数据访问拦截中用到的静态元数据（服务名、表名、操作类型、方法名）。
+ * 这些信息只依赖于方法本身，由 {@link DataAccessContextExtractor} 在每个方法首次被拦截时解析一次并缓存，
+ * 之后每次调用只需填充用户、请求等动态字段。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+public final class MapperMethodDescriptor {
+
+    private final Method method;
+
+    private final String serviceName;
+
+    private final String tableName;
+
+    private final String operationType;
+
+    private final String methodName;
+
+    private final String operationSummary;
+
+    public MapperMethodDescriptor(Method method, String serviceName, String tableName, String operationType) {
+        this.method = method;
+        this.serviceName = serviceName;
+        this.tableName = tableName;
+        this.operationType = operationType;
+        this.methodName = method != null ? method.getName() : null;
+        this.operationSummary = String.format("Service[%s] %s on table[%s]", serviceName, operationType, tableName);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * 预先格式化的操作简要描述，与 {@code DataAccessContext#getOperationSummary()} 格式一致
+     */
+    public String getOperationSummary() {
+        return operationSummary;
+    }
+
+    /**
+     * 检查是否为查询操作
+     */
+    public boolean isSelectOperation() {
+        return "SELECT".equals(operationType);
+    }
+
+    /**
+     * 检查是否为修改操作
+     */
+    public boolean isModifyOperation() {
+        return "INSERT".equals(operationType) ||
+               "UPDATE".equals(operationType) ||
+               "DELETE".equals(operationType);
+    }
+
+    @Override
+    public String toString() {
+        return "MapperMethodDescriptor[" + operationSummary + ", method=" + methodName + "]";
+    }
+}
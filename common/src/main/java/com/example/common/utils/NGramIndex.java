@@ -0,0 +1,323 @@
+package com.example.common.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * N元组倒排索引，用于关键词子串搜索的候选ID过滤
+ *
+ * <p>每个文档由若干字段组成，字段内每两个、每三个相邻字符（忽略大小写）各构成一个词元，不跨字段。
+ * 搜索时关键词不少于三个字符用三元组，两个字符用二元组，从文档最少的词元开始求交集，得到<b>候选</b>ID：
+ * 包含关键词的文档一定在候选中，但候选不一定包含关键词（词元不相邻、文档已修改或删除），
+ * 需要由调用方按ID回表并用原条件复核。
+ *
+ * <p>结构：
+ * <ul>
+ *   <li>基础段：由 {@link Builder} 按ID升序批量构建，倒排表为差值+变长编码的字节数组，构建后不可变</li>
+ *   <li>增量段：构建后新增或修改的文档，按词元记录ID集合</li>
+ * </ul>
+ * 修改文档只追加新词元，不删除旧词元，过期的候选由调用方复核时过滤，增量累积到一定程度后应重新构建。
+ *
+ * <p>线程安全：搜索与增量写入可以并发。
+ */
+public final class NGramIndex {
+
+    /**
+     * 基础段倒排表：词元 -> 编码后的ID列表
+     */
+    private final Map<Long, Postings> base;
+
+    private final long baseDocCount;
+
+    private final long baseMaxId;
+
+    private final Map<Long, Set<Long>> delta = new ConcurrentHashMap<>();
+
+    private final AtomicLong deltaDocCount = new AtomicLong();
+
+    private NGramIndex(Map<Long, Postings> base, long baseDocCount, long baseMaxId) {
+        this.base = base;
+        this.baseDocCount = baseDocCount;
+        this.baseMaxId = baseMaxId;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 新增或修改文档（写入增量段）
+     *
+     * @param id 文档ID
+     * @param fields 字段值，null视为空
+     */
+    public void add(long id, String... fields) {
+        for (String field : fields) {
+            forEachGram(field, gram -> delta.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+        deltaDocCount.incrementAndGet();
+    }
+
+    /**
+     * 搜索候选ID
+     *
+     * @param keyword 关键词，忽略大小写
+     * @param maxCandidates 候选数量上限
+     * @return 升序排列的候选ID；关键词不足两个字符或候选超过上限（关键词区分度太低）时返回null
+     */
+    public long[] search(String keyword, int maxCandidates) {
+        String q = normalize(keyword);
+        if (q.length() < 2) {
+            return null;
+        }
+        int n = q.length() >= 3 ? 3 : 2;
+        long[] grams = new long[q.length() - n + 1];
+        long[] sizes = new long[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = n == 3 ? trigram(q.charAt(i), q.charAt(i + 1), q.charAt(i + 2)) : bigram(q.charAt(i), q.charAt(i + 1));
+            sizes[i] = size(grams[i]);
+            if (sizes[i] == 0) {
+                return new long[0];
+            }
+        }
+        // 按倒排表长度从小到大求交集，候选足够少后不再扫描更长的倒排表
+        Integer[] order = new Integer[grams.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(sizes[a], sizes[b]));
+        long[] candidates = ids(grams[order[0]]);
+        for (int i = 1; i < order.length && candidates.length > 0; i++) {
+            if (candidates.length <= maxCandidates && sizes[order[i]] > (long) candidates.length * 64) {
+                break;
+            }
+            candidates = intersect(candidates, grams[order[i]]);
+        }
+        return candidates.length > maxCandidates ? null : candidates;
+    }
+
+    /**
+     * 基础段文档数
+     */
+    public long getBaseDocCount() {
+        return baseDocCount;
+    }
+
+    /**
+     * 基础段最大文档ID，基础段为空时为0
+     */
+    public long getBaseMaxId() {
+        return baseMaxId;
+    }
+
+    /**
+     * 构建后写入增量段的次数
+     */
+    public long getDeltaDocCount() {
+        return deltaDocCount.get();
+    }
+
+    private long size(long gram) {
+        Postings postings = base.get(gram);
+        Set<Long> extra = delta.get(gram);
+        return (postings != null ? postings.count : 0) + (extra != null ? extra.size() : 0);
+    }
+
+    /**
+     * 词元对应的全部ID（基础段与增量段合并、去重、升序）
+     */
+    private long[] ids(long gram) {
+        Postings postings = base.get(gram);
+        Set<Long> extra = delta.get(gram);
+        long[] merged = new long[(postings != null ? postings.count : 0) + (extra != null ? extra.size() + 16 : 0)];
+        int n = 0;
+        if (postings != null) {
+            PostingsIterator it = postings.iterator();
+            while (it.hasNext()) {
+                merged[n++] = it.next();
+            }
+        }
+        if (extra != null) {
+            for (Long id : extra) {
+                if (n == merged.length) {
+                    merged = Arrays.copyOf(merged, n * 2);
+                }
+                merged[n++] = id;
+            }
+        }
+        Arrays.sort(merged, 0, n);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || merged[unique - 1] != merged[i]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, unique);
+    }
+
+    private long[] intersect(long[] candidates, long gram) {
+        Postings postings = base.get(gram);
+        Set<Long> extra = delta.get(gram);
+        long[] out = new long[candidates.length];
+        int n = 0;
+        PostingsIterator it = postings != null ? postings.iterator() : null;
+        long current = it != null && it.hasNext() ? it.next() : Long.MAX_VALUE;
+        for (long id : candidates) {
+            while (current < id) {
+                current = it.hasNext() ? it.next() : Long.MAX_VALUE;
+            }
+            if (current == id || (extra != null && extra.contains(id))) {
+                out[n++] = id;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 二元组占低32位，并以第48位区分三元组
+     */
+    private static long bigram(char first, char second) {
+        return (1L << 48) | ((long) first << 16) | second;
+    }
+
+    private static long trigram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static void forEachGram(String field, GramConsumer consumer) {
+        String text = normalize(field);
+        for (int i = 0; i + 1 < text.length(); i++) {
+            consumer.accept(bigram(text.charAt(i), text.charAt(i + 1)));
+            if (i + 2 < text.length()) {
+                consumer.accept(trigram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    /**
+     * 基础段构建器，文档须按ID严格升序添加
+     */
+    public static final class Builder {
+
+        private final Map<Long, PostingsWriter> writers = new HashMap<>();
+
+        private long lastId = Long.MIN_VALUE;
+
+        private long docCount;
+
+        private Builder() {
+        }
+
+        /**
+         * @throws IllegalArgumentException ID不是严格升序
+         */
+        public Builder add(long id, String... fields) {
+            if (id <= lastId) {
+                throw new IllegalArgumentException("文档ID必须严格升序: " + id + " <= " + lastId);
+            }
+            lastId = id;
+            for (String field : fields) {
+                forEachGram(field, gram -> writers.computeIfAbsent(gram, k -> new PostingsWriter()).add(id));
+            }
+            docCount++;
+            return this;
+        }
+
+        public NGramIndex build() {
+            Map<Long, Postings> postings = new HashMap<>(writers.size() * 4 / 3 + 1);
+            writers.forEach((gram, writer) -> postings.put(gram, writer.toPostings()));
+            writers.clear();
+            return new NGramIndex(postings, docCount, docCount > 0 ? lastId : 0);
+        }
+    }
+
+    /**
+     * 升序ID列表：第一个ID及之后的差值按7位一组变长编码
+     */
+    private static final class Postings {
+        private final byte[] data;
+        private final int count;
+
+        private Postings(byte[] data, int count) {
+            this.data = data;
+            this.count = count;
+        }
+
+        private PostingsIterator iterator() {
+            return new PostingsIterator(this);
+        }
+    }
+
+    private static final class PostingsIterator {
+        private final Postings postings;
+        private int position;
+        private int remaining;
+        private long value;
+
+        private PostingsIterator(Postings postings) {
+            this.postings = postings;
+            this.remaining = postings.count;
+        }
+
+        private boolean hasNext() {
+            return remaining > 0;
+        }
+
+        private long next() {
+            byte[] data = postings.data;
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            remaining--;
+            value += delta;
+            return value;
+        }
+    }
+
+    private static final class PostingsWriter {
+        private byte[] data = new byte[8];
+        private int length;
+        private int count;
+        private long last;
+
+        private void add(long id) {
+            if (count > 0 && id == last) {
+                return;
+            }
+            long delta = id - last;
+            last = id;
+            count++;
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((delta & ~0x7FL) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+        }
+
+        private Postings toPostings() {
+            return new Postings(Arrays.copyOf(data, length), count);
+        }
+    }
+}
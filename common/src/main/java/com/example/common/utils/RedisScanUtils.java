@@ -0,0 +1,68 @@
+package com.example.common.utils;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis SCAN工具类
+ * 使用增量式的SCAN代替KEYS遍历匹配的键，避免在键数量较多时长时间阻塞Redis
+ */
+public final class RedisScanUtils {
+
+    /**
+     * 每次SCAN建议返回的键数量，同时也是批量删除的批次大小
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private RedisScanUtils() {
+        // 私有构造方法，防止实例化
+    }
+
+    /**
+     * 按模式批量删除键
+     *
+     * @param redisTemplate Redis模板
+     * @param pattern 键模式（支持通配符）
+     * @return 删除的键数量
+     */
+    public static long deleteByPattern(RedisTemplate<String, ?> redisTemplate, String pattern) {
+        return deleteByPattern(redisTemplate, pattern, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 按模式批量删除键
+     * 每扫描到batchSize个键执行一次DEL，不会一次性把所有匹配的键加载到内存
+     *
+     * @param redisTemplate Redis模板
+     * @param pattern 键模式（支持通配符）
+     * @param batchSize 每批删除的键数量
+     * @return 删除的键数量
+     */
+    public static long deleteByPattern(RedisTemplate<String, ?> redisTemplate, String pattern, int batchSize) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        List<String> batch = new ArrayList<>(batchSize);
+        long deleted = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize) {
+                    deleted += deleteBatch(redisTemplate, batch);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(redisTemplate, batch);
+        }
+        return deleted;
+    }
+
+    private static long deleteBatch(RedisTemplate<String, ?> redisTemplate, List<String> batch) {
+        Long count = redisTemplate.delete(batch);
+        batch.clear();
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 可扩容布隆过滤器
+ *
+ * <p>用于判断一个字符串"一定不存在"或"可能存在"。当前分段写满预期容量后自动追加一个容量翻倍、
+ * 误判率减半的新分段，整体误判率不超过构造时指定的值。
+ *
+ * <p>线程安全：读写均无锁，只有追加分段时加锁。布隆过滤器不支持删除，
+ * 已删除的元素会一直被判定为"可能存在"，需要由使用方定期重建。
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveProbability;
+
+    private final CopyOnWriteArrayList<Stage> stages = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * @param initialCapacity 第一个分段的预期元素数量
+     * @param falsePositiveProbability 整体误判率上限，取值 (0, 1)
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveProbability) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability must be in (0, 1)");
+        }
+        this.falsePositiveProbability = falsePositiveProbability;
+        // 各分段误判率按等比数列分配，总和不超过falsePositiveProbability
+        stages.add(new Stage(initialCapacity, falsePositiveProbability * (1 - TIGHTENING_RATIO)));
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     * @return 元素此前是否一定不存在（false表示可能已经存在）
+     */
+    public boolean put(String value) {
+        long[] hashes = hash(value);
+        if (mightContain(hashes)) {
+            return false;
+        }
+        Stage stage = currentStage();
+        stage.put(hashes[0], hashes[1]);
+        count.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 判断元素是否可能存在
+     *
+     * @param value 元素
+     * @return false表示一定不存在，true表示可能存在
+     */
+    public boolean mightContain(String value) {
+        return mightContain(hash(value));
+    }
+
+    /**
+     * 已添加的（去重后）元素数量
+     */
+    public long approximateCount() {
+        return count.get();
+    }
+
+    /**
+     * 所有分段占用的位数
+     */
+    public long bitSize() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.numBits;
+        }
+        return bits;
+    }
+
+    public int stageCount() {
+        return stages.size();
+    }
+
+    private boolean mightContain(long[] hashes) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(hashes[0], hashes[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Stage currentStage() {
+        Stage last = stages.get(stages.size() - 1);
+        if (last.size.get() < last.capacity) {
+            return last;
+        }
+        synchronized (stages) {
+            last = stages.get(stages.size() - 1);
+            if (last.size.get() >= last.capacity) {
+                double fpp = falsePositiveProbability * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, stages.size());
+                last = new Stage(last.capacity * GROWTH_FACTOR, fpp);
+                stages.add(last);
+            }
+            return last;
+        }
+    }
+
+    /**
+     * 64位FNV-1a散列后用两个不同的混合函数得到双重散列所需的两个值
+     */
+    private static long[] hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        long h1 = mix(h);
+        long h2 = mix(h ^ 0x9e3779b97f4a7c15L) | 1L;
+        return new long[]{h1, h2};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 固定容量的布隆过滤器分段
+     */
+    private static final class Stage {
+
+        private final long capacity;
+
+        private final long numBits;
+
+        private final int numHashFunctions;
+
+        private final AtomicLongArray bits;
+
+        private final AtomicLong size = new AtomicLong();
+
+        Stage(long capacity, double fpp) {
+            double ln2 = Math.log(2);
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (ln2 * ln2));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+            this.capacity = capacity;
+            this.numBits = (long) words << 6;
+            this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / capacity * ln2));
+            this.bits = new AtomicLongArray(words);
+        }
+
+        void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashFunctions; i++) {
+                long index = (combined & Long.MAX_VALUE) % numBits;
+                setBit(index);
+                combined += h2;
+            }
+            size.incrementAndGet();
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashFunctions; i++) {
+                long index = (combined & Long.MAX_VALUE) % numBits;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private void setBit(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.example.common.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 来源渠道规则匹配器
+ *
+ * <p>由一组渠道规则一次性编译成不可变的查找结构，线程安全，可在多线程间共享：
+ * <ul>
+ *   <li>UTM参数：按参数名、参数值（忽略大小写）查表，值为 * 的规则匹配该参数的任意取值</li>
+ *   <li>referrer域名：按域名标签倒序构建后缀树，取最长匹配（www.baidu.com 命中 baidu.com）</li>
+ *   <li>正则：以上都未命中时按顺序匹配完整referrer</li>
+ * </ul>
+ * UTM优先于referrer，多条规则冲突时priority大的优先，priority相同时先定义的优先。
+ * 规则变更时重新编译一个新的匹配器替换旧实例。
+ */
+public final class SourceRuleMatcher {
+
+    public static final String MATCHED_BY_UTM = "UTM";
+    public static final String MATCHED_BY_HOST = "HOST";
+    public static final String MATCHED_BY_PATTERN = "PATTERN";
+    public static final String MATCHED_BY_DEFAULT = "DEFAULT";
+
+    private static final String ANY_VALUE = "*";
+
+    /**
+     * 优先检查的UTM参数，其余参数按名称排序
+     */
+    private static final List<String> UTM_KEY_ORDER = List.of("utm_source", "utm_medium", "utm_campaign");
+
+    private final List<Rule> rules;
+
+    private final Map<String, Rule> rulesById;
+
+    private final HostNode hostRoot;
+
+    private final String[] utmKeys;
+
+    private final Map<String, Map<String, Rule>> utmValues;
+
+    private final Map<String, Rule> utmAnyValue;
+
+    private final Pattern[] patterns;
+
+    private final Rule[] patternRules;
+
+    private final Match defaultMatch;
+
+    private SourceRuleMatcher(List<Rule> rules, Rule defaultRule) {
+        this.rules = rules;
+        this.rulesById = new LinkedHashMap<>();
+        this.hostRoot = new HostNode();
+        this.utmValues = new HashMap<>();
+        this.utmAnyValue = new HashMap<>();
+        List<Pattern> compiledPatterns = new ArrayList<>();
+        List<Rule> compiledPatternRules = new ArrayList<>();
+        for (Rule rule : rules) {
+            rulesById.putIfAbsent(rule.getId(), rule);
+            for (String host : rule.getHosts()) {
+                addHost(normalizeHost(host), rule);
+            }
+            for (Map.Entry<String, List<String>> entry : rule.getUtm().entrySet()) {
+                String key = entry.getKey().toLowerCase(Locale.ROOT);
+                for (String value : entry.getValue()) {
+                    String v = value.trim().toLowerCase(Locale.ROOT);
+                    if (ANY_VALUE.equals(v)) {
+                        utmAnyValue.putIfAbsent(key, rule);
+                    } else {
+                        utmValues.computeIfAbsent(key, k -> new HashMap<>()).putIfAbsent(v, rule);
+                    }
+                }
+            }
+            for (String regex : rule.getPatterns()) {
+                try {
+                    compiledPatterns.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("来源规则[" + rule.getId() + "]的正则表达式无效: " + regex, e);
+                }
+                compiledPatternRules.add(rule);
+            }
+        }
+        List<String> keys = new ArrayList<>(utmValues.keySet());
+        utmAnyValue.keySet().stream().filter(k -> !utmValues.containsKey(k)).forEach(keys::add);
+        keys.sort(Comparator.comparingInt((String k) -> UTM_KEY_ORDER.contains(k) ? UTM_KEY_ORDER.indexOf(k) : UTM_KEY_ORDER.size())
+                .thenComparing(Comparator.naturalOrder()));
+        this.utmKeys = keys.toArray(new String[0]);
+        this.patterns = compiledPatterns.toArray(new Pattern[0]);
+        this.patternRules = compiledPatternRules.toArray(new Rule[0]);
+        this.defaultMatch = new Match(defaultRule, MATCHED_BY_DEFAULT, 0.3);
+    }
+
+    /**
+     * 编译规则
+     *
+     * @param rules 渠道规则，id不能为空
+     * @param defaultSource 所有规则都未命中时使用的来源ID，可以是规则中的ID
+     * @throws IllegalArgumentException 规则缺少ID、正则表达式无效或默认来源为空
+     */
+    public static SourceRuleMatcher compile(List<Rule> rules, String defaultSource) {
+        if (defaultSource == null || defaultSource.trim().isEmpty()) {
+            throw new IllegalArgumentException("默认来源不能为空");
+        }
+        List<Rule> sorted = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            if (rule.getId() == null || rule.getId().trim().isEmpty()) {
+                throw new IllegalArgumentException("来源规则缺少id");
+            }
+            sorted.add(rule);
+        }
+        // 稳定排序：priority相同时保持定义顺序
+        sorted.sort(Comparator.comparingInt(Rule::getPriority).reversed());
+        Rule defaultRule = sorted.stream().filter(r -> r.getId().equals(defaultSource)).findFirst()
+                .orElseGet(() -> Rule.of(defaultSource, defaultSource, null));
+        return new SourceRuleMatcher(Collections.unmodifiableList(sorted), defaultRule);
+    }
+
+    /**
+     * 识别来源：先查UTM参数，再查referrer，都未命中时返回默认来源
+     */
+    public Match match(String referrer, Map<String, String> utmParams) {
+        Match match = matchUtm(utmParams);
+        if (match == null) {
+            match = matchReferrer(referrer);
+        }
+        return match != null ? match : defaultMatch;
+    }
+
+    /**
+     * 只按UTM参数识别，未命中时返回null
+     */
+    public Match matchUtm(Map<String, String> utmParams) {
+        if (utmParams == null || utmParams.isEmpty()) {
+            return null;
+        }
+        for (String key : utmKeys) {
+            String value = utmParams.get(key);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            Map<String, Rule> values = utmValues.get(key);
+            Rule rule = values != null ? values.get(value.trim().toLowerCase(Locale.ROOT)) : null;
+            if (rule == null) {
+                rule = utmAnyValue.get(key);
+            }
+            if (rule != null) {
+                return new Match(rule, MATCHED_BY_UTM, 0.95);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 只按referrer识别（域名后缀、正则），未命中时返回null
+     */
+    public Match matchReferrer(String referrer) {
+        if (referrer == null || referrer.isEmpty()) {
+            return null;
+        }
+        Match match = matchHost(extractHost(referrer));
+        return match != null ? match : matchPattern(referrer);
+    }
+
+    /**
+     * 只按域名后缀识别，未命中时返回null
+     *
+     * @param host {@link #extractHost} 取出的域名
+     */
+    public Match matchHost(String host) {
+        if (host == null || host.isEmpty()) {
+            return null;
+        }
+        Rule rule = findHostRule(host);
+        return rule != null ? new Match(rule, MATCHED_BY_HOST, 0.9) : null;
+    }
+
+    /**
+     * 只按正则识别完整的referrer，未命中时返回null
+     */
+    public Match matchPattern(String referrer) {
+        if (referrer == null) {
+            return null;
+        }
+        for (int i = 0; i < patterns.length; i++) {
+            if (patterns[i].matcher(referrer).find()) {
+                return new Match(patternRules[i], MATCHED_BY_PATTERN, 0.7);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按ID查找规则
+     */
+    public Rule find(String id) {
+        return id != null ? rulesById.get(id) : null;
+    }
+
+    /**
+     * 按关键词提示来源：ID或名称以关键词开头的排在前面，其次是包含关键词的
+     *
+     * @param keyword 关键词，为空时按规则顺序返回
+     * @param limit 最多返回的数量
+     */
+    public List<Rule> suggest(String keyword, int limit) {
+        String kw = keyword != null ? keyword.trim().toLowerCase(Locale.ROOT) : "";
+        List<Rule> prefix = new ArrayList<>();
+        List<Rule> contains = new ArrayList<>();
+        for (Rule rule : rulesById.values()) {
+            String id = rule.getId().toLowerCase(Locale.ROOT);
+            String name = rule.getName() != null ? rule.getName().toLowerCase(Locale.ROOT) : "";
+            if (id.startsWith(kw) || name.startsWith(kw)) {
+                prefix.add(rule);
+            } else if (id.contains(kw) || name.contains(kw)) {
+                contains.add(rule);
+            }
+            if (prefix.size() >= limit) {
+                break;
+            }
+        }
+        prefix.addAll(contains);
+        return prefix.size() > limit ? prefix.subList(0, limit) : prefix;
+    }
+
+    /**
+     * 未命中任何规则时的结果
+     */
+    public Match getDefaultMatch() {
+        return defaultMatch;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * 取referrer中的域名（小写，不含端口和用户信息），无协议头时按域名开头处理
+     */
+    public static String extractHost(String referrer) {
+        int start = referrer.indexOf("://");
+        start = start >= 0 ? start + 3 : 0;
+        int end = referrer.length();
+        for (int i = start; i < referrer.length(); i++) {
+            char c = referrer.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        int at = referrer.lastIndexOf('@', end - 1);
+        if (at >= start) {
+            start = at + 1;
+        }
+        int colon = referrer.indexOf(':', start);
+        if (colon >= 0 && colon < end) {
+            end = colon;
+        }
+        return referrer.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    private Rule findHostRule(String host) {
+        HostNode node = hostRoot;
+        Rule best = null;
+        int end = host.length();
+        while (end > 0) {
+            int dot = host.lastIndexOf('.', end - 1);
+            node = node.children.get(host.substring(dot + 1, end));
+            if (node == null) {
+                break;
+            }
+            if (node.rule != null) {
+                best = node.rule;
+            }
+            end = dot;
+        }
+        return best;
+    }
+
+    private void addHost(String host, Rule rule) {
+        if (host.isEmpty()) {
+            return;
+        }
+        HostNode node = hostRoot;
+        int end = host.length();
+        while (end > 0) {
+            int dot = host.lastIndexOf('.', end - 1);
+            node = node.children.computeIfAbsent(host.substring(dot + 1, end), k -> new HostNode());
+            end = dot;
+        }
+        if (node.rule == null) {
+            node.rule = rule;
+        }
+    }
+
+    private static String normalizeHost(String host) {
+        String h = host.trim().toLowerCase(Locale.ROOT);
+        if (h.startsWith("*.")) {
+            h = h.substring(2);
+        } else if (h.startsWith(".")) {
+            h = h.substring(1);
+        }
+        return h;
+    }
+
+    private static final class HostNode {
+        private final Map<String, HostNode> children = new HashMap<>(4);
+        private Rule rule;
+    }
+
+    /**
+     * 渠道规则
+     */
+    public static class Rule {
+
+        /**
+         * 来源ID，如 baidu
+         */
+        private String id;
+
+        /**
+         * 显示名称，如 百度
+         */
+        private String name;
+
+        /**
+         * 分类，如 搜索、社交
+         */
+        private String category;
+
+        /**
+         * 域名后缀，如 baidu.com
+         */
+        private List<String> hosts = new ArrayList<>();
+
+        /**
+         * UTM参数名到取值列表，取值 * 表示任意值
+         */
+        private Map<String, List<String>> utm = new LinkedHashMap<>();
+
+        /**
+         * 匹配完整referrer的正则表达式（忽略大小写）
+         */
+        private List<String> patterns = new ArrayList<>();
+
+        private int priority;
+
+        public static Rule of(String id, String name, String category) {
+            Rule rule = new Rule();
+            rule.setId(id);
+            rule.setName(name);
+            rule.setCategory(category);
+            return rule;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public List<String> getHosts() {
+            return hosts;
+        }
+
+        public void setHosts(List<String> hosts) {
+            this.hosts = hosts != null ? hosts : new ArrayList<>();
+        }
+
+        public Map<String, List<String>> getUtm() {
+            return utm;
+        }
+
+        public void setUtm(Map<String, List<String>> utm) {
+            this.utm = utm != null ? utm : new LinkedHashMap<>();
+        }
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns != null ? patterns : new ArrayList<>();
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * 匹配结果
+     */
+    public static final class Match {
+
+        private final Rule rule;
+
+        private final String matchedBy;
+
+        private final double confidence;
+
+        Match(Rule rule, String matchedBy, double confidence) {
+            this.rule = rule;
+            this.matchedBy = matchedBy;
+            this.confidence = confidence;
+        }
+
+        public Rule getRule() {
+            return rule;
+        }
+
+        public String getSource() {
+            return rule.getId();
+        }
+
+        /**
+         * 命中方式：UTM、HOST、PATTERN、DEFAULT
+         */
+        public String getMatchedBy() {
+            return matchedBy;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+}
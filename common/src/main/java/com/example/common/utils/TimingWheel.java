@@ -0,0 +1,158 @@
+package com.example.common.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 哈希时间轮
+ *
+ * <p>按到期时间把任务放入环形数组的槽位（每个槽位代表tickMillis毫秒），超过一圈的任务在经过时跳过，
+ * 直到所在的那一圈。调度、取消的开销与任务总数无关，推进时只检查经过的槽位。
+ * 任务按键唯一：同一个键重新调度时替换原任务。
+ *
+ * <p>时间轮不带线程，由调用方定期调用 {@link #advance} 推进；到期时间早于当前时间的任务在下一次推进时到期。
+ * 方法均已同步，可以由多个线程调用。
+ *
+ * @param <K> 任务键
+ * @param <V> 任务内容
+ */
+public final class TimingWheel<K, V> {
+
+    private final long tickMillis;
+
+    private final int mask;
+
+    private final List<Entry<K, V>>[] buckets;
+
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+
+    /**
+     * 已处理到的刻度（时间 / tickMillis）
+     */
+    private long currentTick;
+
+    /**
+     * @param tickMillis 每个槽位的时长（毫秒）
+     * @param ticksPerWheel 槽位数，向上取整为2的幂
+     * @param startMillis 起始时间，早于该时间的刻度视为已处理
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int ticksPerWheel, long startMillis) {
+        if (tickMillis <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickMillis和ticksPerWheel必须大于0");
+        }
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * 调度任务，已存在相同键的任务时替换
+     */
+    public synchronized void schedule(K key, long deadlineMillis, V value) {
+        Entry<K, V> previous = entries.remove(key);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+        Entry<K, V> entry = new Entry<>(key, value, deadlineMillis, tick);
+        buckets[(int) (tick & mask)].add(entry);
+        entries.put(key, entry);
+    }
+
+    /**
+     * 取消任务
+     *
+     * @return 任务是否存在
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * 任务的到期时间，任务不存在时返回null
+     */
+    public synchronized Long deadlineOf(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null ? entry.deadlineMillis : null;
+    }
+
+    /**
+     * 待到期任务数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清空全部任务，并从指定时间重新开始
+     */
+    public synchronized void reset(long startMillis) {
+        for (List<Entry<K, V>> bucket : buckets) {
+            bucket.clear();
+        }
+        entries.clear();
+        currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * 推进到指定时间
+     *
+     * @return 到期的任务内容；推进不超过一圈时按到期刻度排列
+     */
+    public synchronized List<V> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        if (target <= currentTick) {
+            return new ArrayList<>(0);
+        }
+        List<V> expired = new ArrayList<>();
+        // 跨越超过一圈时每个槽位只需检查一次
+        long steps = Math.min(target - currentTick, buckets.length);
+        for (long tick = currentTick + 1; tick <= currentTick + steps; tick++) {
+            List<Entry<K, V>> bucket = buckets[(int) (tick & mask)];
+            int kept = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                Entry<K, V> entry = bucket.get(i);
+                if (entry.cancelled) {
+                    continue;
+                }
+                if (entry.tick <= target) {
+                    entries.remove(entry.key);
+                    expired.add(entry.value);
+                } else {
+                    bucket.set(kept++, entry);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+        }
+        currentTick = target;
+        return expired;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadlineMillis;
+        private final long tick;
+        private boolean cancelled;
+
+        private Entry(K key, V value, long deadlineMillis, long tick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.common.utils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 流式XLSX写出（单个工作表）
+ *
+ * <p>先写出工作簿的固定部件，再用StAX把每一行直接写入压缩包中的工作表XML，
+ * 不构建工作簿对象，只占用固定大小的缓冲区，适合把游标查询结果直接写到HTTP响应。
+ * 字符串写为内联字符串（不使用共享字符串表），数值写为数值单元格，超过15位有效数字的整数写为字符串以免丢失精度；
+ * null写为空单元格，时间按 yyyy-MM-dd HH:mm:ss 格式化，XML不允许的控制字符会被去掉。
+ */
+public class XlsxWriter implements Flushable, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 单元格最大字符数
+     */
+    private static final int MAX_CELL_LENGTH = 32767;
+
+    /**
+     * Excel数值的有效数字位数
+     */
+    private static final long MAX_EXACT_NUMBER = 999_999_999_999_999L;
+
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final String CONTENT_TYPES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+            + "</Types>";
+
+    private static final String ROOT_RELS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+
+    private static final String WORKBOOK_RELS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+            + "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>"
+            + "</Relationships>";
+
+    private static final String STYLES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<styleSheet xmlns=\"" + NS_MAIN + "\">"
+            + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+            + "</styleSheet>";
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final ZipOutputStream zip;
+
+    private final XMLStreamWriter sheet;
+
+    private long rowCount;
+
+    /**
+     * @param out 输出流，{@link #close} 时一并关闭
+     * @param sheetName 工作表名称
+     */
+    public XlsxWriter(OutputStream out, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), StandardCharsets.UTF_8);
+        try {
+            writeEntry("[Content_Types].xml", CONTENT_TYPES);
+            writeEntry("_rels/.rels", ROOT_RELS);
+            writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+            writeEntry("xl/styles.xml", STYLES);
+            writeWorkbook(sheetName);
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            this.sheet = XML_OUTPUT_FACTORY.createXMLStreamWriter(zip, "UTF-8");
+            sheet.writeStartDocument("UTF-8", "1.0");
+            sheet.writeStartElement("worksheet");
+            sheet.writeDefaultNamespace(NS_MAIN);
+            sheet.writeStartElement("sheetData");
+        } catch (XMLStreamException e) {
+            throw new IOException("写出XLSX失败", e);
+        }
+    }
+
+    public XlsxWriter writeRow(Object... values) throws IOException {
+        long rowNumber = rowCount + 1;
+        try {
+            sheet.writeStartElement("row");
+            sheet.writeAttribute("r", String.valueOf(rowNumber));
+            for (int i = 0; i < values.length; i++) {
+                writeCell(columnName(i) + rowNumber, values[i]);
+            }
+            sheet.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException("写出XLSX失败", e);
+        }
+        rowCount = rowNumber;
+        return this;
+    }
+
+    public XlsxWriter writeRow(List<?> values) throws IOException {
+        return writeRow(values.toArray());
+    }
+
+    /**
+     * 已写出的行数（含表头）
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            sheet.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("写出XLSX失败", e);
+        }
+        zip.flush();
+    }
+
+    /**
+     * 结束工作表并写出压缩包目录，关闭输出流
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.writeEndElement();
+            sheet.writeEndElement();
+            sheet.writeEndDocument();
+            sheet.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("写出XLSX失败", e);
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void writeCell(String ref, Object value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        sheet.writeStartElement("c");
+        sheet.writeAttribute("r", ref);
+        if (value instanceof Boolean) {
+            sheet.writeAttribute("t", "b");
+            writeValue((Boolean) value ? "1" : "0");
+        } else if (isExactNumber(value)) {
+            writeValue(value.toString());
+        } else {
+            sheet.writeAttribute("t", "inlineStr");
+            sheet.writeStartElement("is");
+            sheet.writeStartElement("t");
+            sheet.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "space", "preserve");
+            sheet.writeCharacters(text(value));
+            sheet.writeEndElement();
+            sheet.writeEndElement();
+        }
+        sheet.writeEndElement();
+    }
+
+    private void writeValue(String v) throws XMLStreamException {
+        sheet.writeStartElement("v");
+        sheet.writeCharacters(v);
+        sheet.writeEndElement();
+    }
+
+    private void writeWorkbook(String sheetName) throws IOException, XMLStreamException {
+        zip.putNextEntry(new ZipEntry("xl/workbook.xml"));
+        XMLStreamWriter workbook = XML_OUTPUT_FACTORY.createXMLStreamWriter(zip, "UTF-8");
+        workbook.writeStartDocument("UTF-8", "1.0");
+        workbook.writeStartElement("workbook");
+        workbook.writeDefaultNamespace(NS_MAIN);
+        workbook.writeNamespace("r", NS_RELATIONSHIPS);
+        workbook.writeStartElement("sheets");
+        workbook.writeEmptyElement("sheet");
+        workbook.writeAttribute("name", sanitize(sheetName));
+        workbook.writeAttribute("sheetId", "1");
+        workbook.writeAttribute("r", NS_RELATIONSHIPS, "id", "rId1");
+        workbook.writeEndElement();
+        workbook.writeEndElement();
+        workbook.writeEndDocument();
+        workbook.close();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static boolean isExactNumber(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return true;
+        }
+        if (value instanceof Long) {
+            return Math.abs((Long) value) <= MAX_EXACT_NUMBER;
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).abs().compareTo(BigInteger.valueOf(MAX_EXACT_NUMBER)) <= 0;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).precision() <= 15;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return !Double.isNaN(d) && !Double.isInfinite(d);
+        }
+        return false;
+    }
+
+    private static String text(Object value) {
+        String text;
+        if (value instanceof LocalDateTime) {
+            text = DateUtils.formatDateTime((LocalDateTime) value);
+        } else if (value instanceof LocalDate) {
+            text = DateUtils.formatDate((LocalDate) value);
+        } else if (value instanceof BigDecimal) {
+            text = ((BigDecimal) value).toPlainString();
+        } else {
+            text = value.toString();
+        }
+        text = sanitize(text);
+        return text.length() > MAX_CELL_LENGTH ? text.substring(0, MAX_CELL_LENGTH) : text;
+    }
+
+    /**
+     * 去掉XML 1.0不允许的控制字符
+     */
+    private static String sanitize(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean allowed = c >= 0x20 ? c != 0xFFFE && c != 0xFFFF : c == '\t' || c == '\n' || c == '\r';
+            if (!allowed && sb == null) {
+                sb = new StringBuilder(text.length()).append(text, 0, i);
+            } else if (allowed && sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : text;
+    }
+
+    /**
+     * 列序号（从0开始）转列名：0 -> A，25 -> Z，26 -> AA
+     */
+    static String columnName(int index) {
+        StringBuilder sb = new StringBuilder();
+        for (int n = index + 1; n > 0; n = (n - 1) / 26) {
+            sb.append((char) ('A' + (n - 1) % 26));
+        }
+        return sb.reverse().toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.common.aspect;
+
+import com.example.common.aspect.mapper.BenchmarkLeadMapper;
+import com.example.common.aspect.stage.AuditLogStage;
+import com.example.common.aspect.stage.DataAccessStage;
+import com.example.common.aspect.stage.ModifyLoggingStage;
+import com.example.common.aspect.stage.PermissionCheckStage;
+import com.example.common.aspect.stage.SlowQueryStage;
+import com.example.common.dto.DataAccessContext;
+import com.example.common.service.DataOperationLogger;
+import com.example.common.service.ServicePermissionChecker;
+import com.example.common.utils.DataAccessContextExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据访问拦截器JMH基准测试
+ *
+ * <p>对比同一个Mapper方法在三种情况下的单次调用开销：
+ * 不经过切面直接调用、经过切面但拦截器关闭、经过完整拦截流水线（权限检查、慢查询检测、审计日志）。
+ * 权限检查器和日志记录器使用空实现，结果只反映拦截器自身的开销。
+ *
+ * <p>运行方式：
+ * mvn -pl common test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.common.aspect.DataAccessInterceptorBenchmark
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataAccessInterceptorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Mappers {
+
+        BenchmarkLeadMapper direct;
+
+        BenchmarkLeadMapper disabled;
+
+        BenchmarkLeadMapper pipeline;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // 与生产环境一致使用INFO级别
+            ((ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                    .setLevel(ch.qos.logback.classic.Level.INFO);
+
+            direct = id -> id;
+            disabled = proxy(direct, false);
+            pipeline = proxy(direct, true);
+        }
+
+        private static BenchmarkLeadMapper proxy(BenchmarkLeadMapper target, boolean enabled) {
+            ServicePermissionChecker permissionChecker = new ServicePermissionChecker() {
+                @Override
+                public boolean hasPermission(DataAccessContext context) {
+                    return true;
+                }
+            };
+            DataOperationLogger operationLogger = new DataOperationLogger() {
+                @Override
+                public void logSuccess(DataAccessContext context, Object result) {
+                }
+
+                @Override
+                public void logFailure(DataAccessContext context, Exception exception) {
+                }
+            };
+            List<DataAccessStage> stages = Arrays.asList(
+                    new PermissionCheckStage(permissionChecker, operationLogger),
+                    new SlowQueryStage(1000L),
+                    new ModifyLoggingStage(),
+                    new AuditLogStage(operationLogger));
+
+            DataAccessInterceptor interceptor = new DataAccessInterceptor();
+            ReflectionTestUtils.setField(interceptor, "enabled", enabled);
+            ReflectionTestUtils.setField(interceptor, "contextExtractor", new DataAccessContextExtractor());
+            ReflectionTestUtils.setField(interceptor, "stages", stages);
+            interceptor.init();
+
+            AspectJProxyFactory factory = new AspectJProxyFactory(target);
+            factory.addInterface(BenchmarkLeadMapper.class);
+            factory.addAspect(interceptor);
+            return factory.getProxy();
+        }
+    }
+
+    @Benchmark
+    public Long noAspect(Mappers mappers) {
+        return mappers.direct.findById(42L);
+    }
+
+    @Benchmark
+    public Long interceptorDisabled(Mappers mappers) {
+        return mappers.disabled.findById(42L);
+    }
+
+    @Benchmark
+    public Long interceptorPipeline(Mappers mappers) {
+        return mappers.pipeline.findById(42L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DataAccessInterceptorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.common.aspect;
 
+import com.example.common.aspect.stage.AuditLogStage;
+import com.example.common.aspect.stage.DataAccessStage;
+import com.example.common.aspect.stage.ModifyLoggingStage;
+import com.example.common.aspect.stage.PermissionCheckStage;
+import com.example.common.aspect.stage.SlowQueryStage;
 import com.example.common.dto.DataAccessContext;
 import com.example.common.exception.DataAccessDeniedException;
 import com.example.common.service.DataOperationLogger;
 import com.example.common.service.ServicePermissionChecker;
 import com.example.common.utils.DataAccessContextExtractor;
+import com.example.common.utils.MapperMethodDescriptor;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.lang.reflect.Method;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -22,35 +34,56 @@ import static org.mockito.Mockito.*;
 
 /**
  * 数据访问拦截器单元测试
- * 
+ *
  * <p>测试DataAccessInterceptor的核心功能，包括权限检查、日志记录等。
- * 
+ *
  * @author Edom
  * @date 2025-08-01
  * @since 1.0.0
  */
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class DataAccessInterceptorTest {
-    
+
+    interface UsersMapper {
+        Object findById(Long id);
+
+        int updateStatus(Long id, String status);
+    }
+
     @Mock
     private ServicePermissionChecker permissionChecker;
-    
+
     @Mock
     private DataOperationLogger operationLogger;
-    
+
     @Mock
     private DataAccessContextExtractor contextExtractor;
-    
+
     @Mock
     private ProceedingJoinPoint joinPoint;
-    
-    @InjectMocks
+
+    @Mock
+    private MethodSignature signature;
+
     private DataAccessInterceptor interceptor;
-    
+
     private DataAccessContext context;
-    
+
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
+        List<DataAccessStage> stages = Arrays.asList(
+            new PermissionCheckStage(permissionChecker, operationLogger),
+            new SlowQueryStage(100L),
+            new ModifyLoggingStage(),
+            new AuditLogStage(operationLogger));
+
+        interceptor = new DataAccessInterceptor();
+        ReflectionTestUtils.setField(interceptor, "enabled", true);
+        ReflectionTestUtils.setField(interceptor, "contextExtractor", contextExtractor);
+        ReflectionTestUtils.setField(interceptor, "stages", stages);
+        interceptor.init();
+
         context = DataAccessContext.builder()
             .requestId("test-request-123")
             .serviceName("auth-service")
@@ -59,123 +92,114 @@ class DataAccessInterceptorTest {
             .userId(1L)
             .startTime(LocalDateTime.now())
             .build();
+
+        when(joinPoint.getSignature()).thenReturn(signature);
+        mapperMethod(UsersMapper.class.getMethod("findById", Long.class), "SELECT");
     }
-    
+
+    private MapperMethodDescriptor mapperMethod(Method method, String operationType) {
+        MapperMethodDescriptor descriptor = new MapperMethodDescriptor(method, "auth-service", "users", operationType);
+        when(signature.getMethod()).thenReturn(method);
+        when(contextExtractor.describe(joinPoint)).thenReturn(descriptor);
+        when(contextExtractor.extractContext(descriptor)).thenReturn(context);
+        return descriptor;
+    }
+
     @Test
     @DisplayName("正常场景：有权限的数据访问")
     void testInterceptDataAccess_Success() throws Throwable {
         // Given
         Object expectedResult = "query result";
-        
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
+
         when(permissionChecker.hasPermission(context)).thenReturn(true);
         when(joinPoint.proceed()).thenReturn(expectedResult);
-        
+
         // When
         Object result = interceptor.interceptDataAccess(joinPoint);
-        
+
         // Then
         assertEquals(expectedResult, result);
-        
-        verify(contextExtractor).extractContext(joinPoint);
+
+        verify(contextExtractor).extractContext(any(MapperMethodDescriptor.class));
         verify(permissionChecker).hasPermission(context);
         verify(joinPoint).proceed();
         verify(operationLogger).logSuccess(eq(context), eq(expectedResult));
         verify(operationLogger, never()).logDenied(any(), any());
+        assertNotNull(context.getExecutionTime());
     }
-    
+
     @Test
     @DisplayName("权限拒绝场景：无权限的数据访问")
     void testInterceptDataAccess_PermissionDenied() throws Throwable {
         // Given
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
         when(permissionChecker.hasPermission(context)).thenReturn(false);
-        
+
         // When & Then
         DataAccessDeniedException exception = assertThrows(
             DataAccessDeniedException.class,
             () -> interceptor.interceptDataAccess(joinPoint)
         );
-        
+
         assertNotNull(exception);
         assertEquals("auth-service", exception.getServiceName());
         assertEquals("users", exception.getTableName());
         assertEquals("SELECT", exception.getOperationType());
-        
-        verify(contextExtractor).extractContext(joinPoint);
+
         verify(permissionChecker).hasPermission(context);
         verify(joinPoint, never()).proceed();
         verify(operationLogger).logDenied(eq(context), anyString());
         verify(operationLogger, never()).logSuccess(any(), any());
+        verify(operationLogger, never()).logFailure(any(), any());
     }
-    
+
     @Test
     @DisplayName("异常场景：方法执行失败")
     void testInterceptDataAccess_ExecutionFailure() throws Throwable {
         // Given
         RuntimeException executionException = new RuntimeException("数据库连接失败");
-        
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
+
         when(permissionChecker.hasPermission(context)).thenReturn(true);
         when(joinPoint.proceed()).thenThrow(executionException);
-        
+
         // When & Then
         RuntimeException exception = assertThrows(
             RuntimeException.class,
             () -> interceptor.interceptDataAccess(joinPoint)
         );
-        
+
         assertEquals("数据库连接失败", exception.getMessage());
-        
-        verify(contextExtractor).extractContext(joinPoint);
+
         verify(permissionChecker).hasPermission(context);
         verify(joinPoint).proceed();
         verify(operationLogger).logFailure(eq(context), eq(executionException));
         verify(operationLogger, never()).logSuccess(any(), any());
+        assertSame(executionException, context.getException());
     }
-    
-    @Test
-    @DisplayName("查询方法拦截：正常执行")
-    void testInterceptQueryMethods_Success() throws Throwable {
-        // Given
-        Object expectedResult = "query result";
-        
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
-        when(joinPoint.proceed()).thenReturn(expectedResult);
-        
-        // When
-        Object result = interceptor.interceptQueryMethods(joinPoint);
-        
-        // Then
-        assertEquals(expectedResult, result);
-        verify(contextExtractor).extractContext(joinPoint);
-        verify(joinPoint).proceed();
-    }
-    
+
     @Test
     @DisplayName("查询方法拦截：慢查询检测")
-    void testInterceptQueryMethods_SlowQuery() throws Throwable {
+    void testInterceptDataAccess_SlowQuery() throws Throwable {
         // Given
         Object expectedResult = "query result";
-        
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
+
+        when(permissionChecker.hasPermission(context)).thenReturn(true);
         when(joinPoint.proceed()).thenAnswer(invocation -> {
-            // 模拟慢查询，延迟1.5秒
-            Thread.sleep(1500);
+            // 模拟慢查询，超过100ms阈值
+            Thread.sleep(150);
             return expectedResult;
         });
-        
+
         // When
-        Object result = interceptor.interceptQueryMethods(joinPoint);
-        
+        Object result = interceptor.interceptDataAccess(joinPoint);
+
         // Then
         assertEquals(expectedResult, result);
-        assertTrue(context.getExecutionTime() > 1000); // 应该检测到慢查询
+        assertTrue(context.getExecutionTime() >= 100); // 应该检测到慢查询
     }
-    
+
     @Test
     @DisplayName("修改方法拦截：正常执行")
-    void testInterceptModifyMethods_Success() throws Throwable {
+    void testInterceptDataAccess_ModifySuccess() throws Throwable {
         // Given
         Integer affectedRows = 1;
         context = DataAccessContext.builder()
@@ -183,69 +207,117 @@ class DataAccessInterceptorTest {
             .tableName("users")
             .operationType("UPDATE")
             .build();
-        
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
+        mapperMethod(UsersMapper.class.getMethod("updateStatus", Long.class, String.class), "UPDATE");
+
+        when(permissionChecker.hasPermission(context)).thenReturn(true);
         when(joinPoint.proceed()).thenReturn(affectedRows);
-        
+
         // When
-        Object result = interceptor.interceptModifyMethods(joinPoint);
-        
+        Object result = interceptor.interceptDataAccess(joinPoint);
+
         // Then
         assertEquals(affectedRows, result);
         assertEquals(1, context.getAffectedRows());
-        verify(contextExtractor).extractContext(joinPoint);
-        verify(joinPoint).proceed();
+        verify(operationLogger).logSuccess(eq(context), eq(affectedRows));
     }
-    
+
     @Test
     @DisplayName("修改方法拦截：执行失败")
-    void testInterceptModifyMethods_Failure() throws Throwable {
+    void testInterceptDataAccess_ModifyFailure() throws Throwable {
         // Given
         RuntimeException executionException = new RuntimeException("更新失败");
-        
-        when(contextExtractor.extractContext(joinPoint)).thenReturn(context);
+        mapperMethod(UsersMapper.class.getMethod("updateStatus", Long.class, String.class), "UPDATE");
+
+        when(permissionChecker.hasPermission(context)).thenReturn(true);
         when(joinPoint.proceed()).thenThrow(executionException);
-        
+
         // When & Then
         RuntimeException exception = assertThrows(
             RuntimeException.class,
-            () -> interceptor.interceptModifyMethods(joinPoint)
+            () -> interceptor.interceptDataAccess(joinPoint)
         );
-        
+
         assertEquals("更新失败", exception.getMessage());
-        verify(contextExtractor).extractContext(joinPoint);
         verify(joinPoint).proceed();
+        verify(operationLogger).logFailure(eq(context), eq(executionException));
+    }
+
+    @Test
+    @DisplayName("同一Mapper方法的流水线只解析一次")
+    void testInterceptDataAccess_PipelineCachedPerMethod() throws Throwable {
+        // Given
+        when(permissionChecker.hasPermission(context)).thenReturn(true);
+        when(joinPoint.proceed()).thenReturn("query result");
+
+        // When
+        interceptor.interceptDataAccess(joinPoint);
+        interceptor.interceptDataAccess(joinPoint);
+        interceptor.interceptDataAccess(joinPoint);
+
+        // Then
+        verify(contextExtractor, times(1)).describe(joinPoint);
+        verify(contextExtractor, times(3)).extractContext(any(MapperMethodDescriptor.class));
+        verify(joinPoint, times(3)).proceed();
+        assertTrue(interceptor.getInterceptorStats().contains("methods=1"));
+    }
+
+    @Test
+    @DisplayName("拦截器关闭时直接执行目标方法")
+    void testInterceptDataAccess_Disabled() throws Throwable {
+        // Given
+        ReflectionTestUtils.setField(interceptor, "enabled", false);
+        interceptor.init();
+        when(joinPoint.proceed()).thenReturn("query result");
+
+        // When
+        Object result = interceptor.interceptDataAccess(joinPoint);
+
+        // Then
+        assertEquals("query result", result);
+        verifyNoInteractions(contextExtractor, permissionChecker, operationLogger);
     }
-    
+
+    @Test
+    @DisplayName("排除服务时直接执行目标方法")
+    void testInterceptDataAccess_ExcludedService() throws Throwable {
+        // Given
+        ReflectionTestUtils.setField(interceptor, "applicationName", "auth-service");
+        ReflectionTestUtils.setField(interceptor, "excludeServices", "lead-service, auth-service");
+        interceptor.init();
+
+        // When & Then
+        assertFalse(interceptor.isInterceptorEnabled());
+    }
+
     @Test
     @DisplayName("拦截器状态检查")
     void testInterceptorStatus() {
         // When
         boolean enabled = interceptor.isInterceptorEnabled();
         String stats = interceptor.getInterceptorStats();
-        
+
         // Then
         assertTrue(enabled);
         assertNotNull(stats);
         assertTrue(stats.contains("DataAccessInterceptor"));
         assertTrue(stats.contains("enabled=true"));
+        assertTrue(stats.contains("stages=4"));
     }
-    
+
     @Test
     @DisplayName("上下文提取失败场景")
     void testInterceptDataAccess_ContextExtractionFailure() throws Throwable {
         // Given
-        when(contextExtractor.extractContext(joinPoint))
+        when(contextExtractor.extractContext(any(MapperMethodDescriptor.class)))
             .thenThrow(new RuntimeException("上下文提取失败"));
-        
+
         // When & Then
         RuntimeException exception = assertThrows(
             RuntimeException.class,
             () -> interceptor.interceptDataAccess(joinPoint)
         );
-        
+
         assertEquals("上下文提取失败", exception.getMessage());
-        verify(contextExtractor).extractContext(joinPoint);
         verify(permissionChecker, never()).hasPermission(any());
         verify(joinPoint, never()).proceed();
     }
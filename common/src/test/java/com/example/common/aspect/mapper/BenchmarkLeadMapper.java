@@ -0,0 +1,10 @@
+package com.example.common.aspect.mapper;
+
+/**
+ * 基准测试用Mapper接口
+ * 位于mapper包下，以便被DataAccessInterceptor的切点匹配
+ */
+public interface BenchmarkLeadMapper {
+
+    Long findById(Long id);
+}
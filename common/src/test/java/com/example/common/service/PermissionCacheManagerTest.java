@@ -0,0 +1,150 @@
+package com.example.common.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 权限缓存管理器单元测试
+ *
+ * <p>测试两级缓存读取以及本地统计计数的合并刷新。
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PermissionCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private PermissionNearCache nearCache;
+
+    @InjectMocks
+    private PermissionCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+    }
+
+    @Test
+    @DisplayName("读取缓存时只在本地计数，不写Redis统计")
+    void testGetPermission_CountsLocally() {
+        // Given
+        when(nearCache.get("perm:a")).thenReturn("FULL");
+        when(valueOperations.get("perm:b")).thenReturn("DENIED");
+
+        // When
+        assertEquals("FULL", cacheManager.getPermission("perm:a"));
+        assertEquals("DENIED", cacheManager.getPermission("perm:b"));
+        assertNull(cacheManager.getPermission("perm:c"));
+
+        // Then
+        PermissionCacheManager.CacheStats local = cacheManager.getLocalCacheStats();
+        assertEquals(2, local.getHitCount());
+        assertEquals(1, local.getMissCount());
+        verify(nearCache).put("perm:b", "DENIED");
+        verifyNoInteractions(hashOperations);
+    }
+
+    @Test
+    @DisplayName("定期刷新时把增量合并写入Redis")
+    void testFlushStats() {
+        // Given
+        when(nearCache.get(anyString())).thenReturn("FULL");
+        for (int i = 0; i < 5; i++) {
+            cacheManager.getPermission("perm:a");
+        }
+        when(nearCache.get("perm:x")).thenReturn(null);
+        cacheManager.getPermission("perm:x");
+
+        // When
+        cacheManager.flushStats();
+        cacheManager.flushStats();
+
+        // Then
+        verify(hashOperations, times(1)).increment("perm:stats", "hit", 5L);
+        verify(hashOperations, times(1)).increment("perm:stats", "miss", 1L);
+        assertEquals(5, cacheManager.getLocalCacheStats().getHitCount());
+    }
+
+    @Test
+    @DisplayName("刷新失败时保留增量待下次重试")
+    void testFlushStats_RetryAfterFailure() {
+        // Given
+        when(nearCache.get(anyString())).thenReturn("FULL");
+        cacheManager.getPermission("perm:a");
+        cacheManager.getPermission("perm:a");
+        when(hashOperations.increment(anyString(), any(), anyLong()))
+            .thenThrow(new RuntimeException("Redis不可用"))
+            .thenReturn(2L);
+
+        // When
+        cacheManager.flushStats();
+        cacheManager.flushStats();
+
+        // Then
+        verify(hashOperations, times(2)).increment("perm:stats", "hit", 2L);
+    }
+
+    @Test
+    @DisplayName("集群统计包含Redis汇总、本实例未刷新增量和本实例计数")
+    void testGetCacheStats_ClusterAndLocal() {
+        // Given
+        when(nearCache.get(anyString())).thenReturn("FULL");
+        cacheManager.getPermission("perm:a");
+        when(hashOperations.get("perm:stats", "hit")).thenReturn("100");
+        when(hashOperations.get("perm:stats", "miss")).thenReturn("20");
+
+        // When
+        PermissionCacheManager.CacheStats stats = cacheManager.getCacheStats();
+
+        // Then
+        assertEquals(101, stats.getHitCount());
+        assertEquals(20, stats.getMissCount());
+        assertNotNull(stats.getLocal());
+        assertEquals(1, stats.getLocal().getHitCount());
+        assertEquals(0, stats.getLocal().getMissCount());
+    }
+
+    @Test
+    @DisplayName("重置统计同时清空本地计数")
+    void testResetCacheStats() {
+        // Given
+        when(nearCache.get(anyString())).thenReturn("FULL");
+        cacheManager.getPermission("perm:a");
+
+        // When
+        cacheManager.resetCacheStats();
+        cacheManager.flushStats();
+
+        // Then
+        assertEquals(0, cacheManager.getLocalCacheStats().getTotalCount());
+        verify(redisTemplate).delete("perm:stats");
+        verifyNoInteractions(hashOperations);
+    }
+}
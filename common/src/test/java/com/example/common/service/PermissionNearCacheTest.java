@@ -0,0 +1,118 @@
+package com.example.common.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 权限本地近端缓存单元测试
+ *
+ * @author Edom
+ * @date 2025-08-01
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PermissionNearCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private PermissionNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new PermissionNearCache(redisTemplate, 100, 60);
+        nearCache.put("perm:auth-service:users:SELECT", "FULL");
+        nearCache.put("perm:auth-service:users:UPDATE", "DENIED");
+        nearCache.put("perm:lead-service:users:SELECT", "RESTRICTED");
+    }
+
+    @Test
+    @DisplayName("读写本地缓存")
+    void testGetAndPut() {
+        assertEquals("FULL", nearCache.get("perm:auth-service:users:SELECT"));
+        assertNull(nearCache.get("perm:auth-service:deals:SELECT"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("失效单个缓存键并广播")
+    void testInvalidate() {
+        // When
+        nearCache.invalidate("perm:auth-service:users:SELECT");
+
+        // Then
+        assertNull(nearCache.get("perm:auth-service:users:SELECT"));
+        assertEquals("DENIED", nearCache.get("perm:auth-service:users:UPDATE"));
+        verify(redisTemplate).convertAndSend(PermissionNearCache.INVALIDATION_CHANNEL, "perm:auth-service:users:SELECT");
+    }
+
+    @Test
+    @DisplayName("按模式失效缓存并广播")
+    void testInvalidatePattern() {
+        // When
+        nearCache.invalidatePattern("perm:auth-service:*");
+
+        // Then
+        assertNull(nearCache.get("perm:auth-service:users:SELECT"));
+        assertNull(nearCache.get("perm:auth-service:users:UPDATE"));
+        assertEquals("RESTRICTED", nearCache.get("perm:lead-service:users:SELECT"));
+        verify(redisTemplate).convertAndSend(PermissionNearCache.INVALIDATION_CHANNEL, "perm:auth-service:*");
+    }
+
+    @Test
+    @DisplayName("模式中间包含通配符")
+    void testEvictLocal_InnerWildcard() {
+        // When
+        int evicted = nearCache.evictLocal("perm:*:users:SELECT");
+
+        // Then
+        assertEquals(2, evicted);
+        assertEquals("DENIED", nearCache.get("perm:auth-service:users:UPDATE"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("收到其他实例的失效消息时只失效本地缓存")
+    void testOnMessage() {
+        // Given
+        DefaultMessage message = new DefaultMessage(
+            PermissionNearCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "perm:lead-service:*".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        nearCache.onMessage(message, null);
+
+        // Then
+        assertNull(nearCache.get("perm:lead-service:users:SELECT"));
+        assertEquals("FULL", nearCache.get("perm:auth-service:users:SELECT"));
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("广播失败不影响本地失效")
+    void testInvalidate_PublishFailure() {
+        // Given
+        doThrow(new RuntimeException("Redis不可用")).when(redisTemplate).convertAndSend(anyString(), any());
+
+        // When
+        nearCache.invalidate("perm:auth-service:users:SELECT");
+
+        // Then
+        assertNull(nearCache.get("perm:auth-service:users:SELECT"));
+    }
+}
@@ -12,9 +12,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -42,6 +48,9 @@ class ServicePermissionCheckerTest {
     @Mock
     private ValueOperations<String, String> valueOperations;
     
+    @Mock
+    private PermissionNearCache nearCache;
+    
     @InjectMocks
     private ServicePermissionChecker permissionChecker;
     
@@ -234,4 +243,67 @@ class ServicePermissionCheckerTest {
         // Then
         assertFalse(result); // 异常情况下拒绝访问
     }
+    
+    @Test
+    @DisplayName("两级缓存：本地近端缓存命中时不访问Redis")
+    void testHasPermission_NearCacheHit() {
+        // Given
+        when(nearCache.get("perm:auth-service:users:SELECT")).thenReturn("FULL");
+        
+        // When
+        boolean result = permissionChecker.hasPermission("auth-service", "users", "SELECT");
+        
+        // Then
+        assertTrue(result);
+        verifyNoInteractions(redisTemplate, permissionMapper);
+    }
+    
+    @Test
+    @DisplayName("两级缓存：Redis命中后回填本地近端缓存")
+    void testHasPermission_RedisHitFillsNearCache() {
+        // Given
+        when(valueOperations.get("perm:auth-service:users:SELECT")).thenReturn("DENIED");
+        
+        // When
+        boolean result = permissionChecker.hasPermission("auth-service", "users", "SELECT");
+        
+        // Then
+        assertFalse(result);
+        verify(nearCache).put("perm:auth-service:users:SELECT", "DENIED");
+        verify(permissionMapper, never()).findPermission(anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    @DisplayName("清除缓存：单个权限缓存删除Redis并广播失效")
+    void testClearPermissionCache() {
+        // When
+        permissionChecker.clearPermissionCache("auth-service", "users", "SELECT");
+        
+        // Then
+        verify(redisTemplate).delete("perm:auth-service:users:SELECT");
+        verify(nearCache).invalidate("perm:auth-service:users:SELECT");
+    }
+    
+    @Test
+    @DisplayName("清除缓存：按服务清除使用SCAN而不是KEYS")
+    @SuppressWarnings("unchecked")
+    void testClearServicePermissionCache_UsesScan() {
+        // Given
+        Iterator<String> keys = Arrays.asList(
+            "perm:auth-service:users:SELECT", "perm:auth-service:users:UPDATE").iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> keys.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.delete(anyCollection())).thenAnswer(invocation -> (long) ((Collection<?>) invocation.getArgument(0)).size());
+        
+        // When
+        permissionChecker.clearServicePermissionCache("auth-service");
+        
+        // Then
+        verify(redisTemplate, never()).keys(anyString());
+        verify(redisTemplate).delete(anyCollection());
+        verify(cursor).close();
+        verify(nearCache).invalidatePattern("perm:auth-service:*");
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("上下级关系索引单元测试")
+class AncestryIndexTest {
+
+    private AncestryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // 1 -> 2 -> 3 -> 4，1 -> 5，6独立
+        index = new AncestryIndex(8);
+        index.setParent(1L, AncestryIndex.ROOT);
+        index.setParent(2L, 1L);
+        index.setParent(3L, 2L);
+        index.setParent(4L, 3L);
+        index.setParent(5L, 1L);
+        index.setParent(6L, AncestryIndex.ROOT);
+    }
+
+    @Test
+    @DisplayName("测试编号后按区间判断上下级")
+    void testNumberedCheck() {
+        // When
+        index.renumber();
+
+        // Then
+        assertTrue(index.isNumbered());
+        assertTrue(index.isDescendant(4L, 1L));
+        assertTrue(index.isDescendant(4L, 2L));
+        assertTrue(index.isDescendant(5L, 1L));
+        assertFalse(index.isDescendant(5L, 2L));
+        assertFalse(index.isDescendant(1L, 4L));
+        assertFalse(index.isDescendant(1L, 1L));
+        assertFalse(index.isDescendant(6L, 1L));
+        assertFalse(index.isDescendant(99L, 1L));
+    }
+
+    @Test
+    @DisplayName("测试修改上级后编号失效，重新编号前沿上级链判断")
+    void testMoveBeforeRenumber() {
+        // Given
+        index.renumber();
+
+        // When
+        index.setParent(3L, 6L);
+
+        // Then
+        assertFalse(index.isNumbered());
+        assertTrue(index.isDescendant(4L, 6L));
+        assertFalse(index.isDescendant(4L, 1L));
+        index.renumber();
+        assertTrue(index.isDescendant(4L, 6L));
+        assertFalse(index.isDescendant(4L, 2L));
+    }
+
+    @Test
+    @DisplayName("测试删除节点后直属下级变为没有上级")
+    void testRemoveDetachesChildren() {
+        // When
+        index.remove(2L);
+        index.renumber();
+
+        // Then
+        assertFalse(index.contains(2L));
+        assertEquals(AncestryIndex.ROOT, index.parentOf(3L));
+        assertFalse(index.isDescendant(4L, 1L));
+        assertTrue(index.isDescendant(4L, 3L));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    @DisplayName("测试成环的节点不会死循环")
+    void testCycleDoesNotLoop() {
+        // Given
+        index.setParent(7L, 8L);
+        index.setParent(8L, 7L);
+
+        // When
+        boolean walked = index.isDescendant(7L, 1L);
+        index.renumber();
+
+        // Then
+        assertFalse(walked);
+        assertFalse(index.isDescendant(7L, 8L));
+        assertTrue(index.isDescendant(4L, 1L));
+    }
+
+    @Test
+    @DisplayName("测试随机树上区间判断与沿上级链判断一致")
+    void testNumberedMatchesWalk() {
+        // Given
+        AncestryIndex numbered = new AncestryIndex(16);
+        AncestryIndex walked = new AncestryIndex(16);
+        Random random = new Random(7);
+        for (long id = 1; id <= 500; id++) {
+            long parent = id == 1 || random.nextInt(10) == 0 ? AncestryIndex.ROOT : 1 + random.nextInt((int) id - 1);
+            numbered.setParent(id, parent);
+            walked.setParent(id, parent);
+        }
+
+        // When
+        numbered.renumber();
+
+        // Then
+        for (int i = 0; i < 5000; i++) {
+            long a = 1 + random.nextInt(500);
+            long b = 1 + random.nextInt(500);
+            assertEquals(walked.isDescendant(a, b), numbered.isDescendant(a, b), a + " under " + b);
+        }
+    }
+}
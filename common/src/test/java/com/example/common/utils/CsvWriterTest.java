@@ -0,0 +1,94 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("流式CSV写出单元测试")
+class CsvWriterTest {
+
+    @Test
+    @DisplayName("测试字段转义")
+    void testEscaping() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.writeRow("a,b", "say \"hi\"", "多\n行", null, 12L, LocalDateTime.of(2025, 8, 5, 9, 30, 0));
+        }
+
+        // Then
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"多\n行\",,12,2025-08-05 09:30:00\r\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("测试BOM和行数统计")
+    void testBomAndRowCount() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        CsvWriter writer = new CsvWriter(out).writeBom();
+        writer.writeRow("ID", "姓名");
+        writer.writeRow(1, "张三");
+        writer.close();
+
+        // Then
+        byte[] bytes = out.toByteArray();
+        assertEquals((byte) 0xEF, bytes[0]);
+        assertEquals((byte) 0xBB, bytes[1]);
+        assertEquals((byte) 0xBF, bytes[2]);
+        assertEquals(2, writer.getRowCount());
+    }
+
+    @Test
+    @DisplayName("测试写满缓冲区后即写出到底层流")
+    void testWritesThroughWhenBufferFills() throws IOException {
+        // Given
+        CountingOutputStream sink = new CountingOutputStream();
+        CsvWriter writer = new CsvWriter(sink);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 8, 5, 9, 30, 0);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            writeLead(writer, i, createdAt);
+        }
+        long beforeClose = sink.count;
+        writer.close();
+
+        // Then: 只有最后不满一个缓冲区（64K字符，UTF-8最多3字节/字符，另有8KB编码缓冲）的数据留到close时写出
+        assertEquals(10_000, writer.getRowCount());
+        assertTrue(beforeClose > 0);
+        assertTrue(sink.count - beforeClose <= 3 * 64 * 1024 + 8 * 1024);
+    }
+
+    private static void writeLead(CsvWriter writer, int i, LocalDateTime createdAt) throws IOException {
+        writer.writeRow(i, "客户" + i, String.format("138%08d", i), "ONLINE_AD", "备注, 第" + i + "行", createdAt);
+    }
+
+    /**
+     * 只计数不保存的输出流
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.common.utils;
+
+import com.example.common.dto.DataAccessContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("数据访问上下文提取器单元测试")
+class DataAccessContextExtractorTest {
+
+    interface CustomerLeadMapper {
+        Object findById(Long id);
+
+        int updateAuditStatus(Long id, String status);
+    }
+
+    @Mock
+    private Environment environment;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    @InjectMocks
+    private DataAccessContextExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        when(environment.getProperty("spring.application.name")).thenReturn("lead-service");
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringType()).thenReturn(CustomerLeadMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("测试解析Mapper方法静态元数据")
+    void testDescribe() throws Exception {
+        when(signature.getMethod()).thenReturn(CustomerLeadMapper.class.getMethod("updateAuditStatus", Long.class, String.class));
+
+        MapperMethodDescriptor descriptor = extractor.describe(joinPoint);
+
+        assertEquals("lead-service", descriptor.getServiceName());
+        assertEquals("customer_lead", descriptor.getTableName());
+        assertEquals("UPDATE", descriptor.getOperationType());
+        assertEquals("updateAuditStatus", descriptor.getMethodName());
+        assertTrue(descriptor.isModifyOperation());
+        assertEquals("Service[lead-service] UPDATE on table[customer_lead]", descriptor.getOperationSummary());
+    }
+
+    @Test
+    @DisplayName("测试同一Mapper方法只解析一次")
+    void testDescribe_CachedPerMethod() throws Exception {
+        Method findById = CustomerLeadMapper.class.getMethod("findById", Long.class);
+        when(signature.getMethod()).thenReturn(findById);
+
+        MapperMethodDescriptor first = extractor.describe(joinPoint);
+        MapperMethodDescriptor second = extractor.describe(joinPoint);
+
+        assertSame(first, second);
+        assertEquals(1, extractor.getCachedDescriptorCount());
+        verify(environment, times(1)).getProperty("spring.application.name");
+    }
+
+    @Test
+    @DisplayName("测试从当前请求填充动态字段并在请求内复用请求ID")
+    void testExtractContext_FillsRequestFields() throws Exception {
+        when(signature.getMethod()).thenReturn(CustomerLeadMapper.class.getMethod("findById", Long.class));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-Id", "42");
+        request.addHeader("X-Forwarded-For", "10.0.0.1, 10.0.0.2");
+        request.addHeader("User-Agent", "JUnit");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        DataAccessContext first = extractor.extractContext(joinPoint);
+        DataAccessContext second = extractor.extractContext(joinPoint);
+
+        assertEquals("customer_lead", first.getTableName());
+        assertEquals("SELECT", first.getOperationType());
+        assertEquals("findById", first.getMethodName());
+        assertEquals(42L, first.getUserId());
+        assertEquals("10.0.0.1", first.getIpAddress());
+        assertEquals("JUnit", first.getUserAgent());
+        assertNotNull(first.getStartTime());
+        assertEquals(32, first.getRequestId().length());
+        assertEquals(first.getRequestId(), second.getRequestId());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    @DisplayName("测试优先使用上游传入的请求ID")
+    void testExtractContext_UsesRequestIdHeader() throws Exception {
+        when(signature.getMethod()).thenReturn(CustomerLeadMapper.class.getMethod("findById", Long.class));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Request-Id", "upstream-id");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        DataAccessContext context = extractor.extractContext(joinPoint);
+
+        assertEquals("upstream-id", context.getRequestId());
+    }
+
+    @Test
+    @DisplayName("测试非Web调用每次生成新的请求ID")
+    void testExtractContext_NoRequest() throws Exception {
+        when(signature.getMethod()).thenReturn(CustomerLeadMapper.class.getMethod("findById", Long.class));
+
+        DataAccessContext first = extractor.extractContext(joinPoint);
+        DataAccessContext second = extractor.extractContext(joinPoint);
+
+        assertNull(first.getUserId());
+        assertNull(first.getIpAddress());
+        assertNotEquals(first.getRequestId(), second.getRequestId());
+    }
+}
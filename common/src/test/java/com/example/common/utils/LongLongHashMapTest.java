@@ -0,0 +1,90 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("long到long哈希表单元测试")
+class LongLongHashMapTest {
+
+    @Test
+    @DisplayName("测试写入、覆盖和查询")
+    void testPutAndGet() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap(4, -1L);
+
+        // When
+        long first = map.put(1L, 10L);
+        long replaced = map.put(1L, 11L);
+        map.put(0L, 0L);
+
+        // Then
+        assertEquals(-1L, first);
+        assertEquals(10L, replaced);
+        assertEquals(11L, map.get(1L));
+        assertEquals(0L, map.get(0L));
+        assertEquals(-1L, map.get(2L));
+        assertTrue(map.containsKey(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("测试删除后同一探测链上的键仍可查到")
+    void testRemoveKeepsProbeChain() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap(4, -1L);
+        for (long key = 1; key <= 5; key++) {
+            map.put(key, key * 100);
+        }
+
+        // When
+        long removed = map.remove(3L);
+        long missing = map.remove(3L);
+
+        // Then
+        assertEquals(300L, removed);
+        assertEquals(-1L, missing);
+        assertFalse(map.containsKey(3L));
+        for (long key : new long[]{1, 2, 4, 5}) {
+            assertEquals(key * 100, map.get(key));
+        }
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    @DisplayName("测试随机读写与HashMap结果一致")
+    void testMatchesHashMap() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap(16, Long.MIN_VALUE);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                Long previous = expected.remove(key);
+                assertEquals(previous != null ? previous : Long.MIN_VALUE, map.remove(key));
+            } else {
+                long value = random.nextLong();
+                Long previous = expected.put(key, value);
+                assertEquals(previous != null ? previous : Long.MIN_VALUE, map.put(key, value));
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2000; key++) {
+            Long value = expected.get(key);
+            assertEquals(value != null ? value : Long.MIN_VALUE, map.get(key));
+        }
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+}
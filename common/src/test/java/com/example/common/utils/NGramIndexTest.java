@@ -0,0 +1,100 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("二元组倒排索引单元测试")
+class NGramIndexTest {
+
+    @Test
+    @DisplayName("测试包含关键词的文档一定在候选中")
+    void testNoFalseNegatives() {
+        // Given
+        NGramIndex.Builder builder = NGramIndex.builder();
+        for (int i = 1; i <= 20000; i++) {
+            builder.add(i * 3L, "客户" + i, String.format("138%08d", i), "wx_" + i);
+        }
+        NGramIndex index = builder.build();
+
+        // When
+        long[] byPhone = index.search("13800012345", 100);
+        long[] byName = index.search("客户1999", 100);
+        long[] byWechat = index.search("WX_77", 1000);
+
+        // Then
+        assertTrue(contains(byPhone, 12345 * 3L));
+        assertTrue(contains(byName, 1999 * 3L));
+        assertTrue(contains(byName, 19990 * 3L));
+        assertTrue(contains(byWechat, 77 * 3L));
+        assertTrue(contains(byWechat, 7700 * 3L));
+        assertEquals(20000, index.getBaseDocCount());
+        assertEquals(20000 * 3L, index.getBaseMaxId());
+    }
+
+    @Test
+    @DisplayName("测试候选为升序且不跨字段组合词元")
+    void testCandidatesSortedAndFieldScoped() {
+        // Given
+        NGramIndex index = NGramIndex.builder()
+                .add(1, "ab", "cd")
+                .add(2, "abcd")
+                .add(5, "xabcdx")
+                .build();
+
+        // When
+        long[] result = index.search("bc", 10);
+
+        // Then
+        assertArrayEquals(new long[]{2, 5}, result);
+        assertEquals(0, index.search("zz", 10).length);
+    }
+
+    @Test
+    @DisplayName("测试增量写入可被搜索且与基础段去重")
+    void testDeltaSegment() {
+        // Given
+        NGramIndex index = NGramIndex.builder().add(10, "张三", "13800138000").build();
+
+        // When
+        index.add(10, "张三丰", "13800138000");
+        index.add(3, "李四", "13900139000");
+
+        // Then
+        assertArrayEquals(new long[]{10}, index.search("三丰", 10));
+        assertArrayEquals(new long[]{3, 10}, index.search("0013", 10));
+        assertEquals(2, index.getDeltaDocCount());
+    }
+
+    @Test
+    @DisplayName("测试关键词过短或区分度太低时返回null")
+    void testUnsupportedQueries() {
+        // Given
+        NGramIndex.Builder builder = NGramIndex.builder();
+        for (int i = 1; i <= 1000; i++) {
+            builder.add(i, String.format("138%08d", i));
+        }
+        NGramIndex index = builder.build();
+
+        // Then
+        assertNull(index.search("1", 10));
+        assertNull(index.search(" ", 10));
+        assertNull(index.search("138", 10));
+        assertEquals(1000, index.search("138", 1000).length);
+    }
+
+    @Test
+    @DisplayName("测试构建时ID必须升序")
+    void testBuilderRequiresAscendingIds() {
+        NGramIndex.Builder builder = NGramIndex.builder().add(5, "ab");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5, "cd"));
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        return ids != null && Arrays.binarySearch(ids, id) >= 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("可扩容布隆过滤器单元测试")
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("测试已添加的元素一定判定为可能存在")
+    void testNoFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(phone(i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(phone(i)));
+        }
+        assertEquals(1000, filter.approximateCount());
+    }
+
+    @Test
+    @DisplayName("测试误判率在配置范围内")
+    void testFalsePositiveRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(phone(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.mightContain(phone(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1000, "误判次数过多: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("测试超过容量后自动扩容且不丢失元素")
+    void testGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(phone(i));
+        }
+
+        assertTrue(filter.stageCount() > 1);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(phone(i)));
+        }
+
+        int falsePositives = 0;
+        for (int i = 1000; i < 11000; i++) {
+            if (filter.mightContain(phone(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100, "扩容后误判次数过多: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("测试重复添加不计数")
+    void testPutDuplicate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        assertTrue(filter.put("13800138000"));
+        assertFalse(filter.put("13800138000"));
+        assertEquals(1, filter.approximateCount());
+    }
+
+    @Test
+    @DisplayName("测试并发添加")
+    void testConcurrentPut() throws Exception {
+        ScalableBloomFilter filter = new ScalableBloomFilter(500, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int base = t * 2000;
+                futures.add(executor.submit(() -> {
+                    for (int i = base; i < base + 2000; i++) {
+                        filter.put(phone(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 8000; i++) {
+            assertTrue(filter.mightContain(phone(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("测试参数校验")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+
+    private static String phone(int i) {
+        return String.format("138%08d", i);
+    }
+}
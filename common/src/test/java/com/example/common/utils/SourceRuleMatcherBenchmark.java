@@ -0,0 +1,164 @@
+package com.example.common.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 来源渠道规则匹配器JMH基准测试
+ *
+ * <p>对比编译后的匹配器与逐条规则线性扫描（referrer.contains(域名)、逐个UTM取值比较、逐个正则匹配）
+ * 在不同规则数量下识别一条请求的开销。请求中四分之一按域名命中、四分之一按正则命中、
+ * 四分之一带UTM参数、其余未命中任何规则。
+ *
+ * <p>运行方式：
+ * mvn -pl common test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.common.utils.SourceRuleMatcherBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceRuleMatcherBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    /**
+     * 正则只作为兜底，每25条规则中有一条带正则
+     */
+    private static final int PATTERN_EVERY = 25;
+
+    @State(Scope.Benchmark)
+    public static class Rules {
+
+        @Param({"50", "500"})
+        int ruleCount;
+
+        List<SourceRuleMatcher.Rule> rules;
+
+        List<Pattern> linearPatterns;
+
+        List<String> patternRuleIds;
+
+        SourceRuleMatcher matcher;
+
+        String[] referrers;
+
+        List<Map<String, String>> utmParams;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            rules = new ArrayList<>(ruleCount);
+            linearPatterns = new ArrayList<>();
+            patternRuleIds = new ArrayList<>();
+            for (int i = 0; i < ruleCount; i++) {
+                SourceRuleMatcher.Rule rule = SourceRuleMatcher.Rule.of("channel" + i, "渠道" + i, "分类" + (i % 10));
+                rule.setHosts(Arrays.asList("channel" + i + ".com", "m.channel" + i + ".cn"));
+                rule.setUtm(Collections.singletonMap("utm_source", Collections.singletonList("ch" + i)));
+                if (i % PATTERN_EVERY == 0) {
+                    rule.setPatterns(Collections.singletonList("^android-app://com\\.channel" + i + "\\.app"));
+                    linearPatterns.add(Pattern.compile(rule.getPatterns().get(0), Pattern.CASE_INSENSITIVE));
+                    patternRuleIds.add(rule.getId());
+                }
+                rules.add(rule);
+            }
+            matcher = SourceRuleMatcher.compile(rules, "website");
+
+            referrers = new String[REQUESTS];
+            utmParams = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int channel = (i * 7919) % ruleCount;
+                Map<String, String> utm = new HashMap<>();
+                switch (i % 4) {
+                    case 0:
+                        referrers[i] = "https://www.channel" + channel + ".com/landing?id=" + i;
+                        break;
+                    case 1:
+                        referrers[i] = "android-app://com.channel" + (channel / PATTERN_EVERY * PATTERN_EVERY) + ".app/";
+                        break;
+                    case 2:
+                        utm.put("utm_source", "ch" + channel);
+                        utm.put("utm_medium", "cpc");
+                        break;
+                    default:
+                        referrers[i] = "https://unknown" + i + ".example.org/";
+                        break;
+                }
+                utmParams.add(utm);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public String compiledMatcher(Rules rules, Cursor cursor) {
+        int i = cursor.next++ & (REQUESTS - 1);
+        return rules.matcher.match(rules.referrers[i], rules.utmParams.get(i)).getSource();
+    }
+
+    @Benchmark
+    public String linearScan(Rules rules, Cursor cursor) {
+        int i = cursor.next++ & (REQUESTS - 1);
+        String referrer = rules.referrers[i];
+        String utmSource = rules.utmParams.get(i).get("utm_source");
+        if (utmSource != null) {
+            for (SourceRuleMatcher.Rule rule : rules.rules) {
+                for (String value : rule.getUtm().getOrDefault("utm_source", Collections.emptyList())) {
+                    if (value.equalsIgnoreCase(utmSource)) {
+                        return rule.getId();
+                    }
+                }
+            }
+        }
+        if (referrer != null) {
+            String lower = referrer.toLowerCase();
+            for (SourceRuleMatcher.Rule rule : rules.rules) {
+                for (String host : rule.getHosts()) {
+                    if (lower.contains(host)) {
+                        return rule.getId();
+                    }
+                }
+            }
+            for (int r = 0; r < rules.linearPatterns.size(); r++) {
+                if (rules.linearPatterns.get(r).matcher(referrer).find()) {
+                    return rules.patternRuleIds.get(r);
+                }
+            }
+        }
+        return "website";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SourceRuleMatcherBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
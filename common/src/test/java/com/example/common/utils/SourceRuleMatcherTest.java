@@ -0,0 +1,121 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("来源渠道规则匹配器单元测试")
+class SourceRuleMatcherTest {
+
+    private SourceRuleMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        SourceRuleMatcher.Rule baidu = SourceRuleMatcher.Rule.of("baidu", "百度", "搜索");
+        baidu.setHosts(Arrays.asList("baidu.com", "m.baidu.com"));
+        baidu.setUtm(Map.of("utm_source", Arrays.asList("baidu", "BDSS")));
+
+        SourceRuleMatcher.Rule baiduMap = SourceRuleMatcher.Rule.of("baidu_map", "百度地图", "地图");
+        baiduMap.setHosts(Collections.singletonList("map.baidu.com"));
+
+        SourceRuleMatcher.Rule wechat = SourceRuleMatcher.Rule.of("wechat", "微信", "社交");
+        wechat.setHosts(Arrays.asList("weixin.qq.com", "*.wx.qq.com"));
+        wechat.setPatterns(Collections.singletonList("micromessenger"));
+
+        SourceRuleMatcher.Rule douyin = SourceRuleMatcher.Rule.of("douyin", "抖音", "短视频");
+        douyin.setPatterns(Collections.singletonList("^android-app://com\\.ss\\.android\\.ugc\\.aweme"));
+
+        SourceRuleMatcher.Rule paid = SourceRuleMatcher.Rule.of("paid_ad", "付费广告", "广告");
+        paid.setUtm(Map.of("utm_medium", Arrays.asList("cpc", "*")));
+
+        SourceRuleMatcher.Rule baiduVip = SourceRuleMatcher.Rule.of("baidu_vip", "百度VIP", "搜索");
+        baiduVip.setUtm(Map.of("utm_source", Collections.singletonList("baidu")));
+        baiduVip.setPriority(10);
+
+        matcher = SourceRuleMatcher.compile(Arrays.asList(baidu, baiduMap, wechat, douyin, paid, baiduVip), "website");
+    }
+
+    @Test
+    @DisplayName("测试域名后缀取最长匹配")
+    void testHostLongestSuffix() {
+        assertEquals("baidu", matcher.match("https://www.baidu.com/s?wd=保险", null).getSource());
+        assertEquals("baidu_map", matcher.match("https://map.baidu.com/poi", null).getSource());
+        assertEquals("wechat", matcher.match("http://open.wx.qq.com:8080/a", null).getSource());
+        assertEquals("baidu", matcher.match("user@M.BAIDU.COM/path", null).getSource());
+        assertEquals(SourceRuleMatcher.MATCHED_BY_HOST, matcher.match("https://baidu.com", null).getMatchedBy());
+        // 只有域名片段相同不算匹配
+        assertEquals("website", matcher.match("https://notbaidu.com/", null).getSource());
+    }
+
+    @Test
+    @DisplayName("测试UTM参数优先于referrer且按优先级选择规则")
+    void testUtmPrecedence() {
+        SourceRuleMatcher.Match match = matcher.match("https://weixin.qq.com/", Map.of("utm_source", "Baidu"));
+
+        assertEquals("baidu_vip", match.getSource());
+        assertEquals(SourceRuleMatcher.MATCHED_BY_UTM, match.getMatchedBy());
+        assertEquals("baidu", matcher.match(null, Map.of("utm_source", "bdss")).getSource());
+        // utm_source未命中时继续检查utm_medium，取值 * 匹配任意值
+        assertEquals("paid_ad", matcher.match(null, Map.of("utm_source", "unknown", "utm_medium", "banner")).getSource());
+    }
+
+    @Test
+    @DisplayName("测试正则兜底和默认来源")
+    void testPatternFallbackAndDefault() {
+        assertEquals("douyin", matcher.match("android-app://com.ss.android.ugc.aweme/", null).getSource());
+        assertEquals(SourceRuleMatcher.MATCHED_BY_PATTERN,
+                matcher.match("https://example.com/?ua=MicroMessenger", null).getMatchedBy());
+
+        SourceRuleMatcher.Match fallback = matcher.match(null, null);
+        assertEquals("website", fallback.getSource());
+        assertEquals(SourceRuleMatcher.MATCHED_BY_DEFAULT, fallback.getMatchedBy());
+        assertNull(matcher.matchReferrer("https://unknown.example.org/"));
+    }
+
+    @Test
+    @DisplayName("测试按域名与按正则分别识别")
+    void testHostAndPatternSeparately() {
+        // 同一域名不同查询参数的referrer取出相同的域名，可以共用域名识别结果
+        String host = SourceRuleMatcher.extractHost("https://www.baidu.com/s?wd=保险&gclid=abc123#top");
+        assertEquals(host, SourceRuleMatcher.extractHost("https://www.baidu.com/s?wd=车险&gclid=xyz789"));
+        assertEquals("baidu", matcher.matchHost(host).getSource());
+        assertNull(matcher.matchHost(""));
+        assertNull(matcher.matchHost("example.com"));
+
+        // 正则按完整referrer匹配，包括查询参数
+        assertNull(matcher.matchPattern("https://example.com/"));
+        assertEquals("wechat", matcher.matchPattern("https://example.com/?ua=MicroMessenger").getSource());
+    }
+
+    @Test
+    @DisplayName("测试按ID查找和关键词提示")
+    void testFindAndSuggest() {
+        assertEquals("百度地图", matcher.find("baidu_map").getName());
+        assertNull(matcher.find("unknown"));
+
+        List<String> ids = matcher.suggest("百度", 10).stream().map(SourceRuleMatcher.Rule::getId).collect(Collectors.toList());
+        assertEquals(Arrays.asList("baidu_vip", "baidu", "baidu_map"), ids);
+        assertEquals(2, matcher.suggest("", 2).size());
+        assertEquals(Collections.singletonList("paid_ad"),
+                matcher.suggest("广告", 10).stream().map(SourceRuleMatcher.Rule::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("测试无效规则编译失败")
+    void testInvalidRules() {
+        SourceRuleMatcher.Rule bad = SourceRuleMatcher.Rule.of("bad", "错误", null);
+        bad.setPatterns(Collections.singletonList("(unclosed"));
+
+        assertThrows(IllegalArgumentException.class, () -> SourceRuleMatcher.compile(Collections.singletonList(bad), "website"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SourceRuleMatcher.compile(Collections.singletonList(new SourceRuleMatcher.Rule()), "website"));
+    }
+}
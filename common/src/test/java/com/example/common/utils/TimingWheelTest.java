@@ -0,0 +1,92 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("哈希时间轮单元测试")
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("测试任务按到期时间触发")
+    void testFiresWhenDue() {
+        // Given
+        TimingWheel<Long, String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule(1L, 250, "a");
+        wheel.schedule(2L, 520, "b");
+
+        // When
+        List<String> first = wheel.advance(199);
+        List<String> second = wheel.advance(300);
+        List<String> third = wheel.advance(600);
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertEquals(Collections.singletonList("a"), second);
+        assertEquals(Collections.singletonList("b"), third);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("测试超过一圈的任务在所在的圈到期")
+    void testMultipleRounds() {
+        // Given
+        TimingWheel<Long, String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule(1L, 100 * 8 * 3 + 50, "late");
+
+        // When
+        List<String> afterOneRound = wheel.advance(900);
+        List<String> afterTwoRounds = wheel.advance(1700);
+        List<String> due = wheel.advance(2450);
+
+        // Then
+        assertTrue(afterOneRound.isEmpty());
+        assertTrue(afterTwoRounds.isEmpty());
+        assertEquals(Collections.singletonList("late"), due);
+    }
+
+    @Test
+    @DisplayName("测试重新调度替换原任务、取消任务")
+    void testRescheduleAndCancel() {
+        // Given
+        TimingWheel<Long, String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule(1L, 200, "old");
+        wheel.schedule(2L, 300, "cancelled");
+
+        // When
+        wheel.schedule(1L, 700, "new");
+        boolean cancelled = wheel.cancel(2L);
+        List<String> early = wheel.advance(400);
+        List<String> late = wheel.advance(800);
+
+        // Then
+        assertTrue(cancelled);
+        assertFalse(wheel.cancel(2L));
+        assertTrue(early.isEmpty());
+        assertEquals(Collections.singletonList("new"), late);
+    }
+
+    @Test
+    @DisplayName("测试过期任务和跨越多圈的推进")
+    void testPastDeadlineAndLargeJump() {
+        // Given
+        TimingWheel<Long, String> wheel = new TimingWheel<>(100, 8, 1000);
+        wheel.schedule(1L, 500, "past");
+        wheel.schedule(2L, 5000, "far");
+        wheel.schedule(3L, 90000, "later");
+
+        // When
+        List<String> fired = wheel.advance(20000);
+
+        // Then
+        assertEquals(Arrays.asList("past", "far").size(), fired.size());
+        assertTrue(fired.containsAll(Arrays.asList("past", "far")));
+        assertEquals(1, wheel.size());
+        assertEquals(90000L, wheel.deadlineOf(3L));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("流式XLSX写出单元测试")
+class XlsxWriterTest {
+
+    @Test
+    @DisplayName("测试工作簿部件完整")
+    void testPackageParts() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (XlsxWriter writer = new XlsxWriter(out, "用户")) {
+            writer.writeRow("ID", "用户名");
+        }
+
+        // Then
+        Map<String, String> parts = unzip(out.toByteArray());
+        assertTrue(parts.containsKey("[Content_Types].xml"));
+        assertTrue(parts.containsKey("_rels/.rels"));
+        assertTrue(parts.containsKey("xl/_rels/workbook.xml.rels"));
+        assertTrue(parts.containsKey("xl/styles.xml"));
+        assertTrue(parts.get("xl/workbook.xml").contains("name=\"用户\""));
+        assertTrue(parts.containsKey("xl/worksheets/sheet1.xml"));
+    }
+
+    @Test
+    @DisplayName("测试单元格类型与取值")
+    void testCells() throws IOException, XMLStreamException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        XlsxWriter writer = new XlsxWriter(out, "Sheet1");
+        writer.writeRow("ID", "用户名", "备注", "创建时间");
+        writer.writeRow(12L, "a<b>&\"c\"", null, LocalDateTime.of(2025, 8, 5, 9, 30, 0));
+        writer.writeRow(1234567890123456789L, "控制\u0001字符", true, "  前后空格  ");
+        writer.close();
+
+        // Then
+        assertEquals(3, writer.getRowCount());
+        List<Map<String, String[]>> rows = readSheet(unzip(out.toByteArray()).get("xl/worksheets/sheet1.xml"));
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[]{"inlineStr", "用户名"}, rows.get(0).get("B1"));
+        assertArrayEquals(new String[]{null, "12"}, rows.get(1).get("A2"));
+        assertArrayEquals(new String[]{"inlineStr", "a<b>&\"c\""}, rows.get(1).get("B2"));
+        assertFalse(rows.get(1).containsKey("C2"));
+        assertArrayEquals(new String[]{"inlineStr", "2025-08-05 09:30:00"}, rows.get(1).get("D2"));
+        assertArrayEquals(new String[]{"inlineStr", "1234567890123456789"}, rows.get(2).get("A3"));
+        assertArrayEquals(new String[]{"inlineStr", "控制字符"}, rows.get(2).get("B3"));
+        assertArrayEquals(new String[]{"b", "1"}, rows.get(2).get("C3"));
+        assertArrayEquals(new String[]{"inlineStr", "  前后空格  "}, rows.get(2).get("D3"));
+    }
+
+    @Test
+    @DisplayName("测试列名转换")
+    void testColumnName() {
+        assertEquals("A", XlsxWriter.columnName(0));
+        assertEquals("Z", XlsxWriter.columnName(25));
+        assertEquals("AA", XlsxWriter.columnName(26));
+        assertEquals("AZ", XlsxWriter.columnName(51));
+        assertEquals("BA", XlsxWriter.columnName(52));
+        assertEquals("XFD", XlsxWriter.columnName(16383));
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws IOException {
+        Map<String, String> parts = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int n;
+                while ((n = zip.read(buffer)) > 0) {
+                    content.write(buffer, 0, n);
+                }
+                parts.put(entry.getName(), new String(content.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * 读取工作表，每行为 单元格引用 -> [类型, 值]
+     */
+    private static List<Map<String, String[]>> readSheet(String xml) throws XMLStreamException {
+        List<Map<String, String[]>> rows = new ArrayList<>();
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        String ref = null;
+        String type = null;
+        StringBuilder text = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("row".equals(name)) {
+                    rows.add(new LinkedHashMap<>());
+                } else if ("c".equals(name)) {
+                    ref = reader.getAttributeValue(null, "r");
+                    type = reader.getAttributeValue(null, "t");
+                    text = new StringBuilder();
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS && text != null) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(reader.getLocalName())) {
+                rows.get(rows.size() - 1).put(ref, new String[]{type, text.toString()});
+                text = null;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.data.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 客资审核记录实体类
+ * 
+ * <p>对应lead_audit_records表，每次审核（含批量审核中的每条客资）写入一行。
+ * 
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+public class LeadAuditRecord {
+
+    /**
+     * 审核记录ID
+     */
+    private Long id;
+
+    /**
+     * 客资ID
+     */
+    private Long leadId;
+
+    /**
+     * 审核人ID
+     */
+    private Long auditorId;
+
+    /**
+     * 审核前的审核状态编码
+     */
+    private String statusBefore;
+
+    /**
+     * 审核后的审核状态编码
+     */
+    private String statusAfter;
+
+    /**
+     * 审核意见
+     */
+    private String comment;
+
+    /**
+     * 拒绝原因
+     */
+    private String rejectReason;
+
+    /**
+     * 审核时间
+     */
+    private LocalDateTime auditedAt;
+
+    public LeadAuditRecord() {
+    }
+
+    public LeadAuditRecord(Long leadId, Long auditorId, String statusBefore, String statusAfter, String comment,
+                           String rejectReason, LocalDateTime auditedAt) {
+        this.leadId = leadId;
+        this.auditorId = auditorId;
+        this.statusBefore = statusBefore;
+        this.statusAfter = statusAfter;
+        this.comment = comment;
+        this.rejectReason = rejectReason;
+        this.auditedAt = auditedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLeadId() {
+        return leadId;
+    }
+
+    public void setLeadId(Long leadId) {
+        this.leadId = leadId;
+    }
+
+    public Long getAuditorId() {
+        return auditorId;
+    }
+
+    public void setAuditorId(Long auditorId) {
+        this.auditorId = auditorId;
+    }
+
+    public String getStatusBefore() {
+        return statusBefore;
+    }
+
+    public void setStatusBefore(String statusBefore) {
+        this.statusBefore = statusBefore;
+    }
+
+    public String getStatusAfter() {
+        return statusAfter;
+    }
+
+    public void setStatusAfter(String statusAfter) {
+        this.statusAfter = statusAfter;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public String getRejectReason() {
+        return rejectReason;
+    }
+
+    public void setRejectReason(String rejectReason) {
+        this.rejectReason = rejectReason;
+    }
+
+    public LocalDateTime getAuditedAt() {
+        return auditedAt;
+    }
+
+    public void setAuditedAt(LocalDateTime auditedAt) {
+        this.auditedAt = auditedAt;
+    }
+}
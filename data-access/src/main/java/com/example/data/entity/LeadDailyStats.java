@@ -0,0 +1,119 @@
+package com.example.data.entity;
+
+import java.time.LocalDate;
+
+/**
+ * 客资每日汇总实体类
+ * 
+ * <p>一行表示某天创建的、归属某销售、某来源、处于某跟进状态和审核状态的客资数量。
+ * 作为增量写入时leadCount为变化量（可为负数）；作为汇总查询结果时未参与分组的字段为null。
+ * 
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+public class LeadDailyStats {
+
+    /**
+     * 客资创建日期
+     */
+    private LocalDate statDate;
+
+    /**
+     * 归属销售ID
+     */
+    private Long salespersonId;
+
+    /**
+     * 来源渠道
+     */
+    private String source;
+
+    /**
+     * 跟进状态编码
+     */
+    private String status;
+
+    /**
+     * 审核状态编码
+     */
+    private String auditStatus;
+
+    /**
+     * 客资数量
+     */
+    private long leadCount;
+
+    public LeadDailyStats() {
+    }
+
+    public LeadDailyStats(LocalDate statDate, Long salespersonId, String source, String status, String auditStatus,
+                          long leadCount) {
+        this.statDate = statDate;
+        this.salespersonId = salespersonId;
+        this.source = source;
+        this.status = status;
+        this.auditStatus = auditStatus;
+        this.leadCount = leadCount;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public Long getSalespersonId() {
+        return salespersonId;
+    }
+
+    public void setSalespersonId(Long salespersonId) {
+        this.salespersonId = salespersonId;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAuditStatus() {
+        return auditStatus;
+    }
+
+    public void setAuditStatus(String auditStatus) {
+        this.auditStatus = auditStatus;
+    }
+
+    public long getLeadCount() {
+        return leadCount;
+    }
+
+    public void setLeadCount(long leadCount) {
+        this.leadCount = leadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "LeadDailyStats{" +
+                "statDate=" + statDate +
+                ", salespersonId=" + salespersonId +
+                ", source='" + source + '\'' +
+                ", status='" + status + '\'' +
+                ", auditStatus='" + auditStatus + '\'' +
+                ", leadCount=" + leadCount +
+                '}';
+    }
+}
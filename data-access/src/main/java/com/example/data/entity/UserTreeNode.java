@@ -0,0 +1,145 @@
+package com.example.data.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户层级树节点
+ * 
+ * <p>从用户层级闭包表查询下级树时的一行结果：用户基本信息，加上相对于树根的层数、
+ * 该用户自身的下级总数和下级树高度。
+ * 
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+public class UserTreeNode {
+
+    /**
+     * 用户ID
+     */
+    private Long id;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 角色
+     */
+    private String role;
+
+    /**
+     * 状态
+     */
+    private String status;
+
+    /**
+     * 上级用户ID
+     */
+    private Long parentId;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 相对于树根的层数，树根为0
+     */
+    private int depth;
+
+    /**
+     * 全部下级数量（含间接下级，不含自身）
+     */
+    private int descendantCount;
+
+    /**
+     * 下级树高度，没有下级时为0
+     */
+    private int height;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getDescendantCount() {
+        return descendantCount;
+    }
+
+    public void setDescendantCount(int descendantCount) {
+        this.descendantCount = descendantCount;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    @Override
+    public String toString() {
+        return "UserTreeNode{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", parentId=" + parentId +
+                ", depth=" + depth +
+                ", descendantCount=" + descendantCount +
+                ", height=" + height +
+                '}';
+    }
+}
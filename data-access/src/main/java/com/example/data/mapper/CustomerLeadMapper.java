@@ -4,6 +4,7 @@ import com.example.data.entity.CustomerLead;
 import com.example.data.permission.DataPermission;
 import com.example.data.permission.OperationType;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -33,6 +34,15 @@ public interface CustomerLeadMapper {
     @Options(useGeneratedKeys = true, keyProperty = "id")
     int insert(CustomerLead customerLead);
 
+    /**
+     * 批量插入客户资源（多行INSERT），插入后回填各实体的ID
+     *
+     * @param customerLeads 客户资源实体列表（不能为空）
+     * @return 影响行数
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.CREATE, description = "批量创建客户资源")
+    int batchInsert(@Param("list") List<CustomerLead> customerLeads);
+
     /**
      * 根据ID查找客户资源
      *
@@ -139,6 +149,20 @@ public interface CustomerLeadMapper {
     List<CustomerLead> findPendingFollowUp(@Param("currentDate") LocalDateTime currentDate,
                                           @Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * 按上次跟进时间分批读取待跟进、跟进中的客户资源，用于加载跟进提醒
+     * 按 (last_follow_up_at, id) keyset翻页，走idx_last_follow_up_id索引
+     *
+     * @param afterTime 上一批最后一行的上次跟进时间（首批传区间起点，不含）
+     * @param afterId 上一批最后一行的ID（首批传Long.MAX_VALUE）
+     * @param untilTime 上次跟进时间上限（含）
+     * @param limit 每批数量
+     * @return 只含id、status、salesperson_id、last_follow_up_at的客户资源列表
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "分批查询待跟进客户资源")
+    List<CustomerLead> findFollowUpDue(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") long afterId,
+                                       @Param("untilTime") LocalDateTime untilTime, @Param("limit") int limit);
+
     /**
      * 查找所有客户资源（分页）
      *
@@ -174,6 +198,14 @@ public interface CustomerLeadMapper {
     @Select("SELECT COUNT(*) FROM customer_leads WHERE salesperson_id = #{salespersonId}")
     long countBySalespersonId(@Param("salespersonId") Long salespersonId);
 
+    /**
+     * 按销售统计待跟进、跟进中的客户资源数量（走idx_salesperson_status索引）
+     *
+     * @return 每个销售一行：salespersonId、openCount
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.STATS, description = "按销售统计未结客户资源")
+    List<java.util.Map<String, Object>> countOpenGroupBySalesperson();
+
     /**
      * 根据条件统计客户资源数量
      *
@@ -185,9 +217,22 @@ public interface CustomerLeadMapper {
     @DataPermission(table = "customer_leads", operation = OperationType.STATS, description = "按条件统计客户资源")
     long countByConditions(@Param("salespersonId") Long salespersonId, @Param("status") String status,
                           @Param("auditStatus") String auditStatus, @Param("keyword") String keyword,
+                          @Param("keywordIds") java.util.Collection<Long> keywordIds, @Param("keywordIdsAfter") Long keywordIdsAfter,
                           @Param("source") String source, @Param("startDate") String startDate,
                           @Param("endDate") String endDate);
 
+    /**
+     * 按条件统计的执行计划，用于估算数量
+     *
+     * @return EXPLAIN结果行（含rows、filtered列）
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.STATS, description = "按条件估算客户资源数量")
+    List<java.util.Map<String, Object>> explainCountByConditions(@Param("salespersonId") Long salespersonId, @Param("status") String status,
+                                                             @Param("auditStatus") String auditStatus, @Param("keyword") String keyword,
+                                                             @Param("keywordIds") java.util.Collection<Long> keywordIds, @Param("keywordIdsAfter") Long keywordIdsAfter,
+                                                             @Param("source") String source, @Param("startDate") String startDate,
+                                                             @Param("endDate") String endDate);
+
     /**
      * 更新客户资源信息
      *
@@ -250,6 +295,36 @@ public interface CustomerLeadMapper {
             "AND (#{excludeId} IS NULL OR id != #{excludeId})")
     boolean existsByPhone(@Param("phone") String phone, @Param("excludeId") Long excludeId);
 
+    /**
+     * 查询已存在的手机号
+     *
+     * @param phones 待检查的手机号（不能为空）
+     * @return 其中已存在的手机号
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "批量检查手机号是否存在")
+    List<String> findExistingPhones(@Param("phones") java.util.Collection<String> phones);
+
+    /**
+     * 按ID顺序分批读取关键词搜索涉及的字段，用于构建搜索索引
+     *
+     * @param afterId 上一批最后一个ID，首批传0
+     * @param limit 每批数量
+     * @return 只含id、name、phone、wechat_id、source、source_detail的客资
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "分批读取客资搜索字段")
+    List<CustomerLead> findSearchFieldsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 按手机号顺序分批读取手机号（只扫描uniq_phone索引）
+     *
+     * @param afterPhone 上一批最后一个手机号，首批传空字符串
+     * @param limit 每批数量
+     * @return 手机号列表
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "分批读取客资手机号")
+    @Select("SELECT phone FROM customer_leads WHERE phone > #{afterPhone} ORDER BY phone LIMIT #{limit}")
+    List<String> findPhonesAfter(@Param("afterPhone") String afterPhone, @Param("limit") int limit);
+
     /**
      * 根据关键词搜索客户资源
      *
@@ -267,6 +342,8 @@ public interface CustomerLeadMapper {
      * @param agentId 代理ID（可选）
      * @param leadStatus 跟进状态（可选）
      * @param auditStatus 审核状态（可选）
+     * @param keywordIds 搜索索引给出的关键词候选ID（可选），只在候选ID和keywordIdsAfter之后的ID中按关键词复核
+     * @param keywordIdsAfter 搜索索引已覆盖的最大ID，keywordIds不为空时必填
      * @param offset 偏移量
      * @param limit 限制数量
      * @return 客户资源列表
@@ -274,10 +351,47 @@ public interface CustomerLeadMapper {
     @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "按条件查询客户资源")
     List<CustomerLead> findByConditions(@Param("salespersonId") Long salespersonId, @Param("status") String status,
                                        @Param("auditStatus") String auditStatus, @Param("keyword") String keyword,
+                                       @Param("keywordIds") java.util.Collection<Long> keywordIds, @Param("keywordIdsAfter") Long keywordIdsAfter,
                                        @Param("source") String source, @Param("startDate") String startDate,
                                        @Param("endDate") String endDate, @Param("sortBy") String sortBy,
                                        @Param("sortOrder") String sortOrder, @Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * 根据条件流式读取客户资源（用于导出）
+     * 返回的游标必须在事务（或打开的SqlSession）内遍历并关闭，期间占用一个数据库连接
+     *
+     * @return 按排序条件逐行读取的游标
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "按条件导出客户资源")
+    Cursor<CustomerLead> streamByConditions(@Param("salespersonId") Long salespersonId, @Param("status") String status,
+                                            @Param("auditStatus") String auditStatus, @Param("keyword") String keyword,
+                                            @Param("keywordIds") java.util.Collection<Long> keywordIds, @Param("keywordIdsAfter") Long keywordIdsAfter,
+                                            @Param("source") String source, @Param("startDate") String startDate,
+                                            @Param("endDate") String endDate, @Param("sortBy") String sortBy,
+                                            @Param("sortOrder") String sortOrder);
+
+    /**
+     * 根据条件按游标查找客户资源列表（keyset分页）
+     *
+     * <p>按 (排序字段, id) 从上一页最后一行之后继续读取，翻页深度不影响查询开销。
+     * cursorId为null时返回第一页。
+     *
+     * @param sortBy 排序字段
+     * @param sortOrder 排序方向
+     * @param cursorValue 上一页最后一行的排序字段值（可为null）
+     * @param cursorId 上一页最后一行的ID（可选）
+     * @param limit 限制数量
+     * @return 客户资源列表
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "按条件游标查询客户资源")
+    List<CustomerLead> findByConditionsAfterCursor(@Param("salespersonId") Long salespersonId, @Param("status") String status,
+                                                   @Param("auditStatus") String auditStatus, @Param("keyword") String keyword,
+                                                   @Param("keywordIds") java.util.Collection<Long> keywordIds, @Param("keywordIdsAfter") Long keywordIdsAfter,
+                                                   @Param("source") String source, @Param("startDate") String startDate,
+                                                   @Param("endDate") String endDate, @Param("sortBy") String sortBy,
+                                                   @Param("sortOrder") String sortOrder, @Param("cursorValue") Object cursorValue,
+                                                   @Param("cursorId") Long cursorId, @Param("limit") int limit);
+
     /**
      * 批量更新跟进状态
      *
@@ -289,6 +403,25 @@ public interface CustomerLeadMapper {
     @DataPermission(table = "customer_leads", operation = OperationType.UPDATE, description = "批量更新跟进状态")
     int batchUpdateLeadStatus(@Param("ids") List<Long> ids, @Param("leadStatus") CustomerLead.LeadStatus leadStatus,
                              @Param("updatedAt") LocalDateTime updatedAt);
+    /**
+     * 根据ID列表查询客户资源
+     *
+     * @param ids 客户资源ID列表（不能为空）
+     * @return 客户资源列表
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "根据ID列表查询客户资源")
+    List<CustomerLead> findByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 根据ID列表查询并锁定客户资源（SELECT ... FOR UPDATE），须在事务内调用
+     * 按ID顺序加锁，并发的批量操作不会互相死锁
+     *
+     * @param ids 客户资源ID列表（不能为空）
+     * @return 按ID升序的客户资源列表
+     */
+    @DataPermission(table = "customer_leads", operation = OperationType.READ, description = "根据ID列表锁定客户资源")
+    List<CustomerLead> lockByIds(@Param("ids") java.util.Collection<Long> ids);
+
     /**
      * 批量更新审核状态
      *
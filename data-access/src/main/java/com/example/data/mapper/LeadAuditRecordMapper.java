@@ -0,0 +1,41 @@
+package com.example.data.mapper;
+
+import com.example.data.entity.LeadAuditRecord;
+import com.example.data.permission.DataPermission;
+import com.example.data.permission.OperationType;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 客资审核记录数据访问接口
+ * 
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+@Repository
+@Mapper
+public interface LeadAuditRecordMapper {
+
+    /**
+     * 批量插入审核记录（一条多行INSERT）
+     * 
+     * @param records 审核记录（不能为空）
+     * @return 影响行数
+     */
+    @DataPermission(table = "lead_audit_records", operation = OperationType.CREATE, description = "批量写入客资审核记录")
+    int batchInsert(@Param("list") List<LeadAuditRecord> records);
+
+    /**
+     * 查询客资的审核记录，按审核时间倒序
+     * 
+     * @param leadId 客资ID
+     * @return 审核记录列表
+     */
+    @DataPermission(table = "lead_audit_records", operation = OperationType.READ, description = "查询客资审核记录")
+    List<LeadAuditRecord> findByLeadId(@Param("leadId") Long leadId);
+
+}
@@ -0,0 +1,66 @@
+package com.example.data.mapper;
+
+import com.example.data.entity.LeadDailyStats;
+import com.example.data.permission.DataPermission;
+import com.example.data.permission.OperationType;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 客资每日汇总数据访问接口
+ * 
+ * <p>统计查询只读取汇总表，不扫描customer_leads。
+ * 
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+@Repository
+@Mapper
+public interface LeadDailyStatsMapper {
+
+    /**
+     * 批量累加汇总数量，桶不存在时插入
+     * 
+     * @param deltas 各汇总桶的变化量（leadCount可为负数）
+     * @return 影响行数
+     */
+    @DataPermission(table = "lead_daily_stats", operation = OperationType.UPDATE, description = "累加客资每日汇总")
+    int upsertDeltas(@Param("list") List<LeadDailyStats> deltas);
+
+    /**
+     * 按条件汇总客资数量，按跟进状态、审核状态、来源分组
+     * 
+     * @param salespersonId 销售ID
+     * @param status 跟进状态
+     * @param auditStatus 审核状态
+     * @param source 来源渠道
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含当天）
+     * @return 分组汇总结果，statDate和salespersonId为null
+     */
+    @DataPermission(table = "lead_daily_stats", operation = OperationType.STATS, description = "按条件汇总客资数量")
+    List<LeadDailyStats> sumByConditions(@Param("salespersonId") Long salespersonId, @Param("status") String status,
+                                         @Param("auditStatus") String auditStatus, @Param("source") String source,
+                                         @Param("startDate") String startDate, @Param("endDate") String endDate);
+
+    /**
+     * 按条件汇总每日新增客资数量
+     * 
+     * @param salespersonId 销售ID
+     * @param status 跟进状态
+     * @param auditStatus 审核状态
+     * @param source 来源渠道
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含当天）
+     * @return 按日期升序的汇总结果，只有statDate和leadCount有值
+     */
+    @DataPermission(table = "lead_daily_stats", operation = OperationType.STATS, description = "按日汇总客资数量")
+    List<LeadDailyStats> sumByDay(@Param("salespersonId") Long salespersonId, @Param("status") String status,
+                                  @Param("auditStatus") String auditStatus, @Param("source") String source,
+                                  @Param("startDate") String startDate, @Param("endDate") String endDate);
+
+}
@@ -0,0 +1,55 @@
+package com.example.data.mapper;
+
+import com.example.data.entity.UserTreeNode;
+import com.example.data.permission.DataPermission;
+import com.example.data.permission.OperationType;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户层级闭包表数据访问接口
+ * 
+ * <p>闭包表由users表上的触发器维护，这里只提供查询。
+ * 
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+@Repository
+@Mapper
+public interface UserClosureMapper {
+
+    /**
+     * 一次查询取出以指定用户为根的整棵下级树（含自身），按层数排序，同层按创建时间倒序
+     * 
+     * @param rootId 树根用户ID
+     * @return 树节点列表，父节点总在子节点之前；用户不存在时为空
+     */
+    @DataPermission(table = "user_closure", operation = OperationType.READ, description = "查询用户下级树")
+    List<UserTreeNode> findSubtree(@Param("rootId") Long rootId);
+
+    /**
+     * 从给定用户中筛选出指定用户的下级（含自身）
+     * 
+     * @param ancestorId 上级用户ID
+     * @param ids 待判断的用户ID（不能为空）
+     * @return 属于ancestorId下级树的用户ID
+     */
+    @DataPermission(table = "user_closure", operation = OperationType.READ, description = "筛选下级用户")
+    List<Long> findDescendantIdsIn(@Param("ancestorId") Long ancestorId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 判断用户是否为指定用户的下级（任意层级，不含自身）
+     * 
+     * @param ancestorId 上级用户ID
+     * @param descendantId 待判断的用户ID
+     * @return 是否为下级
+     */
+    @DataPermission(table = "user_closure", operation = OperationType.READ, description = "判断下级用户")
+    boolean isDescendant(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+}
@@ -4,6 +4,7 @@ import com.example.data.entity.User;
 import com.example.data.permission.DataPermission;
 import com.example.data.permission.OperationType;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -115,6 +116,8 @@ public interface UserMapper {
                            @Param("status") String status,
                            @Param("parentId") Long parentId,
                            @Param("keyword") String keyword,
+                           @Param("keywordIds") java.util.Collection<Long> keywordIds,
+                           @Param("keywordIdsAfter") Long keywordIdsAfter,
                            @Param("dateFrom") String dateFrom,
                            @Param("dateTo") String dateTo);
 
@@ -180,6 +183,48 @@ public interface UserMapper {
     @Delete("DELETE FROM users WHERE id = #{id}")
     int deleteById(@Param("id") Long id);
 
+    /**
+     * 根据ID列表查询并锁定用户（SELECT ... FOR UPDATE），须在事务内调用
+     * 按ID顺序加锁，并发的批量操作不会互相死锁
+     *
+     * @param ids 用户ID列表（不能为空）
+     * @return 按ID升序的用户列表，不存在的ID不返回
+     */
+    @DataPermission(table = "users", operation = OperationType.READ, description = "根据ID列表锁定用户")
+    List<User> lockByIds(@Param("ids") java.util.Collection<Long> ids);
+
+    /**
+     * 批量更新用户状态
+     *
+     * @param ids 用户ID列表（不能为空）
+     * @param status 新状态
+     * @param updatedAt 更新时间
+     * @return 影响行数
+     */
+    @DataPermission(table = "users", operation = OperationType.UPDATE, description = "批量更新用户状态")
+    int batchUpdateStatus(@Param("ids") java.util.Collection<Long> ids, @Param("status") String status,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 根据ID列表删除用户（硬删除）
+     *
+     * @param ids 用户ID列表（不能为空）
+     * @return 影响行数
+     */
+    @DataPermission(table = "users", operation = OperationType.DELETE, description = "批量删除用户")
+    int deleteByIds(@Param("ids") java.util.Collection<Long> ids);
+
+    /**
+     * 查询有其他直属下级的用户
+     *
+     * @param parentIds 待检查的用户ID列表（不能为空）
+     * @param excludeIds 不计入的下级ID（不能为空），如同一批删除的用户
+     * @return parentIds中存在excludeIds以外直属下级的用户ID
+     */
+    @DataPermission(table = "users", operation = OperationType.READ, description = "查询存在其他下级的用户")
+    List<Long> findParentsWithOtherChildren(@Param("parentIds") java.util.Collection<Long> parentIds,
+                                           @Param("excludeIds") java.util.Collection<Long> excludeIds);
+
     /**
      * 检查用户名是否存在
      *
@@ -226,6 +271,28 @@ public interface UserMapper {
     @Select("SELECT * FROM users WHERE parent_id = #{parentId} ORDER BY created_at DESC")
     List<User> findByParentId(@Param("parentId") Long parentId);
 
+    /**
+     * 按ID顺序分批读取关键词搜索涉及的字段，用于构建搜索索引
+     *
+     * @param afterId 上一批最后一个ID，首批传0
+     * @param limit 每批数量
+     * @return 只含id、username、email、phone的用户
+     */
+    @DataPermission(table = "users", operation = OperationType.READ, description = "分批读取用户搜索字段")
+    @Select("SELECT id, username, email, phone FROM users WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<User> findSearchFieldsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 按ID顺序分批读取上级关系，用于构建上下级关系索引
+     *
+     * @param afterId 上一批最后一个用户ID，第一批传0
+     * @param limit 每批数量
+     * @return 只含id、parentId的用户
+     */
+    @DataPermission(table = "users", operation = OperationType.READ, description = "分批读取用户上级关系")
+    @Select("SELECT id, parent_id AS parentId FROM users WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<User> findParentLinksAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
     /**
      * 根据关键词搜索用户
      *
@@ -248,6 +315,8 @@ public interface UserMapper {
      * @param role 角色（可选）
      * @param status 状态（可选）
      * @param parentId 上级ID（可选）
+     * @param keywordIds 搜索索引给出的关键词候选ID（可选），只在候选ID和keywordIdsAfter之后的ID中按关键词复核
+     * @param keywordIdsAfter 搜索索引已覆盖的最大ID，keywordIds不为空时必填
      * @param offset 偏移量
      * @param limit 限制数量
      * @return 用户列表
@@ -257,11 +326,31 @@ public interface UserMapper {
                                 @Param("status") String status,
                                 @Param("parentId") Long parentId,
                                 @Param("keyword") String keyword,
+                                @Param("keywordIds") java.util.Collection<Long> keywordIds,
+                                @Param("keywordIdsAfter") Long keywordIdsAfter,
                                 @Param("dateFrom") String dateFrom,
                                 @Param("dateTo") String dateTo,
                                 @Param("offset") int offset,
                                 @Param("limit") int limit);
 
+    /**
+     * 根据条件流式读取用户（用于导出）
+     * 返回的游标必须在事务（或打开的SqlSession）内遍历并关闭，期间占用一个数据库连接
+     *
+     * @param role 角色（可选）
+     * @param status 状态（可选）
+     * @param dateFrom 创建日期起（可选，含当天）
+     * @param dateTo 创建日期止（可选，含当天）
+     * @param visibleRootId 只读取该用户及其全部下级（可选，为空时不限制）
+     * @return 按ID升序逐行读取的游标
+     */
+    @DataPermission(table = "users", operation = OperationType.READ, description = "按条件导出用户")
+    Cursor<User> streamByConditions(@Param("role") String role,
+                                    @Param("status") String status,
+                                    @Param("dateFrom") String dateFrom,
+                                    @Param("dateTo") String dateTo,
+                                    @Param("visibleRootId") Long visibleRootId);
+
     /** 统计：最近N天每日新增用户 */
     @DataPermission(table = "users", operation = OperationType.STATS, description = "最近N天每日新增用户")
     java.util.List<java.util.Map<String, Object>> countDailyNewUsers(@Param("days") int days);
@@ -273,4 +362,12 @@ public interface UserMapper {
     /** 统计：最近N天每日新增用户（按状态分组） */
     @DataPermission(table = "users", operation = OperationType.STATS, description = "最近N天每日新增用户-按状态分组")
     java.util.List<java.util.Map<String, Object>> countDailyNewUsersByStatus(@Param("days") int days);
+
+    /** 统计：按角色+状态分组的用户数量 */
+    @DataPermission(table = "users", operation = OperationType.STATS, description = "用户数量-按角色和状态分组")
+    java.util.List<java.util.Map<String, Object>> countGroupByRoleAndStatus();
+
+    /** 统计：指定日期起每日新增用户（按角色+状态分组） */
+    @DataPermission(table = "users", operation = OperationType.STATS, description = "每日新增用户-按角色和状态分组")
+    java.util.List<java.util.Map<String, Object>> countDailyNewUsersByRoleAndStatus(@Param("since") java.time.LocalDate since);
 }
\ No newline at end of file
@@ -3,91 +3,414 @@ package com.example.data.permission;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 数据操作日志记录服务
  * 将数据操作记录到data_operation_logs表中
- * 
+ *
+ * 日志记录采用异步批量写入：业务线程只把记录放入有界环形缓冲区，
+ * 后台刷写线程在攒满batch-size条或等待flush-interval-ms后通过JDBC批量插入落库，
+ * 缓冲区满时按overflow-policy处理（DROP丢弃并计数 / BLOCK限时阻塞 / SPILL溢写本地文件），
+ * 应用关闭时会将缓冲区中剩余记录全部刷写完毕。
+ *
  * @author Data Access Generator
- * @version 1.0
+ * @version 1.1
  * @since 2025-08-03
  */
 @Service
 public class DataOperationLogger {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(DataOperationLogger.class);
-    
+
+    private static final String INSERT_SQL = "INSERT INTO data_operation_logs " +
+            "(service_name, table_name, operation_type, method_name, status, " +
+            "error_message, execute_time_ms, description, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 缓冲区溢出策略
+     */
+    public enum OverflowPolicy {
+        /** 丢弃新记录并计数 */
+        DROP,
+        /** 阻塞调用线程直到有空位或超时，超时后丢弃并计数 */
+        BLOCK,
+        /** 溢写到本地文件 */
+        SPILL
+    }
+
     @Autowired
     private DataSource dataSource;
-    
+
+    @Value("${data.permission.logging.buffer-size:8192}")
+    private int bufferSize = 8192;
+
+    @Value("${data.permission.logging.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${data.permission.logging.flush-interval-ms:1000}")
+    private long flushIntervalMs = 1000L;
+
+    @Value("${data.permission.logging.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    @Value("${data.permission.logging.block-timeout-ms:50}")
+    private long blockTimeoutMs = 50L;
+
+    @Value("${data.permission.logging.spill-file:logs/data-operation-logs.spill}")
+    private String spillFile = "logs/data-operation-logs.spill";
+
+    @Value("${data.permission.logging.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs = 5000L;
+
+    private volatile BlockingQueue<LogRecord> buffer;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong spilledCount = new AtomicLong();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final Object spillLock = new Object();
+
+    /**
+     * 启动后台刷写线程
+     */
+    @PostConstruct
+    public void start() {
+        getBuffer();
+        running = true;
+        flusher = new Thread(this::runFlusher, "data-operation-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("DataOperationLogger started: bufferSize={}, batchSize={}, flushIntervalMs={}, overflowPolicy={}",
+                   bufferSize, batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    /**
+     * 停止后台刷写线程并将缓冲区剩余记录全部落库
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread current = flusher;
+        if (current != null) {
+            try {
+                current.join(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int drained = flush();
+        logger.info("DataOperationLogger stopped: drained={}, written={}, dropped={}, spilled={}",
+                   drained, writtenCount.get(), droppedCount.get(), spilledCount.get());
+    }
+
     /**
      * 记录操作成功日志
      */
-    public void logSuccess(String serviceName, String tableName, OperationType operation, 
+    public void logSuccess(String serviceName, String tableName, OperationType operation,
                           String description, String methodName, long executeTime) {
-        logOperation(serviceName, tableName, operation, description, methodName, 
+        logOperation(serviceName, tableName, operation, description, methodName,
                     "SUCCESS", null, executeTime);
     }
-    
+
     /**
      * 记录权限拒绝日志
      */
-    public void logPermissionDenied(String serviceName, String tableName, OperationType operation, 
+    public void logPermissionDenied(String serviceName, String tableName, OperationType operation,
                                    String description, String methodName, String errorMessage, long executeTime) {
-        logOperation(serviceName, tableName, operation, description, methodName, 
+        logOperation(serviceName, tableName, operation, description, methodName,
                     "PERMISSION_DENIED", errorMessage, executeTime);
     }
-    
+
     /**
      * 记录操作失败日志
      */
-    public void logFailure(String serviceName, String tableName, OperationType operation, 
+    public void logFailure(String serviceName, String tableName, OperationType operation,
                           String description, String methodName, String errorMessage, long executeTime) {
-        logOperation(serviceName, tableName, operation, description, methodName, 
+        logOperation(serviceName, tableName, operation, description, methodName,
                     "FAILURE", errorMessage, executeTime);
     }
-    
+
+    /**
+     * 同步刷写缓冲区中的全部记录
+     *
+     * @return 本次从缓冲区取出的记录数
+     */
+    public int flush() {
+        BlockingQueue<LogRecord> queue = getBuffer();
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+        int total = 0;
+        while (queue.drainTo(batch, batchSize) > 0) {
+            total += batch.size();
+            writeBatch(batch);
+            batch.clear();
+        }
+        return total;
+    }
+
+    /**
+     * 当前缓冲区中待刷写的记录数
+     */
+    public int getPendingCount() {
+        return getBuffer().size();
+    }
+
+    /**
+     * 因缓冲区溢出或写库失败而丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 溢写到本地文件的记录数
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * 成功写入数据库的记录数
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
     /**
-     * 通用日志记录方法
+     * 通用日志记录方法，仅入队，不访问数据库
      */
-    private void logOperation(String serviceName, String tableName, OperationType operation, 
-                             String description, String methodName, String status, 
+    private void logOperation(String serviceName, String tableName, OperationType operation,
+                             String description, String methodName, String status,
                              String errorMessage, long executeTime) {
-        
-        String sql = "INSERT INTO data_operation_logs " +
-                    "(service_name, table_name, operation_type, method_name, status, " +
-                    "error_message, execute_time_ms, description, created_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
+
+        LogRecord record = new LogRecord(serviceName, tableName, operation.getCode(), methodName,
+                status, errorMessage, executeTime, description, LocalDateTime.now());
+
+        if (getBuffer().offer(record)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    if (getBuffer().offer(record, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                dropped(Collections.singletonList(record));
+                break;
+            case SPILL:
+                spill(Collections.singletonList(record));
+                break;
+            case DROP:
+            default:
+                dropped(Collections.singletonList(record));
+                break;
+        }
+    }
+
+    /**
+     * 后台刷写循环：攒满一批或等待超时后写库
+     */
+    private void runFlusher() {
+        BlockingQueue<LogRecord> queue = getBuffer();
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                LogRecord first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (running && batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    LogRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 使用JDBC批量插入写入一批日志记录
+     */
+    private void writeBatch(List<LogRecord> batch) {
+        boolean executed = false;
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, serviceName);
-            stmt.setString(2, tableName);
-            stmt.setString(3, operation.getCode());
-            stmt.setString(4, methodName);
-            stmt.setString(5, status);
-            stmt.setString(6, errorMessage);
-            stmt.setLong(7, executeTime);
-            stmt.setString(8, description);
-            stmt.setObject(9, LocalDateTime.now());
-            
-            stmt.executeUpdate();
-            
-            logger.debug("Logged operation: service={}, table={}, operation={}, status={}, time={}ms", 
-                        serviceName, tableName, operation, status, executeTime);
-            
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+
+            for (LogRecord record : batch) {
+                stmt.setString(1, record.serviceName);
+                stmt.setString(2, record.tableName);
+                stmt.setString(3, record.operationType);
+                stmt.setString(4, record.methodName);
+                stmt.setString(5, record.status);
+                stmt.setString(6, record.errorMessage);
+                stmt.setLong(7, record.executeTime);
+                stmt.setString(8, record.description);
+                stmt.setObject(9, record.createdAt);
+                stmt.addBatch();
+            }
+
+            stmt.executeBatch();
+            executed = true;
+            writtenCount.addAndGet(batch.size());
+
+            logger.debug("Flushed {} data operation logs", batch.size());
+
         } catch (SQLException e) {
             // 日志记录失败不应该影响业务流程，只记录错误日志
-            logger.error("Failed to log data operation: service={}, table={}, operation={}", 
-                        serviceName, tableName, operation, e);
+            logger.error("Failed to flush {} data operation logs", batch.size(), e);
+            if (executed) {
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                dropped(batch);
+            }
+        }
+    }
+
+    /**
+     * 将记录以制表符分隔的格式追加到本地溢写文件
+     */
+    private void spill(List<LogRecord> records) {
+        synchronized (spillLock) {
+            try {
+                Path path = Paths.get(spillFile);
+                Path parent = path.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (LogRecord record : records) {
+                        writer.write(record.toSpillLine());
+                        writer.newLine();
+                    }
+                }
+                spilledCount.addAndGet(records.size());
+            } catch (IOException e) {
+                logger.error("Failed to spill {} data operation logs to {}", records.size(), spillFile, e);
+                dropped(records);
+            }
+        }
+    }
+
+    private void dropped(List<LogRecord> records) {
+        long total = droppedCount.addAndGet(records.size());
+        // 避免缓冲区持续溢出时刷屏，仅在跨越2的幂次时告警
+        if (Long.bitCount(total) == 1) {
+            logger.warn("Data operation log buffer overflow, dropped {} records in total", total);
+        }
+    }
+
+    private BlockingQueue<LogRecord> getBuffer() {
+        BlockingQueue<LogRecord> queue = buffer;
+        if (queue == null) {
+            synchronized (this) {
+                queue = buffer;
+                if (queue == null) {
+                    queue = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+                    buffer = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * 待写入的操作日志记录
+     */
+    private static final class LogRecord {
+        private final String serviceName;
+        private final String tableName;
+        private final String operationType;
+        private final String methodName;
+        private final String status;
+        private final String errorMessage;
+        private final long executeTime;
+        private final String description;
+        private final LocalDateTime createdAt;
+
+        private LogRecord(String serviceName, String tableName, String operationType, String methodName,
+                          String status, String errorMessage, long executeTime, String description,
+                          LocalDateTime createdAt) {
+            this.serviceName = serviceName;
+            this.tableName = tableName;
+            this.operationType = operationType;
+            this.methodName = methodName;
+            this.status = status;
+            this.errorMessage = errorMessage;
+            this.executeTime = executeTime;
+            this.description = description;
+            this.createdAt = createdAt;
+        }
+
+        private String toSpillLine() {
+            return String.join("\t", escape(serviceName), escape(tableName), escape(operationType),
+                    escape(methodName), escape(status), escape(errorMessage), String.valueOf(executeTime),
+                    escape(description), createdAt.toString());
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "\\N";
+            }
+            return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
         }
     }
-}
\ No newline at end of file
+}
@@ -5,129 +5,122 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * 数据访问权限检查服务
  * 根据微服务权限矩阵检查数据访问权限
- * 
+ *
+ * 权限矩阵在类加载时编译为不可变的 {@link PermissionMatrix}，
+ * 判权路径为一次表id查找加一次位运算，不分配对象；
+ * 拒绝日志对每个(表, 操作)组合只输出一次WARN，之后降级为DEBUG。
+ *
  * @author Data Access Generator
- * @version 1.0
+ * @version 1.1
  * @since 2025-08-03
  */
 @Service
 public class DataPermissionChecker {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(DataPermissionChecker.class);
-    
+
     @Value("${spring.application.name:unknown-service}")
     private String serviceName;
-    
+
     /**
      * 微服务数据权限矩阵
      * 根据development-workflow-standard.md中的权限分配表定义
      */
-    private static final Map<String, Map<String, List<OperationType>>> SERVICE_PERMISSIONS = new HashMap<>();
-    
-    static {
-        // auth-service权限 - 用户管理核心服务
-        Map<String, List<OperationType>> authPermissions = new HashMap<>();
-        authPermissions.put("users", Arrays.asList(OperationType.READ, OperationType.CREATE, OperationType.UPDATE));
-        authPermissions.put("agent_levels", Arrays.asList(OperationType.READ));
-        authPermissions.put("user_agent_level", Arrays.asList(OperationType.READ, OperationType.CREATE, OperationType.UPDATE));
-        SERVICE_PERMISSIONS.put("auth-service", authPermissions);
-        
-        // user-service权限 - 用户管理完全权限
-        Map<String, List<OperationType>> userPermissions = new HashMap<>();
-        userPermissions.put("users", Arrays.asList(OperationType.values()));
-        userPermissions.put("agent_levels", Arrays.asList(OperationType.values()));
-        userPermissions.put("user_agent_level", Arrays.asList(OperationType.values()));
-        userPermissions.put("agent_level_audit", Arrays.asList(OperationType.values()));
-        userPermissions.put("agent_level_history", Arrays.asList(OperationType.values()));
-        SERVICE_PERMISSIONS.put("user-service", userPermissions);
-        
-        // lead-service权限 - 客资管理服务
-        Map<String, List<OperationType>> leadPermissions = new HashMap<>();
-        leadPermissions.put("customer_leads", Arrays.asList(OperationType.values()));
-        leadPermissions.put("lead_audit_records", Arrays.asList(OperationType.values()));
-        leadPermissions.put("lead_audit_rewards", Arrays.asList(OperationType.values()));
-        leadPermissions.put("users", Arrays.asList(OperationType.READ, OperationType.STATS));
-        leadPermissions.put("products", Arrays.asList(OperationType.READ));
-        SERVICE_PERMISSIONS.put("lead-service", leadPermissions);
-        
-        // deal-service权限 - 交易核心服务
-        Map<String, List<OperationType>> dealPermissions = new HashMap<>();
-        dealPermissions.put("deals", Arrays.asList(OperationType.values()));
-        dealPermissions.put("commissions", Arrays.asList(OperationType.values()));
-        dealPermissions.put("customer_leads", Arrays.asList(OperationType.READ, OperationType.UPDATE));
-        dealPermissions.put("products", Arrays.asList(OperationType.READ));
-        dealPermissions.put("users", Arrays.asList(OperationType.READ));
-        SERVICE_PERMISSIONS.put("deal-service", dealPermissions);
-        
-        // product-service权限 - 商品管理服务
-        Map<String, List<OperationType>> productPermissions = new HashMap<>();
-        productPermissions.put("products", Arrays.asList(OperationType.values()));
-        SERVICE_PERMISSIONS.put("product-service", productPermissions);
-        
-        // promotion-service权限 - 推广管理服务
-        Map<String, List<OperationType>> promotionPermissions = new HashMap<>();
-        promotionPermissions.put("promotions", Arrays.asList(OperationType.values()));
-        promotionPermissions.put("promotion_audit_history", Arrays.asList(OperationType.values()));
-        promotionPermissions.put("second_audit_requests", Arrays.asList(OperationType.values()));
-        promotionPermissions.put("submission_limits", Arrays.asList(OperationType.values()));
-        promotionPermissions.put("users", Arrays.asList(OperationType.READ));
-        SERVICE_PERMISSIONS.put("promotion-service", promotionPermissions);
-        
-        // invitation-service权限 - 邀请系统服务
-        Map<String, List<OperationType>> invitationPermissions = new HashMap<>();
-        invitationPermissions.put("invitation_codes", Arrays.asList(OperationType.values()));
-        invitationPermissions.put("invitation_records", Arrays.asList(OperationType.values()));
-        invitationPermissions.put("users", Arrays.asList(OperationType.READ));
-        SERVICE_PERMISSIONS.put("invitation-service", invitationPermissions);
-        
-        // 通用权限 - 所有服务都可以记录操作日志
-        for (Map<String, List<OperationType>> permissions : SERVICE_PERMISSIONS.values()) {
-            permissions.put("data_operation_logs", Arrays.asList(OperationType.CREATE));
-        }
-    }
-    
+    private static final PermissionMatrix PERMISSION_MATRIX = PermissionMatrix.builder()
+            // auth-service权限 - 用户管理核心服务
+            .grant("auth-service", "users", OperationType.READ, OperationType.CREATE, OperationType.UPDATE)
+            .grant("auth-service", "agent_levels", OperationType.READ)
+            .grant("auth-service", "user_agent_level", OperationType.READ, OperationType.CREATE, OperationType.UPDATE)
+
+            // user-service权限 - 用户管理完全权限
+            .grantAll("user-service", "users")
+            .grant("user-service", "user_closure", OperationType.READ)
+            .grantAll("user-service", "agent_levels")
+            .grantAll("user-service", "user_agent_level")
+            .grantAll("user-service", "agent_level_audit")
+            .grantAll("user-service", "agent_level_history")
+
+            // lead-service权限 - 客资管理服务
+            .grantAll("lead-service", "customer_leads")
+            .grantAll("lead-service", "lead_audit_records")
+            .grantAll("lead-service", "lead_audit_rewards")
+            .grantAll("lead-service", "lead_daily_stats")
+            .grant("lead-service", "users", OperationType.READ, OperationType.STATS)
+            .grant("lead-service", "products", OperationType.READ)
+
+            // deal-service权限 - 交易核心服务
+            .grantAll("deal-service", "deals")
+            .grantAll("deal-service", "commissions")
+            .grant("deal-service", "customer_leads", OperationType.READ, OperationType.UPDATE)
+            .grant("deal-service", "products", OperationType.READ)
+            .grant("deal-service", "users", OperationType.READ)
+
+            // product-service权限 - 商品管理服务
+            .grantAll("product-service", "products")
+
+            // promotion-service权限 - 推广管理服务
+            .grantAll("promotion-service", "promotions")
+            .grantAll("promotion-service", "promotion_audit_history")
+            .grantAll("promotion-service", "second_audit_requests")
+            .grantAll("promotion-service", "submission_limits")
+            .grant("promotion-service", "users", OperationType.READ)
+
+            // invitation-service权限 - 邀请系统服务
+            .grantAll("invitation-service", "invitation_codes")
+            .grantAll("invitation-service", "invitation_records")
+            .grant("invitation-service", "users", OperationType.READ)
+
+            // 通用权限 - 所有服务都可以记录操作日志
+            .grantToAllServices("data_operation_logs", OperationType.CREATE)
+            .build();
+
+    /**
+     * 当前服务在矩阵中的权限行，按serviceName惰性解析
+     */
+    private volatile ResolvedRow resolvedRow;
+
+    /**
+     * 每个表已输出过WARN的操作掩码，最后一个槽位用于未定义的表
+     */
+    private final AtomicIntegerArray warnedMasks = new AtomicIntegerArray(PERMISSION_MATRIX.tableCount() + 1);
+
     /**
      * 检查当前服务是否有权限访问指定表和操作
-     * 
+     *
      * @param table 数据表名
      * @param operation 操作类型
      * @return 是否有权限
      */
     public boolean hasPermission(String table, OperationType operation) {
-        Map<String, List<OperationType>> servicePermissions = SERVICE_PERMISSIONS.get(serviceName);
-        
-        if (servicePermissions == null) {
-            logger.warn("No permissions defined for service: {}", serviceName);
-            return false;
-        }
-        
-        List<OperationType> tablePermissions = servicePermissions.get(table);
-        if (tablePermissions == null) {
-            logger.warn("Service {} has no permissions defined for table: {}", serviceName, table);
-            return false;
-        }
-        
-        boolean hasPermission = tablePermissions.contains(operation);
-        
-        if (!hasPermission) {
-            logger.warn("Service {} does not have {} permission for table: {}", 
-                       serviceName, operation, table);
+        return hasPermission(PERMISSION_MATRIX.tableId(table), operation);
+    }
+
+    /**
+     * 使用预先解析的表id检查权限
+     *
+     * @param tableId 通过 {@link #tableId(String)} 获取的表id
+     * @param operation 操作类型
+     * @return 是否有权限
+     */
+    public boolean hasPermission(int tableId, OperationType operation) {
+        int[] row = currentRow();
+        if (row != null && PermissionMatrix.allows(row, tableId, operation)) {
+            return true;
         }
-        
-        return hasPermission;
+        logDenied(row, tableId, operation);
+        return false;
     }
-    
+
     /**
      * 检查并抛出权限异常
-     * 
+     *
      * @param table 数据表名
      * @param operation 操作类型
      * @throws DataPermissionException 权限不足异常
@@ -135,22 +128,77 @@ public class DataPermissionChecker {
     public void checkPermission(String table, OperationType operation) throws DataPermissionException {
         if (!hasPermission(table, operation)) {
             throw new DataPermissionException(
-                String.format("Service %s does not have %s permission for table %s", 
+                String.format("Service %s does not have %s permission for table %s",
                              serviceName, operation, table));
         }
     }
-    
+
+    /**
+     * 获取表在权限矩阵中的id，未定义的表返回 {@link PermissionMatrix#UNKNOWN}
+     */
+    public int tableId(String table) {
+        return PERMISSION_MATRIX.tableId(table);
+    }
+
     /**
      * 获取当前服务名称
      */
     public String getServiceName() {
         return serviceName;
     }
-    
+
     /**
      * 获取服务的所有权限
      */
     public Map<String, List<OperationType>> getServicePermissions() {
-        return SERVICE_PERMISSIONS.get(serviceName);
+        return PERMISSION_MATRIX.permissionsOf(serviceName);
+    }
+
+    private int[] currentRow() {
+        String name = serviceName;
+        ResolvedRow resolved = resolvedRow;
+        if (resolved == null || resolved.serviceName != name) {
+            resolved = new ResolvedRow(name, PERMISSION_MATRIX.row(name));
+            resolvedRow = resolved;
+        }
+        return resolved.row;
+    }
+
+    private void logDenied(int[] row, int tableId, OperationType operation) {
+        int slot = tableId == PermissionMatrix.UNKNOWN ? PERMISSION_MATRIX.tableCount() : tableId;
+        int bit = PermissionMatrix.bit(operation);
+        boolean firstTime = (warnedMasks.getAndAccumulate(slot, bit, (prev, b) -> prev | b) & bit) == 0;
+        if (!firstTime && !logger.isDebugEnabled()) {
+            return;
+        }
+
+        String table = tableId == PermissionMatrix.UNKNOWN ? "<undefined>" : PERMISSION_MATRIX.tableName(tableId);
+        String message;
+        if (row == null) {
+            message = "No permissions defined for service: {} (table: {}, operation: {})";
+        } else if (!PermissionMatrix.defines(row, tableId)) {
+            message = "Service {} has no permissions defined for table: {} (operation: {})";
+        } else {
+            message = "Service {} does not have permission for table: {} (operation: {})";
+        }
+
+        if (firstTime) {
+            logger.warn(message, serviceName, table, operation);
+        } else {
+            logger.debug(message, serviceName, table, operation);
+        }
+    }
+
+    /**
+     * 服务名与其权限行的不可变快照
+     */
+    private static final class ResolvedRow {
+        private final String serviceName;
+        private final int[] row;
+
+        private ResolvedRow(String serviceName, int[] row) {
+            this.serviceName = serviceName;
+            this.row = row;
+        }
     }
-}
\ No newline at end of file
+}
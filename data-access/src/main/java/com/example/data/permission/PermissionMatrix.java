@@ -0,0 +1,195 @@
+package com.example.data.permission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 预编译的不可变数据权限矩阵
+ *
+ * 启动时将"服务 → 表 → 操作集合"的权限定义编译为二维位图：
+ * 表名映射为连续的整数id，每个服务对应一行按表id索引的int数组，
+ * 单元格保存按 {@link OperationType#ordinal()} 置位的操作掩码。运行期判权只需一次表id查找和一次数组下标访问，
+ * 不产生任何对象分配。
+ *
+ * @author Data Access Generator
+ * @version 1.0
+ * @since 2025-08-03
+ */
+public final class PermissionMatrix {
+
+    /**
+     * 未知表/未知服务的id
+     */
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> tableIds;
+
+    private final String[] tableNames;
+
+    private final Map<String, int[]> serviceRows;
+
+    private final Map<String, Map<String, List<OperationType>>> servicePermissions;
+
+    private PermissionMatrix(Map<String, Map<String, Set<OperationType>>> definitions) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (Map<String, Set<OperationType>> tables : definitions.values()) {
+            for (String table : tables.keySet()) {
+                if (!ids.containsKey(table)) {
+                    ids.put(table.intern(), names.size());
+                    names.add(table.intern());
+                }
+            }
+        }
+        this.tableIds = Collections.unmodifiableMap(ids);
+        this.tableNames = names.toArray(new String[0]);
+
+        Map<String, int[]> rows = new HashMap<>();
+        Map<String, Map<String, List<OperationType>>> views = new HashMap<>();
+        for (Map.Entry<String, Map<String, Set<OperationType>>> service : definitions.entrySet()) {
+            int[] row = new int[tableNames.length];
+            Map<String, List<OperationType>> view = new LinkedHashMap<>();
+            for (Map.Entry<String, Set<OperationType>> table : service.getValue().entrySet()) {
+                row[ids.get(table.getKey())] = toMask(table.getValue());
+                view.put(table.getKey(), Collections.unmodifiableList(new ArrayList<>(table.getValue())));
+            }
+            rows.put(service.getKey(), row);
+            views.put(service.getKey(), Collections.unmodifiableMap(view));
+        }
+        this.serviceRows = Collections.unmodifiableMap(rows);
+        this.servicePermissions = Collections.unmodifiableMap(views);
+    }
+
+    /**
+     * 创建权限矩阵构建器
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 获取表的整数id
+     *
+     * @param table 数据表名
+     * @return 表id，未定义的表返回 {@link #UNKNOWN}
+     */
+    public int tableId(String table) {
+        Integer id = table == null ? null : tableIds.get(table);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * 获取表id对应的表名
+     */
+    public String tableName(int tableId) {
+        return tableNames[tableId];
+    }
+
+    /**
+     * 表的数量
+     */
+    public int tableCount() {
+        return tableNames.length;
+    }
+
+    /**
+     * 获取服务的权限行（按表id索引的操作掩码数组）
+     *
+     * @param serviceName 服务名
+     * @return 权限行，未定义的服务返回null
+     */
+    public int[] row(String serviceName) {
+        return serviceName == null ? null : serviceRows.get(serviceName);
+    }
+
+    /**
+     * 判断权限行是否包含指定表的操作权限
+     *
+     * @param row 通过 {@link #row(String)} 获取的权限行
+     * @param tableId 表id
+     * @param operation 操作类型
+     */
+    public static boolean allows(int[] row, int tableId, OperationType operation) {
+        return tableId >= 0 && tableId < row.length && (row[tableId] & bit(operation)) != 0;
+    }
+
+    /**
+     * 判断服务是否对表定义了任意权限
+     */
+    public static boolean defines(int[] row, int tableId) {
+        return tableId >= 0 && tableId < row.length && row[tableId] != 0;
+    }
+
+    /**
+     * 获取服务权限的只读视图
+     *
+     * @param serviceName 服务名
+     * @return 表名到操作列表的映射，未定义的服务返回null
+     */
+    public Map<String, List<OperationType>> permissionsOf(String serviceName) {
+        return serviceName == null ? null : servicePermissions.get(serviceName);
+    }
+
+    static int bit(OperationType operation) {
+        return 1 << operation.ordinal();
+    }
+
+    private static int toMask(Set<OperationType> operations) {
+        int mask = 0;
+        for (OperationType operation : operations) {
+            mask |= bit(operation);
+        }
+        return mask;
+    }
+
+    /**
+     * 权限矩阵构建器
+     */
+    public static final class Builder {
+
+        private final Map<String, Map<String, Set<OperationType>>> definitions = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 为服务授予表的指定操作权限
+         */
+        public Builder grant(String serviceName, String table, OperationType first, OperationType... rest) {
+            definitions.computeIfAbsent(serviceName, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(table, k -> EnumSet.noneOf(OperationType.class))
+                    .addAll(EnumSet.of(first, rest));
+            return this;
+        }
+
+        /**
+         * 为服务授予表的全部操作权限
+         */
+        public Builder grantAll(String serviceName, String table) {
+            definitions.computeIfAbsent(serviceName, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(table, k -> EnumSet.noneOf(OperationType.class))
+                    .addAll(EnumSet.allOf(OperationType.class));
+            return this;
+        }
+
+        /**
+         * 为所有已定义的服务授予表的指定操作权限
+         */
+        public Builder grantToAllServices(String table, OperationType first, OperationType... rest) {
+            for (String serviceName : new ArrayList<>(definitions.keySet())) {
+                grant(serviceName, table, first, rest);
+            }
+            return this;
+        }
+
+        public PermissionMatrix build() {
+            return new PermissionMatrix(definitions);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.data.mapper;
+
+import com.example.data.entity.CustomerLead;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CustomerLeadMapper游标分页测试
+ *
+ * <p>在H2（MySQL模式，NULL升序排最前、降序排最后，与MySQL一致）上执行真实的Mapper XML，
+ * 逐页按上一页最后一行的 (排序字段值, id) 读取，结果须与OFFSET分页的完整顺序一致。
+ * 客资1~4的最后跟进时间为NULL，5、7相同，6最早。
+ */
+@DisplayName("客户资源游标分页测试")
+class CustomerLeadMapperCursorTest {
+
+    private static final LocalDateTime EARLY = LocalDateTime.of(2025, 8, 1, 9, 0);
+    private static final LocalDateTime LATE = LocalDateTime.of(2025, 8, 2, 9, 0);
+
+    private JdbcDataSource dataSource;
+
+    private SqlSession session;
+
+    private CustomerLeadMapper mapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:lead_cursor;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customer_leads (id BIGINT PRIMARY KEY, name VARCHAR(50), phone VARCHAR(20), "
+                    + "wechat_id VARCHAR(50), status VARCHAR(20), audit_status VARCHAR(20), source VARCHAR(50), "
+                    + "source_detail VARCHAR(200), salesperson_id BIGINT, notes VARCHAR(500), last_follow_up_at DATETIME, "
+                    + "created_at DATETIME, updated_at DATETIME)");
+        }
+        insert(1L, null, null);
+        insert(2L, null, "online_ad");
+        insert(3L, null, null);
+        insert(4L, null, "referral");
+        insert(5L, LATE, "referral");
+        insert(6L, EARLY, null);
+        insert(7L, LATE, "online_ad");
+
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        try (InputStream in = Resources.getResourceAsStream("mapper/CustomerLeadMapper.xml")) {
+            new XMLMapperBuilder(in, configuration, "mapper/CustomerLeadMapper.xml", configuration.getSqlFragments()).parse();
+        }
+        SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+        session = factory.openSession();
+        mapper = session.getMapper(CustomerLeadMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        session.close();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE customer_leads");
+        }
+    }
+
+    @Test
+    @DisplayName("升序：NULL区间在前，页边界落在NULL区间内和NULL区间末尾")
+    void testAscendingAcrossNullRange() {
+        // 页：[1,2] [3,4] [6,5] [7]，第1页止于NULL区间内，第2页止于最后一个NULL
+        List<Long> expected = Arrays.asList(1L, 2L, 3L, 4L, 6L, 5L, 7L);
+        assertEquals(expected, ids(offsetPage("lastFollowUpAt", "asc", 0, 10)));
+        assertEquals(expected, pageByCursor("lastFollowUpAt", "asc", 2, CustomerLead::getLastFollowUpAt));
+        assertEquals(expected, pageByCursor("lastFollowUpAt", "asc", 3, CustomerLead::getLastFollowUpAt));
+    }
+
+    @Test
+    @DisplayName("降序：NULL区间在后，页边界落在进入NULL区间处和NULL区间内")
+    void testDescendingAcrossNullRange() {
+        // 页：[7,5] [6,4] [3,2] [1]，第2页从非NULL跨入NULL区间，第3页止于NULL区间内
+        List<Long> expected = Arrays.asList(7L, 5L, 6L, 4L, 3L, 2L, 1L);
+        assertEquals(expected, ids(offsetPage("lastFollowUpAt", "desc", 0, 10)));
+        assertEquals(expected, pageByCursor("lastFollowUpAt", "desc", 2, CustomerLead::getLastFollowUpAt));
+        assertEquals(expected, pageByCursor("lastFollowUpAt", "desc", 3, CustomerLead::getLastFollowUpAt));
+    }
+
+    @Test
+    @DisplayName("字符串排序字段含NULL时游标分页与OFFSET分页一致")
+    void testStringSortColumnWithNulls() {
+        for (String order : Arrays.asList("asc", "desc")) {
+            List<Long> expected = ids(offsetPage("source", order, 0, 10));
+            for (int size = 1; size <= 4; size++) {
+                assertEquals(expected, pageByCursor("source", order, size, CustomerLead::getSource), order + " size=" + size);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("从NULL区间最后一行之后读取：升序进入非NULL区间，降序没有更多数据")
+    void testCursorAtLastNullRow() {
+        assertEquals(Arrays.asList(6L, 5L, 7L), ids(afterCursor("lastFollowUpAt", "asc", null, 4L, 10)));
+        assertTrue(afterCursor("lastFollowUpAt", "desc", null, 1L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("游标为空时返回第一页")
+    void testFirstPageWithoutCursor() {
+        assertEquals(Arrays.asList(1L, 2L), ids(afterCursor("lastFollowUpAt", "asc", null, null, 2)));
+        assertEquals(Arrays.asList(7L, 5L), ids(afterCursor("lastFollowUpAt", "desc", null, null, 2)));
+    }
+
+    /**
+     * 按游标逐页读取全部客资，每页多取一行判断是否还有下一页（与LeadDataFacade一致）
+     */
+    private List<Long> pageByCursor(String sortBy, String sortOrder, int size, Function<CustomerLead, Object> sortValue) {
+        List<Long> result = new ArrayList<>();
+        Object cursorValue = null;
+        Long cursorId = null;
+        for (int page = 0; page < 20; page++) {
+            List<CustomerLead> rows = afterCursor(sortBy, sortOrder, cursorValue, cursorId, size + 1);
+            List<CustomerLead> current = rows.size() > size ? rows.subList(0, size) : rows;
+            result.addAll(ids(current));
+            if (rows.size() <= size) {
+                return result;
+            }
+            CustomerLead last = current.get(size - 1);
+            cursorValue = sortValue.apply(last);
+            cursorId = last.getId();
+        }
+        fail("游标分页未结束");
+        return result;
+    }
+
+    private List<CustomerLead> afterCursor(String sortBy, String sortOrder, Object cursorValue, Long cursorId, int limit) {
+        return mapper.findByConditionsAfterCursor(null, null, null, null, null, null, null, null, null,
+                sortBy, sortOrder, cursorValue, cursorId, limit);
+    }
+
+    private List<CustomerLead> offsetPage(String sortBy, String sortOrder, int offset, int limit) {
+        return mapper.findByConditions(null, null, null, null, null, null, null, null, null,
+                sortBy, sortOrder, offset, limit);
+    }
+
+    private static List<Long> ids(List<CustomerLead> rows) {
+        return rows.stream().map(CustomerLead::getId).collect(Collectors.toList());
+    }
+
+    private void insert(Long id, LocalDateTime lastFollowUpAt, String source) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO customer_leads "
+                     + "(id, name, phone, status, audit_status, source, salesperson_id, last_follow_up_at, created_at, updated_at) "
+                     + "VALUES (?, ?, ?, 'PENDING', 'PENDING_AUDIT', ?, 5, ?, ?, ?)")) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 8, 1, 8, 0));
+            statement.setLong(1, id);
+            statement.setString(2, "客户" + id);
+            statement.setString(3, "1380013800" + id);
+            statement.setString(4, source);
+            statement.setTimestamp(5, lastFollowUpAt != null ? Timestamp.valueOf(lastFollowUpAt) : null);
+            statement.setTimestamp(6, now);
+            statement.setTimestamp(7, now);
+            statement.executeUpdate();
+        }
+    }
+}
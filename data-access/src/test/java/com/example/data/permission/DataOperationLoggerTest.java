@@ -4,14 +4,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -56,15 +61,21 @@ class DataOperationLoggerTest {
         
         when(dataSource.getConnection()).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1});
         
         // When
         operationLogger.logSuccess(serviceName, tableName, operation, description, methodName, executeTime);
         
-        // Then
+        // Then - 记录只入队，不访问数据库
+        verifyNoInteractions(dataSource);
+        assertEquals(1, operationLogger.getPendingCount());
+        
+        assertEquals(1, operationLogger.flush());
         verify(dataSource).getConnection();
         verify(connection).prepareStatement(contains("INSERT INTO data_operation_logs"));
-        verify(preparedStatement).executeUpdate();
+        verify(preparedStatement).setString(5, "SUCCESS");
+        verify(preparedStatement).addBatch();
+        verify(preparedStatement).executeBatch();
         verify(connection).close();
         verify(preparedStatement).close();
     }
@@ -83,15 +94,17 @@ class DataOperationLoggerTest {
         
         when(dataSource.getConnection()).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1});
         
         // When
         operationLogger.logPermissionDenied(serviceName, tableName, operation, description, methodName, errorMessage, executeTime);
+        operationLogger.flush();
         
         // Then
         verify(dataSource).getConnection();
         verify(connection).prepareStatement(contains("INSERT INTO data_operation_logs"));
-        verify(preparedStatement).executeUpdate();
+        verify(preparedStatement).setString(5, "PERMISSION_DENIED");
+        verify(preparedStatement).executeBatch();
         verify(connection).close();
         verify(preparedStatement).close();
     }
@@ -110,15 +123,17 @@ class DataOperationLoggerTest {
         
         when(dataSource.getConnection()).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1});
         
         // When
         operationLogger.logFailure(serviceName, tableName, operation, description, methodName, errorMessage, executeTime);
+        operationLogger.flush();
         
         // Then
         verify(dataSource).getConnection();
         verify(connection).prepareStatement(contains("INSERT INTO data_operation_logs"));
-        verify(preparedStatement).executeUpdate();
+        verify(preparedStatement).setString(5, "FAILURE");
+        verify(preparedStatement).executeBatch();
         verify(connection).close();
         verify(preparedStatement).close();
     }
@@ -132,9 +147,11 @@ class DataOperationLoggerTest {
         // When & Then
         assertDoesNotThrow(() -> {
             operationLogger.logSuccess("test-service", "test_table", OperationType.READ, "test", "testMethod", 100L);
+            operationLogger.flush();
         });
         
         verify(dataSource).getConnection();
+        assertEquals(1, operationLogger.getDroppedCount());
     }
 
     @Test
@@ -143,16 +160,18 @@ class DataOperationLoggerTest {
         // Given
         when(dataSource.getConnection()).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenThrow(new SQLException("Execute failed"));
+        when(preparedStatement.executeBatch()).thenThrow(new SQLException("Execute failed"));
         
         // When & Then
         assertDoesNotThrow(() -> {
             operationLogger.logSuccess("test-service", "test_table", OperationType.READ, "test", "testMethod", 100L);
+            operationLogger.flush();
         });
         
         verify(dataSource).getConnection();
         verify(connection).prepareStatement(anyString());
-        verify(preparedStatement).executeUpdate();
+        verify(preparedStatement).executeBatch();
+        assertEquals(1, operationLogger.getDroppedCount());
     }
 
     @Test
@@ -161,14 +180,99 @@ class DataOperationLoggerTest {
         // Given
         when(dataSource.getConnection()).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1});
         doThrow(new SQLException("Close failed")).when(connection).close();
         
         // When & Then
         assertDoesNotThrow(() -> {
             operationLogger.logSuccess("test-service", "test_table", OperationType.READ, "test", "testMethod", 100L);
+            operationLogger.flush();
         });
         
         verify(connection).close();
     }
+
+    @Test
+    @DisplayName("批量刷写按batch-size分批执行")
+    void testFlush_SplitsIntoBatches() throws SQLException {
+        // Given
+        ReflectionTestUtils.setField(operationLogger, "batchSize", 2);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1, 1});
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            operationLogger.logSuccess("lead-service", "customer_leads", OperationType.READ, "查询", "findById", 1L);
+        }
+        int flushed = operationLogger.flush();
+        
+        // Then
+        assertEquals(5, flushed);
+        verify(preparedStatement, times(5)).addBatch();
+        verify(preparedStatement, times(3)).executeBatch();
+        assertEquals(5, operationLogger.getWrittenCount());
+        assertEquals(0, operationLogger.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("缓冲区满时DROP策略丢弃并计数")
+    void testOverflow_DropPolicy() {
+        // Given
+        ReflectionTestUtils.setField(operationLogger, "bufferSize", 2);
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            operationLogger.logSuccess("lead-service", "customer_leads", OperationType.READ, "查询", "findById", 1L);
+        }
+        
+        // Then
+        assertEquals(2, operationLogger.getPendingCount());
+        assertEquals(3, operationLogger.getDroppedCount());
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    @DisplayName("缓冲区满时SPILL策略溢写本地文件")
+    void testOverflow_SpillPolicy(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path spillFile = tempDir.resolve("spill/data-operation-logs.spill");
+        ReflectionTestUtils.setField(operationLogger, "bufferSize", 1);
+        ReflectionTestUtils.setField(operationLogger, "overflowPolicy", DataOperationLogger.OverflowPolicy.SPILL);
+        ReflectionTestUtils.setField(operationLogger, "spillFile", spillFile.toString());
+        
+        // When
+        operationLogger.logSuccess("lead-service", "customer_leads", OperationType.READ, "查询", "findById", 1L);
+        operationLogger.logFailure("lead-service", "customer_leads", OperationType.UPDATE, "更新", "update", "bad\tinput", 2L);
+        
+        // Then
+        assertEquals(1, operationLogger.getPendingCount());
+        assertEquals(1, operationLogger.getSpilledCount());
+        assertEquals(0, operationLogger.getDroppedCount());
+        List<String> lines = Files.readAllLines(spillFile);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("lead-service\tcustomer_leads\tUPDATE\tupdate\tFAILURE\tbad\\tinput\t2\t"));
+    }
+
+    @Test
+    @DisplayName("后台刷写线程写库且关闭时清空缓冲区")
+    void testStartAndStop_DrainsBuffer() throws SQLException {
+        // Given
+        ReflectionTestUtils.setField(operationLogger, "flushIntervalMs", 10L);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1});
+        
+        // When
+        operationLogger.start();
+        for (int i = 0; i < 10; i++) {
+            operationLogger.logSuccess("lead-service", "customer_leads", OperationType.READ, "查询", "findById", 1L);
+        }
+        operationLogger.stop();
+        
+        // Then
+        assertEquals(0, operationLogger.getPendingCount());
+        assertEquals(10, operationLogger.getWrittenCount());
+        verify(preparedStatement, times(10)).addBatch();
+    }
 }
\ No newline at end of file
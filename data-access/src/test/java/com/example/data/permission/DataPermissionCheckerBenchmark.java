@@ -0,0 +1,165 @@
+package com.example.data.permission;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataPermissionChecker JMH基准测试
+ * 多线程下对比旧的HashMap + List.contains判权路径与预编译位图矩阵路径
+ *
+ * 运行方式：
+ * mvn -pl data-access test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.data.permission.DataPermissionCheckerBenchmark
+ *
+ * @author Data Access Test Generator
+ * @version 1.0
+ * @since 2025-08-04
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class DataPermissionCheckerBenchmark {
+
+    /**
+     * 典型的lead-service调用组合，最后一项为拒绝访问
+     */
+    private static final String[] TABLES = {
+        "customer_leads", "customer_leads", "lead_audit_records", "users", "products", "deals"
+    };
+
+    private static final OperationType[] OPERATIONS = {
+        OperationType.READ, OperationType.UPDATE, OperationType.CREATE, OperationType.READ,
+        OperationType.READ, OperationType.READ
+    };
+
+    @State(Scope.Benchmark)
+    public static class Checkers {
+
+        /**
+         * allowed：只包含允许访问的组合，对比纯查找开销；mixed：包含拒绝访问的组合
+         */
+        @Param({"allowed", "mixed"})
+        String workload;
+
+        int calls;
+
+        DataPermissionChecker matrixChecker;
+
+        LegacyChecker legacyChecker;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // 与生产环境一致使用INFO级别，避免DEBUG日志掩盖判权开销
+            ((ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                    .setLevel(ch.qos.logback.classic.Level.INFO);
+
+            matrixChecker = new DataPermissionChecker();
+            ReflectionTestUtils.setField(matrixChecker, "serviceName", "lead-service");
+
+            Map<String, Map<String, List<OperationType>>> permissions = new HashMap<>();
+            for (String service : new String[]{"auth-service", "user-service", "lead-service", "deal-service",
+                    "product-service", "promotion-service", "invitation-service"}) {
+                ReflectionTestUtils.setField(matrixChecker, "serviceName", service);
+                Map<String, List<OperationType>> copy = new HashMap<>();
+                for (Map.Entry<String, List<OperationType>> entry : matrixChecker.getServicePermissions().entrySet()) {
+                    copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                }
+                permissions.put(service, copy);
+            }
+            ReflectionTestUtils.setField(matrixChecker, "serviceName", "lead-service");
+            legacyChecker = new LegacyChecker(permissions, "lead-service");
+            calls = "mixed".equals(workload) ? TABLES.length : TABLES.length - 1;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        int next(int calls) {
+            int current = index;
+            index = current + 1 == calls ? 0 : current + 1;
+            return current;
+        }
+    }
+
+    @Benchmark
+    public void legacyHashMapLookup(Checkers checkers, Cursor cursor, Blackhole blackhole) {
+        int i = cursor.next(checkers.calls);
+        blackhole.consume(checkers.legacyChecker.hasPermission(TABLES[i], OPERATIONS[i]));
+    }
+
+    @Benchmark
+    public void matrixLookup(Checkers checkers, Cursor cursor, Blackhole blackhole) {
+        int i = cursor.next(checkers.calls);
+        blackhole.consume(checkers.matrixChecker.hasPermission(TABLES[i], OPERATIONS[i]));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DataPermissionCheckerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 旧版判权实现：两次HashMap查找 + List.contains，拒绝时每次输出WARN
+     */
+    static final class LegacyChecker {
+
+        private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LegacyChecker.class);
+
+        private final Map<String, Map<String, List<OperationType>>> servicePermissions;
+
+        private final String serviceName;
+
+        LegacyChecker(Map<String, Map<String, List<OperationType>>> servicePermissions, String serviceName) {
+            this.servicePermissions = servicePermissions;
+            this.serviceName = serviceName;
+        }
+
+        boolean hasPermission(String table, OperationType operation) {
+            Map<String, List<OperationType>> permissions = servicePermissions.get(serviceName);
+            if (permissions == null) {
+                logger.warn("No permissions defined for service: {}", serviceName);
+                return false;
+            }
+            List<OperationType> tablePermissions = permissions.get(table);
+            if (tablePermissions == null) {
+                logger.warn("Service {} has no permissions defined for table: {}", serviceName, table);
+                return false;
+            }
+            boolean hasPermission = tablePermissions.contains(operation);
+            if (!hasPermission) {
+                logger.warn("Service {} does not have {} permission for table: {}", serviceName, operation, table);
+            }
+            return hasPermission;
+        }
+    }
+}
@@ -280,4 +280,50 @@ class DataPermissionCheckerTest {
         assertTrue(permissionChecker.hasPermission("users", OperationType.READ));
         assertFalse(permissionChecker.hasPermission("users", OperationType.CREATE));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("通过预解析的表id检查权限")
+    void testHasPermission_ByTableId() {
+        // Given
+        ReflectionTestUtils.setField(permissionChecker, "serviceName", "lead-service");
+        int customerLeads = permissionChecker.tableId("customer_leads");
+        int users = permissionChecker.tableId("users");
+        
+        // When & Then
+        assertNotEquals(PermissionMatrix.UNKNOWN, customerLeads);
+        assertEquals(PermissionMatrix.UNKNOWN, permissionChecker.tableId("undefined_table"));
+        assertTrue(permissionChecker.hasPermission(customerLeads, OperationType.DELETE));
+        assertTrue(permissionChecker.hasPermission(users, OperationType.STATS));
+        assertFalse(permissionChecker.hasPermission(users, OperationType.UPDATE));
+        assertFalse(permissionChecker.hasPermission(PermissionMatrix.UNKNOWN, OperationType.READ));
+    }
+
+    @Test
+    @DisplayName("切换服务名称后使用新服务的权限行")
+    void testHasPermission_ServiceNameChanged() {
+        // Given
+        ReflectionTestUtils.setField(permissionChecker, "serviceName", "auth-service");
+        assertFalse(permissionChecker.hasPermission("users", OperationType.DELETE));
+        
+        // When
+        ReflectionTestUtils.setField(permissionChecker, "serviceName", "user-service");
+        
+        // Then
+        assertTrue(permissionChecker.hasPermission("users", OperationType.DELETE));
+    }
+
+    @Test
+    @DisplayName("服务权限配置为只读视图")
+    void testGetServicePermissions_Unmodifiable() {
+        // Given
+        ReflectionTestUtils.setField(permissionChecker, "serviceName", "auth-service");
+        
+        // When
+        Map<String, List<OperationType>> permissions = permissionChecker.getServicePermissions();
+        
+        // Then
+        assertEquals(List.of(OperationType.CREATE), permissions.get("data_operation_logs"));
+        assertThrows(UnsupportedOperationException.class, () -> permissions.put("deals", List.of()));
+        assertThrows(UnsupportedOperationException.class, () -> permissions.get("users").add(OperationType.DELETE));
+    }
+}
@@ -30,7 +30,13 @@ DROP PROCEDURE IF EXISTS `CalculateWeeklySettlement`;
 
 DROP TRIGGER IF EXISTS `tr_invitation_record_insert`;
 DROP TRIGGER IF EXISTS `tr_system_config_audit_log`;
+DROP TRIGGER IF EXISTS `tr_user_closure_insert`;
+DROP TRIGGER IF EXISTS `tr_user_closure_check_parent`;
+DROP TRIGGER IF EXISTS `tr_user_closure_move`;
+DROP TRIGGER IF EXISTS `tr_user_closure_delete`;
 
+DROP TABLE IF EXISTS `user_closure`;
+DROP TABLE IF EXISTS `lead_daily_stats`;
 DROP TABLE IF EXISTS `data_operation_logs`;
 DROP TABLE IF EXISTS `service_data_permissions`;
 DROP TABLE IF EXISTS `api_access_logs`;
@@ -585,6 +591,50 @@ CREATE TABLE `lead_audit_rewards` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
 COMMENT='客资审核奖励表 - 记录审核员审核客资获得的奖励，支持多种奖励类型';
 
+-- 28. 客资每日汇总表
+CREATE TABLE `lead_daily_stats` (
+    `stat_date` DATE NOT NULL COMMENT '客资创建日期',
+    `salesperson_id` BIGINT UNSIGNED NOT NULL COMMENT '归属销售ID',
+    `source` VARCHAR(100) NOT NULL COMMENT '来源渠道',
+    `status` VARCHAR(50) NOT NULL COMMENT '跟进状态',
+    `audit_status` VARCHAR(50) NOT NULL COMMENT '审核状态',
+    `lead_count` INT NOT NULL DEFAULT 0 COMMENT '客资数量',
+    `updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+
+    PRIMARY KEY (`stat_date`, `salesperson_id`, `source`, `status`, `audit_status`),
+    INDEX `idx_salesperson_date` (`salesperson_id`, `stat_date`),
+    INDEX `idx_source_date` (`source`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='客资每日汇总表 - 按日期/销售/来源/状态预聚合的客资数量，随客资写入在同一事务内增减，统计查询只读本表';
+
+-- 已有数据的环境初始化汇总表
+INSERT INTO `lead_daily_stats` (`stat_date`, `salesperson_id`, `source`, `status`, `audit_status`, `lead_count`)
+SELECT DATE(`created_at`), `salesperson_id`, `source`, `status`, `audit_status`, COUNT(*)
+FROM `customer_leads`
+GROUP BY DATE(`created_at`), `salesperson_id`, `source`, `status`, `audit_status`;
+
+-- 29. 用户层级闭包表
+CREATE TABLE `user_closure` (
+    `ancestor_id` BIGINT UNSIGNED NOT NULL COMMENT '上级用户ID（包括自身）',
+    `descendant_id` BIGINT UNSIGNED NOT NULL COMMENT '下级用户ID（包括自身）',
+    `depth` INT UNSIGNED NOT NULL COMMENT '相隔层数，自身为0，直属下级为1',
+
+    PRIMARY KEY (`ancestor_id`, `descendant_id`),
+    INDEX `idx_descendant_depth` (`descendant_id`, `depth`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='用户层级闭包表 - 每对上下级（含间接）一行，由users表触发器维护，一次查询即可取出整棵下级树';
+
+-- 已有数据的环境初始化闭包表
+INSERT INTO `user_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE `tree` (`ancestor_id`, `descendant_id`, `depth`) AS (
+    SELECT `id`, `id`, 0 FROM `users`
+    UNION ALL
+    SELECT t.`ancestor_id`, u.`id`, t.`depth` + 1
+    FROM `tree` t
+    JOIN `users` u ON u.`parent_id` = t.`descendant_id`
+)
+SELECT `ancestor_id`, `descendant_id`, `depth` FROM `tree`;
+
 -- ========================================
 -- 补充视图和存储过程
 -- ========================================
@@ -687,6 +737,12 @@ ALTER TABLE `promotions` ADD INDEX `idx_platform_status` (`platform`, `audit_sta
 -- 为客资表添加复合索引
 ALTER TABLE `customer_leads` ADD INDEX `idx_source_audit_status` (`source`, `audit_status`);
 ALTER TABLE `customer_leads` ADD INDEX `idx_created_status` (`created_at`, `status`);
+-- 客资列表游标分页：按 (排序字段, id) 定位下一页
+ALTER TABLE `customer_leads` ADD INDEX `idx_created_id` (`created_at`, `id`);
+ALTER TABLE `customer_leads` ADD INDEX `idx_audit_status_created_id` (`audit_status`, `created_at`, `id`);
+ALTER TABLE `customer_leads` ADD INDEX `idx_salesperson_created_id` (`salesperson_id`, `created_at`, `id`);
+-- 跟进提醒按 (上次跟进时间, id) 分批加载
+ALTER TABLE `customer_leads` ADD INDEX `idx_last_follow_up_id` (`last_follow_up_at`, `id`);
 
 -- 为成交记录表添加复合索引
 ALTER TABLE `deals` ADD INDEX `idx_sales_deal_date` (`sales_id`, `deal_at`);
@@ -799,6 +855,54 @@ BEGIN
     WHERE expires_at IS NOT NULL AND expires_at < NOW();
 END //
 
+-- 触发器：新用户写入闭包表（上级的全部祖先 + 自身）
+CREATE TRIGGER `tr_user_closure_insert` AFTER INSERT ON `users` FOR EACH ROW
+BEGIN
+    INSERT INTO user_closure (ancestor_id, descendant_id, depth)
+    SELECT ancestor_id, NEW.id, depth + 1
+    FROM user_closure
+    WHERE descendant_id = NEW.parent_id;
+
+    INSERT INTO user_closure (ancestor_id, descendant_id, depth) VALUES (NEW.id, NEW.id, 0);
+END //
+
+-- 触发器：禁止把上级设置为自身或自身的下级（形成环）
+CREATE TRIGGER `tr_user_closure_check_parent` BEFORE UPDATE ON `users` FOR EACH ROW
+BEGIN
+    IF NEW.parent_id IS NOT NULL AND NOT (NEW.parent_id <=> OLD.parent_id) AND EXISTS (
+        SELECT 1 FROM user_closure WHERE ancestor_id = OLD.id AND descendant_id = NEW.parent_id
+    ) THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = '上级用户不能是自身或自身的下级';
+    END IF;
+END //
+
+-- 触发器：调整上级时整棵下级树随之移动
+CREATE TRIGGER `tr_user_closure_move` AFTER UPDATE ON `users` FOR EACH ROW
+BEGIN
+    IF NOT (NEW.parent_id <=> OLD.parent_id) THEN
+        -- 断开原上级链与子树的关联（子树内部的关系保持不变）
+        DELETE c FROM user_closure c
+        JOIN user_closure a ON a.ancestor_id = c.ancestor_id AND a.descendant_id = NEW.id AND a.depth > 0
+        JOIN user_closure d ON d.descendant_id = c.descendant_id AND d.ancestor_id = NEW.id;
+
+        -- 新上级链 x 子树
+        INSERT INTO user_closure (ancestor_id, descendant_id, depth)
+        SELECT p.ancestor_id, d.descendant_id, p.depth + d.depth + 1
+        FROM user_closure p
+        JOIN user_closure d ON d.ancestor_id = NEW.id
+        WHERE p.descendant_id = NEW.parent_id;
+    END IF;
+END //
+
+-- 触发器：删除用户时清理闭包关系
+-- 外键ON DELETE SET NULL置空下级的parent_id时不会触发UPDATE触发器，因此在这里一并断开下级树与原上级链的关系
+CREATE TRIGGER `tr_user_closure_delete` AFTER DELETE ON `users` FOR EACH ROW
+BEGIN
+    DELETE c FROM user_closure c
+    JOIN user_closure a ON a.ancestor_id = c.ancestor_id AND a.descendant_id = OLD.id
+    JOIN user_closure d ON d.descendant_id = c.descendant_id AND d.ancestor_id = OLD.id;
+END //
+
 -- 触发器：记录系统配置变更日志
 CREATE TRIGGER `tr_system_config_change_log` AFTER UPDATE ON `system_configs` FOR EACH ROW
 BEGIN
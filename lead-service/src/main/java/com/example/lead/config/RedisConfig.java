@@ -1,9 +1,15 @@
 package com.example.lead.config;
 
+import com.example.lead.facade.LeadDetailCache;
+import com.example.lead.facade.LeadFollowUpScheduler;
+import com.example.lead.facade.LeadPhoneIndex;
+import com.example.lead.facade.LeadSearchIndex;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -22,5 +28,48 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
 
+    /**
+     * 订阅其他实例新增的客资手机号，同步到本地手机号索引
+     */
+    @Bean
+    public RedisMessageListenerContainer leadPhoneIndexListenerContainer(RedisConnectionFactory factory, LeadPhoneIndex phoneIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(phoneIndex, new ChannelTopic(LeadPhoneIndex.PHONE_ADDED_CHANNEL));
+        return container;
+    }
+
+    /**
+     * 订阅其他实例写入的客资，同步到本地关键词搜索索引
+     */
+    @Bean
+    public RedisMessageListenerContainer leadSearchIndexListenerContainer(RedisConnectionFactory factory, LeadSearchIndex searchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(searchIndex, new ChannelTopic(LeadSearchIndex.CHANNEL));
+        return container;
+    }
+
+    /**
+     * 订阅客资跟进状态变化，由调度实例更新跟进提醒时间轮
+     */
+    @Bean
+    public RedisMessageListenerContainer leadFollowUpListenerContainer(RedisConnectionFactory factory, LeadFollowUpScheduler followUpScheduler) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(followUpScheduler, new ChannelTopic(LeadFollowUpScheduler.CHANNEL));
+        return container;
+    }
+
+    /**
+     * 订阅客资详情缓存失效通知，失效本地一级缓存
+     */
+    @Bean
+    public RedisMessageListenerContainer leadDetailCacheListenerContainer(RedisConnectionFactory factory, LeadDetailCache detailCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(detailCache, new ChannelTopic(LeadDetailCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.lead.controller;
 
 import com.example.common.dto.CommonResult;
 import com.example.lead.dto.BatchAuditRequest;
+import com.example.lead.dto.BatchAuditResult;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.PageResult;
 import com.example.lead.service.LeadAuditService;
@@ -33,7 +34,7 @@ public class LeadAuditController {
 
     @PostMapping("/batch")
     @Operation(summary = "批量审核")
-    public CommonResult<Void> batchAudit(@Valid @RequestBody BatchAuditRequest request) {
+    public CommonResult<BatchAuditResult> batchAudit(@Valid @RequestBody BatchAuditRequest request) {
         return auditService.batchAudit(request);
     }
 
@@ -42,8 +43,9 @@ public class LeadAuditController {
     public CommonResult<PageResult<CustomerLeadDto>> pending(@RequestParam(defaultValue = "1") int page,
                                                              @RequestParam(defaultValue = "20") int pageSize,
                                                              @RequestParam(required = false) String keyword,
-                                                             @RequestParam(required = false) Long salespersonId) {
-        return auditService.listPending(page, pageSize, keyword, salespersonId);
+                                                             @RequestParam(required = false) Long salespersonId,
+                                                             @RequestParam(required = false) String cursor) {
+        return auditService.listPending(page, pageSize, keyword, salespersonId, cursor);
     }
 
     @GetMapping("/all")
@@ -74,8 +76,9 @@ public class LeadAuditController {
                                                              @RequestParam(required = false) String startDate,
                                                              @RequestParam(required = false) String endDate,
                                                              @RequestParam(required = false) String sortBy,
-                                                             @RequestParam(required = false) String sortOrder) {
-        return auditService.getAuditRecords(page, pageSize, keyword, auditStatus, salespersonId, startDate, endDate, sortBy, sortOrder);
+                                                             @RequestParam(required = false) String sortOrder,
+                                                             @RequestParam(required = false) String cursor) {
+        return auditService.getAuditRecords(page, pageSize, keyword, auditStatus, salespersonId, startDate, endDate, sortBy, sortOrder, cursor);
     }
 
     @GetMapping("/statistics")
@@ -3,6 +3,9 @@ package com.example.lead.controller;
 import com.example.lead.dto.CreateLeadRequest;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.LeadDetailsDto;
+import com.example.lead.dto.LeadImportResult;
+import com.example.lead.service.LeadExportService;
+import com.example.lead.service.LeadImportService;
 import com.example.lead.service.LeadService;
 import com.example.lead.service.SourceDetectionService;
 import com.example.common.dto.CommonResult;
@@ -10,9 +13,16 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -33,12 +43,26 @@ public class LeadController {
     @Autowired
     private SourceDetectionService sourceDetectionService;
 
+    @Autowired
+    private LeadImportService leadImportService;
+
+    @Autowired
+    private LeadExportService leadExportService;
+
     @PostMapping("/create")
     @Operation(summary = "创建客资", description = "创建新的客户线索")
     public CommonResult<CustomerLeadDto> createLead(@Valid @RequestBody CreateLeadRequest request) {
         return leadService.createLead(request);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "批量导入客资", description = "上传CSV/XLSX文件批量创建客资，返回逐行导入结果")
+    public CommonResult<LeadImportResult> importLeads(
+            @Parameter(description = "CSV或XLSX文件，第一行为表头") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "文件中未填写销售ID时的归属销售") @RequestParam(required = false) Long salespersonId) {
+        return leadImportService.importLeads(file, salespersonId);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "获取客资详情", description = "根据ID获取客资详细信息")
     public CommonResult<LeadDetailsDto> getLeadById(
@@ -59,8 +83,43 @@ public class LeadController {
             @Parameter(description = "开始日期(YYYY-MM-DD)") @RequestParam(required = false) String startDate,
             @Parameter(description = "结束日期(YYYY-MM-DD)") @RequestParam(required = false) String endDate,
             @Parameter(description = "排序字段") @RequestParam(required = false) String sortBy,
-            @Parameter(description = "排序方向(asc/desc)") @RequestParam(required = false) String sortOrder) {
-        return leadService.getLeadList(page, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder);
+            @Parameter(description = "排序方向(asc/desc)") @RequestParam(required = false) String sortOrder,
+            @Parameter(description = "翻页游标（上一页返回的nextCursor），传入时忽略页码") @RequestParam(required = false) String cursor) {
+        return leadService.getLeadList(page, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder, cursor);
+    }
+
+    @GetMapping("/list-cache/stats")
+    @Operation(summary = "列表缓存统计", description = "按作用域类型查看客资列表缓存的命中与失效情况")
+    public CommonResult<java.util.Map<String, java.util.Map<String, Object>>> getListCacheStats() {
+        return leadService.getListCacheStats();
+    }
+
+    @GetMapping("/detail-cache/stats")
+    @Operation(summary = "详情缓存统计", description = "查看客资详情本地缓存和Redis缓存的命中情况")
+    public CommonResult<java.util.Map<String, Object>> getDetailCacheStats() {
+        return leadService.getDetailCacheStats();
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "导出客资", description = "按列表查询条件流式导出CSV，可选gzip压缩")
+    public void exportLeads(
+            @Parameter(description = "关键词") @RequestParam(required = false) String keyword,
+            @Parameter(description = "审核状态") @RequestParam(required = false) String auditStatus,
+            @Parameter(description = "状态") @RequestParam(required = false) String status,
+            @Parameter(description = "来源") @RequestParam(required = false) String source,
+            @Parameter(description = "销售ID") @RequestParam(required = false) Long salespersonId,
+            @Parameter(description = "开始日期(YYYY-MM-DD)") @RequestParam(required = false) String startDate,
+            @Parameter(description = "结束日期(YYYY-MM-DD)") @RequestParam(required = false) String endDate,
+            @Parameter(description = "排序字段") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "排序方向(asc/desc)") @RequestParam(required = false) String sortOrder,
+            @Parameter(description = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        String filename = "leads-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + (gzip ? ".csv.gz" : ".csv");
+        response.setContentType(gzip ? "application/gzip" : "text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        leadExportService.exportCsv(salespersonId, status, auditStatus, keyword, source, startDate, endDate,
+                sortBy, sortOrder, response.getOutputStream(), gzip);
     }
 
     @PostMapping("/check-duplicate")
@@ -80,7 +139,7 @@ public class LeadController {
 
     @PostMapping("/batch-audit")
     @Operation(summary = "批量审核", description = "批量审核客资")
-    public CommonResult<Void> batchAuditLeads(@Valid @RequestBody com.example.lead.dto.BatchAuditRequest req) {
+    public CommonResult<com.example.lead.dto.BatchAuditResult> batchAuditLeads(@Valid @RequestBody com.example.lead.dto.BatchAuditRequest req) {
         return leadService.batchAuditLeads(req.getIds(), req.getAuditStatus());
     }
     @PutMapping("/{id}")
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.List;
 
@@ -17,9 +18,21 @@ public class BatchAuditRequest implements Serializable {
     @Schema(description = "审核状态", allowableValues = {"APPROVED","REJECTED"})
     private String auditStatus;
 
+    @Size(max = 500)
+    @Schema(description = "审核意见")
+    private String comment;
+
+    @Size(max = 255)
+    @Schema(description = "拒绝原因")
+    private String rejectReason;
+
     public List<Long> getIds() { return ids; }
     public void setIds(List<Long> ids) { this.ids = ids; }
     public String getAuditStatus() { return auditStatus; }
     public void setAuditStatus(String auditStatus) { this.auditStatus = auditStatus; }
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+    public String getRejectReason() { return rejectReason; }
+    public void setRejectReason(String rejectReason) { this.rejectReason = rejectReason; }
 }
 
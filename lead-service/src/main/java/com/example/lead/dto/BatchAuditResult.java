@@ -0,0 +1,98 @@
+package com.example.lead.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "批量审核结果")
+public class BatchAuditResult implements Serializable {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "请求的客资数（去重后）")
+    private int total;
+    @Schema(description = "审核状态已更新的客资数")
+    private int updated;
+    @Schema(description = "已是目标审核状态、未更新的客资数")
+    private int unchanged;
+    @Schema(description = "不存在的客资ID")
+    private List<Long> notFoundIds = new ArrayList<>();
+    @Schema(description = "所在块提交失败、未更新的客资ID，可重新提交")
+    private List<Long> failedIds = new ArrayList<>();
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMs;
+    @Schema(description = "逐块结果，按块序号排列")
+    private List<ChunkResult> chunks = new ArrayList<>();
+
+    public void addChunk(int index, int size, int updated, int unchanged, List<Long> notFoundIds) {
+        chunks.add(new ChunkResult(index, size, SUCCESS, updated, null));
+        this.updated += updated;
+        this.unchanged += unchanged;
+        this.notFoundIds.addAll(notFoundIds);
+    }
+
+    public void addFailedChunk(int index, List<Long> ids, String message) {
+        chunks.add(new ChunkResult(index, ids.size(), FAILED, 0, message));
+        this.failedIds.addAll(ids);
+    }
+
+    /**
+     * 是否全部块都提交成功
+     */
+    public boolean isAllSucceeded() {
+        return failedIds.isEmpty();
+    }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+    public List<Long> getNotFoundIds() { return notFoundIds; }
+    public void setNotFoundIds(List<Long> notFoundIds) { this.notFoundIds = notFoundIds; }
+    public List<Long> getFailedIds() { return failedIds; }
+    public void setFailedIds(List<Long> failedIds) { this.failedIds = failedIds; }
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+    public List<ChunkResult> getChunks() { return chunks; }
+    public void setChunks(List<ChunkResult> chunks) { this.chunks = chunks; }
+
+    @Schema(description = "单块审核结果")
+    public static class ChunkResult implements Serializable {
+        @Schema(description = "块序号（从1开始）")
+        private int index;
+        @Schema(description = "块内客资数")
+        private int size;
+        @Schema(description = "结果", allowableValues = {SUCCESS, FAILED})
+        private String status;
+        @Schema(description = "审核状态已更新的客资数")
+        private int updated;
+        @Schema(description = "失败原因")
+        private String message;
+
+        public ChunkResult() {}
+
+        public ChunkResult(int index, int size, String status, int updated, String message) {
+            this.index = index;
+            this.size = size;
+            this.status = status;
+            this.updated = updated;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public int getUpdated() { return updated; }
+        public void setUpdated(int updated) { this.updated = updated; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
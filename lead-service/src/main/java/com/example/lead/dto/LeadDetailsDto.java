@@ -1,5 +1,6 @@
 package com.example.lead.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.io.Serializable;
@@ -13,6 +14,7 @@ import java.io.Serializable;
  * @since 2025-08-04
  */
 @Schema(description = "客资详细信息")
+@JsonIgnoreProperties(value = {"approved", "converted"}, allowGetters = true)
 public class LeadDetailsDto implements Serializable {
     
     private static final long serialVersionUID = 1L;
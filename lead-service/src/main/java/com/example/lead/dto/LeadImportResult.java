@@ -0,0 +1,86 @@
+package com.example.lead.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "批量导入结果")
+public class LeadImportResult implements Serializable {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String INVALID = "INVALID";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "数据行数（不含表头）")
+    private int total;
+    @Schema(description = "导入成功行数")
+    private int imported;
+    @Schema(description = "校验失败行数")
+    private int invalid;
+    @Schema(description = "手机号重复行数（库中已存在或文件内重复）")
+    private int duplicate;
+    @Schema(description = "写入失败行数")
+    private int failed;
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMs;
+    @Schema(description = "逐行结果，按行号排列")
+    private List<RowResult> rows = new ArrayList<>();
+
+    public void addRow(int row, String status, Long leadId, String message) {
+        rows.add(new RowResult(row, status, leadId, message));
+        switch (status) {
+            case SUCCESS: imported++; break;
+            case INVALID: invalid++; break;
+            case DUPLICATE: duplicate++; break;
+            default: failed++; break;
+        }
+    }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+    public int getInvalid() { return invalid; }
+    public void setInvalid(int invalid) { this.invalid = invalid; }
+    public int getDuplicate() { return duplicate; }
+    public void setDuplicate(int duplicate) { this.duplicate = duplicate; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+    public List<RowResult> getRows() { return rows; }
+    public void setRows(List<RowResult> rows) { this.rows = rows; }
+
+    @Schema(description = "单行导入结果")
+    public static class RowResult implements Serializable {
+        @Schema(description = "文件中的行号（表头为第1行）")
+        private int row;
+        @Schema(description = "结果", allowableValues = {SUCCESS, INVALID, DUPLICATE, FAILED})
+        private String status;
+        @Schema(description = "新建客资ID")
+        private Long leadId;
+        @Schema(description = "失败原因")
+        private String message;
+
+        public RowResult() {}
+
+        public RowResult(int row, String status, Long leadId, String message) {
+            this.row = row;
+            this.status = status;
+            this.leadId = leadId;
+            this.message = message;
+        }
+
+        public int getRow() { return row; }
+        public void setRow(int row) { this.row = row; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public Long getLeadId() { return leadId; }
+        public void setLeadId(Long leadId) { this.leadId = leadId; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
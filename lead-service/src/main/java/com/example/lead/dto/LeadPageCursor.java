@@ -0,0 +1,155 @@
+package com.example.lead.dto;
+
+import com.example.data.entity.CustomerLead;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 客资列表翻页游标
+ *
+ * <p>记录上一页最后一行的排序字段值和ID，编码为不透明的URL安全字符串返回给客户端，
+ * 下一页请求带回后按 (排序字段, id) 定位继续读取（keyset分页）。
+ * 游标与生成时的排序字段和排序方向绑定，排序条件改变后旧游标不再有效。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class LeadPageCursor {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "|";
+    private static final char NULL_MARKER = 'N';
+    private static final char VALUE_MARKER = 'V';
+
+    private final String sortBy;
+    private final boolean ascending;
+    private final Object value;
+    private final Long id;
+
+    private LeadPageCursor(String sortBy, boolean ascending, Object value, Long id) {
+        this.sortBy = sortBy;
+        this.ascending = ascending;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * 根据当前页最后一行生成游标
+     */
+    public static LeadPageCursor after(CustomerLead last, String sortBy, String sortOrder) {
+        String key = normalizeSortBy(sortBy);
+        return new LeadPageCursor(key, isAscending(sortOrder), sortValue(last, key), last.getId());
+    }
+
+    /**
+     * 解析客户端传回的游标
+     *
+     * @param cursor 游标字符串
+     * @param sortBy 当前请求的排序字段
+     * @param sortOrder 当前请求的排序方向
+     * @return 游标
+     * @throws IllegalArgumentException 游标格式错误或与排序条件不匹配
+     */
+    public static LeadPageCursor decode(String cursor, String sortBy, String sortOrder) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        String[] parts = raw.split("\\|", 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0]) || parts[4].isEmpty()) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        String key = normalizeSortBy(sortBy);
+        boolean ascending = isAscending(sortOrder);
+        if (!key.equals(parts[1]) || ascending != "A".equals(parts[2])) {
+            throw new IllegalArgumentException("分页游标与排序条件不匹配");
+        }
+        try {
+            Long id = Long.valueOf(parts[3]);
+            Object value = parts[4].charAt(0) == NULL_MARKER ? null : parseValue(key, parts[4].substring(1));
+            return new LeadPageCursor(key, ascending, value, id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 编码为URL安全的不透明字符串
+     */
+    public String encode() {
+        String raw = VERSION + SEPARATOR + sortBy + SEPARATOR + (ascending ? "A" : "D") + SEPARATOR + id + SEPARATOR
+                + (value == null ? String.valueOf(NULL_MARKER) : VALUE_MARKER + value.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 排序字段值，时间字段为 {@link LocalDateTime}，其余为字符串
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 与Mapper中排序字段白名单保持一致，未知字段按创建时间排序
+     */
+    private static String normalizeSortBy(String sortBy) {
+        if (sortBy == null) {
+            return "createdAt";
+        }
+        switch (sortBy) {
+            case "updatedAt":
+            case "name":
+            case "status":
+            case "auditStatus":
+            case "lastFollowUpAt":
+            case "source":
+                return sortBy;
+            default:
+                return "createdAt";
+        }
+    }
+
+    private static boolean isAscending(String sortOrder) {
+        return "asc".equals(sortOrder) || "ASC".equals(sortOrder);
+    }
+
+    private static Object sortValue(CustomerLead lead, String key) {
+        switch (key) {
+            case "updatedAt":
+                return lead.getUpdatedAt();
+            case "name":
+                return lead.getName();
+            case "status":
+                return lead.getStatus() != null ? lead.getStatus().getCode() : null;
+            case "auditStatus":
+                return lead.getAuditStatus() != null ? lead.getAuditStatus().getCode() : null;
+            case "lastFollowUpAt":
+                return lead.getLastFollowUpAt();
+            case "source":
+                return lead.getSource();
+            default:
+                return lead.getCreatedAt();
+        }
+    }
+
+    private static Object parseValue(String key, String text) {
+        switch (key) {
+            case "createdAt":
+            case "updatedAt":
+            case "lastFollowUpAt":
+                return LocalDateTime.parse(text);
+            default:
+                return text;
+        }
+    }
+}
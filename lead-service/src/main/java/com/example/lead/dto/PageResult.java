@@ -16,6 +16,12 @@ public class PageResult<T> implements Serializable {
     private int pageSize;
     @Schema(description = "总页数")
     private int totalPages;
+    @Schema(description = "下一页游标，作为cursor参数传回即可按游标翻页；为空表示没有更多数据")
+    private String nextCursor;
+    @Schema(description = "是否还有更多数据")
+    private boolean hasMore;
+    @Schema(description = "总记录数是否为估算值")
+    private boolean totalEstimated;
 
     public PageResult() {}
 
@@ -25,6 +31,19 @@ public class PageResult<T> implements Serializable {
         this.page = page;
         this.pageSize = pageSize;
         this.totalPages = (int) ((total + pageSize - 1) / pageSize);
+        this.hasMore = (long) page * pageSize < total;
+    }
+
+    /**
+     * 游标分页结果：不统计总数，total和totalPages为-1
+     */
+    public PageResult(List<T> list, int pageSize, String nextCursor) {
+        this.list = list;
+        this.total = -1;
+        this.pageSize = pageSize;
+        this.totalPages = -1;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
     }
 
     public List<T> getList() { return list; }
@@ -37,5 +56,11 @@ public class PageResult<T> implements Serializable {
     public void setPageSize(int pageSize) { this.pageSize = pageSize; }
     public int getTotalPages() { return totalPages; }
     public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    public boolean isTotalEstimated() { return totalEstimated; }
+    public void setTotalEstimated(boolean totalEstimated) { this.totalEstimated = totalEstimated; }
 }
 
@@ -0,0 +1,308 @@
+package com.example.lead.facade;
+
+import com.example.common.enums.UserRole;
+import com.example.data.entity.CustomerLead;
+import com.example.data.entity.User;
+import com.example.data.mapper.CustomerLeadMapper;
+import com.example.data.mapper.UserMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 客资自动分配引擎
+ *
+ * <p>未指定归属销售的新客资从在职销售（角色sales、状态active）中选择归属销售，每次选择只做常数次内存读取，不查询数据库：
+ * <ul>
+ *   <li>round-robin：按权重平滑轮询，权重序列在刷新销售名单时预先生成，选择时只移动游标</li>
+ *   <li>least-loaded：按权重随机抽取两名销售，取 未结客资数 / 权重 较小的一名（两选一近似最少负载）</li>
+ * </ul>
+ *
+ * <p>每名销售的未结（待跟进、跟进中）客资数保存在内存计数器中：刷新时按销售分组统计一次作为初值，
+ * 之后分配、跟进状态变化和删除时原子增减。计数器只反映本实例的变化，多个实例之间的偏差在下次刷新时校正。
+ *
+ * <p>配置项：
+ * <ul>
+ *   <li>lead.assignment.enabled：是否在创建客资时自动分配，默认false</li>
+ *   <li>lead.assignment.strategy：least-loaded（默认）或 round-robin</li>
+ *   <li>lead.assignment.weights：销售权重，格式 销售ID:权重,销售ID:权重，未配置的销售权重为1</li>
+ *   <li>lead.assignment.refresh-minutes：刷新销售名单和计数器的周期，默认5分钟</li>
+ * </ul>
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadAssignmentEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadAssignmentEngine.class);
+
+    static final String STRATEGY_LEAST_LOADED = "least-loaded";
+    static final String STRATEGY_ROUND_ROBIN = "round-robin";
+
+    /**
+     * 单个销售的最大权重，限制轮询序列长度
+     */
+    private static final int MAX_WEIGHT = 100;
+
+    private final UserMapper userMapper;
+
+    private final CustomerLeadMapper leadMapper;
+
+    @Value("${lead.assignment.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${lead.assignment.strategy:least-loaded}")
+    private String strategy = STRATEGY_LEAST_LOADED;
+
+    @Value("${lead.assignment.weights:}")
+    private String weights = "";
+
+    @Value("${lead.assignment.refresh-minutes:5}")
+    private long refreshMinutes = 5L;
+
+    /**
+     * 销售ID -> 未结客资数，只保留名单内的销售
+     */
+    private final ConcurrentHashMap<Long, AtomicLong> openCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong cursor = new AtomicLong();
+
+    private volatile Pool pool = Pool.EMPTY;
+
+    private ScheduledExecutorService scheduler;
+
+    public LeadAssignmentEngine(UserMapper userMapper, CustomerLeadMapper leadMapper) {
+        this.userMapper = userMapper;
+        this.leadMapper = leadMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lead-assignment-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 为一条未指定归属销售的新客资选择归属销售，并计入该销售的未结客资数；在事务中调用时事务回滚后撤销计数
+     *
+     * @return 销售ID；未启用或销售名单为空时返回null
+     */
+    public Long assign() {
+        Pool current = pool;
+        if (!enabled || current.size() == 0) {
+            return null;
+        }
+        int index = STRATEGY_ROUND_ROBIN.equals(strategy) ? nextRoundRobin(current) : pickLeastLoaded(current);
+        Long salespersonId = current.salespersonIds[index];
+        adjustNow(salespersonId, 1);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        adjustNow(salespersonId, -1);
+                    }
+                }
+            });
+        }
+        return salespersonId;
+    }
+
+    /**
+     * 撤销一次未写入的分配（如手机号冲突未插入的客资）；在事务中调用时于提交后执行，回滚时由 {@link #assign} 撤销
+     */
+    public void release(Long salespersonId) {
+        afterCommit(() -> adjustNow(salespersonId, -1));
+    }
+
+    /**
+     * 按客资变更前后的归属销售与跟进状态增减未结客资数；在事务中调用时于提交后执行
+     *
+     * @param beforeSalespersonId 变更前的归属销售，新建时传null
+     * @param beforeStatus 变更前的跟进状态，新建时传null
+     * @param afterSalespersonId 变更后的归属销售，删除时传null
+     * @param afterStatus 变更后的跟进状态，删除时传null
+     */
+    public void onChanged(Long beforeSalespersonId, CustomerLead.LeadStatus beforeStatus,
+                          Long afterSalespersonId, CustomerLead.LeadStatus afterStatus) {
+        Long removed = isOpen(beforeStatus) ? beforeSalespersonId : null;
+        Long added = isOpen(afterStatus) ? afterSalespersonId : null;
+        if (Objects.equals(removed, added)) {
+            return;
+        }
+        afterCommit(() -> {
+            adjustNow(removed, -1);
+            adjustNow(added, 1);
+        });
+    }
+
+    /**
+     * 重新读取销售名单并按数据库统计重置计数器
+     */
+    public void refresh() {
+        try {
+            Map<Long, Integer> configured = parseWeights(weights);
+            List<Long> ids = new ArrayList<>();
+            List<Integer> ws = new ArrayList<>();
+            for (User user : userMapper.findByRole(UserRole.SALES.getCode())) {
+                if (user.isActive()) {
+                    ids.add(user.getId());
+                    ws.add(Math.max(1, Math.min(MAX_WEIGHT, configured.getOrDefault(user.getId(), 1))));
+                }
+            }
+            Map<Long, Long> counts = new HashMap<>();
+            for (Map<String, Object> row : leadMapper.countOpenGroupBySalesperson()) {
+                counts.put(((Number) row.get("salespersonId")).longValue(), ((Number) row.get("openCount")).longValue());
+            }
+            openCounts.keySet().retainAll(ids);
+            for (Long id : ids) {
+                openCounts.computeIfAbsent(id, k -> new AtomicLong()).set(counts.getOrDefault(id, 0L));
+            }
+            pool = new Pool(ids, ws);
+            log.info("客资分配销售名单已刷新: strategy={}, salespersons={}", strategy, ids.size());
+        } catch (Exception e) {
+            log.error("刷新客资分配销售名单失败，保留原名单", e);
+        }
+    }
+
+    private int nextRoundRobin(Pool current) {
+        int[] schedule = current.schedule;
+        return schedule[(int) Math.floorMod(cursor.getAndIncrement(), (long) schedule.length)];
+    }
+
+    private int pickLeastLoaded(Pool current) {
+        int[] schedule = current.schedule;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = schedule[random.nextInt(schedule.length)];
+        int b = schedule[random.nextInt(schedule.length)];
+        // 比较 load(a)/weight(a) 与 load(b)/weight(b)
+        long loadA = load(current.salespersonIds[a]) * current.weights[b];
+        long loadB = load(current.salespersonIds[b]) * current.weights[a];
+        return loadB < loadA ? b : a;
+    }
+
+    private long load(Long salespersonId) {
+        AtomicLong count = openCounts.get(salespersonId);
+        return count != null ? count.get() : 0L;
+    }
+
+    private void adjustNow(Long salespersonId, long delta) {
+        if (salespersonId == null) {
+            return;
+        }
+        AtomicLong count = openCounts.get(salespersonId);
+        if (count != null) {
+            count.addAndGet(delta);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean isOpen(CustomerLead.LeadStatus status) {
+        return status == CustomerLead.LeadStatus.PENDING || status == CustomerLead.LeadStatus.FOLLOWING;
+    }
+
+    static Map<Long, Integer> parseWeights(String weights) {
+        Map<Long, Integer> result = new HashMap<>();
+        if (!StringUtils.hasText(weights)) {
+            return result;
+        }
+        for (String item : StringUtils.commaDelimitedListToStringArray(weights)) {
+            String[] pair = item.trim().split(":");
+            try {
+                result.put(Long.valueOf(pair[0].trim()), pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1);
+            } catch (NumberFormatException e) {
+                log.warn("忽略无效的销售权重配置: {}", item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 销售名单快照，刷新时整体替换
+     */
+    private static final class Pool {
+
+        private static final Pool EMPTY = new Pool(new ArrayList<>(), new ArrayList<>());
+
+        private final Long[] salespersonIds;
+
+        private final int[] weights;
+
+        /**
+         * 平滑加权轮询生成的下标序列，长度为权重之和，每名销售出现的次数等于其权重且分布均匀
+         */
+        private final int[] schedule;
+
+        private Pool(List<Long> ids, List<Integer> ws) {
+            this.salespersonIds = ids.toArray(new Long[0]);
+            this.weights = ws.stream().mapToInt(Integer::intValue).toArray();
+            int total = 0;
+            for (int w : weights) {
+                total += w;
+            }
+            this.schedule = new int[total];
+            int[] current = new int[weights.length];
+            for (int i = 0; i < total; i++) {
+                int best = 0;
+                for (int j = 0; j < weights.length; j++) {
+                    current[j] += weights[j];
+                    if (current[j] > current[best]) {
+                        best = j;
+                    }
+                }
+                current[best] -= total;
+                schedule[i] = best;
+            }
+        }
+
+        private int size() {
+            return salespersonIds.length;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.lead.facade;
+
+import com.example.common.event.DomainEventPublisher;
+import com.example.common.event.domain.LeadsAuditedEvent;
+import com.example.common.utils.UserContextHolder;
+import com.example.lead.dto.BatchAuditResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * 客资批量审核
+ *
+ * <p>客资ID去重排序后按块（lead.batch-audit.chunk-size）审核，每块一个短事务：
+ * 锁定块内客资、一条UPDATE更新审核状态、一条多行INSERT写入审核记录。
+ * 行锁只在一块内持有，审核大批客资时不会长时间阻塞其他客资写入。
+ *
+ * <p>每块提交后发布一条 {@link LeadsAuditedEvent}（只含状态实际变化的客资），同一次批量审核的事件关联ID相同。
+ * 某一块失败不影响其他块，失败的客资ID在结果中返回，可以重新提交。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadBatchAuditor {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadBatchAuditor.class);
+
+    private final LeadDataFacade facade;
+
+    @Autowired(required = false)
+    private DomainEventPublisher eventPublisher;
+
+    @Value("${lead.batch-audit.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public LeadBatchAuditor(LeadDataFacade facade) {
+        this.facade = facade;
+    }
+
+    /**
+     * 当前登录用户作为审核人
+     *
+     * @return 用户ID，未登录或ID不是数字时返回null
+     */
+    public static Long currentAuditorId() {
+        String userId = UserContextHolder.getCurrentUserId();
+        try {
+            return StringUtils.hasText(userId) ? Long.valueOf(userId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 批量审核客资，须在事务外调用（否则各块加入外层事务，不再分块提交）
+     *
+     * @param ids 客资ID，可重复，null元素忽略
+     * @param auditStatus 审核后的状态
+     * @param auditorId 审核人ID
+     * @param comment 审核意见（可选）
+     * @param rejectReason 拒绝原因（可选）
+     * @return 逐块审核结果
+     */
+    public BatchAuditResult audit(List<Long> ids, String auditStatus, Long auditorId, String comment, String rejectReason) {
+        long start = System.currentTimeMillis();
+        Set<Long> unique = new TreeSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                unique.add(id);
+            }
+        }
+        List<Long> sorted = new ArrayList<>(unique);
+        int chunkCount = (sorted.size() + chunkSize - 1) / chunkSize;
+        String correlationId = UUID.randomUUID().toString();
+        BatchAuditResult result = new BatchAuditResult();
+        result.setTotal(sorted.size());
+        for (int index = 1; index <= chunkCount; index++) {
+            List<Long> chunk = sorted.subList((index - 1) * chunkSize, Math.min(index * chunkSize, sorted.size()));
+            LeadDataFacade.AuditOutcome outcome;
+            try {
+                outcome = facade.auditChunk(chunk, auditStatus, auditorId, comment, rejectReason);
+            } catch (Exception e) {
+                log.warn("批量审核第{}/{}块失败: size={}, correlationId={}", index, chunkCount, chunk.size(), correlationId, e);
+                result.addFailedChunk(index, chunk, e.getMessage());
+                continue;
+            }
+            Set<Long> found = new HashSet<>(outcome.getChanged());
+            found.addAll(outcome.getUnchanged());
+            List<Long> notFound = new ArrayList<>();
+            for (Long id : chunk) {
+                if (!found.contains(id)) {
+                    notFound.add(id);
+                }
+            }
+            result.addChunk(index, chunk.size(), outcome.getChanged().size(), outcome.getUnchanged().size(), notFound);
+            publish(outcome.getChanged(), auditStatus, auditorId, comment, rejectReason, index, chunkCount, correlationId);
+        }
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("批量审核完成: total={}, updated={}, unchanged={}, notFound={}, failed={}, chunks={}, 耗时{}ms",
+                result.getTotal(), result.getUpdated(), result.getUnchanged(), result.getNotFoundIds().size(),
+                result.getFailedIds().size(), chunkCount, result.getElapsedMs());
+        return result;
+    }
+
+    private void publish(List<Long> changed, String auditStatus, Long auditorId, String comment, String rejectReason,
+                         int index, int chunkCount, String correlationId) {
+        if (eventPublisher == null || changed.isEmpty()) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(LeadsAuditedEvent.create(new ArrayList<>(changed), auditStatus, auditorId,
+                    comment, rejectReason, index, chunkCount, correlationId));
+        } catch (Exception e) {
+            log.warn("发布批量审核事件失败: chunk={}/{}, correlationId={}", index, chunkCount, correlationId, e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.lead.facade;
+
+import com.example.data.entity.CustomerLead;
+import com.example.data.mapper.CustomerLeadMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 客资数量缓存
+ *
+ * <p>按 (销售, 跟进状态, 审核状态, 来源) 过滤条件组合缓存COUNT结果，每个组合一个Redis计数器，
+ * 首次查询时由数据库统计初始化，之后客资写入时在事务提交后按变更前后的取值增减，无需重新统计。
+ * 一条客资会影响16个组合（每个维度取自身值或不限），只调整Redis中已存在的计数器。
+ *
+ * <p>状态、审核状态按枚举编码、来源按小写作为计数器的键，与数据库不区分大小写的比较一致；
+ * 不对应任何枚举编码的过滤值、包含关键词或日期范围的查询无法用计数器表示，仍由数据库统计。
+ * 计数器带有TTL，初始化统计与并发写入交错造成的偏差最多保留一个TTL。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadCountCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadCountCache.class);
+
+    private static final String KEY_PREFIX = "lead:count:";
+    private static final String ANY = "*";
+
+    /**
+     * 只调整已初始化的计数器，未初始化的组合留给下次查询时统计
+     */
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "for i, key in ipairs(KEYS) do "
+                    + "if redis.call('exists', key) == 1 then redis.call('incrby', key, ARGV[i]) end "
+                    + "end return 0",
+            Long.class);
+
+    private final CustomerLeadMapper leadMapper;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redis;
+
+    @Value("${lead.count-cache.ttl-seconds:600}")
+    private long ttlSeconds = 600L;
+
+    /**
+     * 含关键词或日期范围的查询是否返回估算总数（EXPLAIN的行数估计）代替COUNT
+     */
+    @Value("${lead.count-cache.estimate-total:false}")
+    private boolean estimateTotal = false;
+
+    public LeadCountCache(CustomerLeadMapper leadMapper) {
+        this.leadMapper = leadMapper;
+    }
+
+    /**
+     * 查询条件是否可以由计数器回答
+     */
+    public boolean supports(String keyword, String startDate, String endDate) {
+        return !StringUtils.hasText(keyword) && !StringUtils.hasText(startDate) && !StringUtils.hasText(endDate);
+    }
+
+    /**
+     * 按维度条件统计客资数量，优先读取计数器
+     */
+    public long count(Long salespersonId, String status, String auditStatus, String source) {
+        String statusKey = dimension(status, LeadCountCache::statusCode);
+        String auditStatusKey = dimension(auditStatus, LeadCountCache::auditStatusCode);
+        String sourceKey = dimension(source, LeadCountCache::sourceCode);
+        if (redis == null || statusKey == null || auditStatusKey == null || sourceKey == null) {
+            return leadMapper.countByConditions(salespersonId, status, auditStatus, null, null, null, source, null, null);
+        }
+        String key = key(salespersonId != null ? salespersonId.toString() : null, statusKey, auditStatusKey, sourceKey);
+        try {
+            Object cached = redis.opsForValue().get(key);
+            if (cached instanceof Number) {
+                return ((Number) cached).longValue();
+            }
+        } catch (Exception e) {
+            log.warn("读取客资数量缓存失败: key={}", key, e);
+            return leadMapper.countByConditions(salespersonId, status, auditStatus, null, null, null, source, null, null);
+        }
+        long total = leadMapper.countByConditions(salespersonId, status, auditStatus, null, null, null, source, null, null);
+        try {
+            redis.opsForValue().setIfAbsent(key, total, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入客资数量缓存失败: key={}", key, e);
+        }
+        return total;
+    }
+
+    /**
+     * 无法由计数器回答的查询是否使用估算总数
+     */
+    public boolean isEstimateTotal() {
+        return estimateTotal;
+    }
+
+    /**
+     * 用执行计划的行数估计（rows × filtered%）估算总数，不扫描数据
+     */
+    public long estimate(Long salespersonId, String status, String auditStatus, String keyword,
+                         Collection<Long> keywordIds, Long keywordIdsAfter, String source, String startDate, String endDate) {
+        List<Map<String, Object>> plan = leadMapper.explainCountByConditions(salespersonId, status, auditStatus, keyword,
+                keywordIds, keywordIdsAfter, source, startDate, endDate);
+        if (plan.isEmpty() || !(plan.get(0).get("rows") instanceof Number)) {
+            return leadMapper.countByConditions(salespersonId, status, auditStatus, keyword, keywordIds, keywordIdsAfter,
+                    source, startDate, endDate);
+        }
+        long rows = ((Number) plan.get(0).get("rows")).longValue();
+        Object filtered = plan.get(0).get("filtered");
+        double ratio = filtered instanceof Number ? ((Number) filtered).doubleValue() / 100 : 1.0;
+        return Math.round(rows * ratio);
+    }
+
+    /**
+     * 开始记录一次写操作引起的计数变化
+     */
+    public Delta newDelta() {
+        return new Delta();
+    }
+
+    /**
+     * 应用计数变化，在事务中调用时于提交后执行
+     */
+    public void apply(Delta delta) {
+        if (redis == null || delta.changes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(delta);
+                }
+            });
+        } else {
+            adjust(delta);
+        }
+    }
+
+    private void adjust(Delta delta) {
+        List<String> keys = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        delta.changes.forEach((key, change) -> {
+            if (change != 0) {
+                keys.add(key);
+                args.add(change);
+            }
+        });
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redis.execute(ADJUST_SCRIPT, keys, args.toArray());
+        } catch (Exception e) {
+            // 调整失败时删除相关计数器，下次查询重新统计
+            log.warn("调整客资数量缓存失败，删除相关计数器: keys={}", keys.size(), e);
+            try {
+                redis.delete(keys);
+            } catch (Exception ignore) {
+            }
+        }
+    }
+
+    private static String key(String salespersonId, String status, String auditStatus, String source) {
+        return KEY_PREFIX + "sp=" + dim(salespersonId) + "|st=" + dim(status) + "|as=" + dim(auditStatus)
+                + "|src=" + dim(source);
+    }
+
+    private static String dim(String value) {
+        return StringUtils.hasText(value) ? value : ANY;
+    }
+
+    /**
+     * 过滤值在计数器键中的取值：未过滤时为空串，无法对应到计数器时为null（直接查询数据库）
+     */
+    private static String dimension(String value, Function<String, String> code) {
+        return value == null || value.isEmpty() ? "" : code.apply(value);
+    }
+
+    /**
+     * 数据库按不区分大小写的排序规则比较，任意大小写的状态都归到枚举编码对应的计数器
+     */
+    private static String statusCode(String status) {
+        try {
+            return CustomerLead.LeadStatus.fromCode(status.toUpperCase(Locale.ROOT)).getCode();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String auditStatusCode(String auditStatus) {
+        try {
+            return CustomerLead.AuditStatus.fromCode(auditStatus.toUpperCase(Locale.ROOT)).getCode();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 来源没有枚举，按小写归并；首尾带空白的取值与数据库比较规则不一致，不使用计数器
+     */
+    private static String sourceCode(String source) {
+        return source.equals(source.trim()) ? source.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 一次写操作对各过滤条件组合的计数变化，变更前调用remove、变更后调用add
+     */
+    public static final class Delta {
+
+        private final Map<String, Long> changes = new HashMap<>();
+
+        private Delta() {
+        }
+
+        public Delta add(CustomerLead lead) {
+            return change(lead, 1);
+        }
+
+        public Delta remove(CustomerLead lead) {
+            return change(lead, -1);
+        }
+
+        private Delta change(CustomerLead lead, long amount) {
+            String[] salesperson = {ANY, lead.getSalespersonId() != null ? lead.getSalespersonId().toString() : null};
+            String[] status = {ANY, lead.getStatus() != null ? lead.getStatus().getCode() : null};
+            String[] audit = {ANY, lead.getAuditStatus() != null ? lead.getAuditStatus().getCode() : null};
+            String[] source = {ANY, lead.getSource() != null ? lead.getSource().toLowerCase(Locale.ROOT) : null};
+            for (int mask = 0; mask < 16; mask++) {
+                String sp = salesperson[mask & 1];
+                String st = status[(mask >> 1) & 1];
+                String as = audit[(mask >> 2) & 1];
+                String src = source[(mask >> 3) & 1];
+                // 取值为空的维度只计入"不限"组合（按空值过滤等同于不限）
+                if (sp == null || st == null || as == null || !StringUtils.hasText(src)) {
+                    continue;
+                }
+                changes.merge(key(sp, st, as, src), amount, Long::sum);
+            }
+            return this;
+        }
+    }
+}
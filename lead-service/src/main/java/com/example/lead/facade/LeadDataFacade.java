@@ -1,79 +1,259 @@
 package com.example.lead.facade;
 
+import com.example.common.service.NGramSearchIndex;
 import com.example.data.entity.CustomerLead;
+import com.example.data.entity.LeadAuditRecord;
 import com.example.data.mapper.CustomerLeadMapper;
+import com.example.data.mapper.LeadAuditRecordMapper;
 import com.example.lead.converter.LeadDtoConverter;
 import com.example.lead.dto.CreateLeadRequest;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.LeadDetailsDto;
+import com.example.lead.dto.LeadPageCursor;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.beans.factory.annotation.Autowired;
-import java.util.concurrent.TimeUnit;
-import org.springframework.util.DigestUtils;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import com.example.lead.dto.UpdateLeadRequest;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class LeadDataFacade {
 
     private final CustomerLeadMapper leadMapper;
-    @Autowired(required = false)
-    private RedisTemplate<String, Object> redis;
+    private final LeadPhoneIndex phoneIndex;
+    private final LeadListCache listCache;
+    private final LeadCountCache countCache;
+    private final LeadStatsRollup statsRollup;
+    private final LeadSearchIndex searchIndex;
+    private final LeadAuditRecordMapper auditRecordMapper;
+    private final LeadFollowUpScheduler followUpScheduler;
+    private final LeadDetailCache detailCache;
+    private final LeadAssignmentEngine assignmentEngine;
 
-    public LeadDataFacade(CustomerLeadMapper leadMapper) {
+    public LeadDataFacade(CustomerLeadMapper leadMapper, LeadPhoneIndex phoneIndex, LeadListCache listCache,
+                          LeadCountCache countCache, LeadStatsRollup statsRollup, LeadSearchIndex searchIndex,
+                          LeadAuditRecordMapper auditRecordMapper, LeadFollowUpScheduler followUpScheduler,
+                          LeadDetailCache detailCache, LeadAssignmentEngine assignmentEngine) {
         this.leadMapper = leadMapper;
+        this.phoneIndex = phoneIndex;
+        this.listCache = listCache;
+        this.countCache = countCache;
+        this.statsRollup = statsRollup;
+        this.searchIndex = searchIndex;
+        this.auditRecordMapper = auditRecordMapper;
+        this.followUpScheduler = followUpScheduler;
+        this.detailCache = detailCache;
+        this.assignmentEngine = assignmentEngine;
     }
 
+    /**
+     * 查询客资详情，依次读取本地缓存、Redis缓存和数据库
+     */
     public Optional<LeadDetailsDto> findDetailsById(Long id) {
-        return leadMapper.findById(id).map(LeadDtoConverter::toDetails);
+        return detailCache.get(id, () -> leadMapper.findById(id).map(LeadDtoConverter::toDetails));
     }
 
     public boolean existsByPhone(String phone, Long excludeId) {
-        // 先查缓存
-        if (redis != null) {
-            String key = "lead:exists:phone:" + phone;
-            Object v = redis.opsForValue().get(key);
-            if (v != null) {
-                boolean exists = "1".equals(v.toString());
-                if (!exists) return false; // 缓存明确为不存在时直接返回
-                // 存在时如需排除ID，仍需DB核对
-                if (excludeId == null) return true;
-            }
-        }
-        Optional<CustomerLead> opt = leadMapper.findByPhone(phone);
-        boolean present = opt.filter(e -> excludeId == null || !excludeId.equals(e.getId())).isPresent();
-        if (redis != null) {
-            String key = "lead:exists:phone:" + phone;
-            redis.opsForValue().set(key, present ? "1" : "0", 5, TimeUnit.MINUTES);
-        }
-        return present;
+        // 手机号索引判定一定不存在时直接返回，可能存在时走uniq_phone索引核对
+        if (!phoneIndex.mightContain(phone)) return false;
+        return leadMapper.existsByPhone(phone, excludeId);
     }
 
+    /**
+     * 创建客资。未指定归属销售时按自动分配规则选择销售，已指定的销售保留。
+     */
+    @Transactional
     public CustomerLeadDto create(CreateLeadRequest req) {
         CustomerLead e = LeadDtoConverter.toEntity(req);
+        Long assigned = e.getSalespersonId() == null ? assignmentEngine.assign() : null;
+        if (assigned != null) {
+            e.setSalespersonId(assigned);
+        }
         leadMapper.insert(e);
+        if (assigned == null) {
+            assignmentEngine.onChanged(null, null, e.getSalespersonId(), e.getStatus());
+        }
+        statsRollup.apply(statsRollup.newDelta().add(e));
+        phoneIndex.add(e.getPhone());
+        searchIndex.index(e);
+        invalidateList(e);
+        countCache.apply(countCache.newDelta().add(e));
         return LeadDtoConverter.toDto(e);
     }
 
+    /**
+     * 批量检查手机号是否已存在：手机号索引判定一定不存在的号码不再查询，其余号码用一条IN查询核对
+     *
+     * @return 已存在的手机号
+     */
+    public Set<String> findExistingPhones(Collection<String> phones) {
+        List<String> candidates = phones.stream().filter(phoneIndex::mightContain).collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(leadMapper.findExistingPhones(candidates));
+    }
+
+    /**
+     * 批量创建客资
+     * 多行INSERT一次写入；遇到唯一索引冲突（如并发导入了同一号码）时改为逐行写入并跳过冲突行。
+     * 列表缓存、数量缓存和手机号索引按批更新一次。
+     *
+     * @param leads 待创建的客资，写入成功后回填ID
+     * @return 因手机号冲突未写入的客资
+     */
+    @Transactional
+    public List<CustomerLead> batchCreate(List<CustomerLead> leads) {
+        if (leads.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 只为未指定归属销售的客资自动分配，导入数据中已指定的销售保留
+        Set<CustomerLead> assigned = Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        for (CustomerLead lead : leads) {
+            if (lead.getSalespersonId() != null) {
+                continue;
+            }
+            Long salespersonId = assignmentEngine.assign();
+            if (salespersonId != null) {
+                lead.setSalespersonId(salespersonId);
+                assigned.add(lead);
+            }
+        }
+        List<CustomerLead> created = leads;
+        List<CustomerLead> conflicts = new ArrayList<>();
+        try {
+            leadMapper.batchInsert(leads);
+        } catch (DuplicateKeyException e) {
+            created = new ArrayList<>(leads.size());
+            for (CustomerLead lead : leads) {
+                try {
+                    leadMapper.insert(lead);
+                    created.add(lead);
+                } catch (DuplicateKeyException dup) {
+                    conflicts.add(lead);
+                }
+            }
+        }
+        if (!created.isEmpty()) {
+            phoneIndex.addAll(created.stream().map(CustomerLead::getPhone).collect(Collectors.toList()));
+            searchIndex.indexLeads(created);
+            Set<Long> salespersonIds = new HashSet<>();
+            Set<String> auditStatuses = new HashSet<>();
+            LeadCountCache.Delta delta = countCache.newDelta();
+            LeadStatsRollup.Delta stats = statsRollup.newDelta();
+            for (CustomerLead lead : created) {
+                salespersonIds.add(lead.getSalespersonId());
+                auditStatuses.add(lead.getAuditStatus() != null ? lead.getAuditStatus().getCode() : null);
+                delta.add(lead);
+                stats.add(lead);
+                if (!assigned.contains(lead)) {
+                    assignmentEngine.onChanged(null, null, lead.getSalespersonId(), lead.getStatus());
+                }
+            }
+            statsRollup.apply(stats);
+            listCache.invalidate(salespersonIds, auditStatuses);
+            countCache.apply(delta);
+        }
+        for (CustomerLead lead : conflicts) {
+            if (assigned.contains(lead)) {
+                assignmentEngine.release(lead.getSalespersonId());
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * 更新跟进状态。先锁定客资行再取变更前的状态，并发更新同一客资时按提交顺序计算统计增量；
+     * 状态未变化时只刷新跟进时间，不调整计数、汇总和分配统计。
+     */
+    @Transactional
     public boolean updateStatus(Long id, String statusCode) {
         CustomerLead.LeadStatus status = CustomerLead.LeadStatus.fromCode(statusCode);
-        return leadMapper.updateFollowUp(id, status, LocalDateTime.now(), LocalDateTime.now()) > 0;
+        List<CustomerLead> locked = leadMapper.lockByIds(Collections.singletonList(id));
+        if (locked.isEmpty()) {
+            return false;
+        }
+        CustomerLead e = locked.get(0);
+        LocalDateTime now = LocalDateTime.now();
+        if (leadMapper.updateFollowUp(id, status, now, now) == 0) {
+            return false;
+        }
+        detailCache.invalidate(id);
+        invalidateList(e);
+        if (e.getStatus() != status) {
+            LeadCountCache.Delta delta = countCache.newDelta().remove(e);
+            LeadStatsRollup.Delta stats = statsRollup.newDelta().remove(e);
+            assignmentEngine.onChanged(e.getSalespersonId(), e.getStatus(), e.getSalespersonId(), status);
+            e.setStatus(status);
+            statsRollup.apply(stats.add(e));
+            countCache.apply(delta.add(e));
+        }
+        e.setLastFollowUpAt(now);
+        followUpScheduler.onChanged(e);
+        return true;
     }
 
-    public boolean batchUpdateAuditStatus(List<Long> ids, String auditStatusCode) {
+    /**
+     * 审核一块客资：按ID顺序锁定客资，更新审核状态、写入审核记录、更新统计，在一个事务内完成。
+     * 审核状态已是目标状态的客资不更新、不写审核记录。
+     *
+     * @param ids 客资ID（不能为空），调用方应控制数量以缩短行锁持有时间
+     * @return 审核状态发生变化和未变化的客资ID，不在其中的ID不存在
+     */
+    @Transactional
+    public AuditOutcome auditChunk(List<Long> ids, String auditStatusCode, Long auditorId, String comment, String rejectReason) {
         CustomerLead.AuditStatus as = CustomerLead.AuditStatus.fromCode(auditStatusCode);
-        return leadMapper.batchUpdateAuditStatus(ids, as, LocalDateTime.now()) > 0;
-    }
-    public boolean updateAuditStatus(Long id, String auditStatusCode) {
-        CustomerLead.AuditStatus as = CustomerLead.AuditStatus.fromCode(auditStatusCode);
-        return leadMapper.updateAuditStatus(id, as, java.time.LocalDateTime.now()) > 0;
+        LocalDateTime now = LocalDateTime.now();
+        AuditOutcome outcome = new AuditOutcome();
+        List<CustomerLead> changed = new ArrayList<>();
+        for (CustomerLead e : leadMapper.lockByIds(ids)) {
+            if (e.getAuditStatus() == as) {
+                outcome.unchanged.add(e.getId());
+            } else {
+                changed.add(e);
+                outcome.changed.add(e.getId());
+            }
+        }
+        if (changed.isEmpty()) {
+            return outcome;
+        }
+        leadMapper.batchUpdateAuditStatus(outcome.changed, as, now);
+        List<LeadAuditRecord> records = new ArrayList<>(changed.size());
+        Set<Long> salespersonIds = new HashSet<>();
+        Set<String> auditStatuses = new HashSet<>();
+        auditStatuses.add(as.getCode());
+        LeadCountCache.Delta delta = countCache.newDelta();
+        LeadStatsRollup.Delta stats = statsRollup.newDelta();
+        for (CustomerLead e : changed) {
+            String before = e.getAuditStatus() != null ? e.getAuditStatus().getCode() : null;
+            records.add(new LeadAuditRecord(e.getId(), auditorId, before, as.getCode(), comment, rejectReason, now));
+            salespersonIds.add(e.getSalespersonId());
+            auditStatuses.add(before);
+            delta.remove(e);
+            stats.remove(e);
+            e.setAuditStatus(as);
+            delta.add(e);
+            stats.add(e);
+        }
+        auditRecordMapper.batchInsert(records);
+        detailCache.invalidateAll(outcome.changed);
+        statsRollup.apply(stats);
+        listCache.invalidate(salespersonIds, auditStatuses);
+        countCache.apply(delta);
+        return outcome;
     }
 
 
@@ -83,66 +263,221 @@ public class LeadDataFacade {
     }
     public boolean updateLead(Long id, UpdateLeadRequest req) {
         return leadMapper.findById(id).map(e -> {
+            String oldPhone = e.getPhone();
             if (StringUtils.hasText(req.getName())) e.setName(req.getName());
             if (StringUtils.hasText(req.getPhone())) e.setPhone(req.getPhone());
             if (StringUtils.hasText(req.getWechatId())) e.setWechatId(req.getWechatId());
             // email 字段暂未入库，保留请求但不持久化
             if (StringUtils.hasText(req.getNotes())) e.setNotes(req.getNotes());
             e.setUpdatedAt(LocalDateTime.now());
-            return leadMapper.update(e) > 0;
+            boolean updated = leadMapper.update(e) > 0;
+            if (updated && !java.util.Objects.equals(oldPhone, e.getPhone())) {
+                phoneIndex.add(e.getPhone());
+                phoneIndex.recordRemoval();
+            }
+            if (updated) {
+                searchIndex.index(e);
+                invalidateList(e);
+                detailCache.invalidate(id);
+            }
+            return updated;
         }).orElse(false);
     }
 
+    /**
+     * 删除客资。先锁定客资行再删除，并发删除同一客资时只有实际删除的一方扣减统计。
+     */
+    @Transactional
     public boolean deleteLead(Long id) {
-        return leadMapper.deleteById(id) > 0;
+        List<CustomerLead> locked = leadMapper.lockByIds(Collections.singletonList(id));
+        if (locked.isEmpty() || leadMapper.deleteById(id) == 0) {
+            return false;
+        }
+        CustomerLead e = locked.get(0);
+        phoneIndex.recordRemoval();
+        followUpScheduler.onRemoved(id);
+        detailCache.invalidate(id);
+        assignmentEngine.onChanged(e.getSalespersonId(), e.getStatus(), null, null);
+        statsRollup.apply(statsRollup.newDelta().remove(e));
+        invalidateList(e);
+        countCache.apply(countCache.newDelta().remove(e));
+        return true;
     }
 
     public com.example.lead.dto.PageResult<CustomerLeadDto> findPageWithCount(Integer page, Integer size,
             Long salespersonId, String status, String auditStatus, String keyword, String source, String startDate, String endDate, String sortBy, String sortOrder) {
-        // 轻量分页缓存（短TTL + 版本号）
-        String ver = "1";
-        String verKey = "lead:list:ver";
-        List<CustomerLeadDto> data;
-        long total;
-        boolean fromCache = false;
-        if (redis != null) {
-            Object v = redis.opsForValue().get(verKey);
-            if (v != null) ver = v.toString();
-            String raw = String.format("p=%s,s=%s,sp=%s,st=%s,as=%s,kw=%s,src=%s,sd=%s,ed=%s,sb=%s,so=%s",
-                    page,size,salespersonId,status,auditStatus,keyword,source,startDate,endDate,sortBy,sortOrder);
-            String k = "lead:list:v" + ver + ":" + org.springframework.util.DigestUtils.md5DigestAsHex(raw.getBytes());
-            Object cached = redis.opsForValue().get(k);
-            if (cached instanceof com.example.lead.dto.PageResult) {
-                @SuppressWarnings("unchecked")
-                com.example.lead.dto.PageResult<CustomerLeadDto> pr = (com.example.lead.dto.PageResult<CustomerLeadDto>) cached;
-                return pr;
-            }
+        return findPageWithCount(page, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder, null);
+    }
+
+    /**
+     * 分页查询客资列表
+     * cursor为空时按页码分页并统计总数；cursor不为空时从游标位置继续读取（keyset分页），不统计总数。
+     * 两种方式的结果都带有下一页游标，客户端可以从任意一页切换到游标翻页。
+     *
+     * @throws IllegalArgumentException 游标无效或与排序条件不匹配
+     */
+    public com.example.lead.dto.PageResult<CustomerLeadDto> findPageWithCount(Integer page, Integer size,
+            Long salespersonId, String status, String auditStatus, String keyword, String source, String startDate, String endDate,
+            String sortBy, String sortOrder, String cursor) {
+        // 轻量分页缓存（短TTL + 按销售/审核状态划分的作用域版本号）
+        String raw = String.format("p=%s,s=%s,sp=%s,st=%s,as=%s,kw=%s,src=%s,sd=%s,ed=%s,sb=%s,so=%s,c=%s",
+                page,size,salespersonId,status,auditStatus,keyword,source,startDate,endDate,sortBy,sortOrder,cursor);
+        return listCache.getOrLoad(salespersonId, auditStatus, raw, () -> StringUtils.hasText(cursor)
+                ? findPageByCursor(cursor, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder)
+                : findPageByOffset(page, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder));
+    }
+
+    /**
+     * 按条件汇总客资数量，读取每日汇总表
+     */
+    public java.util.Map<String, Object> getLeadStatistics(Long salespersonId, String status, String auditStatus, String source,
+                                                           String startDate, String endDate) {
+        return statsRollup.summarize(salespersonId, status, auditStatus, source, startDate, endDate);
+    }
+
+    /**
+     * 按条件汇总每日新增客资数量，读取每日汇总表
+     */
+    public java.util.Map<String, Long> getDailyLeadCounts(Long salespersonId, String status, String auditStatus, String source,
+                                                          String startDate, String endDate) {
+        return statsRollup.dailyCounts(salespersonId, status, auditStatus, source, startDate, endDate);
+    }
+
+    /**
+     * 列表缓存按作用域类型（salesperson/auditStatus/all）的命中与失效统计
+     */
+    public java.util.Map<String, java.util.Map<String, Object>> getListCacheStats() {
+        return listCache.getStats();
+    }
+
+    /**
+     * 客资详情两级缓存的命中统计
+     */
+    public java.util.Map<String, Object> getDetailCacheStats() {
+        return detailCache.getStats();
+    }
+
+    /**
+     * 使该客资所在作用域（所属销售、审核状态）的列表缓存失效
+     */
+    private void invalidateList(CustomerLead e) {
+        listCache.invalidate(Collections.singleton(e.getSalespersonId()),
+                Collections.singleton(e.getAuditStatus() != null ? e.getAuditStatus().getCode() : null));
+    }
+
+    private com.example.lead.dto.PageResult<CustomerLeadDto> findPageByOffset(Integer page, Integer size, Long salespersonId, String status,
+            String auditStatus, String keyword, String source, String startDate, String endDate, String sortBy, String sortOrder) {
+        int p = page == null || page < 1 ? 1 : page;
+        int s = size == null || size < 1 ? 10 : size;
+        NGramSearchIndex.Hits hits = searchKeyword(keyword);
+        List<CustomerLead> list = leadMapper.findByConditions(salespersonId, status, auditStatus, keyword, ids(hits), indexedUpTo(hits),
+                source, startDate, endDate, sortBy, sortOrder, (p - 1) * s, s);
+        com.example.lead.dto.PageResult<CustomerLeadDto> pr;
+        if (countCache.supports(keyword, startDate, endDate)) {
+            long total = countCache.count(salespersonId, status, auditStatus, source);
+            pr = new com.example.lead.dto.PageResult<>(toDtos(list), total, p, s);
+        } else if (countCache.isEstimateTotal()) {
+            // 估算总数可能偏小，是否有下一页以本页是否取满为准
+            long total = countCache.estimate(salespersonId, status, auditStatus, keyword, ids(hits), indexedUpTo(hits),
+                    source, startDate, endDate);
+            pr = new com.example.lead.dto.PageResult<>(toDtos(list), Math.max(total, (long) (p - 1) * s + list.size()), p, s);
+            pr.setTotalEstimated(true);
+            pr.setHasMore(list.size() == s);
+        } else {
+            long total = leadMapper.countByConditions(salespersonId, status, auditStatus, keyword, ids(hits), indexedUpTo(hits),
+                    source, startDate, endDate);
+            pr = new com.example.lead.dto.PageResult<>(toDtos(list), total, p, s);
         }
-        // miss → DB
-        data = findPage(page, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder);
-        total = countByConditions(salespersonId, status, auditStatus, keyword, source, startDate, endDate);
-        com.example.lead.dto.PageResult<CustomerLeadDto> pr = new com.example.lead.dto.PageResult<>(data, total, page == null ? 1 : page, size == null ? 10 : size);
-        if (redis != null) {
-            String raw = String.format("p=%s,s=%s,sp=%s,st=%s,as=%s,kw=%s,src=%s,sd=%s,ed=%s,sb=%s,so=%s",
-                    page,size,salespersonId,status,auditStatus,keyword,source,startDate,endDate,sortBy,sortOrder);
-            String k = "lead:list:v" + ver + ":" + org.springframework.util.DigestUtils.md5DigestAsHex(raw.getBytes());
-            redis.opsForValue().set(k, pr, 60, TimeUnit.SECONDS);
+        if (pr.isHasMore() && !list.isEmpty()) {
+            pr.setNextCursor(LeadPageCursor.after(list.get(list.size() - 1), sortBy, sortOrder).encode());
         }
         return pr;
     }
 
+    /**
+     * 按游标读取下一页：多取一行判断是否还有更多数据
+     */
+    private com.example.lead.dto.PageResult<CustomerLeadDto> findPageByCursor(String cursor, Integer size, Long salespersonId, String status,
+            String auditStatus, String keyword, String source, String startDate, String endDate, String sortBy, String sortOrder) {
+        int s = size == null || size < 1 ? 10 : size;
+        LeadPageCursor after = LeadPageCursor.decode(cursor, sortBy, sortOrder);
+        NGramSearchIndex.Hits hits = searchKeyword(keyword);
+        List<CustomerLead> list = leadMapper.findByConditionsAfterCursor(salespersonId, status, auditStatus, keyword, ids(hits),
+                indexedUpTo(hits), source, startDate, endDate, sortBy, sortOrder, after.getValue(), after.getId(), s + 1);
+        String nextCursor = null;
+        if (list.size() > s) {
+            list = list.subList(0, s);
+            nextCursor = LeadPageCursor.after(list.get(s - 1), sortBy, sortOrder).encode();
+        }
+        return new com.example.lead.dto.PageResult<>(toDtos(list), s, nextCursor);
+    }
+
     public List<CustomerLeadDto> findPage(Integer page, Integer size, Long salespersonId, String status, String auditStatus,
                                           String keyword, String source, String startDate, String endDate, String sortBy, String sortOrder) {
         int p = page == null || page < 1 ? 1 : page;
         int s = size == null || size < 1 ? 10 : size;
         int offset = (p - 1) * s;
-        List<CustomerLead> list = leadMapper.findByConditions(salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder, offset, s);
+        NGramSearchIndex.Hits hits = searchKeyword(keyword);
+        List<CustomerLead> list = leadMapper.findByConditions(salespersonId, status, auditStatus, keyword, ids(hits), indexedUpTo(hits),
+                source, startDate, endDate, sortBy, sortOrder, offset, s);
+        return toDtos(list);
+    }
+
+    /**
+     * 按条件流式读取客资（导出），须在事务内遍历并关闭游标
+     */
+    public Cursor<CustomerLead> streamByConditions(Long salespersonId, String status, String auditStatus, String keyword,
+                                                   String source, String startDate, String endDate, String sortBy, String sortOrder) {
+        NGramSearchIndex.Hits hits = searchKeyword(keyword);
+        return leadMapper.streamByConditions(salespersonId, status, auditStatus, keyword, ids(hits), indexedUpTo(hits),
+                source, startDate, endDate, sortBy, sortOrder);
+    }
+
+    private static List<CustomerLeadDto> toDtos(List<CustomerLead> list) {
         return list.stream().map(LeadDtoConverter::toDto).collect(Collectors.toList());
     }
 
     public long countByConditions(Long salespersonId, String status, String auditStatus, String keyword, String source, String startDate, String endDate) {
-        return leadMapper.countByConditions(salespersonId, status, auditStatus, keyword, source, startDate, endDate);
+        NGramSearchIndex.Hits hits = searchKeyword(keyword);
+        return leadMapper.countByConditions(salespersonId, status, auditStatus, keyword, ids(hits), indexedUpTo(hits),
+                source, startDate, endDate);
     }
 
-}
+    /**
+     * 从搜索索引取关键词的候选ID，无关键词或索引无法回答时返回null（按LIKE全表匹配）
+     */
+    private NGramSearchIndex.Hits searchKeyword(String keyword) {
+        return StringUtils.hasText(keyword) ? searchIndex.search(keyword) : null;
+    }
+
+    private static List<Long> ids(NGramSearchIndex.Hits hits) {
+        return hits != null ? hits.getIds() : null;
+    }
 
+    private static Long indexedUpTo(NGramSearchIndex.Hits hits) {
+        return hits != null ? hits.getIndexedUpToId() : null;
+    }
+
+    /**
+     * 一块客资的审核结果
+     */
+    public static final class AuditOutcome {
+
+        private final List<Long> changed = new ArrayList<>();
+        private final List<Long> unchanged = new ArrayList<>();
+
+        /**
+         * 审核状态发生变化的客资ID（升序）
+         */
+        public List<Long> getChanged() {
+            return changed;
+        }
+
+        /**
+         * 已是目标审核状态的客资ID（升序）
+         */
+        public List<Long> getUnchanged() {
+            return unchanged;
+        }
+    }
+}
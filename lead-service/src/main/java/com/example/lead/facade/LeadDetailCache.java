@@ -0,0 +1,244 @@
+package com.example.lead.facade;
+
+import com.example.lead.dto.LeadDetailsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 客资详情两级缓存
+ *
+ * <p>一级为进程内Caffeine缓存（容量和TTL有上限），二级为Redis（{@value #KEY_PREFIX}{id}），
+ * 读取时依次查询一级、二级缓存，都未命中时查询数据库并写入两级缓存。
+ *
+ * <p>失效：客资修改、跟进、审核、删除的事务提交后，删除Redis中的详情并通过频道 {@value #INVALIDATION_CHANNEL}
+ * 广播客资ID，所有实例（包括发送方）收到后失效一级缓存。
+ * 与失效并发的读取可能把旧数据写回缓存：本实例内用失效计数判断并放弃写入，
+ * 其他实例写回的旧数据最迟在二级缓存TTL后过期；失效消息丢失时一级缓存最迟在其TTL后过期。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadDetailCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadDetailCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "lead:detail:invalidate";
+
+    private static final String KEY_PREFIX = "lead:detail:";
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redis;
+
+    /**
+     * 失效消息按纯文本发送：redis的值序列化器是JSON，发送的ID列表会带引号，接收方无法解析
+     */
+    @Autowired(required = false)
+    private StringRedisTemplate stringRedis;
+
+    @Value("${lead.detail-cache.ttl-seconds:600}")
+    private long ttlSeconds = 600L;
+
+    private final Cache<Long, LeadDetailsDto> local;
+
+    /**
+     * 本实例一级缓存的失效次数，加载前后不一致时不写入缓存
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public LeadDetailCache(@Value("${lead.detail-cache.local-max-size:10000}") long localMaxSize,
+                           @Value("${lead.detail-cache.local-ttl-seconds:60}") long localTtlSeconds) {
+        this(localMaxSize, localTtlSeconds, Ticker.systemTicker());
+    }
+
+    LeadDetailCache(long localMaxSize, long localTtlSeconds, Ticker ticker) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读取客资详情，两级缓存都未命中时加载并写入缓存
+     *
+     * @param id 客资ID
+     * @param loader 从数据库加载详情，客资不存在时返回空（不缓存）
+     */
+    public Optional<LeadDetailsDto> get(Long id, Supplier<Optional<LeadDetailsDto>> loader) {
+        LeadDetailsDto cached = local.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        cached = readRemote(id);
+        if (cached != null) {
+            remoteHits.increment();
+            putLocal(id, cached, generation);
+            return Optional.of(cached);
+        }
+        remoteMisses.increment();
+        Optional<LeadDetailsDto> loaded = loader.get();
+        loaded.ifPresent(details -> {
+            if (invalidations.get() == generation) {
+                writeRemote(id, details);
+                putLocal(id, details, generation);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * 使客资详情缓存失效，在事务中调用时于提交后执行
+     */
+    public void invalidate(Long id) {
+        invalidateAll(Collections.singletonList(id));
+    }
+
+    /**
+     * 批量使客资详情缓存失效，在事务中调用时于提交后执行
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> copy = new LinkedHashSet<>(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(copy);
+                }
+            });
+        } else {
+            evict(copy);
+        }
+    }
+
+    /**
+     * 处理其他实例广播的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        List<Long> ids = new ArrayList<>();
+        for (String id : StringUtils.commaDelimitedListToStringArray(body)) {
+            try {
+                ids.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无效的客资详情失效消息: {}", body);
+                return;
+            }
+        }
+        evictLocal(ids);
+    }
+
+    /**
+     * 命中统计：一级缓存、二级缓存各自的命中数与命中率，以及整体命中率（未查询数据库的比例）
+     */
+    public Map<String, Object> getStats() {
+        CacheStats localStats = local.stats();
+        long localHits = localStats.hitCount();
+        long localMisses = localStats.missCount();
+        long hits = remoteHits.sum();
+        long misses = remoteMisses.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("localHits", localHits);
+        m.put("localMisses", localMisses);
+        m.put("localHitRate", localStats.hitRate());
+        m.put("localSize", local.estimatedSize());
+        m.put("localEvictions", localStats.evictionCount());
+        m.put("remoteHits", hits);
+        m.put("remoteMisses", misses);
+        m.put("remoteHitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        m.put("hitRate", localHits + localMisses == 0 ? 0.0 : (double) (localHits + hits) / (localHits + localMisses));
+        m.put("invalidations", invalidations.get());
+        return m;
+    }
+
+    private void evict(Collection<Long> ids) {
+        evictLocal(ids);
+        try {
+            if (redis != null) {
+                redis.delete(ids.stream().map(id -> KEY_PREFIX + id).collect(Collectors.toList()));
+            }
+            if (stringRedis != null) {
+                stringRedis.convertAndSend(INVALIDATION_CHANNEL, StringUtils.collectionToCommaDelimitedString(ids));
+            }
+        } catch (Exception e) {
+            // 删除失败时其他实例最迟在TTL后读到新数据
+            log.warn("失效客资详情缓存失败: ids={}", ids.size(), e);
+        }
+    }
+
+    private void evictLocal(Collection<Long> ids) {
+        invalidations.incrementAndGet();
+        local.invalidateAll(ids);
+    }
+
+    private void putLocal(Long id, LeadDetailsDto details, long generation) {
+        if (invalidations.get() == generation) {
+            local.put(id, details);
+        }
+    }
+
+    private LeadDetailsDto readRemote(Long id) {
+        if (redis == null) {
+            return null;
+        }
+        try {
+            Object cached = redis.opsForValue().get(KEY_PREFIX + id);
+            return cached instanceof LeadDetailsDto ? (LeadDetailsDto) cached : null;
+        } catch (Exception e) {
+            log.warn("读取客资详情缓存失败: id={}", id, e);
+            return null;
+        }
+    }
+
+    private void writeRemote(Long id, LeadDetailsDto details) {
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(KEY_PREFIX + id, details, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入客资详情缓存失败: id={}", id, e);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.lead.facade;
+
+import com.example.common.event.DomainEventPublisher;
+import com.example.common.event.domain.LeadFollowUpDueEvent;
+import com.example.common.utils.JsonUtils;
+import com.example.common.utils.TimingWheel;
+import com.example.data.entity.CustomerLead;
+import com.example.data.mapper.CustomerLeadMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客资跟进提醒调度
+ *
+ * <p>待跟进、跟进中的客资距上次跟进超过跟进间隔（lead.follow-up.interval-hours）即为跟进到期。
+ * 到期时间在未来一段时间（lead.follow-up.horizon-minutes）内的客资按 (上次跟进时间, ID) 分批加载到
+ * {@link TimingWheel}，每个刻度推进一次，到期的客资回表确认后按归属销售合并发布 {@link LeadFollowUpDueEvent}。
+ * 已加载的区间快用完时再加载下一段，每段只读取一次，不再反复扫描到期区间。
+ *
+ * <ul>
+ *   <li>多个实例通过Redis租约（{@value #LEADER_KEY}）选出一个实例调度，没有Redis时本实例直接调度</li>
+ *   <li>已提醒到的时间点记录在 {@value #WATERMARK_KEY}，接管调度时从该时间点继续，最多补发 lead.follow-up.max-catch-up-hours 小时</li>
+ *   <li>跟进状态变化或客资删除在事务提交后通过Redis频道 {@value #CHANNEL} 通知调度实例，更新时间轮中的任务</li>
+ * </ul>
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadFollowUpScheduler implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadFollowUpScheduler.class);
+
+    public static final String CHANNEL = "lead:follow-up:changed";
+
+    private static final String LEADER_KEY = "lead:follow-up:leader";
+    private static final String WATERMARK_KEY = "lead:follow-up:watermark";
+
+    /**
+     * 租约仍由本实例持有时续期
+     */
+    private static final RedisScript<Long> RENEW_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final CustomerLeadMapper leadMapper;
+
+    @Autowired(required = false)
+    private StringRedisTemplate redis;
+
+    @Autowired(required = false)
+    private DomainEventPublisher eventPublisher;
+
+    @Value("${lead.follow-up.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${lead.follow-up.interval-hours:72}")
+    private long intervalHours = 72L;
+
+    @Value("${lead.follow-up.tick-millis:1000}")
+    private long tickMillis = 1000L;
+
+    @Value("${lead.follow-up.horizon-minutes:10}")
+    private long horizonMinutes = 10L;
+
+    @Value("${lead.follow-up.batch-size:5000}")
+    private int batchSize = 5000;
+
+    @Value("${lead.follow-up.lease-seconds:30}")
+    private long leaseSeconds = 30L;
+
+    @Value("${lead.follow-up.max-catch-up-hours:24}")
+    private long maxCatchUpHours = 24L;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private TimingWheel<Long, Long> wheel;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean leader;
+
+    /**
+     * 时间轮已加载到的到期时间（毫秒），到期时间不晚于它的客资都已在时间轮中
+     */
+    private volatile long loadedUntil;
+
+    public LeadFollowUpScheduler(CustomerLeadMapper leadMapper) {
+        this.leadMapper = leadMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long horizonMillis = TimeUnit.MINUTES.toMillis(horizonMinutes);
+        wheel = new TimingWheel<>(tickMillis, (int) Math.min(1 << 16, horizonMillis / tickMillis + 1),
+                System.currentTimeMillis());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lead-follow-up-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (leader && redis != null) {
+            try {
+                redis.execute(RELEASE_LEASE_SCRIPT, Collections.singletonList(LEADER_KEY), instanceId);
+            } catch (Exception e) {
+                log.warn("释放跟进提醒调度租约失败", e);
+            }
+        }
+    }
+
+    /**
+     * 客资跟进状态或上次跟进时间变化，在事务中调用时于提交后通知
+     */
+    public void onChanged(CustomerLead lead) {
+        notifyChange(new String[]{String.valueOf(lead.getId()),
+                lead.getSalespersonId() != null ? lead.getSalespersonId().toString() : "",
+                lead.getStatus() != null ? lead.getStatus().getCode() : "",
+                lead.getLastFollowUpAt() != null ? String.valueOf(toMillis(lead.getLastFollowUpAt())) : ""});
+    }
+
+    /**
+     * 客资已删除，在事务中调用时于提交后通知
+     */
+    public void onRemoved(Long id) {
+        notifyChange(new String[]{String.valueOf(id)});
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] change = JsonUtils.fromJson(new String(message.getBody(), StandardCharsets.UTF_8), String[].class);
+        if (change != null && change.length > 0) {
+            applyChange(change);
+        }
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    /**
+     * 时间轮中待到期的客资数
+     */
+    public int getPendingCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private void notifyChange(String[] change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishChange(change);
+                }
+            });
+        } else {
+            publishChange(change);
+        }
+    }
+
+    private void publishChange(String[] change) {
+        if (redis == null) {
+            applyChange(change);
+            return;
+        }
+        try {
+            redis.convertAndSend(CHANNEL, JsonUtils.toJson(change));
+        } catch (Exception e) {
+            // 通知失败时时间轮中可能保留过期的任务，到期时回表确认
+            log.warn("发送跟进提醒变更通知失败: leadId={}", change[0], e);
+        }
+    }
+
+    private void applyChange(String[] change) {
+        if (!leader) {
+            return;
+        }
+        Long id = Long.valueOf(change[0]);
+        if (change.length < 4 || !StringUtils.hasText(change[3]) || !isFollowUpStatus(change[2])) {
+            wheel.cancel(id);
+            return;
+        }
+        long dueAt = Long.parseLong(change[3]) + TimeUnit.HOURS.toMillis(intervalHours);
+        if (dueAt <= loadedUntil) {
+            wheel.schedule(id, dueAt, id);
+        } else {
+            // 留给加载该区间时读取
+            wheel.cancel(id);
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (!holdLease()) {
+                if (leader) {
+                    leader = false;
+                    wheel.reset(now);
+                    log.info("跟进提醒调度租约已失去，停止调度");
+                }
+                return;
+            }
+            if (!leader) {
+                long resumeFrom = resumeFrom(now);
+                wheel.reset(resumeFrom);
+                loadedUntil = resumeFrom;
+                leader = true;
+                log.info("跟进提醒调度开始: instance={}, resumeFrom={}", instanceId, Instant.ofEpochMilli(resumeFrom));
+            }
+            long horizonMillis = TimeUnit.MINUTES.toMillis(horizonMinutes);
+            if (loadedUntil - now < horizonMillis / 2) {
+                load(loadedUntil, now + horizonMillis);
+            }
+            List<Long> due = wheel.advance(now);
+            if (!due.isEmpty()) {
+                fire(due, now);
+            }
+            saveWatermark(now);
+        } catch (Exception e) {
+            log.error("跟进提醒调度失败", e);
+        }
+    }
+
+    /**
+     * 加载到期时间在 (from, until] 内的客资，即上次跟进时间在 (from - 间隔, until - 间隔] 内
+     */
+    private void load(long from, long until) {
+        long start = System.currentTimeMillis();
+        long intervalMillis = TimeUnit.HOURS.toMillis(intervalHours);
+        LocalDateTime afterTime = toDateTime(from - intervalMillis);
+        LocalDateTime untilTime = toDateTime(until - intervalMillis);
+        long afterId = Long.MAX_VALUE;
+        int loaded = 0;
+        while (true) {
+            List<CustomerLead> batch = leadMapper.findFollowUpDue(afterTime, afterId, untilTime, batchSize);
+            for (CustomerLead lead : batch) {
+                wheel.schedule(lead.getId(), toMillis(lead.getLastFollowUpAt()) + intervalMillis, lead.getId());
+                afterTime = lead.getLastFollowUpAt();
+                afterId = lead.getId();
+            }
+            loaded += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        loadedUntil = until;
+        log.debug("跟进提醒加载完成: until={}, count={}, 耗时{}ms", Instant.ofEpochMilli(until), loaded,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 回表确认仍需跟进的客资，按归属销售合并发布提醒
+     */
+    private void fire(List<Long> due, long now) {
+        if (eventPublisher == null) {
+            return;
+        }
+        long intervalMillis = TimeUnit.HOURS.toMillis(intervalHours);
+        Map<Long, List<Long>> bySalesperson = new LinkedHashMap<>();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> ids = due.subList(from, Math.min(due.size(), from + batchSize));
+            for (CustomerLead lead : leadMapper.findByIds(ids)) {
+                if (lead.getSalespersonId() == null || lead.getLastFollowUpAt() == null || lead.getStatus() == null
+                        || !isFollowUpStatus(lead.getStatus().getCode())
+                        || toMillis(lead.getLastFollowUpAt()) + intervalMillis > now) {
+                    continue;
+                }
+                bySalesperson.computeIfAbsent(lead.getSalespersonId(), k -> new ArrayList<>()).add(lead.getId());
+            }
+        }
+        if (bySalesperson.isEmpty()) {
+            return;
+        }
+        String correlationId = UUID.randomUUID().toString();
+        bySalesperson.forEach((salespersonId, leadIds) -> {
+            try {
+                eventPublisher.publishEvent(LeadFollowUpDueEvent.create(salespersonId, leadIds, correlationId));
+            } catch (Exception e) {
+                log.warn("发布跟进到期提醒失败: salespersonId={}, count={}", salespersonId, leadIds.size(), e);
+            }
+        });
+    }
+
+    /**
+     * 获取或续期调度租约
+     */
+    private boolean holdLease() {
+        if (redis == null) {
+            return true;
+        }
+        long leaseMillis = TimeUnit.SECONDS.toMillis(leaseSeconds);
+        if (leader) {
+            Long renewed = redis.execute(RENEW_LEASE_SCRIPT, Collections.singletonList(LEADER_KEY), instanceId,
+                    String.valueOf(leaseMillis));
+            return renewed != null && renewed == 1L;
+        }
+        return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(LEADER_KEY, instanceId, leaseMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private long resumeFrom(long now) {
+        long earliest = now - TimeUnit.HOURS.toMillis(maxCatchUpHours);
+        if (redis == null) {
+            return now;
+        }
+        String watermark = redis.opsForValue().get(WATERMARK_KEY);
+        return StringUtils.hasText(watermark) ? Math.min(now, Math.max(earliest, Long.parseLong(watermark))) : now;
+    }
+
+    private void saveWatermark(long now) {
+        if (redis != null) {
+            redis.opsForValue().set(WATERMARK_KEY, String.valueOf(now));
+        }
+    }
+
+    private static boolean isFollowUpStatus(String status) {
+        return CustomerLead.LeadStatus.PENDING.getCode().equals(status)
+                || CustomerLead.LeadStatus.FOLLOWING.getCode().equals(status);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.lead.facade;
+
+import com.example.lead.dto.CustomerLeadDto;
+import com.example.lead.dto.PageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 客资列表分页缓存
+ *
+ * <p>缓存键中带有作用域版本号，写操作只递增受影响作用域的版本号，其他作用域的缓存继续有效：
+ * <ul>
+ *   <li>按销售筛选的列表：作用域为该销售（sp:{salespersonId}），该销售名下客资变更时失效</li>
+ *   <li>未按销售、但按审核状态筛选的列表：作用域为该审核状态（as:{auditStatus}），
+ *       变更前后任一审核状态与之相同时失效</li>
+ *   <li>其他列表：全局作用域（all），任何客资变更都会失效</li>
+ * </ul>
+ *
+ * <p>版本号在事务提交后递增，避免并发读取在提交前把旧数据写回新版本的缓存。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadListCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadListCache.class);
+
+    private static final String VERSION_KEY_PREFIX = "lead:list:ver:";
+    private static final String PAGE_KEY_PREFIX = "lead:list:";
+    private static final String LEASE_KEY_PREFIX = "lead:list:lease:";
+    private static final long LEASE_POLL_MILLIS = 50L;
+
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    static final String SCOPE_SALESPERSON = "salesperson";
+    static final String SCOPE_AUDIT_STATUS = "auditStatus";
+    static final String SCOPE_ALL = "all";
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redis;
+
+    @Value("${lead.list-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60L;
+
+    /**
+     * 提前重算系数，越大越早重算；0表示关闭
+     */
+    @Value("${lead.list-cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * 是否在多个实例之间用Redis租约合并回源
+     */
+    @Value("${lead.list-cache.lease-enabled:true}")
+    private boolean leaseEnabled = true;
+
+    @Value("${lead.list-cache.lease-ms:3000}")
+    private long leaseMillis = 3000L;
+
+    /**
+     * 未拿到租约时等待其他实例写入缓存的最长时间，超时后自行加载
+     */
+    @Value("${lead.list-cache.lease-wait-ms:1000}")
+    private long leaseWaitMillis = 1000L;
+
+    private final ConcurrentHashMap<String, CompletableFuture<PageResult<CustomerLeadDto>>> inflight = new ConcurrentHashMap<>();
+
+    private final Map<String, ScopeStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 读取缓存，未命中时加载并写入缓存
+     *
+     * <p>同一缓存键在本实例内只有一个请求访问数据库，其他并发请求等待该结果；启用租约时，
+     * 多个实例之间也只有持有租约的实例加载，其他实例短暂等待其写入缓存。
+     * 缓存临近过期时按概率提前由单个请求重新加载（XFetch），避免同时过期引发的并发回源。
+     *
+     * @param salespersonId 查询条件中的销售ID
+     * @param auditStatus 查询条件中的审核状态
+     * @param params 完整查询条件（用于区分同一作用域内的不同页面）
+     * @param loader 未命中时的加载逻辑
+     * @return 分页结果
+     */
+    public PageResult<CustomerLeadDto> getOrLoad(Long salespersonId, String auditStatus, String params,
+                                                 Supplier<PageResult<CustomerLeadDto>> loader) {
+        if (redis == null) {
+            return loader.get();
+        }
+        String scope = scopeOf(salespersonId, auditStatus);
+        ScopeStats scopeStats = statsOf(scopeType(salespersonId, auditStatus));
+        String key;
+        CachedPage cached;
+        try {
+            Object v = redis.opsForValue().get(VERSION_KEY_PREFIX + scope);
+            key = PAGE_KEY_PREFIX + scope + ":v" + (v != null ? v.toString() : "0") + ":"
+                    + DigestUtils.md5DigestAsHex(params.getBytes(StandardCharsets.UTF_8));
+            cached = read(key);
+        } catch (Exception e) {
+            log.warn("读取客资列表缓存失败: scope={}", scope, e);
+            return loader.get();
+        }
+        if (cached != null) {
+            if (!shouldRefreshEarly(cached) || inflight.containsKey(key)) {
+                scopeStats.hits.increment();
+                return cached.getPage();
+            }
+            // 提前重算只需一个请求执行，拿不到租约说明其他实例已在重算，继续使用当前缓存
+            String token = tryLease(key);
+            if (token == null) {
+                scopeStats.hits.increment();
+                return cached.getPage();
+            }
+            scopeStats.earlyRefreshes.increment();
+            try {
+                return singleFlight(key, scopeStats, () -> loadAndStore(key, loader));
+            } finally {
+                releaseLease(key, token);
+            }
+        }
+        scopeStats.misses.increment();
+        return singleFlight(key, scopeStats, () -> loadOnMiss(key, scopeStats, loader));
+    }
+
+    /**
+     * 使受客资变更影响的列表缓存失效
+     *
+     * @param salespersonIds 变更前后客资所属的销售ID（null忽略）
+     * @param auditStatuses 变更前后客资的审核状态编码（null忽略）
+     */
+    public void invalidate(Collection<Long> salespersonIds, Collection<String> auditStatuses) {
+        if (redis == null) {
+            return;
+        }
+        Set<String> scopes = new LinkedHashSet<>();
+        scopes.add(SCOPE_ALL);
+        for (Long salespersonId : salespersonIds) {
+            if (salespersonId != null) {
+                scopes.add("sp:" + salespersonId);
+            }
+        }
+        for (String auditStatus : auditStatuses) {
+            if (StringUtils.hasText(auditStatus)) {
+                scopes.add("as:" + auditStatus);
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(scopes);
+                }
+            });
+        } else {
+            bump(scopes);
+        }
+    }
+
+    /**
+     * 各作用域类型的命中统计
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String type : new String[]{SCOPE_SALESPERSON, SCOPE_AUDIT_STATUS, SCOPE_ALL}) {
+            ScopeStats s = statsOf(type);
+            long hits = s.hits.sum();
+            long misses = s.misses.sum();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("hits", hits);
+            m.put("misses", misses);
+            m.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            m.put("invalidations", s.invalidations.sum());
+            m.put("coalesced", s.coalesced.sum());
+            m.put("earlyRefreshes", s.earlyRefreshes.sum());
+            result.put(type, m);
+        }
+        return result;
+    }
+
+    static String scopeOf(Long salespersonId, String auditStatus) {
+        if (salespersonId != null) {
+            return "sp:" + salespersonId;
+        }
+        if (StringUtils.hasText(auditStatus)) {
+            return "as:" + auditStatus;
+        }
+        return SCOPE_ALL;
+    }
+
+    private static String scopeType(Long salespersonId, String auditStatus) {
+        if (salespersonId != null) {
+            return SCOPE_SALESPERSON;
+        }
+        return StringUtils.hasText(auditStatus) ? SCOPE_AUDIT_STATUS : SCOPE_ALL;
+    }
+
+    /**
+     * 同一缓存键只执行一次加载，并发请求共享同一个结果
+     */
+    private PageResult<CustomerLeadDto> singleFlight(String key, ScopeStats scopeStats,
+                                                     Supplier<PageResult<CustomerLeadDto>> loader) {
+        CompletableFuture<PageResult<CustomerLeadDto>> mine = new CompletableFuture<>();
+        CompletableFuture<PageResult<CustomerLeadDto>> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            scopeStats.coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            PageResult<CustomerLeadDto> pr = loader.get();
+            mine.complete(pr);
+            return pr;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 缓存未命中：持有租约时加载，否则等待持有租约的实例写入缓存，超时后自行加载
+     */
+    private PageResult<CustomerLeadDto> loadOnMiss(String key, ScopeStats scopeStats,
+                                                   Supplier<PageResult<CustomerLeadDto>> loader) {
+        String token = tryLease(key);
+        if (token == null) {
+            CachedPage page = awaitOtherInstance(key);
+            if (page != null) {
+                scopeStats.coalesced.increment();
+                return page.getPage();
+            }
+        }
+        try {
+            return loadAndStore(key, loader);
+        } finally {
+            releaseLease(key, token);
+        }
+    }
+
+    private PageResult<CustomerLeadDto> loadAndStore(String key, Supplier<PageResult<CustomerLeadDto>> loader) {
+        long start = System.currentTimeMillis();
+        PageResult<CustomerLeadDto> pr = loader.get();
+        long now = System.currentTimeMillis();
+        CachedPage page = new CachedPage();
+        page.setPage(pr);
+        page.setComputeMillis(now - start);
+        page.setExpireAt(now + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        try {
+            redis.opsForValue().set(key, page, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入客资列表缓存失败: key={}", key, e);
+        }
+        return pr;
+    }
+
+    private CachedPage read(String key) {
+        Object cached = redis.opsForValue().get(key);
+        return cached instanceof CachedPage ? (CachedPage) cached : null;
+    }
+
+    /**
+     * XFetch：剩余时间越短、加载越慢，提前重算的概率越高
+     */
+    private boolean shouldRefreshEarly(CachedPage page) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        double gap = -page.getComputeMillis() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= page.getExpireAt();
+    }
+
+    /**
+     * 获取跨实例加载租约
+     *
+     * @return 租约令牌；未启用租约时返回空串，被其他实例持有时返回null
+     */
+    private String tryLease(String key) {
+        if (!leaseEnabled) {
+            return "";
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redis.opsForValue().setIfAbsent(LEASE_KEY_PREFIX + key, token, leaseMillis, TimeUnit.MILLISECONDS);
+            return Boolean.FALSE.equals(acquired) ? null : token;
+        } catch (Exception e) {
+            log.warn("获取客资列表缓存租约失败: key={}", key, e);
+            return "";
+        }
+    }
+
+    private void releaseLease(String key, String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        try {
+            redis.execute(RELEASE_LEASE_SCRIPT, Collections.singletonList(LEASE_KEY_PREFIX + key), token);
+        } catch (Exception e) {
+            log.warn("释放客资列表缓存租约失败: key={}", key, e);
+        }
+    }
+
+    private CachedPage awaitOtherInstance(String key) {
+        long deadline = System.currentTimeMillis() + leaseWaitMillis;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Thread.sleep(LEASE_POLL_MILLIS);
+                CachedPage page = read(key);
+                if (page != null) {
+                    return page;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("等待客资列表缓存失败: key={}", key, e);
+        }
+        return null;
+    }
+
+    private void bump(Set<String> scopes) {
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                for (String scope : scopes) {
+                    incr(connection, VERSION_KEY_PREFIX + scope);
+                }
+                return null;
+            });
+            for (String scope : scopes) {
+                statsOf(scope.startsWith("sp:") ? SCOPE_SALESPERSON
+                        : scope.startsWith("as:") ? SCOPE_AUDIT_STATUS : SCOPE_ALL).invalidations.increment();
+            }
+        } catch (Exception e) {
+            log.warn("递增客资列表缓存版本失败: scopes={}", scopes, e);
+        }
+    }
+
+    private static void incr(RedisConnection connection, String key) {
+        connection.incr(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScopeStats statsOf(String type) {
+        return stats.computeIfAbsent(type, t -> new ScopeStats());
+    }
+
+    private static final class ScopeStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+        /** 等待其他请求（本实例或其他实例）加载结果而未访问数据库的次数 */
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder earlyRefreshes = new LongAdder();
+    }
+
+    /**
+     * 缓存的分页结果，附带加载耗时和过期时间用于提前重算
+     */
+    public static class CachedPage {
+
+        private PageResult<CustomerLeadDto> page;
+
+        private long computeMillis;
+
+        private long expireAt;
+
+        public PageResult<CustomerLeadDto> getPage() {
+            return page;
+        }
+
+        public void setPage(PageResult<CustomerLeadDto> page) {
+            this.page = page;
+        }
+
+        public long getComputeMillis() {
+            return computeMillis;
+        }
+
+        public void setComputeMillis(long computeMillis) {
+            this.computeMillis = computeMillis;
+        }
+
+        public long getExpireAt() {
+            return expireAt;
+        }
+
+        public void setExpireAt(long expireAt) {
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.lead.facade;
+
+import com.example.common.utils.ScalableBloomFilter;
+import com.example.data.mapper.CustomerLeadMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 客资手机号存在性索引
+ *
+ * <p>进程内的可扩容布隆过滤器，从customer_leads的uniq_phone索引分批加载。
+ * 判定"一定不存在"时查重无需访问数据库，只有"可能存在"时才到数据库确认。
+ *
+ * <ul>
+ *   <li>启动后异步加载，加载完成前所有查询都按"可能存在"处理</li>
+ *   <li>本实例新增的手机号通过Redis频道 {@value #PHONE_ADDED_CHANNEL} 通知其他实例</li>
+ *   <li>布隆过滤器不支持删除：删除客资或修改手机号后旧号码仍判定为"可能存在"（由数据库确认），
+ *       累计到一定比例或到达重建周期时重新加载</li>
+ *   <li>通知丢失时其他实例可能把新号码判定为不存在，直到下次重建；创建客资时仍由uniq_phone唯一索引兜底</li>
+ * </ul>
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadPhoneIndex implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadPhoneIndex.class);
+
+    public static final String PHONE_ADDED_CHANNEL = "lead:phone:added";
+
+    /**
+     * 保留最近新增的号码数量，重建完成后重放到新索引，覆盖加载期间新增（或尚未提交）的号码
+     */
+    private static final int RECENT_ADDS_LIMIT = 10000;
+
+    private final CustomerLeadMapper leadMapper;
+
+    @Autowired(required = false)
+    private StringRedisTemplate redis;
+
+    @Value("${lead.phone-index.expected-insertions:1000000}")
+    private long expectedInsertions = 1_000_000L;
+
+    @Value("${lead.phone-index.fpp:0.001}")
+    private double fpp = 0.001;
+
+    @Value("${lead.phone-index.batch-size:5000}")
+    private int batchSize = 5000;
+
+    @Value("${lead.phone-index.rebuild-interval-minutes:360}")
+    private long rebuildIntervalMinutes = 360L;
+
+    /**
+     * 过期（已删除或已改号）号码占比超过该值时提前重建
+     */
+    @Value("${lead.phone-index.stale-rebuild-ratio:0.1}")
+    private double staleRebuildRatio = 0.1;
+
+    private volatile ScalableBloomFilter filter;
+
+    private final Queue<String> recentAdds = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger recentAddsSize = new AtomicInteger();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final AtomicLong staleCount = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    public LeadPhoneIndex(CustomerLeadMapper leadMapper) {
+        this.leadMapper = leadMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lead-phone-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 判断手机号是否可能已存在
+     *
+     * @return false表示一定不存在；索引未就绪时总是返回true
+     */
+    public boolean mightContain(String phone) {
+        ScalableBloomFilter current = filter;
+        return current == null || current.mightContain(phone);
+    }
+
+    /**
+     * 记录新增的手机号并通知其他实例
+     */
+    public void add(String phone) {
+        addLocal(phone);
+        if (redis != null) {
+            try {
+                redis.convertAndSend(PHONE_ADDED_CHANNEL, phone);
+            } catch (Exception e) {
+                log.warn("发送手机号索引通知失败: {}", phone, e);
+            }
+        }
+    }
+
+    /**
+     * 批量记录新增的手机号，合并为一条通知（号码以换行分隔）
+     */
+    public void addAll(Collection<String> phones) {
+        if (phones.isEmpty()) {
+            return;
+        }
+        for (String phone : phones) {
+            addLocal(phone);
+        }
+        if (redis != null) {
+            try {
+                redis.convertAndSend(PHONE_ADDED_CHANNEL, String.join("\n", phones));
+            } catch (Exception e) {
+                log.warn("发送手机号索引通知失败: count={}", phones.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 记录有一个号码不再存在（删除客资或修改手机号），过期号码过多时提前重建
+     */
+    public void recordRemoval() {
+        ScalableBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        long stale = staleCount.incrementAndGet();
+        if (stale > Math.max(1000, current.approximateCount() * staleRebuildRatio) && scheduler != null
+                && !rebuilding.get()) {
+            scheduler.execute(this::rebuild);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        for (String phone : new String(message.getBody(), StandardCharsets.UTF_8).split("\n")) {
+            addLocal(phone);
+        }
+    }
+
+    /**
+     * 从数据库重新加载索引，加载完成后整体替换
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            ScalableBloomFilter current = filter;
+            long capacity = Math.max(expectedInsertions, current != null ? current.approximateCount() * 2 : 0);
+            ScalableBloomFilter next = new ScalableBloomFilter(capacity, fpp);
+            long staleBefore = staleCount.get();
+            String afterPhone = "";
+            long loaded = 0;
+            while (true) {
+                List<String> phones = leadMapper.findPhonesAfter(afterPhone, batchSize);
+                for (String phone : phones) {
+                    next.put(phone);
+                }
+                loaded += phones.size();
+                if (phones.size() < batchSize) {
+                    break;
+                }
+                afterPhone = phones.get(phones.size() - 1);
+            }
+            filter = next;
+            for (String phone : recentAdds) {
+                next.put(phone);
+            }
+            staleCount.addAndGet(-staleBefore);
+            log.info("客资手机号索引加载完成: count={}, bits={}, 耗时{}ms",
+                    loaded, next.bitSize(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("客资手机号索引加载失败，保留原索引", e);
+            if (filter == null && scheduler != null && !scheduler.isShutdown()) {
+                scheduler.schedule(this::rebuild, 1, TimeUnit.MINUTES);
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    private void addLocal(String phone) {
+        if (phone == null) {
+            return;
+        }
+        recentAdds.offer(phone);
+        if (recentAddsSize.incrementAndGet() > RECENT_ADDS_LIMIT && recentAdds.poll() != null) {
+            recentAddsSize.decrementAndGet();
+        }
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(phone);
+        }
+    }
+}
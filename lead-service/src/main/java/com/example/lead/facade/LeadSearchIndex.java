@@ -0,0 +1,62 @@
+package com.example.lead.facade;
+
+import com.example.common.service.NGramSearchIndex;
+import com.example.data.entity.CustomerLead;
+import com.example.data.mapper.CustomerLeadMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 客资关键词搜索索引
+ *
+ * <p>索引列表查询关键词条件涉及的字段（姓名、手机号、微信号、来源、来源详情），
+ * 本实例写入的客资通过Redis频道 {@value #CHANNEL} 通知其他实例。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadSearchIndex extends NGramSearchIndex {
+
+    public static final String CHANNEL = "lead:search:changed";
+
+    private final CustomerLeadMapper leadMapper;
+
+    public LeadSearchIndex(CustomerLeadMapper leadMapper,
+                           @Value("${lead.search-index.max-candidates:5000}") int maxCandidates,
+                           @Value("${lead.search-index.batch-size:5000}") int batchSize,
+                           @Value("${lead.search-index.rebuild-interval-minutes:360}") long rebuildIntervalMinutes,
+                           @Value("${lead.search-index.stale-rebuild-ratio:0.1}") double staleRebuildRatio) {
+        super("lead-search-index", CHANNEL, maxCandidates, batchSize, rebuildIntervalMinutes, staleRebuildRatio);
+        this.leadMapper = leadMapper;
+    }
+
+    /**
+     * 索引新增或修改的客资
+     */
+    public void index(CustomerLead lead) {
+        index(lead.getId(), fields(lead));
+    }
+
+    /**
+     * 批量索引新增的客资
+     */
+    public void indexLeads(List<CustomerLead> leads) {
+        indexAll(leads.stream().map(lead -> document(lead.getId(), fields(lead))).collect(Collectors.toList()));
+    }
+
+    @Override
+    protected List<String[]> loadAfter(long afterId, int limit) {
+        return leadMapper.findSearchFieldsAfter(afterId, limit).stream()
+                .map(lead -> document(lead.getId(), fields(lead)))
+                .collect(Collectors.toList());
+    }
+
+    private static String[] fields(CustomerLead lead) {
+        return new String[]{lead.getName(), lead.getPhone(), lead.getWechatId(), lead.getSource(), lead.getSourceDetail()};
+    }
+}
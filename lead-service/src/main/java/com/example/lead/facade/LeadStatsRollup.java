@@ -0,0 +1,131 @@
+package com.example.lead.facade;
+
+import com.example.data.entity.CustomerLead;
+import com.example.data.entity.LeadDailyStats;
+import com.example.data.mapper.LeadDailyStatsMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 客资统计汇总
+ *
+ * <p>lead_daily_stats 按 (创建日期, 销售, 来源, 跟进状态, 审核状态) 预聚合客资数量。
+ * 客资写入时与业务数据在同一事务内增减对应的汇总桶（变更前的取值减1、变更后的取值加1），
+ * 统计查询按任意过滤条件组合和日期范围对汇总桶求和，不扫描customer_leads。
+ *
+ * <p>日期维度取客资的创建日期，日期范围按天对齐：结束日期包含当天。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class LeadStatsRollup {
+
+    private final LeadDailyStatsMapper statsMapper;
+
+    public LeadStatsRollup(LeadDailyStatsMapper statsMapper) {
+        this.statsMapper = statsMapper;
+    }
+
+    public Delta newDelta() {
+        return new Delta();
+    }
+
+    /**
+     * 在当前事务内累加汇总桶，变化量为0的桶不写入
+     */
+    public void apply(Delta delta) {
+        List<LeadDailyStats> rows = new ArrayList<>(delta.changes.size());
+        for (LeadDailyStats row : delta.changes.values()) {
+            if (row.getLeadCount() != 0) {
+                rows.add(row);
+            }
+        }
+        if (!rows.isEmpty()) {
+            statsMapper.upsertDeltas(rows);
+        }
+    }
+
+    /**
+     * 按条件汇总客资数量
+     *
+     * @return totalCount、按审核状态的pendingCount/approvedCount/rejectedCount，
+     *         以及bySource、byStatus、byAuditStatus分组数量
+     */
+    public Map<String, Object> summarize(Long salespersonId, String status, String auditStatus, String source,
+                                         String startDate, String endDate) {
+        List<LeadDailyStats> buckets = statsMapper.sumByConditions(salespersonId, status, auditStatus, source, startDate, endDate);
+        long total = 0;
+        Map<String, Long> bySource = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byAuditStatus = new TreeMap<>();
+        for (LeadDailyStats bucket : buckets) {
+            long count = bucket.getLeadCount();
+            total += count;
+            bySource.merge(bucket.getSource(), count, Long::sum);
+            byStatus.merge(bucket.getStatus(), count, Long::sum);
+            byAuditStatus.merge(bucket.getAuditStatus(), count, Long::sum);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalCount", total);
+        stats.put("pendingCount", byAuditStatus.getOrDefault(CustomerLead.AuditStatus.PENDING_AUDIT.getCode(), 0L));
+        stats.put("approvedCount", byAuditStatus.getOrDefault(CustomerLead.AuditStatus.APPROVED.getCode(), 0L));
+        stats.put("rejectedCount", byAuditStatus.getOrDefault(CustomerLead.AuditStatus.REJECTED.getCode(), 0L));
+        stats.put("bySource", bySource);
+        stats.put("byStatus", byStatus);
+        stats.put("byAuditStatus", byAuditStatus);
+        return stats;
+    }
+
+    /**
+     * 按条件汇总每日新增客资数量（日期 yyyy-MM-dd 到数量，按日期升序）
+     */
+    public Map<String, Long> dailyCounts(Long salespersonId, String status, String auditStatus, String source,
+                                         String startDate, String endDate) {
+        Map<String, Long> daily = new LinkedHashMap<>();
+        for (LeadDailyStats bucket : statsMapper.sumByDay(salespersonId, status, auditStatus, source, startDate, endDate)) {
+            daily.put(bucket.getStatDate().toString(), bucket.getLeadCount());
+        }
+        return daily;
+    }
+
+    /**
+     * 一次写操作对汇总桶的变化，变更前调用remove、变更后调用add。
+     * 汇总桶按固定顺序写入，并发事务以相同顺序加锁，避免死锁。
+     */
+    public static final class Delta {
+
+        private final Map<String, LeadDailyStats> changes = new TreeMap<>();
+
+        private Delta() {
+        }
+
+        public Delta add(CustomerLead lead) {
+            return change(lead, 1);
+        }
+
+        public Delta remove(CustomerLead lead) {
+            return change(lead, -1);
+        }
+
+        private Delta change(CustomerLead lead, long amount) {
+            LocalDate date = lead.getCreatedAt() != null ? lead.getCreatedAt().toLocalDate() : LocalDate.now();
+            String status = lead.getStatus() != null ? lead.getStatus().getCode() : CustomerLead.LeadStatus.PENDING.getCode();
+            String auditStatus = lead.getAuditStatus() != null
+                    ? lead.getAuditStatus().getCode() : CustomerLead.AuditStatus.PENDING_AUDIT.getCode();
+            String source = lead.getSource() != null ? lead.getSource() : "";
+            String key = date + "|" + lead.getSalespersonId() + "|" + source + "|" + status + "|" + auditStatus;
+            LeadDailyStats row = changes.computeIfAbsent(key,
+                    k -> new LeadDailyStats(date, lead.getSalespersonId(), source, status, auditStatus, 0));
+            row.setLeadCount(row.getLeadCount() + amount);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.lead.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式CSV读取（RFC 4180）：支持双引号包裹的字段、字段内的逗号/换行以及 "" 转义，忽略UTF-8 BOM和空行
+ */
+public class CsvReader implements TabularReader {
+
+    private final BufferedReader reader;
+
+    private int rowNumber;
+
+    private int lineNumber;
+
+    public CsvReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            if (lineNumber == 0 && c == '\uFEFF') {
+                c = reader.read();
+                if (c == -1) {
+                    return null;
+                }
+            }
+            lineNumber++;
+            if (c == '\n') {
+                continue;
+            }
+            if (c == '\r') {
+                skipLf();
+                continue;
+            }
+            rowNumber = lineNumber;
+            return readRecord(c);
+        }
+    }
+
+    @Override
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord(int first) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int c = first;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    int n = reader.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '\r') {
+                skipLf();
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = reader.read();
+        }
+    }
+
+    private void skipLf() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\n') {
+            reader.reset();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.lead.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 逐行读取表格文件（CSV/XLSX），不把整个文件载入内存
+ */
+public interface TabularReader extends Closeable {
+
+    /**
+     * 读取下一行
+     *
+     * @return 各列的值（空单元格为空串）；没有更多行时返回null
+     */
+    List<String> next() throws IOException;
+
+    /**
+     * 上一次 {@link #next()} 返回的行在文件中的行号，从1开始
+     */
+    int getRowNumber();
+}
@@ -0,0 +1,216 @@
+package com.example.lead.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 流式XLSX读取：只读取第一个工作表，用StAX逐行解析工作表XML，不构建整个工作簿
+ *
+ * <p>共享字符串表需要随机访问，会整体加载；数值单元格转为不带科学计数法的字符串
+ * （如手机号 1.3800138E10 读作 13800138000）。
+ */
+public class XlsxReader implements TabularReader {
+
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ZipFile zip;
+
+    private final List<String> sharedStrings;
+
+    private final InputStream sheetStream;
+
+    private final XMLStreamReader sheet;
+
+    private int rowNumber;
+
+    public XlsxReader(File file) throws IOException {
+        this.zip = new ZipFile(file);
+        try {
+            this.sharedStrings = readSharedStrings();
+            ZipEntry entry = zip.getEntry(firstSheetPath());
+            if (entry == null) {
+                throw new IOException("XLSX文件中没有工作表");
+            }
+            this.sheetStream = zip.getInputStream(entry);
+            this.sheet = XML_INPUT_FACTORY.createXMLStreamReader(sheetStream, "UTF-8");
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("XLSX文件格式错误", e);
+        }
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String r = sheet.getAttributeValue(null, "r");
+                    rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("XLSX文件格式错误", e);
+        }
+    }
+
+    @Override
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException ignore) {
+        }
+        sheetStream.close();
+        zip.close();
+    }
+
+    private List<String> readRow() throws XMLStreamException {
+        List<String> cells = new ArrayList<>();
+        int column = 0;
+        String type = null;
+        String value = null;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("c".equals(name)) {
+                    String ref = sheet.getAttributeValue(null, "r");
+                    column = ref != null ? columnIndex(ref) : cells.size();
+                    type = sheet.getAttributeValue(null, "t");
+                    value = null;
+                } else if ("v".equals(name) || "t".equals(name)) {
+                    value = value == null ? sheet.getElementText() : value + sheet.getElementText();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("c".equals(name)) {
+                    while (cells.size() < column) {
+                        cells.add("");
+                    }
+                    cells.add(cellValue(type, value));
+                } else if ("row".equals(name)) {
+                    return cells;
+                }
+            }
+        }
+        return cells;
+    }
+
+    private String cellValue(String type, String value) {
+        if (value == null) {
+            return "";
+        }
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(value.trim());
+            return index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if (type == null || "n".equals(type)) {
+            try {
+                return new BigDecimal(value.trim()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 单元格引用（如 AB12）中的列号，从0开始
+     */
+    private static int columnIndex(String ref) {
+        int index = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char ch = ref.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            index = index * 26 + (ch - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in, "UTF-8");
+            StringBuilder current = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(reader.getLocalName())) {
+                        current = new StringBuilder();
+                    } else if ("t".equals(reader.getLocalName()) && current != null) {
+                        current.append(reader.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "si".equals(reader.getLocalName()) && current != null) {
+                    strings.add(current.toString());
+                    current = null;
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    /**
+     * 按 workbook.xml 中第一个sheet的关系ID找到工作表文件，找不到时使用默认的sheet1.xml
+     */
+    private String firstSheetPath() throws IOException, XMLStreamException {
+        String relationId = null;
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        if (workbook != null) {
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in, "UTF-8");
+                while (reader.hasNext() && relationId == null) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(reader.getLocalName())) {
+                        relationId = reader.getAttributeValue(NS_RELATIONSHIPS, "id");
+                    }
+                }
+                reader.close();
+            }
+        }
+        ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (relationId != null && rels != null) {
+            try (InputStream in = zip.getInputStream(rels)) {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in, "UTF-8");
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(reader.getLocalName())
+                            && relationId.equals(reader.getAttributeValue(null, "Id"))) {
+                        String target = reader.getAttributeValue(null, "Target");
+                        reader.close();
+                        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                    }
+                }
+                reader.close();
+            }
+        }
+        return "xl/worksheets/sheet1.xml";
+    }
+}
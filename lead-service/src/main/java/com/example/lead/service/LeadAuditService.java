@@ -2,6 +2,7 @@ package com.example.lead.service;
 
 import com.example.common.dto.CommonResult;
 import com.example.lead.dto.BatchAuditRequest;
+import com.example.lead.dto.BatchAuditResult;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.PageResult;
 
@@ -9,15 +10,23 @@ import java.util.List;
 
 public interface LeadAuditService {
     CommonResult<CustomerLeadDto> auditOne(Long leadId, String decision, String comment, String rejectReason);
-    CommonResult<Void> batchAudit(BatchAuditRequest request);
-    CommonResult<PageResult<CustomerLeadDto>> listPending(int page, int pageSize, String keyword, Long salespersonId);
+    CommonResult<BatchAuditResult> batchAudit(BatchAuditRequest request);
+    default CommonResult<PageResult<CustomerLeadDto>> listPending(int page, int pageSize, String keyword, Long salespersonId) {
+        return listPending(page, pageSize, keyword, salespersonId, null);
+    }
+    CommonResult<PageResult<CustomerLeadDto>> listPending(int page, int pageSize, String keyword, Long salespersonId, String cursor);
     CommonResult<PageResult<CustomerLeadDto>> listAll(int page, int pageSize, String keyword, String auditStatus, Long salespersonId);
     CommonResult<Boolean> checkPermission(Long leadId, Long salespersonId);
     CommonResult<Object> auditScope();
 
+    default CommonResult<PageResult<CustomerLeadDto>> getAuditRecords(int page, int pageSize, String keyword, String auditStatus,
+                                                                      Long salespersonId, String startDate, String endDate,
+                                                                      String sortBy, String sortOrder) {
+        return getAuditRecords(page, pageSize, keyword, auditStatus, salespersonId, startDate, endDate, sortBy, sortOrder, null);
+    }
     CommonResult<PageResult<CustomerLeadDto>> getAuditRecords(int page, int pageSize, String keyword, String auditStatus,
                                                               Long salespersonId, String startDate, String endDate,
-                                                              String sortBy, String sortOrder);
+                                                              String sortBy, String sortOrder, String cursor);
 
     CommonResult<java.util.Map<String, Object>> getAuditStatistics(String status, String source, Long salespersonId,
                                                                    String startDate, String endDate);
@@ -0,0 +1,26 @@
+package com.example.lead.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 客资导出服务接口
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface LeadExportService {
+
+    /**
+     * 按列表查询条件把客资以CSV格式流式写出
+     * 逐行从数据库读取并写入输出流，内存占用与导出行数无关
+     *
+     * @param out 输出流（不会被关闭）
+     * @param gzip 是否以gzip压缩写出
+     * @return 导出的客资行数
+     */
+    long exportCsv(Long salespersonId, String status, String auditStatus, String keyword, String source,
+                   String startDate, String endDate, String sortBy, String sortOrder,
+                   OutputStream out, boolean gzip) throws IOException;
+}
@@ -0,0 +1,26 @@
+package com.example.lead.service;
+
+import com.example.common.dto.CommonResult;
+import com.example.lead.dto.LeadImportResult;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 客资批量导入服务接口
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface LeadImportService {
+
+    /**
+     * 从CSV/XLSX文件批量导入客资
+     * 第一行为表头，支持中英文列名（姓名/name、手机号/phone、微信号/wechatId、来源/source、
+     * 来源详情/sourceDetail、销售ID/salespersonId、备注/notes、推荐码/referralCode）
+     *
+     * @param file 上传的文件，按扩展名识别格式
+     * @param defaultSalespersonId 文件中未填写销售ID时使用的归属销售
+     * @return 导入结果（含逐行结果）
+     */
+    CommonResult<LeadImportResult> importLeads(MultipartFile file, Long defaultSalespersonId);
+}
@@ -4,6 +4,7 @@ import com.example.lead.dto.CreateLeadRequest;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.LeadDetailsDto;
 import com.example.common.dto.CommonResult;
+import com.example.lead.dto.BatchAuditResult;
 
 import java.util.List;
 
@@ -41,9 +42,35 @@ public interface LeadService {
      * @param status 状态 (可选)
      * @return 客资列表
      */
+    default CommonResult<com.example.lead.dto.PageResult<CustomerLeadDto>> getLeadList(int page, int size, Long salespersonId,
+            String status, String auditStatus, String keyword, String source,
+            String startDate, String endDate, String sortBy, String sortOrder) {
+        return getLeadList(page, size, salespersonId, status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder, null);
+    }
+    
+    /**
+     * 分页查询客资列表，支持游标翻页
+     * 
+     * @param cursor 上一页返回的nextCursor（可选），传入时忽略页码，从游标位置继续读取
+     * @return 客资列表
+     */
     CommonResult<com.example.lead.dto.PageResult<CustomerLeadDto>> getLeadList(int page, int size, Long salespersonId,
             String status, String auditStatus, String keyword, String source,
-            String startDate, String endDate, String sortBy, String sortOrder);
+            String startDate, String endDate, String sortBy, String sortOrder, String cursor);
+    
+    /**
+     * 获取客资列表缓存统计
+     * 
+     * @return 按作用域类型（salesperson/auditStatus/all）划分的命中数、未命中数、命中率和失效次数
+     */
+    CommonResult<java.util.Map<String, java.util.Map<String, Object>>> getListCacheStats();
+    
+    /**
+     * 获取客资详情缓存统计
+     * 
+     * @return 本地缓存、Redis缓存各自的命中数和命中率，以及整体命中率
+     */
+    CommonResult<java.util.Map<String, Object>> getDetailCacheStats();
     
     /**
      * 检查客资重复
@@ -67,9 +94,9 @@ public interface LeadService {
      * 
      * @param ids 客资ID列表
      * @param auditStatus 审核状态
-     * @return 审核结果
+     * @return 逐块审核结果
      */
-    CommonResult<Void> batchAuditLeads(List<Long> ids, String auditStatus);
+    CommonResult<BatchAuditResult> batchAuditLeads(List<Long> ids, String auditStatus);
 
     /**
      * 更新客资信息（部分字段）
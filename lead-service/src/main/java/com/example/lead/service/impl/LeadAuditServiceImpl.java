@@ -5,22 +5,26 @@ import com.example.common.dto.CommonResult;
 import com.example.common.enums.UserRole;
 import com.example.common.utils.UserContextHolder;
 import com.example.lead.dto.BatchAuditRequest;
+import com.example.lead.dto.BatchAuditResult;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.PageResult;
+import com.example.lead.facade.LeadBatchAuditor;
 import com.example.lead.facade.LeadDataFacade;
 import com.example.lead.service.LeadAuditService;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
+import java.util.Collections;
 
 @Service
 public class LeadAuditServiceImpl implements LeadAuditService {
 
     private final LeadDataFacade facade;
+    private final LeadBatchAuditor batchAuditor;
 
-    public LeadAuditServiceImpl(LeadDataFacade facade) {
+    public LeadAuditServiceImpl(LeadDataFacade facade, LeadBatchAuditor batchAuditor) {
         this.facade = facade;
+        this.batchAuditor = batchAuditor;
     }
 
     private boolean hasAuditPermission(Long salespersonId) {
@@ -42,10 +46,17 @@ public class LeadAuditServiceImpl implements LeadAuditService {
         if (!hasAuditPermission(null)) {
             return CommonResult.error(ErrorCode.LEAD_007.getHttpCode(), "权限不足");
         }
+        Long auditorId = LeadBatchAuditor.currentAuditorId();
+        if (auditorId == null) {
+            return CommonResult.error(ErrorCode.UNAUTHORIZED.getHttpCode(), "无法识别审核人");
+        }
         try {
             String status = "APPROVED".equalsIgnoreCase(decision) ? "APPROVED" : "REJECTED";
-            boolean ok = facade.updateAuditStatus(leadId, status);
-            if (!ok) return CommonResult.error(ErrorCode.LEAD_001.getHttpCode(), "客资不存在");
+            BatchAuditResult result = batchAuditor.audit(Collections.singletonList(leadId), status, auditorId, comment, rejectReason);
+            if (!result.isAllSucceeded()) {
+                return CommonResult.error(ErrorCode.OPERATION_FAILED.getHttpCode(), "审核失败");
+            }
+            if (!result.getNotFoundIds().isEmpty()) return CommonResult.error(ErrorCode.LEAD_001.getHttpCode(), "客资不存在");
             return facade.findDetailsById(leadId)
                     .map(d -> CommonResult.success(d.getLeadInfo()))
                     .orElseGet(() -> CommonResult.error(ErrorCode.LEAD_001.getHttpCode(), "客资不存在"));
@@ -55,24 +66,30 @@ public class LeadAuditServiceImpl implements LeadAuditService {
     }
 
     @Override
-    public CommonResult<Void> batchAudit(BatchAuditRequest request) {
+    public CommonResult<BatchAuditResult> batchAudit(BatchAuditRequest request) {
         if (!hasAuditPermission(null)) {
             return CommonResult.error(ErrorCode.LEAD_007.getHttpCode(), "权限不足");
         }
+        Long auditorId = LeadBatchAuditor.currentAuditorId();
+        if (auditorId == null) {
+            return CommonResult.error(ErrorCode.UNAUTHORIZED.getHttpCode(), "无法识别审核人");
+        }
         try {
-            boolean ok = facade.batchUpdateAuditStatus(request.getIds(), request.getAuditStatus());
-            if (ok) return CommonResult.success(null);
-            return CommonResult.error(ErrorCode.OPERATION_FAILED.getHttpCode(), "批量审核失败");
+            // 按块提交，部分块失败时仍返回成功，失败的客资ID见结果
+            return CommonResult.success(batchAuditor.audit(request.getIds(), request.getAuditStatus(), auditorId,
+                    request.getComment(), request.getRejectReason()));
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
     }
 
     @Override
-    public CommonResult<PageResult<CustomerLeadDto>> listPending(int page, int pageSize, String keyword, Long salespersonId) {
+    public CommonResult<PageResult<CustomerLeadDto>> listPending(int page, int pageSize, String keyword, Long salespersonId, String cursor) {
         try {
-            PageResult<CustomerLeadDto> pr = facade.findPageWithCount(page, pageSize, salespersonId, null, "PENDING_AUDIT", keyword, null, null, null, null, null);
+            PageResult<CustomerLeadDto> pr = facade.findPageWithCount(page, pageSize, salespersonId, null, "PENDING_AUDIT", keyword, null, null, null, null, null, cursor);
             return CommonResult.success(pr);
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), e.getMessage());
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
@@ -110,10 +127,12 @@ public class LeadAuditServiceImpl implements LeadAuditService {
     @Override
     public CommonResult<PageResult<CustomerLeadDto>> getAuditRecords(int page, int pageSize, String keyword, String auditStatus,
                                                                      Long salespersonId, String startDate, String endDate,
-                                                                     String sortBy, String sortOrder) {
+                                                                     String sortBy, String sortOrder, String cursor) {
         try {
-            PageResult<CustomerLeadDto> pr = facade.findPageWithCount(page, pageSize, salespersonId, null, auditStatus, keyword, null, startDate, endDate, sortBy, sortOrder);
+            PageResult<CustomerLeadDto> pr = facade.findPageWithCount(page, pageSize, salespersonId, null, auditStatus, keyword, null, startDate, endDate, sortBy, sortOrder, cursor);
             return CommonResult.success(pr);
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), e.getMessage());
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
@@ -123,12 +142,14 @@ public class LeadAuditServiceImpl implements LeadAuditService {
     public CommonResult<java.util.Map<String, Object>> getAuditStatistics(String status, String source, Long salespersonId,
                                                                           String startDate, String endDate) {
         try {
-            // 最小占位统计：统计不同审核状态数量（待完善）
-            java.util.Map<String, Object> stats = java.util.Map.of(
-                    "pending", 0,
-                    "approved", 0,
-                    "rejected", 0
-            );
+            // 读取每日汇总表，按审核状态分组
+            java.util.Map<String, Object> summary = facade.getLeadStatistics(salespersonId, status, null, source, startDate, endDate);
+            java.util.Map<String, Object> stats = new java.util.LinkedHashMap<>();
+            stats.put("pending", summary.get("pendingCount"));
+            stats.put("approved", summary.get("approvedCount"));
+            stats.put("rejected", summary.get("rejectedCount"));
+            stats.put("total", summary.get("totalCount"));
+            stats.put("bySource", summary.get("bySource"));
             return CommonResult.success(stats);
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
@@ -0,0 +1,80 @@
+package com.example.lead.service.impl;
+
+import com.example.common.utils.CsvWriter;
+import com.example.data.entity.CustomerLead;
+import com.example.lead.facade.LeadDataFacade;
+import com.example.lead.service.LeadExportService;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 客资导出服务实现类
+ *
+ * <p>在只读事务内用MyBatis游标逐行读取（MySQL流式结果集），每行直接写入响应输出流，
+ * 不在内存中保留结果集。表头与批量导入识别的列名一致，导出文件可以直接再导入。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Service
+public class LeadExportServiceImpl implements LeadExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadExportServiceImpl.class);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] HEADER = {
+            "ID", "姓名", "手机号", "微信号", "跟进状态", "审核状态", "来源", "来源详情",
+            "销售ID", "备注", "最后跟进时间", "创建时间", "更新时间"
+    };
+
+    @Autowired
+    private LeadDataFacade leadDataFacade;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCsv(Long salespersonId, String status, String auditStatus, String keyword, String source,
+                          String startDate, String endDate, String sortBy, String sortOrder,
+                          OutputStream out, boolean gzip) throws IOException {
+        long start = System.currentTimeMillis();
+        // 不关闭调用方的输出流；gzip时只写出压缩尾部
+        OutputStream target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(target, GZIP_BUFFER_SIZE) : null;
+        CsvWriter writer = new CsvWriter(gzipStream != null ? gzipStream : target).writeBom();
+        writer.writeRow((Object[]) HEADER);
+        try (Cursor<CustomerLead> cursor = leadDataFacade.streamByConditions(salespersonId, status, auditStatus, keyword,
+                source, startDate, endDate, sortBy, sortOrder)) {
+            for (CustomerLead e : cursor) {
+                writer.writeRow(e.getId(), e.getName(), e.getPhone(), e.getWechatId(),
+                        e.getStatus() != null ? e.getStatus().getCode() : null,
+                        e.getAuditStatus() != null ? e.getAuditStatus().getCode() : null,
+                        e.getSource(), e.getSourceDetail(), e.getSalespersonId(), e.getNotes(),
+                        e.getLastFollowUpAt(), e.getCreatedAt(), e.getUpdatedAt());
+            }
+        }
+        writer.close();
+        long rows = writer.getRowCount() - 1;
+        log.info("客资导出完成: rows={}, gzip={}, 耗时{}ms", rows, gzip, System.currentTimeMillis() - start);
+        return rows;
+    }
+}
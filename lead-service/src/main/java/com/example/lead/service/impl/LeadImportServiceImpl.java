@@ -0,0 +1,258 @@
+package com.example.lead.service.impl;
+
+import com.example.common.constants.ErrorCode;
+import com.example.common.dto.CommonResult;
+import com.example.data.entity.CustomerLead;
+import com.example.lead.converter.LeadDtoConverter;
+import com.example.lead.dto.CreateLeadRequest;
+import com.example.lead.dto.LeadImportResult;
+import com.example.lead.facade.LeadDataFacade;
+import com.example.lead.importer.CsvReader;
+import com.example.lead.importer.TabularReader;
+import com.example.lead.importer.XlsxReader;
+import com.example.lead.service.LeadImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 客资批量导入服务实现类
+ *
+ * <p>边读取边处理，每攒够一批（lead.import.batch-size）执行一次：
+ * 手机号先经手机号索引过滤，可能存在的号码用一条IN查询核对；不重复的行用一条多行INSERT写入，
+ * 列表缓存、数量缓存和手机号索引每批更新一次。每批单独提交，某一批失败不影响其他批次。
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Service
+public class LeadImportServiceImpl implements LeadImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadImportServiceImpl.class);
+
+    /**
+     * 表头别名（小写）到字段名
+     */
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias("name", "name", "姓名", "客户姓名");
+        alias("phone", "phone", "手机号", "手机", "客户手机号");
+        alias("wechatId", "wechatid", "wechat_id", "微信号", "微信");
+        alias("source", "source", "来源", "来源渠道");
+        alias("sourceDetail", "sourcedetail", "source_detail", "来源详情");
+        alias("salespersonId", "salespersonid", "salesperson_id", "销售id", "归属销售id");
+        alias("notes", "notes", "备注", "跟进备注");
+        alias("referralCode", "referralcode", "referral_code", "推荐码");
+    }
+
+    @Autowired
+    private LeadDataFacade leadDataFacade;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${lead.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Override
+    public CommonResult<LeadImportResult> importLeads(MultipartFile file, Long defaultSalespersonId) {
+        if (file == null || file.isEmpty()) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), "导入文件不能为空");
+        }
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (!filename.endsWith(".csv") && !filename.endsWith(".xlsx")) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), "仅支持CSV或XLSX文件");
+        }
+        long start = System.currentTimeMillis();
+        File tempFile = null;
+        try {
+            TabularReader reader;
+            if (filename.endsWith(".xlsx")) {
+                // XLSX需要随机访问zip目录，先落盘
+                tempFile = Files.createTempFile("lead-import-", ".xlsx").toFile();
+                file.transferTo(tempFile);
+                reader = new XlsxReader(tempFile);
+            } else {
+                reader = new CsvReader(file.getInputStream());
+            }
+            try (TabularReader r = reader) {
+                LeadImportResult result = importRows(r, defaultSalespersonId);
+                result.setElapsedMs(System.currentTimeMillis() - start);
+                log.info("客资批量导入完成: file={}, total={}, imported={}, duplicate={}, invalid={}, failed={}, 耗时{}ms",
+                        file.getOriginalFilename(), result.getTotal(), result.getImported(), result.getDuplicate(),
+                        result.getInvalid(), result.getFailed(), result.getElapsedMs());
+                return CommonResult.success(result);
+            }
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), e.getMessage());
+        } catch (IOException e) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), "文件读取失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("客资批量导入失败: file={}", file.getOriginalFilename(), e);
+            return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
+        } finally {
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private LeadImportResult importRows(TabularReader reader, Long defaultSalespersonId) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("导入文件为空");
+        }
+        Map<String, Integer> columns = mapHeader(header);
+        if (!columns.containsKey("name") || !columns.containsKey("phone")) {
+            throw new IllegalArgumentException("缺少必需列：姓名(name)、手机号(phone)");
+        }
+
+        LeadImportResult result = new LeadImportResult();
+        Set<String> seenPhones = new HashSet<>();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        List<String> cells;
+        while ((cells = reader.next()) != null) {
+            if (cells.stream().allMatch(c -> c.trim().isEmpty())) {
+                continue;
+            }
+            int row = reader.getRowNumber();
+            result.setTotal(result.getTotal() + 1);
+            CreateLeadRequest request;
+            try {
+                request = toRequest(cells, columns, defaultSalespersonId);
+            } catch (NumberFormatException e) {
+                result.addRow(row, LeadImportResult.INVALID, null, "销售ID格式不正确");
+                continue;
+            }
+            Set<ConstraintViolation<CreateLeadRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                result.addRow(row, LeadImportResult.INVALID, null,
+                        violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+                continue;
+            }
+            if (!seenPhones.add(request.getPhone())) {
+                result.addRow(row, LeadImportResult.DUPLICATE, null, "文件内手机号重复");
+                continue;
+            }
+            batch.add(new PendingRow(row, request));
+            if (batch.size() >= batchSize) {
+                flush(batch, result);
+                batch.clear();
+            }
+        }
+        flush(batch, result);
+        result.getRows().sort(Comparator.comparingInt(LeadImportResult.RowResult::getRow));
+        return result;
+    }
+
+    /**
+     * 一批数据：一次手机号查重 + 一次多行INSERT
+     */
+    private void flush(List<PendingRow> batch, LeadImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> existing = leadDataFacade.findExistingPhones(
+                    batch.stream().map(p -> p.request.getPhone()).collect(Collectors.toList()));
+            List<PendingRow> toInsert = new ArrayList<>(batch.size());
+            List<CustomerLead> leads = new ArrayList<>(batch.size());
+            for (PendingRow pending : batch) {
+                if (existing.contains(pending.request.getPhone())) {
+                    result.addRow(pending.row, LeadImportResult.DUPLICATE, null, "客资已存在");
+                } else {
+                    toInsert.add(pending);
+                    leads.add(LeadDtoConverter.toEntity(pending.request));
+                }
+            }
+            Set<CustomerLead> conflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+            conflicts.addAll(leadDataFacade.batchCreate(leads));
+            for (int i = 0; i < leads.size(); i++) {
+                CustomerLead lead = leads.get(i);
+                if (conflicts.contains(lead)) {
+                    result.addRow(toInsert.get(i).row, LeadImportResult.DUPLICATE, null, "客资已存在");
+                } else {
+                    result.addRow(toInsert.get(i).row, LeadImportResult.SUCCESS, lead.getId(), null);
+                }
+            }
+        } catch (Exception e) {
+            log.error("客资批量导入写入失败: rows={}-{}", batch.get(0).row, batch.get(batch.size() - 1).row, e);
+            for (PendingRow pending : batch) {
+                result.addRow(pending.row, LeadImportResult.FAILED, null, "写入失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private static CreateLeadRequest toRequest(List<String> cells, Map<String, Integer> columns, Long defaultSalespersonId) {
+        CreateLeadRequest request = new CreateLeadRequest();
+        request.setName(cell(cells, columns, "name"));
+        request.setPhone(cell(cells, columns, "phone"));
+        request.setWechatId(cell(cells, columns, "wechatId"));
+        request.setSource(cell(cells, columns, "source"));
+        request.setSourceDetail(cell(cells, columns, "sourceDetail"));
+        request.setNotes(cell(cells, columns, "notes"));
+        request.setReferralCode(cell(cells, columns, "referralCode"));
+        String salespersonId = cell(cells, columns, "salespersonId");
+        request.setSalespersonId(salespersonId != null ? Long.valueOf(salespersonId) : defaultSalespersonId);
+        return request;
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> columns, String field) {
+        Integer index = columns.get(field);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private static Map<String, Integer> mapHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String field = HEADER_ALIASES.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (field != null) {
+                columns.putIfAbsent(field, i);
+            }
+        }
+        return columns;
+    }
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name, field);
+        }
+    }
+
+    private static final class PendingRow {
+        private final int row;
+        private final CreateLeadRequest request;
+
+        private PendingRow(int row, CreateLeadRequest request) {
+            this.row = row;
+            this.request = request;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.lead.service.impl;
 
+import com.example.lead.dto.BatchAuditResult;
 import com.example.lead.dto.CreateLeadRequest;
 import com.example.lead.dto.CustomerLeadDto;
 import com.example.lead.dto.LeadDetailsDto;
+import com.example.lead.facade.LeadBatchAuditor;
 import com.example.lead.facade.LeadDataFacade;
 import com.example.lead.service.LeadService;
 import com.example.common.dto.CommonResult;
@@ -10,6 +12,7 @@ import com.example.common.constants.ErrorCode;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -30,8 +33,9 @@ public class LeadServiceImpl implements LeadService {
     
     @Autowired
     private LeadDataFacade leadDataFacade;
-    @Autowired(required = false)
-    private org.springframework.data.redis.core.RedisTemplate<String, Object> redis;
+
+    @Autowired
+    private LeadBatchAuditor leadBatchAuditor;
 
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     
@@ -46,12 +50,10 @@ public class LeadServiceImpl implements LeadService {
             
             // 创建客资
             CustomerLeadDto dto = leadDataFacade.create(request);
-            // 写入成功后，删除该手机号的查重缓存并递增列表缓存版本号
-            if (redis != null) {
-                try { redis.delete("lead:exists:phone:" + request.getPhone()); } catch (Exception ignore) {}
-                try { redis.opsForValue().increment("lead:list:ver"); } catch (Exception ignore) {}
-            }
             return CommonResult.success(dto);
+        } catch (org.springframework.dao.DuplicateKeyException e) {
+            // 并发提交或其他实例尚未同步手机号索引时，由uniq_phone唯一索引兜底
+            return CommonResult.error(ErrorCode.CONFLICT.getCode(), "客资已存在");
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getCode(), "系统错误: " + e.getMessage());
         }
@@ -71,16 +73,28 @@ public class LeadServiceImpl implements LeadService {
     @Override
     public CommonResult<com.example.lead.dto.PageResult<CustomerLeadDto>> getLeadList(int page, int size, Long salespersonId,
             String status, String auditStatus, String keyword, String source,
-            String startDate, String endDate, String sortBy, String sortOrder) {
+            String startDate, String endDate, String sortBy, String sortOrder, String cursor) {
         try {
             com.example.lead.dto.PageResult<CustomerLeadDto> pageResult = leadDataFacade.findPageWithCount(page, size, salespersonId,
-                    status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder);
+                    status, auditStatus, keyword, source, startDate, endDate, sortBy, sortOrder, cursor);
             return CommonResult.success(pageResult);
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(ErrorCode.BAD_REQUEST.getHttpCode(), e.getMessage());
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
     }
     
+    @Override
+    public CommonResult<java.util.Map<String, java.util.Map<String, Object>>> getListCacheStats() {
+        return CommonResult.success(leadDataFacade.getListCacheStats());
+    }
+
+    @Override
+    public CommonResult<java.util.Map<String, Object>> getDetailCacheStats() {
+        return CommonResult.success(leadDataFacade.getDetailCacheStats());
+    }
+
     @Override
     public CommonResult<Boolean> checkDuplicate(String phone) {
         try {
@@ -95,7 +109,6 @@ public class LeadServiceImpl implements LeadService {
         try {
             boolean ok = leadDataFacade.updateStatus(id, status);
             if (ok) {
-                if (redis != null) try { redis.opsForValue().increment("lead:list:ver"); } catch (Exception ignore) {}
                 return CommonResult.success(null);
             } else {
                 return CommonResult.error(ErrorCode.OPERATION_FAILED.getHttpCode(), "更新客资状态失败");
@@ -106,15 +119,15 @@ public class LeadServiceImpl implements LeadService {
     }
     
     @Override
-    public CommonResult<Void> batchAuditLeads(List<Long> ids, String auditStatus) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CommonResult<BatchAuditResult> batchAuditLeads(List<Long> ids, String auditStatus) {
+        Long auditorId = LeadBatchAuditor.currentAuditorId();
+        if (auditorId == null) {
+            return CommonResult.error(ErrorCode.UNAUTHORIZED.getHttpCode(), "无法识别审核人");
+        }
         try {
-            boolean ok = leadDataFacade.batchUpdateAuditStatus(ids, auditStatus);
-            if (ok) {
-                if (redis != null) try { redis.opsForValue().increment("lead:list:ver"); } catch (Exception ignore) {}
-                return CommonResult.success(null);
-            } else {
-                return CommonResult.error(ErrorCode.OPERATION_FAILED.getHttpCode(), "批量审核失败");
-            }
+            // 按块提交，部分块失败时仍返回成功，失败的客资ID见结果
+            return CommonResult.success(leadBatchAuditor.audit(ids, auditStatus, auditorId, null, null));
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
@@ -125,7 +138,6 @@ public class LeadServiceImpl implements LeadService {
         try {
             boolean ok = leadDataFacade.updateLead(id, request);
             if (ok) {
-                if (redis != null) try { redis.opsForValue().increment("lead:list:ver"); } catch (Exception ignore) {}
                 return CommonResult.success(null);
             }
             return CommonResult.error(ErrorCode.LEAD_001.getHttpCode(), "客资不存在");
@@ -139,7 +151,6 @@ public class LeadServiceImpl implements LeadService {
         try {
             boolean ok = leadDataFacade.deleteLead(id);
             if (ok) {
-                if (redis != null) try { redis.opsForValue().increment("lead:list:ver"); } catch (Exception ignore) {}
                 return CommonResult.success(null);
             }
             return CommonResult.error(ErrorCode.LEAD_001.getHttpCode(), "客资不存在");
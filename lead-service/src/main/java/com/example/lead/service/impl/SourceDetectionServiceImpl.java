@@ -2,28 +2,45 @@ package com.example.lead.service.impl;
 
 import com.example.common.constants.ErrorCode;
 import com.example.common.dto.CommonResult;
+import com.example.common.utils.SourceRuleMatcher;
 import com.example.lead.dto.SourceDetectionRequest;
 import com.example.lead.dto.SourceValidationRequest;
+import com.example.lead.facade.LeadDataFacade;
 import com.example.lead.service.SourceDetectionService;
+import com.example.lead.source.SourceRuleEngine;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class SourceDetectionServiceImpl implements SourceDetectionService {
+
+    private static final int SUGGESTION_LIMIT = 10;
+
+    private final LeadDataFacade facade;
+
+    private final SourceRuleEngine ruleEngine;
+
+    public SourceDetectionServiceImpl(LeadDataFacade facade, SourceRuleEngine ruleEngine) {
+        this.facade = facade;
+        this.ruleEngine = ruleEngine;
+    }
+
     @Override
     public CommonResult<Map<String, Object>> detectSource(SourceDetectionRequest request) {
         try {
-            // 最小占位实现：根据 utm/referrer 简单识别
-            String detected = request.getUtmParams() != null && request.getUtmParams().get("utm_source") != null
-                    ? request.getUtmParams().get("utm_source")
-                    : (request.getReferrer() != null ? (request.getReferrer().contains("google") ? "google" : "website") : "website");
-            Map<String,Object> data = java.util.Map.of(
-                    "detectedSource", detected,
-                    "confidence", 0.8,
-                    "sourceDetail", request.getReferrer(),
-                    "suggestedCategories", List.of("搜索", "社交"));
+            SourceRuleMatcher.Match match = ruleEngine.match(request.getReferrer(), request.getUtmParams());
+            SourceRuleMatcher.Rule rule = match.getRule();
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("detectedSource", match.getSource());
+            data.put("sourceName", rule.getName());
+            data.put("matchedBy", match.getMatchedBy());
+            data.put("confidence", match.getConfidence());
+            data.put("sourceDetail", request.getReferrer());
+            data.put("suggestedCategories", rule.getCategory() != null ? List.of(rule.getCategory()) : List.of());
             return CommonResult.success(data);
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.LEAD_010.getHttpCode(), "来源检测失败: " + e.getMessage());
@@ -33,12 +50,16 @@ public class SourceDetectionServiceImpl implements SourceDetectionService {
     @Override
     public CommonResult<Map<String, Object>> validateSource(SourceValidationRequest request) {
         try {
-            boolean valid = request.getSource() != null && !request.getSource().isEmpty();
-            Map<String,Object> data = java.util.Map.of(
-                    "isValid", valid,
-                    "validatedSource", java.util.Map.of("id", request.getSource(), "name", request.getSource()),
-                    "utmValidation", java.util.Map.of("isValid", true)
-            );
+            SourceRuleMatcher.Rule rule = ruleEngine.find(request.getSource());
+            // UTM参数能识别出来源时须与提交的来源一致
+            SourceRuleMatcher.Match utmMatch = ruleEngine.matchUtm(request.getUtmParams());
+            Map<String, Object> utmValidation = new LinkedHashMap<>();
+            utmValidation.put("isValid", utmMatch == null || utmMatch.getSource().equals(request.getSource()));
+            utmValidation.put("detectedSource", utmMatch != null ? utmMatch.getSource() : null);
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("isValid", rule != null);
+            data.put("validatedSource", rule != null ? toSuggestion(rule) : null);
+            data.put("utmValidation", utmValidation);
             return CommonResult.success(data);
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.LEAD_015.getHttpCode(), "来源验证失败: " + e.getMessage());
@@ -48,26 +69,30 @@ public class SourceDetectionServiceImpl implements SourceDetectionService {
     @Override
     public CommonResult<Map<String, Object>> getSourceSuggestions(String keyword) {
         try {
-            java.util.List<java.util.Map<String,Object>> suggestions = java.util.Arrays.asList(
-                    java.util.Map.of("id", "website", "name", "官网"),
-                    java.util.Map.of("id", "wechat", "name", "微信")
-            );
-            return CommonResult.success(java.util.Map.of("suggestions", suggestions));
+            List<Map<String, Object>> suggestions = ruleEngine.suggest(keyword, SUGGESTION_LIMIT).stream()
+                    .map(SourceDetectionServiceImpl::toSuggestion)
+                    .collect(Collectors.toList());
+            return CommonResult.success(Map.of("suggestions", suggestions));
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
     }
 
+    private static Map<String, Object> toSuggestion(SourceRuleMatcher.Rule rule) {
+        Map<String, Object> suggestion = new LinkedHashMap<>();
+        suggestion.put("id", rule.getId());
+        suggestion.put("name", rule.getName() != null ? rule.getName() : rule.getId());
+        suggestion.put("category", rule.getCategory());
+        return suggestion;
+    }
+
     @Override
     public CommonResult<Map<String, Object>> getLeadStatistics(String auditStatus, String status, String source, Long salespersonId, String startDate, String endDate) {
         try {
-            // 最小占位统计
-            return CommonResult.success(java.util.Map.of(
-                    "totalCount", 0,
-                    "pendingCount", 0,
-                    "approvedCount", 0,
-                    "rejectedCount", 0
-            ));
+            // 读取每日汇总表，不扫描客资表
+            Map<String, Object> stats = facade.getLeadStatistics(salespersonId, status, auditStatus, source, startDate, endDate);
+            stats.put("daily", facade.getDailyLeadCounts(salespersonId, status, auditStatus, source, startDate, endDate));
+            return CommonResult.success(stats);
         } catch (Exception e) {
             return CommonResult.error(ErrorCode.INTERNAL_SERVER_ERROR.getHttpCode(), "系统错误: " + e.getMessage());
         }
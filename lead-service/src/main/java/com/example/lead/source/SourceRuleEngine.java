@@ -0,0 +1,132 @@
+package com.example.lead.source;
+
+import com.example.common.utils.SourceRuleMatcher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 来源识别规则引擎
+ *
+ * <p>从配置 lead.source-rules.rules 读取渠道规则，编译成 {@link SourceRuleMatcher}。
+ * Nacos配置变更时重新编译并整体替换匹配器和域名结果缓存；新规则编译失败时保留旧规则。
+ *
+ * <p>referrer的域名识别结果按域名缓存：referrer通常带有每次点击不同的查询参数（gclid、utm_*、会话ID），
+ * 按完整URL缓存几乎不会命中。正则需要匹配完整URL，不缓存；UTM参数查表开销很小，也不缓存。
+ *
+ * <p>配置项：
+ * <ul>
+ *   <li>lead.source-rules.default-source：未命中任何规则时的来源，默认website</li>
+ *   <li>lead.source-rules.cache-size：域名结果缓存的最大条目数，默认10000</li>
+ * </ul>
+ *
+ * @author System
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class SourceRuleEngine implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(SourceRuleEngine.class);
+
+    private static final String PREFIX = "lead.source-rules";
+
+    private final Environment environment;
+
+    private final long cacheSize;
+
+    private volatile Compiled current;
+
+    public SourceRuleEngine(Environment environment,
+                            @Value("${lead.source-rules.cache-size:10000}") long cacheSize) {
+        this.environment = environment;
+        this.cacheSize = cacheSize;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.current = compile();
+    }
+
+    /**
+     * 识别来源：先查UTM参数，再查referrer域名（使用缓存）和正则，都未命中时返回默认来源
+     */
+    public SourceRuleMatcher.Match match(String referrer, Map<String, String> utmParams) {
+        Compiled compiled = current;
+        SourceRuleMatcher.Match match = compiled.matcher.matchUtm(utmParams);
+        if (match == null && referrer != null && !referrer.isEmpty()) {
+            String host = SourceRuleMatcher.extractHost(referrer);
+            if (!host.isEmpty()) {
+                match = compiled.hostCache.get(host, h -> Optional.ofNullable(compiled.matcher.matchHost(h))).orElse(null);
+            }
+            if (match == null) {
+                match = compiled.matcher.matchPattern(referrer);
+            }
+        }
+        return match != null ? match : compiled.matcher.getDefaultMatch();
+    }
+
+    /**
+     * 只按UTM参数识别，未命中时返回null
+     */
+    public SourceRuleMatcher.Match matchUtm(Map<String, String> utmParams) {
+        return current.matcher.matchUtm(utmParams);
+    }
+
+    public SourceRuleMatcher.Rule find(String sourceId) {
+        return current.matcher.find(sourceId);
+    }
+
+    public List<SourceRuleMatcher.Rule> suggest(String keyword, int limit) {
+        return current.matcher.suggest(keyword, limit);
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+            return;
+        }
+        try {
+            this.current = compile();
+        } catch (RuntimeException e) {
+            log.error("来源规则重新加载失败，继续使用当前规则", e);
+        }
+    }
+
+    private Compiled compile() {
+        Binder binder = Binder.get(environment);
+        List<SourceRuleMatcher.Rule> rules = binder.bind(PREFIX + ".rules", Bindable.listOf(SourceRuleMatcher.Rule.class))
+                .orElse(Collections.emptyList());
+        String defaultSource = binder.bind(PREFIX + ".default-source", String.class).orElse("website");
+        SourceRuleMatcher matcher = SourceRuleMatcher.compile(rules, defaultSource);
+        log.info("来源规则已加载: rules={}, defaultSource={}", rules.size(), defaultSource);
+        return new Compiled(matcher, Caffeine.newBuilder().maximumSize(cacheSize).build());
+    }
+
+    /**
+     * 匹配器和基于它的结果缓存，作为整体替换，避免新规则读到旧结果
+     */
+    private static final class Compiled {
+        private final SourceRuleMatcher matcher;
+        private final Cache<String, Optional<SourceRuleMatcher.Match>> hostCache;
+
+        private Compiled(SourceRuleMatcher matcher, Cache<String, Optional<SourceRuleMatcher.Match>> hostCache) {
+            this.matcher = matcher;
+            this.hostCache = hostCache;
+        }
+    }
+}
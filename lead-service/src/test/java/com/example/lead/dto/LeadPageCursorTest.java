@@ -0,0 +1,124 @@
+package com.example.lead.dto;
+
+import com.example.data.entity.CustomerLead;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LeadPageCursor单元测试
+ */
+@DisplayName("客资翻页游标单元测试")
+class LeadPageCursorTest {
+
+    @Test
+    @DisplayName("测试时间排序字段编码后解码得到相同的值和ID")
+    void testDateTimeRoundTrip() {
+        // Given: 整分钟的时间toString不带秒，也须能解析
+        for (LocalDateTime time : new LocalDateTime[]{
+                LocalDateTime.of(2025, 8, 1, 9, 0),
+                LocalDateTime.of(2025, 8, 1, 9, 0, 5),
+                LocalDateTime.of(2025, 8, 1, 9, 0, 5, 120_000_000)}) {
+            CustomerLead last = lead(42L);
+            last.setLastFollowUpAt(time);
+
+            // When
+            String encoded = LeadPageCursor.after(last, "lastFollowUpAt", "desc").encode();
+            LeadPageCursor decoded = LeadPageCursor.decode(encoded, "lastFollowUpAt", "desc");
+
+            // Then
+            assertEquals(time, decoded.getValue());
+            assertEquals(42L, decoded.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("测试排序字段值为NULL时解码为null而不是字符串")
+    void testNullValueRoundTrip() {
+        // Given
+        CustomerLead last = lead(7L);
+
+        // When
+        LeadPageCursor asc = LeadPageCursor.decode(LeadPageCursor.after(last, "lastFollowUpAt", "asc").encode(), "lastFollowUpAt", "asc");
+        LeadPageCursor desc = LeadPageCursor.decode(LeadPageCursor.after(last, "source", "DESC").encode(), "source", "DESC");
+
+        // Then
+        assertNull(asc.getValue());
+        assertEquals(7L, asc.getId());
+        assertNull(desc.getValue());
+        assertEquals(7L, desc.getId());
+    }
+
+    @Test
+    @DisplayName("测试字符串值与NULL标记、分隔符不混淆")
+    void testStringValuesRoundTrip() {
+        for (String name : new String[]{"N", "", "张三|李四", "a|b|c|d"}) {
+            CustomerLead last = lead(3L);
+            last.setName(name);
+
+            LeadPageCursor decoded = LeadPageCursor.decode(LeadPageCursor.after(last, "name", "asc").encode(), "name", "asc");
+
+            assertEquals(name, decoded.getValue());
+            assertEquals(3L, decoded.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("测试枚举排序字段按编码写入游标")
+    void testEnumValue() {
+        CustomerLead last = lead(3L);
+        last.setStatus(CustomerLead.LeadStatus.FOLLOWING);
+
+        LeadPageCursor decoded = LeadPageCursor.decode(LeadPageCursor.after(last, "status", null).encode(), "status", null);
+
+        assertEquals("FOLLOWING", decoded.getValue());
+    }
+
+    @Test
+    @DisplayName("测试未知排序字段按创建时间处理")
+    void testUnknownSortByFallsBackToCreatedAt() {
+        CustomerLead last = lead(3L);
+        last.setCreatedAt(LocalDateTime.of(2025, 8, 1, 9, 0));
+
+        String encoded = LeadPageCursor.after(last, "phone", "asc").encode();
+
+        assertEquals(last.getCreatedAt(), LeadPageCursor.decode(encoded, null, "asc").getValue());
+        assertEquals(last.getCreatedAt(), LeadPageCursor.decode(encoded, "createdAt", "asc").getValue());
+    }
+
+    @Test
+    @DisplayName("测试排序字段或方向改变后旧游标无效")
+    void testSortMismatchRejected() {
+        String encoded = LeadPageCursor.after(lead(3L), "lastFollowUpAt", "asc").encode();
+
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode(encoded, "lastFollowUpAt", "desc"));
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode(encoded, "updatedAt", "asc"));
+    }
+
+    @Test
+    @DisplayName("测试格式错误的游标无效")
+    void testMalformedRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode("not base64!", "name", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode(raw("2|name|A|1|Vx"), "name", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode(raw("1|name|A|1"), "name", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode(raw("1|name|A|1|"), "name", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> LeadPageCursor.decode(raw("1|name|A|x|Vx"), "name", "asc"));
+        assertThrows(IllegalArgumentException.class,
+                () -> LeadPageCursor.decode(raw("1|createdAt|A|1|Vyesterday"), "createdAt", "asc"));
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CustomerLead lead(Long id) {
+        CustomerLead lead = new CustomerLead();
+        lead.setId(id);
+        return lead;
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.lead.facade;
+
+import com.example.data.entity.CustomerLead;
+import com.example.data.entity.User;
+import com.example.data.mapper.CustomerLeadMapper;
+import com.example.data.mapper.UserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeadAssignmentEngine单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资自动分配引擎单元测试")
+class LeadAssignmentEngineTest {
+
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private CustomerLeadMapper leadMapper;
+
+    private LeadAssignmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new LeadAssignmentEngine(userMapper, leadMapper);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("测试未启用或销售名单为空时不分配")
+    void testAssignDisabledOrEmpty() {
+        // When & Then: 尚未刷新名单
+        assertNull(engine.assign());
+
+        // Given
+        givenSalespersons(user(1L, "active"));
+        engine.refresh();
+        ReflectionTestUtils.setField(engine, "enabled", false);
+
+        // When & Then
+        assertNull(engine.assign());
+        assertEquals(0L, openCount(1L));
+    }
+
+    @Test
+    @DisplayName("测试加权轮询按权重平滑交替分配")
+    void testRoundRobinSmoothWeighted() {
+        // Given: 销售1权重3、销售2权重1
+        ReflectionTestUtils.setField(engine, "strategy", LeadAssignmentEngine.STRATEGY_ROUND_ROBIN);
+        ReflectionTestUtils.setField(engine, "weights", "1:3");
+        givenSalespersons(user(1L, "active"), user(2L, "active"));
+        engine.refresh();
+
+        // When
+        List<Long> picks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            picks.add(engine.assign());
+        }
+
+        // Then: 销售1不会连续分配4次
+        assertEquals(Arrays.asList(1L, 1L, 2L, 1L, 1L, 1L, 2L, 1L), picks);
+        assertEquals(6L, openCount(1L));
+        assertEquals(2L, openCount(2L));
+    }
+
+    @Test
+    @DisplayName("测试加权轮询每轮分配次数等于权重，非在职销售不参与")
+    void testRoundRobinDistributionMatchesWeights() {
+        // Given
+        ReflectionTestUtils.setField(engine, "strategy", LeadAssignmentEngine.STRATEGY_ROUND_ROBIN);
+        ReflectionTestUtils.setField(engine, "weights", "1:5,2:3,3:2,4:9");
+        givenSalespersons(user(1L, "active"), user(2L, "active"), user(3L, "active"), user(4L, "inactive"));
+        engine.refresh();
+
+        // When: 每轮10次，分配3轮
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            counts.merge(engine.assign(), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(15, counts.get(1L));
+        assertEquals(9, counts.get(2L));
+        assertEquals(6, counts.get(3L));
+        assertFalse(counts.containsKey(4L));
+    }
+
+    @Test
+    @DisplayName("测试权重限制在1到100之间")
+    void testRoundRobinWeightClamped() {
+        // Given: 权重0按1计、权重500按100计
+        ReflectionTestUtils.setField(engine, "strategy", LeadAssignmentEngine.STRATEGY_ROUND_ROBIN);
+        ReflectionTestUtils.setField(engine, "weights", "1:0,2:500");
+        givenSalespersons(user(1L, "active"), user(2L, "active"));
+        engine.refresh();
+
+        // When
+        for (int i = 0; i < 101; i++) {
+            engine.assign();
+        }
+
+        // Then
+        assertEquals(1L, openCount(1L));
+        assertEquals(100L, openCount(2L));
+    }
+
+    @Test
+    @DisplayName("测试最少负载策略优先选择未结客资少的销售")
+    void testLeastLoadedPrefersLowerLoad() {
+        // Given: 销售1已有100条未结客资，销售2没有
+        givenSalespersons(user(1L, "active"), user(2L, "active"));
+        when(leadMapper.countOpenGroupBySalesperson()).thenReturn(Collections.singletonList(openRow(1L, 100L)));
+        engine.refresh();
+
+        // When: 只有两次抽取都抽中销售1时才分配给销售1（概率1/4）
+        for (int i = 0; i < 100; i++) {
+            engine.assign();
+        }
+
+        // Then
+        assertTrue(openCount(2L) >= 50, "销售2分配次数: " + openCount(2L));
+        assertEquals(200L, openCount(1L) + openCount(2L));
+    }
+
+    @Test
+    @DisplayName("测试最少负载策略按 未结客资数/权重 比较")
+    void testLeastLoadedHonoursWeights() {
+        // Given: 销售1权重4、40条未结（40/4=10），销售2权重1、20条未结（20/1=20）
+        ReflectionTestUtils.setField(engine, "weights", "1:4");
+        givenSalespersons(user(1L, "active"), user(2L, "active"));
+        when(leadMapper.countOpenGroupBySalesperson())
+                .thenReturn(Arrays.asList(openRow(1L, 40L), openRow(2L, 20L)));
+        engine.refresh();
+
+        // When: 20次分配后销售1最多60/4=15，仍低于销售2，只有两次都抽中销售2时才分配给销售2（概率1/25）
+        for (int i = 0; i < 20; i++) {
+            engine.assign();
+        }
+
+        // Then
+        assertTrue(openCount(1L) - 40L >= 12, "销售1分配次数: " + (openCount(1L) - 40L));
+    }
+
+    @Test
+    @DisplayName("测试解析权重配置时忽略无效项")
+    void testParseWeightsSkipsInvalid() {
+        // When
+        Map<Long, Integer> weights = LeadAssignmentEngine.parseWeights(" 1:3, 2 ,x:2,3:y,:4,4 : 5");
+
+        // Then
+        Map<Long, Integer> expected = new HashMap<>();
+        expected.put(1L, 3);
+        expected.put(2L, 1);
+        expected.put(4L, 5);
+        assertEquals(expected, weights);
+        assertTrue(LeadAssignmentEngine.parseWeights("").isEmpty());
+        assertTrue(LeadAssignmentEngine.parseWeights(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试事务回滚时撤销分配计数，提交时保留")
+    void testAssignUndoneOnRollback() {
+        // Given
+        givenSalespersons(user(1L, "active"));
+        engine.refresh();
+
+        // When: 回滚
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(1L, engine.assign());
+        assertEquals(1L, openCount(1L));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertEquals(0L, openCount(1L));
+
+        // When: 提交
+        TransactionSynchronizationManager.initSynchronization();
+        engine.assign();
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Then
+        assertEquals(1L, openCount(1L));
+    }
+
+    @Test
+    @DisplayName("测试release和onChanged在事务提交后才调整计数")
+    void testReleaseAndOnChangedAfterCommit() {
+        // Given
+        givenSalespersons(user(1L, "active"), user(2L, "active"));
+        when(leadMapper.countOpenGroupBySalesperson())
+                .thenReturn(Arrays.asList(openRow(1L, 5L), openRow(2L, 5L)));
+        engine.refresh();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        engine.release(1L);
+        engine.onChanged(1L, CustomerLead.LeadStatus.PENDING, 2L, CustomerLead.LeadStatus.FOLLOWING);
+        engine.onChanged(2L, CustomerLead.LeadStatus.FOLLOWING, null, null);
+
+        // Then: 提交前不变
+        assertEquals(5L, openCount(1L));
+        assertEquals(5L, openCount(2L));
+
+        // When
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Then
+        assertEquals(3L, openCount(1L));
+        assertEquals(5L, openCount(2L));
+    }
+
+    @Test
+    @DisplayName("测试未结状态之间变化或转为已结时的计数")
+    void testOnChangedOpenAndClosedStatuses() {
+        // Given
+        givenSalespersons(user(1L, "active"));
+        when(leadMapper.countOpenGroupBySalesperson()).thenReturn(Collections.singletonList(openRow(1L, 5L)));
+        engine.refresh();
+
+        // When & Then: 待跟进 -> 跟进中 仍是未结
+        engine.onChanged(1L, CustomerLead.LeadStatus.PENDING, 1L, CustomerLead.LeadStatus.FOLLOWING);
+        assertEquals(5L, openCount(1L));
+
+        // When & Then: 转为已结
+        engine.onChanged(1L, CustomerLead.LeadStatus.FOLLOWING, 1L, CustomerLead.LeadStatus.CONVERTED);
+        assertEquals(4L, openCount(1L));
+
+        // When & Then: 新建时计入
+        engine.onChanged(null, null, 1L, CustomerLead.LeadStatus.PENDING);
+        assertEquals(5L, openCount(1L));
+    }
+
+    @Test
+    @DisplayName("测试刷新失败时保留原销售名单和计数")
+    void testRefreshFailureKeepsPool() {
+        // Given
+        ReflectionTestUtils.setField(engine, "strategy", LeadAssignmentEngine.STRATEGY_ROUND_ROBIN);
+        givenSalespersons(user(1L, "active"));
+        engine.refresh();
+        engine.assign();
+        when(userMapper.findByRole("sales")).thenThrow(new RuntimeException("db down"));
+
+        // When
+        engine.refresh();
+
+        // Then
+        assertEquals(1L, engine.assign());
+        assertEquals(2L, openCount(1L));
+    }
+
+    private void givenSalespersons(User... users) {
+        when(userMapper.findByRole("sales")).thenReturn(Arrays.asList(users));
+    }
+
+    private long openCount(Long salespersonId) {
+        @SuppressWarnings("unchecked")
+        Map<Long, AtomicLong> openCounts = (Map<Long, AtomicLong>) ReflectionTestUtils.getField(engine, "openCounts");
+        AtomicLong count = openCounts.get(salespersonId);
+        return count != null ? count.get() : 0L;
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static Map<String, Object> openRow(Long salespersonId, long openCount) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("salespersonId", salespersonId);
+        row.put("openCount", openCount);
+        return row;
+    }
+
+    private static User user(Long id, String status) {
+        User user = new User();
+        user.setId(id);
+        user.setRole("sales");
+        user.setStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.lead.facade;
+
+import com.example.common.event.DomainEventPublisher;
+import com.example.common.event.domain.LeadsAuditedEvent;
+import com.example.lead.dto.BatchAuditResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeadBatchAuditor单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资批量审核单元测试")
+class LeadBatchAuditorTest {
+
+    @Mock
+    private LeadDataFacade facade;
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    private LeadBatchAuditor auditor;
+
+    @BeforeEach
+    void setUp() {
+        auditor = new LeadBatchAuditor(facade);
+        ReflectionTestUtils.setField(auditor, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(auditor, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("测试客资ID去重排序后按块审核，最后一块不满")
+    void testChunkBoundaries() {
+        // Given
+        when(facade.auditChunk(any(), eq("APPROVED"), eq(9L), eq("ok"), isNull()))
+                .thenAnswer(invocation -> outcome(invocation.getArgument(0), Collections.emptyList()));
+
+        // When
+        BatchAuditResult result = auditor.audit(Arrays.asList(5L, 1L, 3L, 1L, null, 4L, 2L), "APPROVED", 9L, "ok", null);
+
+        // Then
+        verify(facade).auditChunk(Arrays.asList(1L, 2L), "APPROVED", 9L, "ok", null);
+        verify(facade).auditChunk(Arrays.asList(3L, 4L), "APPROVED", 9L, "ok", null);
+        verify(facade).auditChunk(Collections.singletonList(5L), "APPROVED", 9L, "ok", null);
+        assertEquals(5, result.getTotal());
+        assertEquals(5, result.getUpdated());
+        assertEquals(3, result.getChunks().size());
+        assertEquals(Arrays.asList(2, 2, 1), Arrays.asList(result.getChunks().get(0).getSize(),
+                result.getChunks().get(1).getSize(), result.getChunks().get(2).getSize()));
+        assertTrue(result.isAllSucceeded());
+    }
+
+    @Test
+    @DisplayName("测试客资数恰好为块大小整数倍时不产生空块")
+    void testExactMultipleOfChunkSize() {
+        // Given
+        when(facade.auditChunk(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> outcome(invocation.getArgument(0), Collections.emptyList()));
+
+        // When
+        BatchAuditResult result = auditor.audit(Arrays.asList(1L, 2L, 3L, 4L), "APPROVED", 9L, null, null);
+
+        // Then
+        verify(facade, times(2)).auditChunk(any(), any(), any(), any(), any());
+        assertEquals(2, result.getChunks().size());
+    }
+
+    @Test
+    @DisplayName("测试按块统计更新、未变化和不存在的客资并逐块发布事件")
+    void testPerChunkCounts() {
+        // Given: 块1中客资2已审核，块2中客资4不存在
+        when(facade.auditChunk(eq(Arrays.asList(1L, 2L)), any(), any(), any(), any()))
+                .thenReturn(outcome(Collections.singletonList(1L), Collections.singletonList(2L)));
+        when(facade.auditChunk(eq(Arrays.asList(3L, 4L)), any(), any(), any(), any()))
+                .thenReturn(outcome(Collections.singletonList(3L), Collections.emptyList()));
+        when(facade.auditChunk(eq(Collections.singletonList(5L)), any(), any(), any(), any()))
+                .thenReturn(outcome(Collections.emptyList(), Collections.singletonList(5L)));
+
+        // When
+        BatchAuditResult result = auditor.audit(Arrays.asList(1L, 2L, 3L, 4L, 5L), "REJECTED", 9L, null, "资料不全");
+
+        // Then
+        assertEquals(2, result.getUpdated());
+        assertEquals(2, result.getUnchanged());
+        assertEquals(Collections.singletonList(4L), result.getNotFoundIds());
+        assertEquals(Arrays.asList(1, 1, 0), Arrays.asList(result.getChunks().get(0).getUpdated(),
+                result.getChunks().get(1).getUpdated(), result.getChunks().get(2).getUpdated()));
+
+        // Then: 只为有变化的块发布事件，关联ID相同
+        ArgumentCaptor<LeadsAuditedEvent> events = ArgumentCaptor.forClass(LeadsAuditedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        LeadsAuditedEvent first = events.getAllValues().get(0);
+        LeadsAuditedEvent second = events.getAllValues().get(1);
+        assertEquals(Collections.singletonList(1L), first.getLeadIds());
+        assertEquals(1, first.getChunkIndex());
+        assertEquals(Collections.singletonList(3L), second.getLeadIds());
+        assertEquals(2, second.getChunkIndex());
+        assertEquals(3, second.getChunkCount());
+        assertEquals("资料不全", second.getRejectReason());
+        assertEquals(first.getCorrelationId(), second.getCorrelationId());
+    }
+
+    @Test
+    @DisplayName("测试某一块失败不影响其他块")
+    void testFailedChunkIsolated() {
+        // Given
+        when(facade.auditChunk(eq(Arrays.asList(1L, 2L)), any(), any(), any(), any()))
+                .thenReturn(outcome(Arrays.asList(1L, 2L), Collections.emptyList()));
+        when(facade.auditChunk(eq(Arrays.asList(3L, 4L)), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Lock wait timeout exceeded"));
+        when(facade.auditChunk(eq(Collections.singletonList(5L)), any(), any(), any(), any()))
+                .thenReturn(outcome(Collections.singletonList(5L), Collections.emptyList()));
+
+        // When
+        BatchAuditResult result = auditor.audit(Arrays.asList(1L, 2L, 3L, 4L, 5L), "APPROVED", 9L, null, null);
+
+        // Then
+        assertFalse(result.isAllSucceeded());
+        assertEquals(3, result.getUpdated());
+        assertEquals(Arrays.asList(3L, 4L), result.getFailedIds());
+        assertTrue(result.getNotFoundIds().isEmpty());
+        BatchAuditResult.ChunkResult failed = result.getChunks().get(1);
+        assertEquals(BatchAuditResult.FAILED, failed.getStatus());
+        assertEquals("Lock wait timeout exceeded", failed.getMessage());
+        assertEquals(BatchAuditResult.SUCCESS, result.getChunks().get(2).getStatus());
+        verify(eventPublisher, times(2)).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("测试发布事件失败不影响审核结果")
+    void testPublishFailureIgnored() {
+        // Given
+        when(facade.auditChunk(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> outcome(invocation.getArgument(0), Collections.emptyList()));
+        when(eventPublisher.publishEvent(any())).thenThrow(new RuntimeException("broker down"));
+
+        // When
+        BatchAuditResult result = auditor.audit(Arrays.asList(1L, 2L, 3L), "APPROVED", 9L, null, null);
+
+        // Then
+        assertTrue(result.isAllSucceeded());
+        assertEquals(3, result.getUpdated());
+        verify(facade, times(2)).auditChunk(any(), any(), any(), any(), any());
+    }
+
+    private static LeadDataFacade.AuditOutcome outcome(List<Long> changed, List<Long> unchanged) {
+        LeadDataFacade.AuditOutcome outcome = new LeadDataFacade.AuditOutcome();
+        outcome.getChanged().addAll(changed);
+        outcome.getUnchanged().addAll(unchanged);
+        return outcome;
+    }
+}
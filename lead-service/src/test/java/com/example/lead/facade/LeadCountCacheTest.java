@@ -0,0 +1,89 @@
+package com.example.lead.facade;
+
+import com.example.data.entity.CustomerLead;
+import com.example.data.mapper.CustomerLeadMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeadCountCache单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资数量缓存单元测试")
+class LeadCountCacheTest {
+
+    @Mock
+    private CustomerLeadMapper leadMapper;
+    @Mock
+    private RedisTemplate<String, Object> redis;
+    @Mock
+    private ValueOperations<String, Object> values;
+
+    private LeadCountCache countCache;
+
+    @BeforeEach
+    void setUp() {
+        countCache = new LeadCountCache(leadMapper);
+        ReflectionTestUtils.setField(countCache, "redis", redis);
+    }
+
+    @Test
+    @DisplayName("测试任意大小写的过滤值读取枚举编码对应的计数器")
+    void testCountNormalizesFilterCase() {
+        // Given
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.get("lead:count:sp=5|st=PENDING|as=APPROVED|src=online_ad")).thenReturn(42L);
+
+        // When & Then
+        assertEquals(42L, countCache.count(5L, "pending", "Approved", "Online_AD"));
+        verifyNoInteractions(leadMapper);
+    }
+
+    @Test
+    @DisplayName("测试不对应枚举编码的过滤值直接查询数据库")
+    void testCountSkipsCacheForUnknownCode() {
+        // Given
+        when(leadMapper.countByConditions(null, "pending ", null, null, null, null, null, null, null)).thenReturn(3L);
+
+        // When & Then
+        assertEquals(3L, countCache.count(null, "pending ", null, null));
+        verifyNoInteractions(redis);
+    }
+
+    @Test
+    @DisplayName("测试写入增量与查询使用相同的计数器键")
+    @SuppressWarnings("unchecked")
+    void testDeltaKeysMatchCountKeys() {
+        // Given
+        CustomerLead lead = new CustomerLead();
+        lead.setSalespersonId(5L);
+        lead.setStatus(CustomerLead.LeadStatus.PENDING);
+        lead.setAuditStatus(CustomerLead.AuditStatus.APPROVED);
+        lead.setSource("ONLINE_AD");
+
+        // When
+        countCache.apply(countCache.newDelta().add(lead));
+
+        // Then
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redis).execute(any(RedisScript.class), keys.capture(), any());
+        assertEquals(16, keys.getValue().size());
+        assertTrue(keys.getValue().contains("lead:count:sp=5|st=PENDING|as=APPROVED|src=online_ad"));
+        assertTrue(keys.getValue().contains("lead:count:sp=*|st=*|as=*|src=*"));
+    }
+}
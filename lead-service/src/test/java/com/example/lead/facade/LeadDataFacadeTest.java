@@ -0,0 +1,345 @@
+package com.example.lead.facade;
+
+import com.example.data.entity.CustomerLead;
+import com.example.data.entity.LeadAuditRecord;
+import com.example.data.mapper.CustomerLeadMapper;
+import com.example.data.mapper.LeadAuditRecordMapper;
+import com.example.lead.dto.CreateLeadRequest;
+import com.example.lead.dto.CustomerLeadDto;
+import com.example.lead.dto.LeadPageCursor;
+import com.example.lead.dto.PageResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeadDataFacade单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资数据门面单元测试")
+class LeadDataFacadeTest {
+
+    @Mock
+    private CustomerLeadMapper leadMapper;
+    @Mock
+    private LeadPhoneIndex phoneIndex;
+    @Mock
+    private LeadListCache listCache;
+    @Mock
+    private LeadCountCache countCache;
+    @Mock
+    private LeadStatsRollup statsRollup;
+    @Mock
+    private LeadSearchIndex searchIndex;
+    @Mock
+    private LeadAuditRecordMapper auditRecordMapper;
+    @Mock
+    private LeadFollowUpScheduler followUpScheduler;
+    @Mock
+    private LeadDetailCache detailCache;
+    @Mock
+    private LeadAssignmentEngine assignmentEngine;
+
+    private LeadDataFacade facade;
+
+    @BeforeEach
+    void setUp() {
+        facade = new LeadDataFacade(leadMapper, phoneIndex, listCache, countCache, statsRollup, searchIndex,
+                auditRecordMapper, followUpScheduler, detailCache, assignmentEngine);
+    }
+
+    @Test
+    @DisplayName("测试创建客资时保留指定的归属销售")
+    void testCreateKeepsGivenSalesperson() {
+        // Given
+        CreateLeadRequest req = new CreateLeadRequest("客户", "13800138000", "ONLINE_AD", 5L);
+        when(countCache.newDelta()).thenCallRealMethod();
+        when(statsRollup.newDelta()).thenCallRealMethod();
+
+        // When
+        CustomerLeadDto dto = facade.create(req);
+
+        // Then
+        assertEquals(5L, dto.getSalespersonId());
+        verify(assignmentEngine, never()).assign();
+        verify(assignmentEngine).onChanged(null, null, 5L, CustomerLead.LeadStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("测试批量写入冲突时逐行写入并返回冲突行")
+    void testBatchCreateFallsBackToSingleInserts() {
+        // Given: 多行INSERT整体冲突，逐行写入时第二行冲突
+        CustomerLead first = lead("13800138000");
+        CustomerLead second = lead("13900139000");
+        CustomerLead third = lead("13700137000");
+        when(countCache.newDelta()).thenCallRealMethod();
+        when(statsRollup.newDelta()).thenCallRealMethod();
+        when(leadMapper.batchInsert(anyList())).thenThrow(new DuplicateKeyException("uniq_phone"));
+        when(leadMapper.insert(any(CustomerLead.class)))
+                .thenReturn(1)
+                .thenThrow(new DuplicateKeyException("uniq_phone"))
+                .thenReturn(1);
+
+        // When
+        List<CustomerLead> conflicts = facade.batchCreate(Arrays.asList(first, second, third));
+
+        // Then
+        assertEquals(Collections.singletonList(second), conflicts);
+        verify(leadMapper, times(3)).insert(any(CustomerLead.class));
+        verify(phoneIndex).addAll(Arrays.asList("13800138000", "13700137000"));
+        verify(searchIndex).indexLeads(Arrays.asList(first, third));
+        verify(assignmentEngine, never()).assign();
+        verify(assignmentEngine, times(2)).onChanged(isNull(), isNull(), eq(5L), eq(CustomerLead.LeadStatus.PENDING));
+    }
+
+    @Test
+    @DisplayName("测试批量写入只为未指定归属销售的客资自动分配")
+    void testBatchCreateAssignsOnlyUnassigned() {
+        // Given
+        CustomerLead given = lead("13800138000");
+        CustomerLead unassigned = lead("13900139000");
+        unassigned.setSalespersonId(null);
+        when(assignmentEngine.assign()).thenReturn(7L);
+        when(countCache.newDelta()).thenCallRealMethod();
+        when(statsRollup.newDelta()).thenCallRealMethod();
+
+        // When
+        List<CustomerLead> conflicts = facade.batchCreate(Arrays.asList(given, unassigned));
+
+        // Then
+        assertTrue(conflicts.isEmpty());
+        assertEquals(5L, given.getSalespersonId());
+        assertEquals(7L, unassigned.getSalespersonId());
+        verify(assignmentEngine, times(1)).assign();
+        verify(assignmentEngine).onChanged(null, null, 5L, CustomerLead.LeadStatus.PENDING);
+        verify(assignmentEngine, never()).onChanged(isNull(), isNull(), eq(7L), any());
+    }
+
+    @Test
+    @DisplayName("测试批量写入全部冲突时不更新索引和缓存")
+    void testBatchCreateAllConflicts() {
+        // Given
+        CustomerLead only = lead("13800138000");
+        when(leadMapper.batchInsert(anyList())).thenThrow(new DuplicateKeyException("uniq_phone"));
+        when(leadMapper.insert(any(CustomerLead.class))).thenThrow(new DuplicateKeyException("uniq_phone"));
+
+        // When
+        List<CustomerLead> conflicts = facade.batchCreate(Collections.singletonList(only));
+
+        // Then
+        assertEquals(Collections.singletonList(only), conflicts);
+        verifyNoInteractions(phoneIndex, searchIndex, listCache, countCache, statsRollup);
+    }
+
+    @Test
+    @DisplayName("测试更新跟进状态先锁定客资行再计算统计增量")
+    void testUpdateStatusLocksRowBeforeDelta() {
+        // Given
+        CustomerLead locked = lead("13800138000");
+        locked.setId(1L);
+        when(leadMapper.lockByIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(locked));
+        when(leadMapper.updateFollowUp(eq(1L), eq(CustomerLead.LeadStatus.FOLLOWING), any(), any())).thenReturn(1);
+        when(countCache.newDelta()).thenCallRealMethod();
+        when(statsRollup.newDelta()).thenCallRealMethod();
+
+        // When
+        assertTrue(facade.updateStatus(1L, "FOLLOWING"));
+
+        // Then
+        verify(leadMapper, never()).findById(any());
+        verify(detailCache).invalidate(1L);
+        verify(assignmentEngine).onChanged(5L, CustomerLead.LeadStatus.PENDING, 5L, CustomerLead.LeadStatus.FOLLOWING);
+        verify(statsRollup).apply(any());
+        verify(countCache).apply(any());
+        verify(followUpScheduler).onChanged(locked);
+    }
+
+    @Test
+    @DisplayName("测试跟进状态未变化时不调整统计")
+    void testUpdateStatusUnchangedSkipsDelta() {
+        // Given: 并发请求已先把状态改为FOLLOWING
+        CustomerLead locked = lead("13800138000");
+        locked.setId(1L);
+        locked.setStatus(CustomerLead.LeadStatus.FOLLOWING);
+        when(leadMapper.lockByIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(locked));
+        when(leadMapper.updateFollowUp(eq(1L), eq(CustomerLead.LeadStatus.FOLLOWING), any(), any())).thenReturn(1);
+
+        // When
+        assertTrue(facade.updateStatus(1L, "FOLLOWING"));
+
+        // Then
+        verifyNoInteractions(countCache, statsRollup, assignmentEngine);
+        verify(followUpScheduler).onChanged(locked);
+    }
+
+    @Test
+    @DisplayName("测试审核一块客资只更新审核状态有变化的客资")
+    void testAuditChunkSplitsChangedAndUnchanged() {
+        // Given: 客资1待审核，客资2已通过，客资3不存在
+        CustomerLead pending = lead("13800138000");
+        pending.setId(1L);
+        CustomerLead approved = lead("13900139000");
+        approved.setId(2L);
+        approved.setAuditStatus(CustomerLead.AuditStatus.APPROVED);
+        when(leadMapper.lockByIds(Arrays.asList(1L, 2L, 3L))).thenReturn(Arrays.asList(pending, approved));
+        when(countCache.newDelta()).thenCallRealMethod();
+        when(statsRollup.newDelta()).thenCallRealMethod();
+
+        // When
+        LeadDataFacade.AuditOutcome outcome = facade.auditChunk(Arrays.asList(1L, 2L, 3L), "APPROVED", 9L, "ok", null);
+
+        // Then
+        assertEquals(Collections.singletonList(1L), outcome.getChanged());
+        assertEquals(Collections.singletonList(2L), outcome.getUnchanged());
+        verify(leadMapper).batchUpdateAuditStatus(eq(Collections.singletonList(1L)), eq(CustomerLead.AuditStatus.APPROVED), any());
+        ArgumentCaptor<List<LeadAuditRecord>> records = ArgumentCaptor.forClass(List.class);
+        verify(auditRecordMapper).batchInsert(records.capture());
+        assertEquals(1, records.getValue().size());
+        LeadAuditRecord record = records.getValue().get(0);
+        assertEquals(1L, record.getLeadId());
+        assertEquals(9L, record.getAuditorId());
+        assertEquals("PENDING_AUDIT", record.getStatusBefore());
+        assertEquals("APPROVED", record.getStatusAfter());
+        assertEquals(CustomerLead.AuditStatus.APPROVED, pending.getAuditStatus());
+        verify(detailCache).invalidateAll(Collections.singletonList(1L));
+        verify(statsRollup).apply(any());
+        verify(countCache).apply(any());
+    }
+
+    @Test
+    @DisplayName("测试审核一块客资全部未变化时不写入")
+    void testAuditChunkAllUnchanged() {
+        // Given
+        CustomerLead approved = lead("13800138000");
+        approved.setId(1L);
+        approved.setAuditStatus(CustomerLead.AuditStatus.APPROVED);
+        when(leadMapper.lockByIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(approved));
+
+        // When
+        LeadDataFacade.AuditOutcome outcome = facade.auditChunk(Collections.singletonList(1L), "APPROVED", 9L, null, null);
+
+        // Then
+        assertTrue(outcome.getChanged().isEmpty());
+        assertEquals(Collections.singletonList(1L), outcome.getUnchanged());
+        verify(leadMapper, never()).batchUpdateAuditStatus(any(), any(), any());
+        verifyNoInteractions(auditRecordMapper, detailCache, countCache, statsRollup, listCache);
+    }
+
+    @Test
+    @DisplayName("测试删除客资后失效详情缓存并扣减统计")
+    void testDeleteLeadInvalidatesDetailCache() {
+        // Given
+        CustomerLead locked = lead("13800138000");
+        locked.setId(1L);
+        when(leadMapper.lockByIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(locked));
+        when(leadMapper.deleteById(1L)).thenReturn(1);
+        when(countCache.newDelta()).thenCallRealMethod();
+        when(statsRollup.newDelta()).thenCallRealMethod();
+
+        // When
+        assertTrue(facade.deleteLead(1L));
+
+        // Then
+        verify(detailCache).invalidate(1L);
+        verify(followUpScheduler).onRemoved(1L);
+        verify(assignmentEngine).onChanged(5L, CustomerLead.LeadStatus.PENDING, null, null);
+        verify(statsRollup).apply(any());
+        verify(countCache).apply(any());
+    }
+
+    @Test
+    @DisplayName("测试删除已不存在的客资不扣减统计")
+    void testDeleteMissingLead() {
+        // Given
+        when(leadMapper.lockByIds(Collections.singletonList(1L))).thenReturn(Collections.emptyList());
+
+        // When
+        assertFalse(facade.deleteLead(1L));
+
+        // Then
+        verify(leadMapper, never()).deleteById(any());
+        verifyNoInteractions(countCache, statsRollup, assignmentEngine);
+    }
+
+    @Test
+    @DisplayName("测试按游标翻页多取一行判断下一页，页边界在NULL区间内时下一页游标值为NULL")
+    void testFindPageByCursorInNullRange() {
+        // Given: 上一页止于客资2（最后跟进时间为NULL），本页读到3、4（NULL）和5
+        CustomerLead previous = leadWithId(2L);
+        String cursor = LeadPageCursor.after(previous, "lastFollowUpAt", "asc").encode();
+        CustomerLead fifth = leadWithId(5L);
+        fifth.setLastFollowUpAt(LocalDateTime.of(2025, 8, 1, 9, 0));
+        when(listCache.getOrLoad(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<PageResult<CustomerLeadDto>>>getArgument(3).get());
+        when(leadMapper.findByConditionsAfterCursor(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                eq("lastFollowUpAt"), eq("asc"), isNull(), eq(2L), eq(3)))
+                .thenReturn(Arrays.asList(leadWithId(3L), leadWithId(4L), fifth));
+
+        // When
+        PageResult<CustomerLeadDto> page = facade.findPageWithCount(null, 2, null, null, null, null, null, null, null,
+                "lastFollowUpAt", "asc", cursor);
+
+        // Then
+        assertEquals(Arrays.asList(3L, 4L), page.getList().stream().map(CustomerLeadDto::getId).collect(Collectors.toList()));
+        assertTrue(page.isHasMore());
+        LeadPageCursor next = LeadPageCursor.decode(page.getNextCursor(), "lastFollowUpAt", "asc");
+        assertNull(next.getValue());
+        assertEquals(4L, next.getId());
+    }
+
+    @Test
+    @DisplayName("测试按游标读到最后一页时没有下一页游标")
+    void testFindPageByCursorLastPage() {
+        // Given
+        CustomerLead previous = leadWithId(4L);
+        String cursor = LeadPageCursor.after(previous, "lastFollowUpAt", "desc").encode();
+        when(listCache.getOrLoad(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<PageResult<CustomerLeadDto>>>getArgument(3).get());
+        when(leadMapper.findByConditionsAfterCursor(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                eq("lastFollowUpAt"), eq("desc"), isNull(), eq(4L), eq(3)))
+                .thenReturn(Arrays.asList(leadWithId(3L), leadWithId(2L)));
+
+        // When
+        PageResult<CustomerLeadDto> page = facade.findPageWithCount(null, 2, null, null, null, null, null, null, null,
+                "lastFollowUpAt", "desc", cursor);
+
+        // Then
+        assertEquals(2, page.getList().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    private static CustomerLead leadWithId(Long id) {
+        CustomerLead lead = lead("1380013800" + id);
+        lead.setId(id);
+        return lead;
+    }
+
+    private static CustomerLead lead(String phone) {
+        CustomerLead lead = new CustomerLead();
+        lead.setName("客户" + phone);
+        lead.setPhone(phone);
+        lead.setSource("ONLINE_AD");
+        lead.setSalespersonId(5L);
+        lead.setStatus(CustomerLead.LeadStatus.PENDING);
+        lead.setAuditStatus(CustomerLead.AuditStatus.PENDING_AUDIT);
+        return lead;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.lead.facade;
+
+import com.example.lead.dto.LeadDetailsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeadDetailCache单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资详情缓存单元测试")
+class LeadDetailCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redis;
+    @Mock
+    private ValueOperations<String, Object> values;
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+    @Mock
+    private RedisConnection connection;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LeadDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LeadDetailCache(100, 60, nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("测试一级缓存命中时不再加载")
+    void testLocalHit() {
+        // Given
+        LeadDetailsDto details = new LeadDetailsDto();
+
+        // When
+        Optional<LeadDetailsDto> first = cache.get(1L, () -> load(details));
+        Optional<LeadDetailsDto> second = cache.get(1L, () -> load(details));
+
+        // Then
+        assertSame(details, first.orElse(null));
+        assertSame(details, second.orElse(null));
+        assertEquals(1, loads.get());
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("localHits"));
+        assertEquals(1L, stats.get("localMisses"));
+        assertEquals(0.5, stats.get("hitRate"));
+    }
+
+    @Test
+    @DisplayName("测试客资不存在时不缓存")
+    void testMissNotCached() {
+        // When
+        assertFalse(cache.get(1L, () -> load(null)).isPresent());
+        assertFalse(cache.get(1L, () -> load(null)).isPresent());
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试二级缓存命中时写入一级缓存且不加载")
+    void testRemoteHit() {
+        // Given
+        ReflectionTestUtils.setField(cache, "redis", redis);
+        LeadDetailsDto details = new LeadDetailsDto();
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.get("lead:detail:1")).thenReturn(details);
+
+        // When
+        assertSame(details, cache.get(1L, () -> load(null)).orElse(null));
+        assertSame(details, cache.get(1L, () -> load(null)).orElse(null));
+
+        // Then
+        assertEquals(0, loads.get());
+        verify(values, times(1)).get("lead:detail:1");
+        assertEquals(1L, cache.getStats().get("remoteHits"));
+    }
+
+    @Test
+    @DisplayName("测试两级缓存都未命中时加载并按TTL写入二级缓存")
+    void testLoadWritesRemoteWithTtl() {
+        // Given
+        ReflectionTestUtils.setField(cache, "redis", redis);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        LeadDetailsDto details = new LeadDetailsDto();
+        when(redis.opsForValue()).thenReturn(values);
+
+        // When
+        cache.get(1L, () -> load(details));
+
+        // Then
+        assertEquals(1, loads.get());
+        verify(values).set("lead:detail:1", details, 300L, TimeUnit.SECONDS);
+        assertEquals(1L, cache.getStats().get("remoteMisses"));
+    }
+
+    @Test
+    @DisplayName("测试一级缓存超过TTL后重新加载")
+    void testLocalTtl() {
+        // Given
+        LeadDetailsDto details = new LeadDetailsDto();
+        cache.get(1L, () -> load(details));
+
+        // When
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        cache.get(1L, () -> load(details));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        cache.get(1L, () -> load(details));
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试失效后重新加载，并删除二级缓存、发送失效消息")
+    void testInvalidateEvictsBothLevels() {
+        // Given
+        StringRedisTemplate stringRedis = stringRedis();
+        ReflectionTestUtils.setField(cache, "redis", redis);
+        ReflectionTestUtils.setField(cache, "stringRedis", stringRedis);
+        when(redis.opsForValue()).thenReturn(values);
+        LeadDetailsDto details = new LeadDetailsDto();
+        cache.get(1L, () -> load(details));
+
+        // When
+        cache.invalidate(1L);
+        cache.get(1L, () -> load(details));
+
+        // Then
+        assertEquals(2, loads.get());
+        verify(redis).delete(Arrays.asList("lead:detail:1"));
+        verify(redis, never()).convertAndSend(any(), any());
+        verify(connection).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("测试事务中失效在提交后执行")
+    void testInvalidateAfterCommit() {
+        // Given
+        LeadDetailsDto details = new LeadDetailsDto();
+        cache.get(1L, () -> load(details));
+        cache.get(2L, () -> load(details));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        cache.invalidateAll(Arrays.asList(1L, 2L));
+        cache.get(1L, () -> load(details));
+        assertEquals(2, loads.get());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        cache.get(1L, () -> load(details));
+        cache.get(2L, () -> load(details));
+
+        // Then
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试加载期间发生失效时不写回旧数据")
+    void testInvalidateDuringLoadSkipsWrite() {
+        // Given
+        LeadDetailsDto stale = new LeadDetailsDto();
+
+        // When
+        cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return load(stale);
+        });
+        cache.get(1L, () -> load(new LeadDetailsDto()));
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试失效消息经StringRedisTemplate序列化后其他实例能解析并失效一级缓存")
+    void testInvalidationMessageRoundTrip() {
+        // Given: 另一个实例已缓存客资1、2、3
+        LeadDetailCache other = new LeadDetailCache(100, 60, nanos::get);
+        LeadDetailsDto details = new LeadDetailsDto();
+        for (long id = 1; id <= 3; id++) {
+            other.get(id, () -> load(details));
+        }
+        ReflectionTestUtils.setField(cache, "stringRedis", stringRedis());
+
+        // When
+        cache.invalidateAll(Arrays.asList(1L, 2L));
+        ArgumentCaptor<byte[]> channel = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).publish(channel.capture(), body.capture());
+        other.onMessage(new DefaultMessage(channel.getValue(), body.getValue()), null);
+
+        // Then
+        assertEquals(LeadDetailCache.INVALIDATION_CHANNEL, new String(channel.getValue(), StandardCharsets.UTF_8));
+        assertEquals("1,2", new String(body.getValue(), StandardCharsets.UTF_8));
+        for (long id = 1; id <= 3; id++) {
+            other.get(id, () -> load(details));
+        }
+        assertEquals(5, loads.get());
+        assertEquals(1L, other.getStats().get("invalidations"));
+    }
+
+    @Test
+    @DisplayName("测试无效的失效消息被忽略")
+    void testInvalidMessageIgnored() {
+        // Given
+        LeadDetailsDto details = new LeadDetailsDto();
+        cache.get(1L, () -> load(details));
+
+        // When
+        cache.onMessage(new DefaultMessage(new byte[0], "\"1\"".getBytes(StandardCharsets.UTF_8)), null);
+        cache.get(1L, () -> load(details));
+
+        // Then
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * 连接为mock的真实StringRedisTemplate，发送的频道和消息按其序列化器编码后到达connection.publish
+     */
+    private StringRedisTemplate stringRedis() {
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    private Optional<LeadDetailsDto> load(LeadDetailsDto details) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(details);
+    }
+}
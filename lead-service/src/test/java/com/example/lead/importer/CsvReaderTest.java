@@ -0,0 +1,106 @@
+package com.example.lead.importer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("流式CSV读取单元测试")
+class CsvReaderTest {
+
+    @Test
+    @DisplayName("测试引号字段内的逗号、双引号和换行")
+    void testQuotedFields() throws IOException {
+        // Given
+        String csv = "姓名,手机号,备注\r\n"
+                + "\"张,三\",13800138000,\"say \"\"hi\"\"\"\r\n"
+                + "李四,13900139000,\"多\r\n行\n备注\"\r\n";
+
+        // When
+        List<List<String>> rows = readAll(csv.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals(3, rows.size());
+        assertEquals(Arrays.asList("张,三", "13800138000", "say \"hi\""), rows.get(1));
+        assertEquals(Arrays.asList("李四", "13900139000", "多\r\n行\n备注"), rows.get(2));
+    }
+
+    @Test
+    @DisplayName("测试忽略UTF-8 BOM")
+    void testBom() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        out.write("姓名,手机号\n张三,13800138000".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<List<String>> rows = readAll(out.toByteArray());
+
+        // Then
+        assertEquals(Arrays.asList("姓名", "手机号"), rows.get(0));
+        assertEquals(Arrays.asList("张三", "13800138000"), rows.get(1));
+    }
+
+    @Test
+    @DisplayName("测试空行跳过与空字段")
+    void testBlankLinesAndEmptyFields() throws IOException {
+        // Given
+        String csv = "a,b,c\n\n\r\n,,\nx,,z";
+
+        // When
+        List<List<String>> rows = readAll(csv.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals(3, rows.size());
+        assertEquals(Arrays.asList("", "", ""), rows.get(1));
+        assertEquals(Arrays.asList("x", "", "z"), rows.get(2));
+    }
+
+    @Test
+    @DisplayName("测试行号为记录起始的物理行")
+    void testRowNumbers() throws IOException {
+        // Given: 第2行的记录跨两行，空行也计入行号
+        String csv = "name,notes\n张三,\"第一行\n第二行\"\n\n李四,ok\n";
+
+        // When
+        List<Integer> rowNumbers = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            while (reader.next() != null) {
+                rowNumbers.add(reader.getRowNumber());
+            }
+        }
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 5), rowNumbers);
+    }
+
+    @Test
+    @DisplayName("测试未闭合的引号读到文件末尾")
+    void testUnterminatedQuote() throws IOException {
+        // When
+        List<List<String>> rows = readAll("a,\"bc".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals(Collections.singletonList(Arrays.asList("a", "bc")), rows);
+    }
+
+    private static List<List<String>> readAll(byte[] bytes) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new ByteArrayInputStream(bytes))) {
+            List<String> row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.lead.importer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("流式XLSX读取单元测试")
+class XlsxReaderTest {
+
+    private static final String WORKBOOK = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+            + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+            + "<sheets><sheet name=\"客资\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>";
+
+    private static final String WORKBOOK_RELS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\""
+            + " Target=\"worksheets/data.xml\"/></Relationships>";
+
+    private static final String SHARED_STRINGS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"3\" uniqueCount=\"3\">"
+            + "<si><t>姓名</t></si>"
+            + "<si><t>手机号</t></si>"
+            + "<si><r><t>张</t></r><r><rPr><b/></rPr><t>三</t></r></si>"
+            + "</sst>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("测试共享字符串、富文本与行内字符串单元格")
+    void testSharedAndInlineStrings() throws IOException {
+        // Given
+        File file = xlsx(sheet(
+                "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c></row>"
+                        + "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>2</v></c><c r=\"B2\" t=\"inlineStr\"><is><t>13800138000</t></is></c></row>"
+                        + "<row r=\"3\"><c r=\"A3\" t=\"inlineStr\"><is><r><t>李</t></r><r><t>四</t></r></is></c>"
+                        + "<c r=\"B3\"><v>1.3900139E10</v></c></row>"), true);
+
+        // When
+        List<List<String>> rows = readAll(file);
+
+        // Then
+        assertEquals(Arrays.asList("姓名", "手机号"), rows.get(0));
+        assertEquals(Arrays.asList("张三", "13800138000"), rows.get(1));
+        assertEquals(Arrays.asList("李四", "13900139000"), rows.get(2));
+    }
+
+    @Test
+    @DisplayName("测试跳过的行号与列缺口")
+    void testSkippedRowsAndColumnGaps() throws IOException {
+        // Given: 第2、3行不存在，第4行只有A列和C列，第5行是空行
+        File file = xlsx(sheet(
+                "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>name</t></is></c><c r=\"C1\" t=\"inlineStr\"><is><t>phone</t></is></c></row>"
+                        + "<row r=\"4\"><c r=\"A4\" t=\"inlineStr\"><is><t>王五</t></is></c><c r=\"C4\"><v>13700137000</v></c></row>"
+                        + "<row r=\"5\"/>"
+                        + "<row r=\"6\"><c r=\"AB6\"><v>1</v></c></row>"), false);
+
+        // When
+        List<List<String>> rows = new ArrayList<>();
+        List<Integer> rowNumbers = new ArrayList<>();
+        try (XlsxReader reader = new XlsxReader(file)) {
+            List<String> row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+                rowNumbers.add(reader.getRowNumber());
+            }
+        }
+
+        // Then
+        assertEquals(Arrays.asList(1, 4, 5, 6), rowNumbers);
+        assertEquals(Arrays.asList("name", "", "phone"), rows.get(0));
+        assertEquals(Arrays.asList("王五", "", "13700137000"), rows.get(1));
+        assertTrue(rows.get(2).isEmpty());
+        assertEquals(28, rows.get(3).size());
+        assertEquals("1", rows.get(3).get(27));
+    }
+
+    @Test
+    @DisplayName("测试数值单元格不使用科学计数法")
+    void testNumericCells() throws IOException {
+        // Given
+        File file = xlsx(sheet("<row r=\"1\"><c r=\"A1\" t=\"n\"><v>5.0</v></c><c r=\"B1\"><v>0.25</v></c>"
+                + "<c r=\"C1\" t=\"str\"><v>1E3</v></c><c r=\"D1\"/></row>"), false);
+
+        // When
+        List<List<String>> rows = readAll(file);
+
+        // Then
+        assertEquals(Arrays.asList("5", "0.25", "1E3", ""), rows.get(0));
+    }
+
+    @Test
+    @DisplayName("测试缺少工作表时报错")
+    void testMissingSheet() throws IOException {
+        // Given
+        File file = tempDir.resolve("empty.xlsx").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            entry(zip, "xl/workbook.xml", WORKBOOK);
+        }
+
+        // When & Then
+        assertThrows(IOException.class, () -> new XlsxReader(file));
+    }
+
+    private static String sheet(String rows) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<sheetData>" + rows + "</sheetData></worksheet>";
+    }
+
+    /**
+     * 生成只含必要部件的XLSX，工作表放在非默认路径，经workbook关系定位
+     */
+    private File xlsx(String sheetXml, boolean withSharedStrings) throws IOException {
+        File file = tempDir.resolve("leads.xlsx").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            entry(zip, "xl/workbook.xml", WORKBOOK);
+            entry(zip, "xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+            entry(zip, "xl/worksheets/data.xml", sheetXml);
+            if (withSharedStrings) {
+                entry(zip, "xl/sharedStrings.xml", SHARED_STRINGS);
+            }
+        }
+        return file;
+    }
+
+    private static void entry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static List<List<String>> readAll(File file) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (XlsxReader reader = new XlsxReader(file)) {
+            List<String> row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
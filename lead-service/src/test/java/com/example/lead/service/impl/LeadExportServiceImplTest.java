@@ -0,0 +1,220 @@
+package com.example.lead.service.impl;
+
+import com.example.data.entity.CustomerLead;
+import com.example.lead.facade.LeadDataFacade;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * LeadExportServiceImpl单元测试
+ *
+ * <p>用按需生成行的游标代替数据库，检查导出逐行写出：任一时刻已从游标取出但还没写到输出流的行数
+ * 不超过写出缓冲区能容纳的行数，与总行数无关。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资导出单元测试")
+class LeadExportServiceImplTest {
+
+    private static final int ROWS = 1_000_000;
+
+    /**
+     * 写出缓冲区（64KB）能积压的行数上限，测试数据每行约90字节
+     */
+    private static final long MAX_BUFFERED_ROWS = 2_000;
+
+    @Mock
+    private LeadDataFacade leadDataFacade;
+
+    @InjectMocks
+    private LeadExportServiceImpl exportService;
+
+    @Test
+    @DisplayName("测试百万行导出边读游标边写出")
+    void testMillionRowsStreamedIncrementally() throws Exception {
+        // Given
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        GeneratedCursor cursor = new GeneratedCursor(ROWS, out);
+        when(leadDataFacade.streamByConditions(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(cursor);
+
+        // When
+        long rows = exportService.exportCsv(null, null, null, null, null, null, null, null, null, out, false);
+
+        // Then
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS + 1, out.lines);
+        assertTrue(cursor.closed);
+        assertTrue(cursor.maxLag <= MAX_BUFFERED_ROWS, "游标取出后积压未写出的行数过多: " + cursor.maxLag);
+        assertTrue(cursor.linesWrittenAtHalf > ROWS / 2 - MAX_BUFFERED_ROWS, "读到一半时输出流几乎没有数据");
+    }
+
+    @Test
+    @DisplayName("测试gzip导出在游标读完前已有数据写出")
+    void testGzipWritesBeforeCursorEnds() throws Exception {
+        // Given
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        GeneratedCursor cursor = new GeneratedCursor(ROWS, out);
+        when(leadDataFacade.streamByConditions(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(cursor);
+
+        // When
+        exportService.exportCsv(null, null, null, null, null, null, null, null, null, out, true);
+
+        // Then
+        assertTrue(cursor.bytesWrittenAtHalf > 0, "读到一半时输出流还没有数据");
+    }
+
+    @Test
+    @DisplayName("测试导出查询使用MySQL流式结果集")
+    void testStreamStatementUsesStreamingFetchSize() throws Exception {
+        // Given
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        Document mapper;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("mapper/CustomerLeadMapper.xml")) {
+            assertNotNull(in);
+            mapper = factory.newDocumentBuilder().parse(in);
+        }
+
+        // When
+        Element select = null;
+        NodeList selects = mapper.getElementsByTagName("select");
+        for (int i = 0; i < selects.getLength(); i++) {
+            Element element = (Element) selects.item(i);
+            if ("streamByConditions".equals(element.getAttribute("id"))) {
+                select = element;
+            }
+        }
+
+        // Then: fetchSize=Integer.MIN_VALUE 才会让MySQL驱动逐行读取，否则整个结果集先读入内存
+        assertNotNull(select);
+        assertEquals(String.valueOf(Integer.MIN_VALUE), select.getAttribute("fetchSize"));
+        assertEquals("FORWARD_ONLY", select.getAttribute("resultSetType"));
+    }
+
+    /**
+     * 按需生成客资的游标，只能遍历一次，记录取出行数与输出流已写出行数的最大差值
+     */
+    private static final class GeneratedCursor implements Cursor<CustomerLead> {
+
+        private final int rows;
+        private final LineCountingOutputStream out;
+        private final LocalDateTime createdAt = LocalDateTime.of(2025, 8, 5, 9, 30, 0);
+        private int index = -1;
+        private boolean iterated;
+        private boolean closed;
+        private long maxLag;
+        private long linesWrittenAtHalf;
+        private long bytesWrittenAtHalf;
+
+        GeneratedCursor(int rows, LineCountingOutputStream out) {
+            this.rows = rows;
+            this.out = out;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return index >= rows - 1;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return index;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Iterator<CustomerLead> iterator() {
+            assertFalse(iterated, "游标只能遍历一次");
+            iterated = true;
+            return new Iterator<CustomerLead>() {
+                @Override
+                public boolean hasNext() {
+                    return !closed && index < rows - 1;
+                }
+
+                @Override
+                public CustomerLead next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    index++;
+                    // 已取出index行（不含本行），输出流中除表头外的行都已写出
+                    maxLag = Math.max(maxLag, index - (out.lines - 1));
+                    if (index == rows / 2) {
+                        linesWrittenAtHalf = out.lines - 1;
+                        bytesWrittenAtHalf = out.bytes;
+                    }
+                    return lead(index);
+                }
+            };
+        }
+
+        private CustomerLead lead(int i) {
+            CustomerLead lead = new CustomerLead();
+            lead.setId((long) i + 1);
+            lead.setName("客户" + i);
+            lead.setPhone(String.format("138%08d", i));
+            lead.setStatus(CustomerLead.LeadStatus.PENDING);
+            lead.setAuditStatus(CustomerLead.AuditStatus.PENDING_AUDIT);
+            lead.setSource("ONLINE_AD");
+            lead.setSalespersonId(7L);
+            lead.setCreatedAt(createdAt);
+            return lead;
+        }
+    }
+
+    /**
+     * 只统计字节数和换行数、不保存内容的输出流
+     */
+    private static final class LineCountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
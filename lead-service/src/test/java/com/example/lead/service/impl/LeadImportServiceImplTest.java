@@ -0,0 +1,150 @@
+package com.example.lead.service.impl;
+
+import com.example.common.dto.CommonResult;
+import com.example.data.entity.CustomerLead;
+import com.example.lead.dto.LeadImportResult;
+import com.example.lead.facade.LeadDataFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeadImportServiceImpl单元测试
+ *
+ * <p>用CSV文件驱动完整的导入流程，校验表头别名、逐行结果中的行号以及重复/冲突的处理。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("客资批量导入单元测试")
+class LeadImportServiceImplTest {
+
+    @Mock
+    private LeadDataFacade leadDataFacade;
+
+    @InjectMocks
+    private LeadImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("测试表头别名与逐行结果的行号")
+    @SuppressWarnings("unchecked")
+    void testImportReportsRowNumbers() {
+        // Given: 第6行为空行；第9行写入时与并发导入的号码冲突
+        String csv = "客户姓名,Phone, 来源渠道 ,归属销售ID,未知列\n"
+                + "张三,13800138000,ONLINE_AD,5,x\n"
+                + "李四,123,ONLINE_AD,5,\n"
+                + "王五,13900139000,REFERRAL,abc,\n"
+                + "赵六,13800138000,ONLINE_AD,5,\n"
+                + ",,,,\n"
+                + "钱七,13700137000,ONLINE_AD,,\n"
+                + "孙八,13600136000,,5,\n"
+                + "周九,13500135000,ONLINE_AD,,\n";
+        when(leadDataFacade.findExistingPhones(anyCollection())).thenReturn(new HashSet<>(Collections.singletonList("13700137000")));
+        when(leadDataFacade.batchCreate(anyList())).thenAnswer(invocation -> {
+            List<CustomerLead> leads = invocation.getArgument(0);
+            leads.get(0).setId(100L);
+            return Collections.singletonList(leads.get(1));
+        });
+
+        // When
+        CommonResult<LeadImportResult> response = importService.importLeads(csv("leads.csv", csv), 9L);
+
+        // Then
+        assertTrue(response.isSuccess());
+        LeadImportResult result = response.getData();
+        assertEquals(7, result.getTotal());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getInvalid());
+        assertEquals(3, result.getDuplicate());
+        assertEquals(Arrays.asList(2, 3, 4, 5, 7, 8, 9),
+                result.getRows().stream().map(LeadImportResult.RowResult::getRow).collect(Collectors.toList()));
+        assertRow(result.getRows().get(0), LeadImportResult.SUCCESS, null);
+        assertEquals(100L, result.getRows().get(0).getLeadId());
+        assertRow(result.getRows().get(1), LeadImportResult.INVALID, "手机号格式不正确");
+        assertRow(result.getRows().get(2), LeadImportResult.INVALID, "销售ID格式不正确");
+        assertRow(result.getRows().get(3), LeadImportResult.DUPLICATE, "文件内手机号重复");
+        assertRow(result.getRows().get(4), LeadImportResult.DUPLICATE, "客资已存在");
+        assertRow(result.getRows().get(5), LeadImportResult.INVALID, "来源渠道不能为空");
+        assertRow(result.getRows().get(6), LeadImportResult.DUPLICATE, "客资已存在");
+
+        ArgumentCaptor<List<CustomerLead>> captor = ArgumentCaptor.forClass(List.class);
+        verify(leadDataFacade).batchCreate(captor.capture());
+        List<CustomerLead> written = captor.getValue();
+        assertEquals(Arrays.asList("张三", "周九"), written.stream().map(CustomerLead::getName).collect(Collectors.toList()));
+        assertEquals(5L, written.get(0).getSalespersonId());
+        assertEquals(9L, written.get(1).getSalespersonId());
+    }
+
+    @Test
+    @DisplayName("测试每批单独写入，失败的批次按行记录")
+    void testFailedBatchReportsEachRow() {
+        // Given
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        String csv = "name,phone,source,salesperson_id\n"
+                + "张三,13800138000,ONLINE_AD,5\n"
+                + "李四,13900139000,ONLINE_AD,5\n"
+                + "王五,13700137000,ONLINE_AD,5\n";
+        when(leadDataFacade.findExistingPhones(anyCollection())).thenReturn(Collections.emptySet());
+        when(leadDataFacade.batchCreate(anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        LeadImportResult result = importService.importLeads(csv("leads.csv", csv), null).getData();
+
+        // Then
+        assertEquals(2, result.getFailed());
+        assertEquals(1, result.getImported());
+        assertRow(result.getRows().get(0), LeadImportResult.FAILED, "写入失败: db down");
+        assertEquals(3, result.getRows().get(1).getRow());
+        assertEquals(LeadImportResult.FAILED, result.getRows().get(1).getStatus());
+        assertEquals(4, result.getRows().get(2).getRow());
+        assertEquals(LeadImportResult.SUCCESS, result.getRows().get(2).getStatus());
+    }
+
+    @Test
+    @DisplayName("测试缺少必需列")
+    void testMissingRequiredColumns() {
+        // When
+        CommonResult<LeadImportResult> response = importService.importLeads(
+                csv("leads.csv", "姓名,来源\n张三,ONLINE_AD\n"), 9L);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals("缺少必需列：姓名(name)、手机号(phone)", response.getMessage());
+        verifyNoInteractions(leadDataFacade);
+    }
+
+    private static MockMultipartFile csv(String filename, String content) {
+        return new MockMultipartFile("file", filename, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertRow(LeadImportResult.RowResult row, String status, String message) {
+        assertEquals(status, row.getStatus());
+        assertEquals(message, row.getMessage());
+    }
+}
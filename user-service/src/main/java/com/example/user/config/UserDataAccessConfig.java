@@ -1,5 +1,7 @@
 package com.example.user.config;
 
+import com.example.user.facade.UserAncestryIndex;
+import com.example.user.facade.UserSearchIndex;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -17,6 +19,8 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
@@ -160,4 +164,28 @@ public class UserDataAccessConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * 订阅其他实例保存的用户，同步到本地关键词搜索索引
+     */
+    @Bean
+    public RedisMessageListenerContainer userSearchIndexListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          UserSearchIndex searchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(searchIndex, new ChannelTopic(UserSearchIndex.CHANNEL));
+        return container;
+    }
+
+    /**
+     * 订阅其他实例的上下级关系变更，同步到本地上下级关系索引
+     */
+    @Bean
+    public RedisMessageListenerContainer userAncestryIndexListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            UserAncestryIndex ancestryIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(ancestryIndex, new ChannelTopic(UserAncestryIndex.CHANNEL));
+        return container;
+    }
+}
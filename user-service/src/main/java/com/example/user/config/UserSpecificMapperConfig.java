@@ -2,6 +2,7 @@ package com.example.user.config;
 
 import com.example.data.mapper.UserMapper;
 import com.example.data.mapper.CustomerLeadMapper;
+import com.example.data.mapper.UserClosureMapper;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.mapper.MapperFactoryBean;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -38,4 +39,14 @@ public class UserSpecificMapperConfig {
         factoryBean.setSqlSessionFactory(sqlSessionFactory);
         return factoryBean;
     }
-}
\ No newline at end of file
+
+    /**
+     * 创建 UserClosureMapper Bean
+     */
+    @Bean
+    public MapperFactoryBean<UserClosureMapper> userClosureMapper(@Qualifier("userSqlSessionFactory") SqlSessionFactory sqlSessionFactory) throws Exception {
+        MapperFactoryBean<UserClosureMapper> factoryBean = new MapperFactoryBean<>(UserClosureMapper.class);
+        factoryBean.setSqlSessionFactory(sqlSessionFactory);
+        return factoryBean;
+    }
+}
@@ -13,14 +13,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
 
 /**
  * 用户管理控制器
@@ -288,6 +288,29 @@ public class UserController {
         return userService.getUserHierarchy();
     }
 
+    /**
+     * 判断上下级关系
+     *
+     * <p>判断用户是否为指定上级的直属或间接下级，不查询数据库，
+     * 供其他服务在批量校验数据范围时调用。
+     */
+    @GetMapping("/{id}/is-subordinate")
+    @Operation(summary = "判断上下级关系", description = "判断用户是否为指定上级的直属或间接下级")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "判断成功"),
+        @ApiResponse(responseCode = "403", description = "权限不足")
+    })
+    public CommonResult<Boolean> checkSubordinate(
+            @Parameter(description = "用户ID", required = true, example = "1002")
+            @PathVariable Long id,
+
+            @Parameter(description = "上级用户ID", required = true, example = "1001")
+            @RequestParam(name = "manager_id") Long managerId) {
+
+        log.info("判断上下级关系: id={}, managerId={}", id, managerId);
+        return userService.checkSubordinate(id, managerId);
+    }
+
     /**
      * 获取用户统计信息
      *
@@ -338,7 +361,7 @@ public class UserController {
      * 导出用户数据
      *
      * <p>根据筛选条件导出用户数据，支持Excel和CSV格式。
-     * 导出的数据包含用户基本信息、角色权限等。
+     * 导出的数据包含用户基本信息、角色权限等，从数据库游标逐行写入响应，不在内存中生成整个文件。
      */
     @GetMapping("/export")
     @Operation(summary = "导出用户数据", description = "根据筛选条件导出用户数据为Excel或CSV文件")
@@ -347,7 +370,7 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "权限不足"),
         @ApiResponse(responseCode = "422", description = "导出参数无效")
     })
-    public ResponseEntity<byte[]> exportUsers(
+    public void exportUsers(
             @Parameter(description = "角色筛选", example = "sales")
             @RequestParam(required = false) String role,
 
@@ -361,33 +384,26 @@ public class UserController {
             @RequestParam(name = "date_to", required = false) String dateTo,
 
             @Parameter(description = "导出格式", example = "excel")
-            @RequestParam(defaultValue = "excel") String format) {
-
-        log.info("导出用户数据: role={}, status={}, format={}", role, status, format);
-
-        try {
-            byte[] data = userService.exportUsers(format);
+            @RequestParam(defaultValue = "excel") String format,
 
-            String filename = "users-export-" + System.currentTimeMillis();
-            String contentType;
+            HttpServletResponse response) throws IOException {
 
-            if ("csv".equalsIgnoreCase(format)) {
-                filename += ".csv";
-                contentType = "text/csv";
-            } else {
-                filename += ".xlsx";
-                contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            }
+        log.info("导出用户数据: role={}, status={}, format={}", role, status, format);
 
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(data);
+        String filename = "users-export-" + System.currentTimeMillis();
+        String contentType;
 
-        } catch (Exception e) {
-            log.error("导出用户数据失败", e);
-            return ResponseEntity.internalServerError().build();
+        if ("csv".equalsIgnoreCase(format)) {
+            filename += ".csv";
+            contentType = "text/csv;charset=UTF-8";
+        } else {
+            filename += ".xlsx";
+            contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
         }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        userService.exportUsers(role, status, dateFrom, dateTo, format, response.getOutputStream());
     }
 
     /**
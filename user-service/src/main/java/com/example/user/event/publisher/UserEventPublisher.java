@@ -1,8 +1,11 @@
 package com.example.user.event.publisher;
 
 import com.example.common.dto.CommonResult;
+import com.example.common.event.DomainEvent;
 import com.example.common.event.DomainEventPublisher;
 import com.example.common.event.domain.UserCreatedEvent;
+import com.example.common.event.domain.UserDeletedEvent;
+import com.example.common.event.domain.UserStatusChangedEvent;
 import com.example.common.event.EventType;
 import com.example.data.entity.User;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * 用户事件发布器
@@ -234,6 +239,64 @@ public class UserEventPublisher {
         }
     }
 
+    /**
+     * 批量发布用户状态变更事件
+     * 
+     * <p>批量操作每处理一块用户发布一次，每个用户一条事件，同一次批量操作的各块使用相同的关联ID。
+     * 调用方应在事务提交后调用。
+     * 
+     * @param users 状态已变更的用户实体，status为变更前的状态
+     * @param newStatus 新状态
+     * @param correlationId 关联ID，为空时生成新的
+     * @return 发布结果
+     */
+    public CommonResult<Void> publishUsersStatusChanged(List<User> users, String newStatus, String correlationId) {
+        try {
+            log.info("批量发布用户状态变更事件: count={}, newStatus={}, correlationId={}",
+                users.size(), newStatus, correlationId);
+
+            String batchCorrelationId = StringUtils.hasText(correlationId) ? correlationId : generateCorrelationId();
+
+            List<DomainEvent> events = users.stream()
+                .map(u -> UserStatusChangedEvent.create(
+                    u.getId(), u.getUsername(), u.getStatus(), newStatus, batchCorrelationId))
+                .collect(Collectors.toList());
+            return publishBatch(events, "用户状态变更", batchCorrelationId);
+
+        } catch (Exception e) {
+            log.error("批量发布用户状态变更事件失败: count={}", users.size(), e);
+            return CommonResult.error("批量发布用户状态变更事件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量发布用户删除事件
+     * 
+     * <p>批量操作每处理一块用户发布一次，每个用户一条事件，同一次批量操作的各块使用相同的关联ID。
+     * 调用方应在事务提交后调用。
+     * 
+     * @param users 已删除的用户实体
+     * @param correlationId 关联ID，为空时生成新的
+     * @return 发布结果
+     */
+    public CommonResult<Void> publishUsersDeleted(List<User> users, String correlationId) {
+        try {
+            log.info("批量发布用户删除事件: count={}, correlationId={}", users.size(), correlationId);
+
+            String batchCorrelationId = StringUtils.hasText(correlationId) ? correlationId : generateCorrelationId();
+
+            List<DomainEvent> events = users.stream()
+                .map(u -> UserDeletedEvent.create(
+                    u.getId(), u.getUsername(), u.getRole(), u.getParentId(), batchCorrelationId))
+                .collect(Collectors.toList());
+            return publishBatch(events, "用户删除", batchCorrelationId);
+
+        } catch (Exception e) {
+            log.error("批量发布用户删除事件失败: count={}", users.size(), e);
+            return CommonResult.error("批量发布用户删除事件失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 异步发布用户事件
      * 
@@ -267,6 +330,20 @@ public class UserEventPublisher {
         }
     }
 
+    /**
+     * 逐条发布一批事件，单条失败不影响其余事件，只在全部发出时记录成功
+     */
+    private CommonResult<Void> publishBatch(List<DomainEvent> events, String name, String correlationId) {
+        if (events.isEmpty()) {
+            return CommonResult.success();
+        }
+        CommonResult<Void> result = eventPublisher.publishEvents(events, false);
+        if (result.isSuccess()) {
+            log.info("{}事件批量发布成功: count={}, correlationId={}", name, events.size(), correlationId);
+        }
+        return result;
+    }
+
     /**
      * 生成关联ID
      * 
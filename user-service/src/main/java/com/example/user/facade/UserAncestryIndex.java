@@ -0,0 +1,336 @@
+package com.example.user.facade;
+
+import com.example.common.utils.AncestryIndex;
+import com.example.data.entity.User;
+import com.example.data.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户上下级关系索引
+ *
+ * <p>在内存中保存全部用户的上级关系（{@link AncestryIndex}），判断"X是否为Y的下级"不查询数据库：
+ * 编号有效时是一次区间比较，上级关系刚修改、尚未重新编号时沿内存中的上级链查找。
+ *
+ * <p>同步方式：
+ * <ul>
+ *   <li>启动后异步按ID分批加载，加载完成前 {@link #isSubordinate} 返回null，调用方按原方式查询</li>
+ *   <li>本实例保存、删除用户的事务提交后更新索引，并通过Redis频道 {@value #CHANNEL} 通知其他实例</li>
+ *   <li>其他服务（如注册）直接写入的用户在首次判断时按ID补查，连同缺失的上级</li>
+ *   <li>定期全量重建，校正遗漏的变更</li>
+ * </ul>
+ *
+ * @author User Service Team
+ * @version 1.0.0
+ * @since 2025-08-07
+ */
+@Slf4j
+@Component
+public class UserAncestryIndex implements MessageListener {
+
+    public static final String CHANNEL = "user:ancestry:changed";
+
+    /**
+     * 通知消息中表示用户已删除的上级值
+     */
+    private static final String DELETED = "-";
+
+    /**
+     * 单次补查上级链的最大层数
+     */
+    private static final int MAX_BACKFILL_DEPTH = 64;
+
+    private final UserMapper userMapper;
+
+    @Autowired(required = false)
+    private StringRedisTemplate redis;
+
+    @Value("${user.ancestry-index.batch-size:5000}")
+    private int batchSize = 5000;
+
+    @Value("${user.ancestry-index.rebuild-interval-minutes:360}")
+    private long rebuildIntervalMinutes = 360L;
+
+    @Value("${user.ancestry-index.renumber-delay-millis:500}")
+    private long renumberDelayMillis = 500L;
+
+    private volatile AncestryIndex index;
+
+    /**
+     * 重建期间发生的变更，加载完成后在新索引上重放；不在重建时为null
+     */
+    private List<long[]> changesDuringRebuild;
+
+    private final Object changeLock = new Object();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final AtomicBoolean renumberScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    public UserAncestryIndex(UserMapper userMapper) {
+        this.userMapper = userMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-ancestry-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 判断userId是否为managerId的（直属或间接）下级
+     *
+     * <p>userId不在索引中时按ID补查它及缺失的上级，直到遇到已在索引中的用户或顶级用户。
+     *
+     * @return 判断结果；索引未加载完成、上级链无法补齐或managerId不在索引中时返回null
+     */
+    public Boolean isSubordinate(Long userId, Long managerId) {
+        AncestryIndex current = index;
+        if (current == null || userId == null || managerId == null) {
+            return null;
+        }
+        if (!current.contains(userId)) {
+            Optional<User> user = userMapper.findById(userId);
+            if (!user.isPresent()) {
+                return false;
+            }
+            if (!backfill(current, user.get())) {
+                return null;
+            }
+        }
+        if (!current.contains(managerId)) {
+            return null;
+        }
+        return current.isDescendant(userId, managerId);
+    }
+
+    /**
+     * 把user及其不在索引中的上级依次加入索引
+     *
+     * @return 上级链已连到索引中的用户或顶级用户时返回true；上级不存在或链过长（可能成环）时返回false
+     */
+    private boolean backfill(AncestryIndex current, User user) {
+        for (int depth = 0; depth < MAX_BACKFILL_DEPTH; depth++) {
+            long parent = parentOf(user.getParentId());
+            apply(user.getId(), parent);
+            if (parent == AncestryIndex.ROOT || current.contains(parent)) {
+                return true;
+            }
+            Optional<User> next = userMapper.findById(parent);
+            if (!next.isPresent()) {
+                return false;
+            }
+            user = next.get();
+        }
+        log.warn("补查上下级关系超过{}层，改为查询数据库: userId={}", MAX_BACKFILL_DEPTH, user.getId());
+        return false;
+    }
+
+    /**
+     * 用户新增或修改后更新索引，在事务中调用时于提交后执行
+     */
+    public void onSaved(Long userId, Long parentId) {
+        long parent = parentOf(parentId);
+        afterCommit(() -> {
+            apply(userId, parent);
+            publish(userId + ":" + parent);
+        });
+    }
+
+    /**
+     * 用户删除后更新索引，在事务中调用时于提交后执行
+     */
+    public void onDeleted(Long userId) {
+        afterCommit(() -> {
+            apply(userId, AncestryIndex.MISSING);
+            publish(userId + ":" + DELETED);
+        });
+    }
+
+    /**
+     * 批量删除用户后更新索引，只发送一条通知，在事务中调用时于提交后执行
+     */
+    public void onDeleted(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            StringBuilder message = new StringBuilder();
+            for (Long id : ids) {
+                apply(id, AncestryIndex.MISSING);
+                if (message.length() > 0) {
+                    message.append(',');
+                }
+                message.append(id).append(':').append(DELETED);
+            }
+            publish(message.toString());
+        });
+    }
+
+    /**
+     * 处理其他实例的变更通知，格式为 用户ID:上级ID（0表示没有上级，-表示已删除），多条以逗号分隔
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String item : StringUtils.commaDelimitedListToStringArray(body)) {
+            String[] pair = item.trim().split(":");
+            try {
+                long parent = DELETED.equals(pair[1]) ? AncestryIndex.MISSING : Long.parseLong(pair[1]);
+                apply(Long.parseLong(pair[0]), parent);
+            } catch (RuntimeException e) {
+                log.warn("忽略无效的上下级关系通知: {}", item);
+            }
+        }
+    }
+
+    /**
+     * 从数据库重新加载索引，加载完成后整体替换
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            synchronized (changeLock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            AncestryIndex current = index;
+            AncestryIndex next = new AncestryIndex(current != null ? current.size() : batchSize);
+            long afterId = 0;
+            while (true) {
+                List<User> users = userMapper.findParentLinksAfter(afterId, batchSize);
+                for (User user : users) {
+                    next.setParent(user.getId(), parentOf(user.getParentId()));
+                    afterId = user.getId();
+                }
+                if (users.size() < batchSize) {
+                    break;
+                }
+            }
+            synchronized (changeLock) {
+                for (long[] change : changesDuringRebuild) {
+                    applyTo(next, change[0], change[1]);
+                }
+                index = next;
+            }
+            next.renumber();
+            log.info("上下级关系索引加载完成: count={}, 耗时{}ms", next.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("上下级关系索引加载失败，保留原索引", e);
+            if (index == null && scheduler != null && !scheduler.isShutdown()) {
+                scheduler.schedule(this::rebuild, 1, TimeUnit.MINUTES);
+            }
+        } finally {
+            synchronized (changeLock) {
+                changesDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    private void apply(long userId, long parent) {
+        synchronized (changeLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new long[]{userId, parent});
+            }
+            AncestryIndex current = index;
+            if (current != null) {
+                applyTo(current, userId, parent);
+            }
+        }
+        scheduleRenumber();
+    }
+
+    private static void applyTo(AncestryIndex target, long userId, long parent) {
+        if (parent == AncestryIndex.MISSING) {
+            target.remove(userId);
+        } else {
+            target.setParent(userId, parent);
+        }
+    }
+
+    /**
+     * 合并短时间内的多次变更，延迟后重新编号一次
+     */
+    private void scheduleRenumber() {
+        if (scheduler == null || scheduler.isShutdown() || !renumberScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            renumberScheduled.set(false);
+            AncestryIndex current = index;
+            if (current != null) {
+                current.renumber();
+            }
+        }, renumberDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void publish(String message) {
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            // 其他实例在下次全量重建时校正
+            log.warn("发送上下级关系通知失败: {}", message, e);
+        }
+    }
+
+    private static long parentOf(Long parentId) {
+        return parentId != null ? parentId : AncestryIndex.ROOT;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
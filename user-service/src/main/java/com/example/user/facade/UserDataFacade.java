@@ -1,16 +1,27 @@
 package com.example.user.facade;
 
+import com.example.common.service.NGramSearchIndex;
 import com.example.data.entity.User;
+import com.example.data.entity.UserTreeNode;
+import com.example.data.mapper.UserClosureMapper;
 import com.example.data.mapper.UserMapper;
+import com.example.user.dto.response.UserHierarchyResponse;
 import com.example.user.dto.response.UserResponse;
 import com.example.user.dto.response.UserListResponse;
 import com.example.user.dto.request.UserSearchRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -46,6 +57,15 @@ public class UserDataFacade {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserClosureMapper userClosureMapper;
+
+    @Autowired
+    private UserAncestryIndex ancestryIndex;
+
     /**
      * 根据ID查找用户
      *
@@ -86,12 +106,20 @@ public class UserDataFacade {
 
         int offset = (searchRequest.getPage() - 1) * searchRequest.getPageSize();
 
+        // 关键词先由搜索索引给出候选ID，索引无法回答时返回null，按LIKE全表匹配
+        NGramSearchIndex.Hits hits = StringUtils.hasText(searchRequest.getKeyword())
+            ? searchIndex.search(searchRequest.getKeyword()) : null;
+        List<Long> keywordIds = hits != null ? hits.getIds() : null;
+        Long keywordIdsAfter = hits != null ? hits.getIndexedUpToId() : null;
+
         // 使用UserMapper的条件查询方法
         List<User> users = userMapper.findByConditions(
             searchRequest.getRole(),
             searchRequest.getStatus(),
             searchRequest.getParentId(),
             searchRequest.getKeyword(),
+            keywordIds,
+            keywordIdsAfter,
             searchRequest.getDateFrom(),
             searchRequest.getDateTo(),
             offset,
@@ -104,6 +132,8 @@ public class UserDataFacade {
             searchRequest.getStatus(),
             searchRequest.getParentId(),
             searchRequest.getKeyword(),
+            keywordIds,
+            keywordIdsAfter,
             searchRequest.getDateFrom(),
             searchRequest.getDateTo()
         );
@@ -129,6 +159,8 @@ public class UserDataFacade {
             // 更新用户
             userMapper.update(user);
         }
+        searchIndex.index(user);
+        ancestryIndex.onSaved(user.getId(), user.getParentId());
 
         return convertToResponse(user);
     }
@@ -142,9 +174,77 @@ public class UserDataFacade {
     public boolean deleteById(Long id) {
         log.debug("删除用户: id={}", id);
         int result = userMapper.deleteById(id);
+        if (result > 0) {
+            ancestryIndex.onDeleted(id);
+        }
         return result > 0;
     }
 
+    /**
+     * 根据ID列表查询并锁定用户，须在事务内调用
+     *
+     * @param ids 用户ID列表（不能为空）
+     * @return 按ID升序的用户实体，不存在的ID不返回
+     */
+    public List<User> lockByIds(Collection<Long> ids) {
+        return userMapper.lockByIds(ids);
+    }
+
+    /**
+     * 批量更新用户状态（一条UPDATE）
+     *
+     * @param ids 用户ID列表（不能为空）
+     * @param status 新状态
+     * @return 影响行数
+     */
+    public int batchUpdateStatus(Collection<Long> ids, String status) {
+        return userMapper.batchUpdateStatus(ids, status, LocalDateTime.now());
+    }
+
+    /**
+     * 批量删除用户（一条DELETE），上下级关系索引在事务提交后一次性更新
+     *
+     * @param ids 用户ID列表（不能为空）
+     * @return 删除行数
+     */
+    public int deleteByIds(Collection<Long> ids) {
+        log.debug("批量删除用户: count={}", ids.size());
+        int result = userMapper.deleteByIds(ids);
+        if (result > 0) {
+            ancestryIndex.onDeleted(ids);
+        }
+        return result;
+    }
+
+    /**
+     * 查询有其他直属下级的用户
+     *
+     * @param parentIds 待检查的用户ID（不能为空）
+     * @param excludeIds 不计入的下级ID（不能为空）
+     * @return parentIds中存在excludeIds以外直属下级的用户ID
+     */
+    public List<Long> findParentsWithOtherChildren(Collection<Long> parentIds, Collection<Long> excludeIds) {
+        return userMapper.findParentsWithOtherChildren(parentIds, excludeIds);
+    }
+
+    /**
+     * 从给定用户中筛选出managerId的下级（含managerId自身）
+     *
+     * @param managerId 上级用户ID
+     * @param ids 待判断的用户ID（不能为空）
+     * @return 属于managerId下级树的用户ID
+     */
+    public List<Long> findDescendantIdsIn(Long managerId, Collection<Long> ids) {
+        return userClosureMapper.findDescendantIdsIn(managerId, ids);
+    }
+
+    /**
+     * 判断userId是否为managerId的下级（任意层级，不含自身），一次按主键查询闭包表
+     */
+    public boolean isSubordinate(Long userId, Long managerId) {
+        return userClosureMapper.isDescendant(managerId, userId);
+    }
+
     /**
      * 检查用户名是否存在
      *
@@ -190,6 +290,63 @@ public class UserDataFacade {
         return users.stream().map(this::convertToResponse).collect(Collectors.toList());
     }
 
+    /**
+     * 查询以指定用户为根的层级树
+     *
+     * <p>通过层级闭包表一次查询取出整棵下级树，节点按层数有序（父节点在子节点之前），
+     * 单次遍历即可挂到各自的父节点下；下级总数和树高度由查询直接统计。
+     *
+     * @param rootId 树根用户ID
+     * @return 层级树，用户不存在时为空
+     */
+    public Optional<UserHierarchyResponse> findHierarchy(Long rootId) {
+        log.debug("查询用户层级树: rootId={}", rootId);
+        List<UserTreeNode> nodes = userClosureMapper.findSubtree(rootId);
+        if (nodes.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Long, UserHierarchyResponse> byId = new HashMap<>(nodes.size() * 2);
+        UserHierarchyResponse root = null;
+        for (UserTreeNode node : nodes) {
+            UserHierarchyResponse hierarchy = new UserHierarchyResponse();
+            hierarchy.setId(node.getId());
+            hierarchy.setUsername(node.getUsername());
+            hierarchy.setRole(node.getRole());
+            hierarchy.setStatus(node.getStatus());
+            hierarchy.setParentId(node.getParentId());
+            hierarchy.setChildren(new ArrayList<>());
+            hierarchy.setDirectChildrenCount(0);
+            hierarchy.setTotalChildrenCount(node.getDescendantCount());
+            hierarchy.setDepth(node.getHeight());
+            if (node.getCreatedAt() != null) {
+                hierarchy.setCreatedAt(node.getCreatedAt().format(DATE_TIME_FORMATTER));
+            }
+            byId.put(node.getId(), hierarchy);
+
+            if (node.getDepth() == 0) {
+                root = hierarchy;
+                continue;
+            }
+            UserHierarchyResponse parent = byId.get(node.getParentId());
+            if (parent == null) {
+                continue;
+            }
+            hierarchy.setParentName(parent.getUsername());
+            parent.getChildren().add(hierarchy);
+            parent.setDirectChildrenCount(parent.getChildren().size());
+        }
+        return Optional.ofNullable(root);
+    }
+
+    /**
+     * 按条件流式读取用户（用于导出），游标须在事务内遍历并关闭
+     *
+     * @param visibleRootId 只读取该用户及其全部下级，为空时不限制
+     */
+    public Cursor<User> streamByConditions(String role, String status, String dateFrom, String dateTo, Long visibleRootId) {
+        return userMapper.streamByConditions(role, status, dateFrom, dateTo, visibleRootId);
+    }
+
     /**
      * 统计用户总数
      *
@@ -206,7 +363,7 @@ public class UserDataFacade {
      * @return 用户数量
      */
     public long countByRole(String role) {
-        return userMapper.countByConditions(role, null, null, null, null, null);
+        return userMapper.countByConditions(role, null, null, null, null, null, null, null);
     }
 
     /**
@@ -234,7 +391,7 @@ public class UserDataFacade {
      * 根据状态统计用户数量
      */
     public long countByStatus(String status) {
-        return userMapper.countByConditions(null, status, null, null, null, null);
+        return userMapper.countByConditions(null, status, null, null, null, null, null, null);
     }
 
     /**
@@ -0,0 +1,56 @@
+package com.example.user.facade;
+
+import com.example.common.service.NGramSearchIndex;
+import com.example.data.entity.User;
+import com.example.data.mapper.UserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 用户关键词搜索索引
+ *
+ * <p>索引用户搜索关键词条件涉及的字段（用户名、邮箱、手机号），
+ * 本实例保存的用户通过Redis频道 {@value #CHANNEL} 通知其他实例。
+ * 其他服务（如注册）新增的用户ID大于索引已覆盖的最大ID，查询时按主键范围复核，下次重建后进入索引。
+ *
+ * @author User Service Team
+ * @version 1.0.0
+ * @since 2025-08-07
+ */
+@Component
+public class UserSearchIndex extends NGramSearchIndex {
+
+    public static final String CHANNEL = "user:search:changed";
+
+    private final UserMapper userMapper;
+
+    public UserSearchIndex(UserMapper userMapper,
+                           @Value("${user.search-index.max-candidates:5000}") int maxCandidates,
+                           @Value("${user.search-index.batch-size:5000}") int batchSize,
+                           @Value("${user.search-index.rebuild-interval-minutes:360}") long rebuildIntervalMinutes,
+                           @Value("${user.search-index.stale-rebuild-ratio:0.1}") double staleRebuildRatio) {
+        super("user-search-index", CHANNEL, maxCandidates, batchSize, rebuildIntervalMinutes, staleRebuildRatio);
+        this.userMapper = userMapper;
+    }
+
+    /**
+     * 索引新增或修改的用户
+     */
+    public void index(User user) {
+        index(user.getId(), fields(user));
+    }
+
+    @Override
+    protected List<String[]> loadAfter(long afterId, int limit) {
+        return userMapper.findSearchFieldsAfter(afterId, limit).stream()
+                .map(user -> document(user.getId(), fields(user)))
+                .collect(Collectors.toList());
+    }
+
+    private static String[] fields(User user) {
+        return new String[]{user.getUsername(), user.getEmail(), user.getPhone()};
+    }
+}
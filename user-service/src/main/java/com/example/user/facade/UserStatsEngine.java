@@ -0,0 +1,247 @@
+package com.example.user.facade;
+
+import com.example.data.mapper.UserMapper;
+import com.example.user.dto.response.UserStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户统计快照
+ *
+ * <p>用户统计由两次分组扫描得到：按角色+状态分组得到总数、角色分布和状态分布；
+ * 按日期+角色+状态分组读取最近{@value #MONTH_DAYS}天的新增用户，在内存中汇总出今日/7天/30天新增数
+ * 以及各趋势序列。统计结果作为只读快照缓存：
+ * <ul>
+ *   <li>快照超过 user.stats.ttl-seconds（默认30秒）后，读取时仍返回旧快照，同时在后台刷新</li>
+ *   <li>快照超过 user.stats.max-stale-seconds（默认300秒）或不存在时，读取时同步刷新</li>
+ * </ul>
+ * 返回的 {@link UserStatsResponse} 由所有调用方共享，其中的Map不可修改。
+ *
+ * @author User Service Team
+ * @version 1.0.0
+ * @since 2025-08-07
+ */
+@Slf4j
+@Component
+public class UserStatsEngine {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    static final int WEEK_DAYS = 7;
+
+    static final int MONTH_DAYS = 30;
+
+    private static final List<String> ROLES = Arrays.asList("super_admin", "director", "leader", "sales", "agent");
+
+    private static final List<String> STATUSES = Arrays.asList("ACTIVE", "INACTIVE", "SUSPENDED");
+
+    private final UserMapper userMapper;
+
+    @Value("${user.stats.ttl-seconds:30}")
+    private long ttlSeconds = 30L;
+
+    @Value("${user.stats.max-stale-seconds:300}")
+    private long maxStaleSeconds = 300L;
+
+    private volatile Snapshot snapshot;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private ExecutorService executor;
+
+    public UserStatsEngine(UserMapper userMapper) {
+        this.userMapper = userMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取用户统计快照
+     */
+    public UserStatsResponse get() {
+        Snapshot current = snapshot;
+        long age = current != null ? System.currentTimeMillis() - current.computedAt : Long.MAX_VALUE;
+        if (age > maxStaleSeconds * 1000) {
+            return load(current).stats;
+        }
+        if (age > ttlSeconds * 1000) {
+            refreshAsync();
+        }
+        return current.stats;
+    }
+
+    private void refreshAsync() {
+        if (executor == null || executor.isShutdown() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                load(snapshot);
+            } catch (Exception e) {
+                log.warn("后台刷新用户统计失败，继续使用旧快照", e);
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    /**
+     * 重新统计；等待期间其他线程已刷新时直接使用其结果
+     *
+     * @param seen 调用方看到的快照
+     */
+    private synchronized Snapshot load(Snapshot seen) {
+        Snapshot current = snapshot;
+        if (current != null && current != seen) {
+            return current;
+        }
+        long start = System.currentTimeMillis();
+        current = new Snapshot(compute(LocalDate.now()), start);
+        snapshot = current;
+        log.debug("用户统计已刷新，耗时{}ms", System.currentTimeMillis() - start);
+        return current;
+    }
+
+    private UserStatsResponse compute(LocalDate today) {
+        UserStatsResponse stats = new UserStatsResponse();
+
+        // 总数、角色分布、状态分布
+        Map<String, Long> roleDistribution = zeros(ROLES);
+        Map<String, Long> statusDistribution = zeros(STATUSES);
+        long total = 0;
+        for (Map<String, Object> row : userMapper.countGroupByRoleAndStatus()) {
+            long cnt = ((Number) row.get("cnt")).longValue();
+            total += cnt;
+            addIgnoreCase(roleDistribution, (String) row.get("role"), cnt);
+            addIgnoreCase(statusDistribution, (String) row.get("status"), cnt);
+        }
+        stats.setTotalUsers(total);
+        stats.setActiveUsers(statusDistribution.get("ACTIVE"));
+        stats.setRoleDistribution(Collections.unmodifiableMap(roleDistribution));
+        stats.setStatusDistribution(Collections.unmodifiableMap(statusDistribution));
+        stats.setLevelDistribution(Collections.emptyMap());
+
+        // 新增数与趋势：窗口均含今日，7天为今日及之前6天
+        LocalDate monthStart = today.minusDays(MONTH_DAYS - 1);
+        LocalDate weekStart = today.minusDays(WEEK_DAYS - 1);
+        Map<String, Long> weeklyTrend = dayAxis(weekStart, WEEK_DAYS);
+        Map<String, Long> monthlyTrend = dayAxis(monthStart, MONTH_DAYS);
+        Map<String, Map<String, Long>> weeklyByRole = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> weeklyByStatus = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> monthlyByRole = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> monthlyByStatus = new LinkedHashMap<>();
+        long todayNew = 0;
+        long weekNew = 0;
+        long monthNew = 0;
+        for (Map<String, Object> row : userMapper.countDailyNewUsersByRoleAndStatus(monthStart)) {
+            LocalDate day = LocalDate.parse(String.valueOf(row.get("day")));
+            if (day.isAfter(today)) {
+                continue;
+            }
+            String key = day.toString();
+            String role = String.valueOf(row.get("role"));
+            String status = String.valueOf(row.get("status"));
+            long cnt = ((Number) row.get("cnt")).longValue();
+
+            monthNew += cnt;
+            monthlyTrend.merge(key, cnt, Long::sum);
+            monthlyByRole.computeIfAbsent(role, k -> dayAxis(monthStart, MONTH_DAYS)).merge(key, cnt, Long::sum);
+            monthlyByStatus.computeIfAbsent(status, k -> dayAxis(monthStart, MONTH_DAYS)).merge(key, cnt, Long::sum);
+            if (!day.isBefore(weekStart)) {
+                weekNew += cnt;
+                weeklyTrend.merge(key, cnt, Long::sum);
+                weeklyByRole.computeIfAbsent(role, k -> dayAxis(weekStart, WEEK_DAYS)).merge(key, cnt, Long::sum);
+                weeklyByStatus.computeIfAbsent(status, k -> dayAxis(weekStart, WEEK_DAYS)).merge(key, cnt, Long::sum);
+            }
+            if (day.equals(today)) {
+                todayNew += cnt;
+            }
+        }
+        stats.setTodayNewUsers(todayNew);
+        stats.setWeekNewUsers(weekNew);
+        stats.setMonthNewUsers(monthNew);
+        stats.setWeeklyTrend(Collections.unmodifiableMap(weeklyTrend));
+        stats.setMonthlyTrend(Collections.unmodifiableMap(monthlyTrend));
+        stats.setWeeklyTrendByRole(freeze(weeklyByRole));
+        stats.setWeeklyTrendByStatus(freeze(weeklyByStatus));
+        stats.setMonthlyTrendByRole(freeze(monthlyByRole));
+        stats.setMonthlyTrendByStatus(freeze(monthlyByStatus));
+
+        stats.setStatisticsTime(LocalDateTime.now().format(DATE_TIME_FORMATTER));
+        return stats;
+    }
+
+    private static Map<String, Long> zeros(List<String> keys) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for (String key : keys) {
+            m.put(key, 0L);
+        }
+        return m;
+    }
+
+    /**
+     * 按键忽略大小写累加（与按条件统计时数据库排序规则的比较方式一致），不在预设键中的值不计入
+     */
+    private static void addIgnoreCase(Map<String, Long> distribution, String value, long cnt) {
+        for (Map.Entry<String, Long> entry : distribution.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(value)) {
+                entry.setValue(entry.getValue() + cnt);
+                return;
+            }
+        }
+    }
+
+    private static Map<String, Long> dayAxis(LocalDate start, int days) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for (int i = 0; i < days; i++) {
+            m.put(start.plusDays(i).toString(), 0L);
+        }
+        return m;
+    }
+
+    private static Map<String, Map<String, Long>> freeze(Map<String, Map<String, Long>> series) {
+        series.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+        return Collections.unmodifiableMap(series);
+    }
+
+    private static final class Snapshot {
+
+        private final UserStatsResponse stats;
+
+        private final long computedAt;
+
+        private Snapshot(UserStatsResponse stats, long computedAt) {
+            this.stats = stats;
+            this.computedAt = computedAt;
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.example.common.dto.CommonResult;
 import com.example.user.dto.request.*;
 import com.example.user.dto.response.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * 用户管理服务接口
  * 
@@ -103,6 +106,18 @@ public interface UserService {
      */
     CommonResult<UserHierarchyResponse> getUserHierarchy();
     
+    /**
+     * 判断上下级关系
+     * 
+     * <p>判断用户是否为指定上级的直属或间接下级，由内存中的上下级关系索引回答，
+     * 供其他服务做数据范围校验。
+     * 
+     * @param userId 用户ID
+     * @param managerId 上级用户ID
+     * @return 是否为下级
+     */
+    CommonResult<Boolean> checkSubordinate(Long userId, Long managerId);
+    
     /**
      * 获取用户统计信息
      * 
@@ -140,11 +155,18 @@ public interface UserService {
      * 导出用户数据
      * 
      * <p>导出当前用户权限范围内的用户数据，支持多种格式。
-     * 导出的数据包含用户基本信息、角色权限等。
-     * 
-     * @param format 导出格式，如"excel"、"csv"
-     * @return 导出文件的字节数组
-     * @throws com.example.common.exception.BusinessException 当权限不足或导出失败时
+     * 导出的数据包含用户基本信息、角色权限等。数据逐行写入输出流，不在内存中保留结果集。
+     * 
+     * @param role 角色筛选（可选）
+     * @param status 状态筛选（可选）
+     * @param dateFrom 创建日期起（可选）
+     * @param dateTo 创建日期止（可选）
+     * @param format 导出格式，"csv"导出CSV，其他导出Excel（xlsx）
+     * @param out 输出流，导出完成后不关闭
+     * @return 导出的用户数
+     * @throws com.example.common.exception.BusinessException 当权限不足时
+     * @throws IOException 写出失败时
      */
-    byte[] exportUsers(String format);
+    long exportUsers(String role, String status, String dateFrom, String dateTo, String format,
+                     OutputStream out) throws IOException;
 }
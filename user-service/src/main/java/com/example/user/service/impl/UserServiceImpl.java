@@ -4,19 +4,30 @@ import com.example.common.constants.ErrorCode;
 import com.example.common.dto.CommonResult;
 import com.example.common.enums.UserRole;
 import com.example.common.exception.BusinessException;
+import com.example.common.utils.CsvWriter;
 import com.example.common.utils.UserContextHolder;
+import com.example.common.utils.XlsxWriter;
 import com.example.data.entity.User;
 import com.example.user.dto.request.*;
 import com.example.user.dto.response.*;
+import com.example.user.facade.UserAncestryIndex;
 import com.example.user.facade.UserDataFacade;
+import com.example.user.facade.UserStatsEngine;
 import com.example.user.service.UserService;
 import com.example.user.event.publisher.UserEventPublisher;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -48,6 +59,8 @@ public class UserServiceImpl implements UserService {
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final Object[] EXPORT_HEADER = {"ID", "用户名", "邮箱", "手机号", "角色", "状态", "创建时间"};
+
     @Autowired
     private UserDataFacade userDataFacade;
 
@@ -57,6 +70,15 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserAncestryIndex ancestryIndex;
+
+    @Autowired
+    private UserStatsEngine userStatsEngine;
+
+    @Value("${user.batch-operation.chunk-size:500}")
+    private int batchChunkSize = 500;
+
     @Override
     public CommonResult<UserListResponse> getUsers(int page, int pageSize, String role, String status) {
         log.debug("查询用户列表: page={}, pageSize={}, role={}, status={}", page, pageSize, role, status);
@@ -274,6 +296,16 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public CommonResult<Boolean> checkSubordinate(Long userId, Long managerId) {
+        log.debug("判断上下级关系: userId={}, managerId={}", userId, managerId);
+
+        if (!hasUserViewPermission()) {
+            return CommonResult.forbidden();
+        }
+        return CommonResult.success(isSubordinate(userId, managerId));
+    }
+
     @Override
     public CommonResult<UserHierarchyResponse> getUserHierarchy() {
         log.debug("获取用户层级关系");
@@ -291,7 +323,7 @@ public class UserServiceImpl implements UserService {
             }
 
             // 构建层级关系树
-            UserHierarchyResponse hierarchy = buildUserHierarchy(Long.valueOf(currentUserId));
+            UserHierarchyResponse hierarchy = userDataFacade.findHierarchy(Long.valueOf(currentUserId)).orElse(null);
 
             return CommonResult.success(hierarchy);
 
@@ -311,7 +343,7 @@ public class UserServiceImpl implements UserService {
                 return CommonResult.forbidden();
             }
 
-            UserStatsResponse stats = buildUserStats();
+            UserStatsResponse stats = userStatsEngine.get();
 
             return CommonResult.success(stats);
 
@@ -352,31 +384,86 @@ public class UserServiceImpl implements UserService {
                 return CommonResult.forbidden();
             }
 
-            // 验证操作权限
-            for (Long userId : request.getUserIds()) {
-                Optional<UserResponse> userOpt = userDataFacade.findById(userId);
-                if (!userOpt.isPresent()) {
-                    return CommonResult.error(404, "用户不存在: " + userId);
+            boolean delete = "DELETE".equals(request.getOperation());
+            String targetStatus = batchTargetStatus(request.getOperation());
+            if (!delete && targetStatus == null) {
+                return CommonResult.badRequest("不支持的操作类型");
+            }
+
+            // 去重并按ID排序，各块按相同顺序加锁
+            List<Long> ids = request.getUserIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+            List<List<Long>> chunks = chunk(ids);
+            long start = System.currentTimeMillis();
+
+            // 加载：每块一次IN查询并锁定
+            List<User> users = new ArrayList<>(ids.size());
+            for (List<Long> chunk : chunks) {
+                users.addAll(userDataFacade.lockByIds(chunk));
+            }
+            long loadedAt = System.currentTimeMillis();
+            if (users.size() < ids.size()) {
+                Set<Long> found = users.stream().map(User::getId).collect(Collectors.toSet());
+                Long missing = ids.stream().filter(id -> !found.contains(id)).findFirst().orElse(null);
+                return CommonResult.error(404, "用户不存在: " + missing);
+            }
+
+            // 校验：批量判断可见范围，删除时检查下级
+            Long denied = findInaccessibleUser(ids);
+            if (denied != null) {
+                return CommonResult.error(403, "无权限操作用户: " + denied);
+            }
+            if (delete) {
+                for (List<Long> chunk : chunks) {
+                    List<Long> parents = userDataFacade.findParentsWithOtherChildren(chunk, ids);
+                    if (!parents.isEmpty()) {
+                        return CommonResult.error(409,
+                            "用户 " + parents.get(0) + " 存在下级用户，无法删除");
+                    }
                 }
+            }
+            long checkedAt = System.currentTimeMillis();
 
-                if (!canAccessUser(userOpt.get())) {
-                    return CommonResult.error(403, "无权限操作用户: " + userId);
+            // 执行：每块一条UPDATE/DELETE；users与ids同序，按相同下标分块
+            List<List<User>> changedChunks = new ArrayList<>(chunks.size());
+            int changed = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                List<User> chunkUsers = users.subList(i * batchChunkSize, i * batchChunkSize + chunks.get(i).size());
+                if (delete) {
+                    userDataFacade.deleteByIds(chunks.get(i));
+                } else {
+                    chunkUsers = chunkUsers.stream()
+                        .filter(u -> !targetStatus.equals(u.getStatus()))
+                        .collect(Collectors.toList());
+                    if (chunkUsers.isEmpty()) {
+                        continue;
+                    }
+                    userDataFacade.batchUpdateStatus(
+                        chunkUsers.stream().map(User::getId).collect(Collectors.toList()), targetStatus);
                 }
+                changedChunks.add(chunkUsers);
+                changed += chunkUsers.size();
             }
+            long executedAt = System.currentTimeMillis();
 
-            // 执行批量操作
-            switch (request.getOperation()) {
-                case "DELETE":
-                    return batchDeleteUsers(request.getUserIds());
-                case "ACTIVATE":
-                    return batchUpdateUserStatus(request.getUserIds(), "ACTIVE");
-                case "DEACTIVATE":
-                    return batchUpdateUserStatus(request.getUserIds(), "INACTIVE");
-                case "SUSPEND":
-                    return batchUpdateUserStatus(request.getUserIds(), "SUSPENDED");
-                default:
-                    return CommonResult.badRequest("不支持的操作类型");
-            }
+            // 事件：提交后每块发布一次，共用关联ID
+            String correlationId = "user-batch-" + UUID.randomUUID();
+            afterCommit(() -> {
+                long publishStart = System.currentTimeMillis();
+                for (List<User> chunkUsers : changedChunks) {
+                    publishBatchEvents(chunkUsers, targetStatus, correlationId);
+                }
+                log.info("批量用户事件发布完成: chunks={}, correlationId={}, 耗时{}ms",
+                    changedChunks.size(), correlationId, System.currentTimeMillis() - publishStart);
+            });
+
+            log.info("批量操作用户完成: operation={}, total={}, changed={}, chunks={}, 加载{}ms, 校验{}ms, 执行{}ms",
+                request.getOperation(), ids.size(), changed, chunks.size(), loadedAt - start,
+                checkedAt - loadedAt, executedAt - checkedAt);
+            return CommonResult.success();
 
         } catch (Exception e) {
             log.error("批量操作用户失败", e);
@@ -385,24 +472,81 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public byte[] exportUsers(String format) {
-        log.info("导出用户数据: format={}", format);
+    @Transactional(readOnly = true)
+    public long exportUsers(String role, String status, String dateFrom, String dateTo, String format,
+                            OutputStream out) throws IOException {
+        log.info("导出用户数据: role={}, status={}, format={}", role, status, format);
+        long start = System.currentTimeMillis();
+
+        // 验证当前用户权限
+        if (!hasUserViewPermission()) {
+            throw new BusinessException("权限不足");
+        }
+        Long visibleRootId = exportVisibleRootId();
+
+        // 不关闭调用方的输出流
+        OutputStream target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        boolean csv = "csv".equalsIgnoreCase(format);
+        CsvWriter csvWriter = csv ? new CsvWriter(target).writeBom() : null;
+        XlsxWriter xlsxWriter = csv ? null : new XlsxWriter(target, "用户");
+        writeExportRow(csvWriter, xlsxWriter, EXPORT_HEADER);
+        long rows = 0;
+        try (Cursor<User> cursor = userDataFacade.streamByConditions(role, status, dateFrom, dateTo, visibleRootId)) {
+            for (User u : cursor) {
+                writeExportRow(csvWriter, xlsxWriter, u.getId(), u.getUsername(), u.getEmail(), u.getPhone(),
+                        u.getRole(), u.getStatus(), u.getCreatedAt());
+                rows++;
+            }
+        }
+        if (csvWriter != null) {
+            csvWriter.close();
+        } else {
+            xlsxWriter.close();
+        }
+        log.info("用户导出完成: rows={}, format={}, 耗时{}ms", rows, csv ? "csv" : "xlsx",
+                System.currentTimeMillis() - start);
+        return rows;
+    }
 
-        try {
-            // 验证当前用户权限
-            if (!hasUserViewPermission()) {
-                throw new BusinessException("权限不足");
+    /**
+     * 导出的可见范围：超级管理员和总监导出全部用户，其他角色只导出自己和下级
+     *
+     * @return 可见范围的根用户ID，为null时不限制
+     */
+    private Long exportVisibleRootId() {
+        String currentRole = UserContextHolder.getCurrentUserRole();
+        if (currentRole != null) {
+            try {
+                UserRole role = UserRole.fromCode(currentRole.trim());
+                if (role == UserRole.SUPER_ADMIN || role == UserRole.DIRECTOR) {
+                    return null;
+                }
+            } catch (IllegalArgumentException ex) {
+                log.warn("无法解析用户角色(导出): {}", currentRole);
             }
+        }
+        String currentUserId = UserContextHolder.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new BusinessException("权限不足");
+        }
+        return Long.valueOf(currentUserId);
+    }
 
-            // TODO: 实现用户数据导出功能
-            // 这里简化实现，实际应该根据format生成相应格式的文件
-            String csvData = "ID,用户名,邮箱,手机号,角色,状态,创建时间\n";
-
-            return csvData.getBytes("UTF-8");
-
-        } catch (Exception e) {
-            log.error("导出用户数据失败", e);
-            throw new BusinessException("导出用户数据失败");
+    private static void writeExportRow(CsvWriter csvWriter, XlsxWriter xlsxWriter, Object... values) throws IOException {
+        if (csvWriter != null) {
+            csvWriter.writeRow(values);
+        } else {
+            xlsxWriter.writeRow(values);
         }
     }
 
@@ -516,25 +660,12 @@ public class UserServiceImpl implements UserService {
      * 检查是否为下级用户
      */
     private boolean isSubordinate(Long userId, Long managerId) {
-        // 递归检查多级上级关系: 若user的parentId为managerId，或其上级的上级...为managerId，则判定为下级
-        Long current = userId;
-        int maxDepth = 10; // 防御：最多向上回溯10级，避免环
-        for (int i = 0; i < maxDepth; i++) {
-            Optional<UserResponse> userOpt = userDataFacade.findById(current);
-            if (!userOpt.isPresent()) {
-                return false;
-            }
-            UserResponse user = userOpt.get();
-            Long parentId = user.getParentId();
-            if (parentId == null) {
-                return false;
-            }
-            if (managerId.equals(parentId)) {
-                return true;
-            }
-            current = parentId;
+        Boolean indexed = ancestryIndex.isSubordinate(userId, managerId);
+        if (indexed != null) {
+            return indexed;
         }
-        return false;
+        // 索引加载完成前查询层级闭包表
+        return userDataFacade.isSubordinate(userId, managerId);
     }
 
     // ==================== 业务逻辑方法 ====================
@@ -592,237 +723,84 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * 构建用户层级关系
+     * 批量状态操作对应的目标状态
+     *
+     * @return 目标状态；不是状态操作时返回null
      */
-    private UserHierarchyResponse buildUserHierarchy(Long userId) {
-        Optional<UserResponse> userOpt = userDataFacade.findById(userId);
-        if (!userOpt.isPresent()) {
+    private static String batchTargetStatus(String operation) {
+        if (operation == null) {
             return null;
         }
-
-        UserResponse user = userOpt.get();
-        UserHierarchyResponse hierarchy = new UserHierarchyResponse();
-        hierarchy.setId(user.getId());
-        hierarchy.setUsername(user.getUsername());
-        hierarchy.setRole(user.getRole());
-        hierarchy.setStatus(user.getStatus());
-        hierarchy.setParentId(user.getParentId());
-        hierarchy.setParentName(user.getParentName());
-        hierarchy.setCreatedAt(user.getCreatedAt());
-
-        // 获取下级用户
-        List<UserResponse> children = userDataFacade.findByParentId(userId);
-        List<UserHierarchyResponse> childHierarchies = children.stream()
-            .map(child -> buildUserHierarchy(child.getId()))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
-
-        hierarchy.setChildren(childHierarchies);
-        hierarchy.setDirectChildrenCount(children.size());
-        hierarchy.setTotalChildrenCount(calculateTotalChildren(childHierarchies));
-        hierarchy.setDepth(calculateDepth(childHierarchies));
-
-        return hierarchy;
-    }
-
-    /**
-     * 计算总下级数量
-     */
-    private Integer calculateTotalChildren(List<UserHierarchyResponse> children) {
-        return children.stream()
-            .mapToInt(child -> 1 + child.getTotalChildrenCount())
-            .sum();
-    }
-
-    /**
-     * 计算层级深度
-     */
-    private Integer calculateDepth(List<UserHierarchyResponse> children) {
-        return children.stream()
-            .mapToInt(child -> 1 + child.getDepth())
-            .max()
-            .orElse(0);
-    }
-
-    /**
-     * 构建用户统计信息
-     */
-    private UserStatsResponse buildUserStats() {
-        UserStatsResponse stats = new UserStatsResponse();
-
-        // 基础统计
-        stats.setTotalUsers(userDataFacade.countTotal());
-        stats.setActiveUsers(userDataFacade.countByStatus("ACTIVE"));
-
-        // 统计：今日/7天/30天新增
-        stats.setTodayNewUsers(calculateNewUsersInDays(0));
-        stats.setWeekNewUsers(calculateNewUsersInDays(7));
-        stats.setMonthNewUsers(calculateNewUsersInDays(30));
-
-        // 角色分布
-        Map<String, Long> roleDistribution = new HashMap<>();
-        roleDistribution.put("super_admin", userDataFacade.countByRole("super_admin"));
-        roleDistribution.put("director", userDataFacade.countByRole("director"));
-        roleDistribution.put("leader", userDataFacade.countByRole("leader"));
-        roleDistribution.put("sales", userDataFacade.countByRole("sales"));
-        roleDistribution.put("agent", userDataFacade.countByRole("agent"));
-        stats.setRoleDistribution(roleDistribution);
-
-        // 状态分布
-        Map<String, Long> statusDistribution = new HashMap<>();
-        statusDistribution.put("ACTIVE", userDataFacade.countByStatus("ACTIVE"));
-        statusDistribution.put("INACTIVE", userDataFacade.countByStatus("INACTIVE"));
-        statusDistribution.put("SUSPENDED", userDataFacade.countByStatus("SUSPENDED"));
-        stats.setStatusDistribution(statusDistribution);
-
-        // 等级分布和趋势
-        stats.setLevelDistribution(new HashMap<>());
-
-        // 趋势：最近7天与30天
-        stats.setWeeklyTrend(buildTrendSeries(7));
-        stats.setMonthlyTrend(buildTrendSeries(30));
-        stats.setWeeklyTrendByRole(buildGroupedTrendSeries(7, "role"));
-        stats.setWeeklyTrendByStatus(buildGroupedTrendSeries(7, "status"));
-        stats.setMonthlyTrendByRole(buildGroupedTrendSeries(30, "role"));
-        stats.setMonthlyTrendByStatus(buildGroupedTrendSeries(30, "status"));
-
-        stats.setStatisticsTime(LocalDateTime.now().format(DATE_TIME_FORMATTER));
-        return stats;
-    }
-
-    /**
-     * 计算最近N天新增用户数（N=0 表示今日）
-     */
-    private Long calculateNewUsersInDays(int days) {
-        try {
-            int window = days == 0 ? 1 : days;
-            List<Map<String, Object>> rows = userDataFacade.countDailyNewUsers(window);
-            if (days == 0) {
-                String today = java.time.LocalDate.now().toString();
-                return rows.stream()
-                        .filter(r -> today.equals(String.valueOf(r.get("day"))))
-                        .map(r -> ((Number) r.get("cnt")).longValue())
-                        .findFirst().orElse(0L);
-            } else {
-                return rows.stream()
-                        .map(r -> ((Number) r.get("cnt")).longValue())
-                        .reduce(0L, Long::sum);
-            }
-        } catch (Exception e) {
-            log.warn("统计新增用户失败: days={}", days, e);
-            return 0L;
+        switch (operation) {
+            case "ACTIVATE":
+                return "ACTIVE";
+            case "DEACTIVATE":
+                return "INACTIVE";
+            case "SUSPEND":
+                return "SUSPENDED";
+            default:
+                return null;
         }
     }
 
     /**
-     * 构建最近N天每日新增用户趋势序列
+     * 批量验证可见范围：超级管理员和总监可以操作所有用户，其他角色只能操作自己和下级。
+     * 先用内存中的上下级关系索引判断，索引未就绪时按块查询层级闭包表
+     *
+     * @param ids 用户ID列表
+     * @return 第一个无权限操作的用户ID，全部可以操作时返回null
      */
-    private Map<String, Long> buildTrendSeries(int days) {
-        Map<String, Long> result = new LinkedHashMap<>();
-        try {
-            List<Map<String, Object>> rows = userDataFacade.countDailyNewUsers(days);
-            // 先填充完整日期
-            java.time.LocalDate start = java.time.LocalDate.now().minusDays(days - 1);
-            for (int i = 0; i < days; i++) {
-                String day = start.plusDays(i).toString();
-                result.put(day, 0L);
-            }
-            for (Map<String, Object> row : rows) {
-                String day = String.valueOf(row.get("day"));
-                Long cnt = ((Number) row.get("cnt")).longValue();
-                result.put(day, cnt);
-            }
-        } catch (Exception e) {
-            log.warn("构建趋势序列失败: days={}", days, e);
+    private Long findInaccessibleUser(List<Long> ids) {
+        String currentUserId = UserContextHolder.getCurrentUserId();
+        String currentRole = UserContextHolder.getCurrentUserRole();
+
+        if (currentUserId == null || currentRole == null) {
+            return ids.get(0);
         }
-        return result;
-    }
 
-    /**
-     * 构建最近N天每日新增用户分组趋势序列
-     * groupKey: "role" 或 "status"
-     */
-    private Map<String, Map<String, Long>> buildGroupedTrendSeries(int days, String groupKey) {
-        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
         try {
-            List<Map<String, Object>> rows =
-                    "role".equals(groupKey) ? userDataFacade.countDailyNewUsersByRole(days)
-                                             : userDataFacade.countDailyNewUsersByStatus(days);
-            // 先构造完整日期轴
-            java.time.LocalDate start = java.time.LocalDate.now().minusDays(days - 1);
-            List<String> daysAxis = new java.util.ArrayList<>();
-            for (int i = 0; i < days; i++) {
-                daysAxis.add(start.plusDays(i).toString());
-            }
-            // 组装默认Map
-            java.util.function.Supplier<Map<String, Long>> dayMapSupplier = () -> {
-                Map<String, Long> m = new LinkedHashMap<>();
-                for (String d : daysAxis) m.put(d, 0L);
-                return m;
-            };
-            for (Map<String, Object> row : rows) {
-                String day = String.valueOf(row.get("day"));
-                String key = String.valueOf(row.get(groupKey));
-                Long cnt = ((Number) row.get("cnt")).longValue();
-                result.computeIfAbsent(key, k -> dayMapSupplier.get()).put(day, cnt);
+            UserRole role = UserRole.fromCode(currentRole.trim());
+            if (role == UserRole.SUPER_ADMIN || role == UserRole.DIRECTOR) {
+                return null;
             }
-        } catch (Exception e) {
-            log.warn("构建分组趋势序列失败: days={}, groupKey={}", days, groupKey, e);
+        } catch (IllegalArgumentException ex) {
+            log.warn("无法解析用户角色(批量操作): {}", currentRole);
+            return ids.get(0);
         }
-        return result;
-    }
 
-    /**
-     * 批量删除用户
-     */
-    private CommonResult<Void> batchDeleteUsers(List<Long> userIds) {
-        for (Long userId : userIds) {
-            // 检查是否有下级用户
-            List<UserResponse> children = userDataFacade.findByParentId(userId);
-            if (!children.isEmpty()) {
-                return CommonResult.error(409,
-                    "用户 " + userId + " 存在下级用户，无法删除");
+        Long managerId = Long.valueOf(currentUserId);
+        List<Long> unresolved = new ArrayList<>();
+        for (Long id : ids) {
+            if (id.equals(managerId)) {
+                continue;
             }
-
-            // 删除用户
-            boolean deleted = userDataFacade.deleteById(userId);
-            if (!deleted) {
-                return CommonResult.error(500,
-                    "删除用户失败: " + userId);
+            Boolean indexed = ancestryIndex.isSubordinate(id, managerId);
+            if (indexed == null) {
+                unresolved.add(id);
+            } else if (!indexed) {
+                return id;
             }
-
-            // 发布删除事件
-            Optional<UserResponse> userOpt = userDataFacade.findById(userId);
-            if (userOpt.isPresent()) {
-                publishUserDeletedEvent(userOpt.get());
+        }
+        for (List<Long> chunk : chunk(unresolved)) {
+            Set<Long> visible = new HashSet<>(userDataFacade.findDescendantIdsIn(managerId, chunk));
+            for (Long id : chunk) {
+                if (!visible.contains(id)) {
+                    return id;
+                }
             }
         }
-
-        return CommonResult.success();
+        return null;
     }
 
     /**
-     * 批量更新用户状态
+     * 按 user.batch-operation.chunk-size 分块
      */
-    private CommonResult<Void> batchUpdateUserStatus(List<Long> userIds, String status) {
-        for (Long userId : userIds) {
-            Optional<UserResponse> userOpt = userDataFacade.findById(userId);
-            if (!userOpt.isPresent()) {
-                continue;
-            }
-
-            UserResponse existingUser = userOpt.get();
-            UpdateUserRequest updateRequest = new UpdateUserRequest();
-            updateRequest.setStatus(status);
-
-            User user = buildUserForUpdate(existingUser, updateRequest);
-            userDataFacade.save(user);
-
-            // 发布状态变更事件
-            publishUserStatusChangedEvent(userId, existingUser.getStatus(), status);
+    private List<List<Long>> chunk(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + batchChunkSize, ids.size())));
         }
-
-        return CommonResult.success();
+        return chunks;
     }
 
     // ==================== 事件发布方法 ====================
@@ -926,6 +904,43 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * 批量发布用户删除或状态变更事件
+     *
+     * @param users 本块已处理的用户，status为变更前的状态
+     * @param newStatus 新状态；为null时发布删除事件
+     */
+    private void publishBatchEvents(List<User> users, String newStatus, String correlationId) {
+        try {
+            CommonResult<Void> result = newStatus == null
+                ? userEventPublisher.publishUsersDeleted(users, correlationId)
+                : userEventPublisher.publishUsersStatusChanged(users, newStatus, correlationId);
+
+            if (!result.isSuccess()) {
+                log.error("批量用户事件发布失败: count={}, correlationId={}, error={}",
+                    users.size(), correlationId, result.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("批量发布用户事件失败: count={}, correlationId={}", users.size(), correlationId, e);
+        }
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     /**
      * 发布用户状态变更事件
      */
@@ -1,18 +1,29 @@
 package com.example.user.event.publisher;
 
 import com.example.common.dto.CommonResult;
+import com.example.common.event.DomainEvent;
 import com.example.common.event.DomainEventPublisher;
+import com.example.common.event.EventType;
 import com.example.common.event.domain.UserCreatedEvent;
+import com.example.common.event.domain.UserDeletedEvent;
+import com.example.common.event.domain.UserStatusChangedEvent;
 import com.example.data.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -205,6 +216,64 @@ class UserEventPublisherTest {
         // (这个验证需要通过日志或额外的监控来确认)
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_publish_one_status_changed_event_per_user_in_batch() {
+        // Given
+        User other = createTestUser();
+        other.setId(2L);
+        when(eventPublisher.publishEvents(anyList(), eq(false))).thenReturn(CommonResult.success());
+
+        // When
+        CommonResult<Void> result = userEventPublisher.publishUsersStatusChanged(
+                Arrays.asList(testUser, other), "SUSPENDED", "user-batch-1");
+
+        // Then
+        assertTrue(result.isSuccess());
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishEvents(captor.capture(), eq(false));
+        List<DomainEvent> events = captor.getValue();
+        assertEquals(2, events.size());
+        UserStatusChangedEvent first = (UserStatusChangedEvent) events.get(0);
+        assertEquals(1L, first.getUserId());
+        assertEquals("ACTIVE", first.getOldStatus());
+        assertEquals("SUSPENDED", first.getNewStatus());
+        assertEquals("user-batch-1", first.getCorrelationId());
+        assertEquals(EventType.USER_STATUS_CHANGED, first.getEventType());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_publish_one_deleted_event_per_user_in_batch() {
+        // Given
+        when(eventPublisher.publishEvents(anyList(), eq(false))).thenReturn(CommonResult.success());
+
+        // When
+        CommonResult<Void> result = userEventPublisher.publishUsersDeleted(
+                Collections.singletonList(testUser), "user-batch-1");
+
+        // Then
+        assertTrue(result.isSuccess());
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishEvents(captor.capture(), eq(false));
+        UserDeletedEvent event = (UserDeletedEvent) captor.getValue().get(0);
+        assertEquals(1L, event.getUserId());
+        assertEquals(EventType.USER_DELETED, event.getEventType());
+    }
+
+    @Test
+    void should_report_batch_publish_failure() {
+        // Given
+        when(eventPublisher.publishEvents(anyList(), eq(false))).thenReturn(CommonResult.error("所有事件发布失败"));
+
+        // When
+        CommonResult<Void> result = userEventPublisher.publishUsersDeleted(
+                Collections.singletonList(testUser), null);
+
+        // Then
+        assertFalse(result.isSuccess());
+    }
+
     /**
      * 创建测试用户实体
      */
@@ -0,0 +1,94 @@
+package com.example.user.facade;
+
+import com.example.data.entity.User;
+import com.example.data.mapper.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserAncestryIndex单元测试
+ * 
+ * <p>索引启动时只有 1(顶级) ← 2；3、4、5 由其他服务写入，索引中没有。
+ */
+class UserAncestryIndexTest {
+
+    private UserMapper userMapper;
+
+    private UserAncestryIndex ancestryIndex;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        when(userMapper.findParentLinksAfter(anyLong(), anyInt())).thenReturn(Arrays.asList(user(1L, null), user(2L, 1L)));
+        ancestryIndex = new UserAncestryIndex(userMapper);
+        ancestryIndex.rebuild();
+    }
+
+    @Test
+    void should_backfill_missing_ancestor_chain() {
+        // Given: 5 ← 4 ← 3 ← 2，3和4都不在索引中
+        when(userMapper.findById(5L)).thenReturn(Optional.of(user(5L, 4L)));
+        when(userMapper.findById(4L)).thenReturn(Optional.of(user(4L, 3L)));
+        when(userMapper.findById(3L)).thenReturn(Optional.of(user(3L, 2L)));
+
+        // When & Then
+        assertEquals(Boolean.TRUE, ancestryIndex.isSubordinate(5L, 1L));
+        assertEquals(Boolean.TRUE, ancestryIndex.isSubordinate(5L, 3L));
+        assertEquals(Boolean.FALSE, ancestryIndex.isSubordinate(3L, 5L));
+        verify(userMapper, times(1)).findById(4L);
+        verify(userMapper, times(1)).findById(3L);
+    }
+
+    @Test
+    void should_return_null_when_ancestor_cannot_be_loaded() {
+        // Given: 5的上级4不存在
+        when(userMapper.findById(5L)).thenReturn(Optional.of(user(5L, 4L)));
+        when(userMapper.findById(4L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertNull(ancestryIndex.isSubordinate(5L, 1L));
+    }
+
+    @Test
+    void should_return_null_when_manager_not_indexed() {
+        // Given
+        when(userMapper.findById(5L)).thenReturn(Optional.of(user(5L, 2L)));
+
+        // When & Then
+        assertNull(ancestryIndex.isSubordinate(5L, 9L));
+    }
+
+    @Test
+    void should_return_false_when_user_does_not_exist() {
+        // Given
+        when(userMapper.findById(5L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertEquals(Boolean.FALSE, ancestryIndex.isSubordinate(5L, 1L));
+    }
+
+    @Test
+    void should_stop_backfill_on_parent_cycle() {
+        // Given: 5 ← 6 ← 5
+        when(userMapper.findById(5L)).thenReturn(Optional.of(user(5L, 6L)));
+        when(userMapper.findById(6L)).thenReturn(Optional.of(user(6L, 5L)));
+
+        // When & Then
+        assertEquals(Boolean.FALSE, ancestryIndex.isSubordinate(5L, 1L));
+    }
+
+    private static User user(Long id, Long parentId) {
+        User user = new User();
+        user.setId(id);
+        user.setParentId(parentId);
+        return user;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.user.facade;
+
+import com.example.data.entity.UserTreeNode;
+import com.example.data.mapper.UserClosureMapper;
+import com.example.data.mapper.UserMapper;
+import com.example.user.dto.response.UserHierarchyResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserDataFacade单元测试
+ *
+ * <p>层级树由 {@link UserClosureMapper#findSubtree} 的一次查询结果组装：1 ← 2、3，2 ← 4。
+ */
+@ExtendWith(MockitoExtension.class)
+class UserDataFacadeTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private UserSearchIndex searchIndex;
+
+    @Mock
+    private UserClosureMapper userClosureMapper;
+
+    @Mock
+    private UserAncestryIndex ancestryIndex;
+
+    @InjectMocks
+    private UserDataFacade userDataFacade;
+
+    @Test
+    void should_build_hierarchy_from_subtree_in_depth_order() {
+        // Given: 按层数排序，同层按创建时间倒序
+        when(userClosureMapper.findSubtree(1L)).thenReturn(Arrays.asList(
+                node(1L, null, 0, 3, 2),
+                node(3L, 1L, 1, 0, 0),
+                node(2L, 1L, 1, 1, 1),
+                node(4L, 2L, 2, 0, 0)));
+
+        // When
+        Optional<UserHierarchyResponse> result = userDataFacade.findHierarchy(1L);
+
+        // Then
+        assertTrue(result.isPresent());
+        UserHierarchyResponse root = result.get();
+        assertEquals(1L, root.getId());
+        assertNull(root.getParentName());
+        assertEquals(2, root.getDirectChildrenCount());
+        assertEquals(3, root.getTotalChildrenCount());
+        assertEquals(2, root.getDepth());
+        assertEquals("2025-08-01 10:00:00", root.getCreatedAt());
+        assertEquals(Arrays.asList(3L, 2L), ids(root.getChildren()));
+
+        UserHierarchyResponse manager = root.getChildren().get(1);
+        assertEquals("user1", manager.getParentName());
+        assertEquals(1, manager.getDirectChildrenCount());
+        assertEquals(1, manager.getTotalChildrenCount());
+        assertEquals(Collections.singletonList(4L), ids(manager.getChildren()));
+
+        UserHierarchyResponse leaf = manager.getChildren().get(0);
+        assertEquals("user2", leaf.getParentName());
+        assertEquals(0, leaf.getDirectChildrenCount());
+        assertEquals(0, leaf.getDepth());
+        assertTrue(leaf.getChildren().isEmpty());
+
+        UserHierarchyResponse sibling = root.getChildren().get(0);
+        assertEquals(0, sibling.getDirectChildrenCount());
+        verify(userClosureMapper, times(1)).findSubtree(1L);
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void should_skip_orphan_whose_parent_is_missing() {
+        // Given: 5的上级9不在结果中（如查询期间被移出树）
+        when(userClosureMapper.findSubtree(1L)).thenReturn(Arrays.asList(
+                node(1L, null, 0, 2, 2),
+                node(2L, 1L, 1, 0, 0),
+                node(5L, 9L, 2, 0, 0)));
+
+        // When
+        UserHierarchyResponse root = userDataFacade.findHierarchy(1L).orElseThrow(AssertionError::new);
+
+        // Then
+        assertEquals(Collections.singletonList(2L), ids(root.getChildren()));
+        assertTrue(root.getChildren().get(0).getChildren().isEmpty());
+        assertEquals(1, root.getDirectChildrenCount());
+    }
+
+    @Test
+    void should_return_empty_when_user_not_found() {
+        // Given
+        when(userClosureMapper.findSubtree(1L)).thenReturn(Collections.emptyList());
+
+        // When & Then
+        assertFalse(userDataFacade.findHierarchy(1L).isPresent());
+    }
+
+    @Test
+    void should_return_empty_when_root_row_missing() {
+        // Given: 结果中没有层数为0的根节点
+        when(userClosureMapper.findSubtree(1L)).thenReturn(Collections.singletonList(node(2L, 1L, 1, 0, 0)));
+
+        // When & Then
+        assertFalse(userDataFacade.findHierarchy(1L).isPresent());
+    }
+
+    @Test
+    void should_check_subordinate_with_manager_as_ancestor() {
+        // Given
+        when(userClosureMapper.isDescendant(1L, 4L)).thenReturn(true);
+
+        // When & Then
+        assertTrue(userDataFacade.isSubordinate(4L, 1L));
+        assertFalse(userDataFacade.isSubordinate(1L, 4L));
+    }
+
+    private static List<Long> ids(List<UserHierarchyResponse> nodes) {
+        return nodes.stream().map(UserHierarchyResponse::getId).collect(Collectors.toList());
+    }
+
+    private static UserTreeNode node(Long id, Long parentId, int depth, int descendantCount, int height) {
+        UserTreeNode node = new UserTreeNode();
+        node.setId(id);
+        node.setUsername("user" + id);
+        node.setRole("sales");
+        node.setStatus("active");
+        node.setParentId(parentId);
+        node.setCreatedAt(LocalDateTime.of(2025, 8, 1, 10, 0));
+        node.setDepth(depth);
+        node.setDescendantCount(descendantCount);
+        node.setHeight(height);
+        return node;
+    }
+}
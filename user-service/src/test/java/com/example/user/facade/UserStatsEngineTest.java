@@ -0,0 +1,237 @@
+package com.example.user.facade;
+
+import com.example.data.entity.User;
+import com.example.data.mapper.UserMapper;
+import com.example.user.dto.response.UserStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserStatsEngine单元测试
+ *
+ * <p>两次分组查询的结果由内存中的用户列表按SQL的分组方式生成；每次创建、变更状态、删除用户并刷新快照后，
+ * 快照须与直接在用户列表上逐项计数（原先每项一条COUNT查询）的结果一致。
+ */
+@ExtendWith(MockitoExtension.class)
+class UserStatsEngineTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    private final List<User> users = new ArrayList<>();
+
+    private final LocalDate today = LocalDate.now();
+
+    private UserStatsEngine statsEngine;
+
+    @BeforeEach
+    void setUp() {
+        users.add(user(1L, "super_admin", "active", today.minusDays(200)));
+        users.add(user(2L, "director", "active", today.minusDays(29)));
+        users.add(user(3L, "leader", "INACTIVE", today.minusDays(30)));
+        users.add(user(4L, "sales", "active", today.minusDays(6)));
+        users.add(user(5L, "sales", "suspended", today.minusDays(7)));
+        users.add(user(6L, "agent", "active", today));
+        users.add(user(7L, "Sales", "Active", today.minusDays(1)));
+        lenient().when(userMapper.countGroupByRoleAndStatus()).thenAnswer(invocation -> groupByRoleAndStatus());
+        lenient().when(userMapper.countDailyNewUsersByRoleAndStatus(any()))
+                .thenAnswer(invocation -> groupByDayRoleAndStatus(invocation.getArgument(0)));
+        statsEngine = new UserStatsEngine(userMapper);
+    }
+
+    @Test
+    void should_match_recount_from_two_scans() {
+        assertMatchesRecount(statsEngine.get());
+        verify(userMapper, times(1)).countGroupByRoleAndStatus();
+        verify(userMapper, times(1)).countDailyNewUsersByRoleAndStatus(today.minusDays(UserStatsEngine.MONTH_DAYS - 1));
+    }
+
+    @Test
+    void should_match_recount_after_create() {
+        // Given
+        statsEngine.get();
+        users.add(user(8L, "sales", "active", today));
+        users.add(user(9L, "leader", "inactive", today.minusDays(3)));
+
+        // When & Then
+        assertMatchesRecount(refreshed());
+    }
+
+    @Test
+    void should_match_recount_after_status_change() {
+        // Given
+        statsEngine.get();
+        users.get(3).setStatus("suspended");
+        users.get(5).setStatus("inactive");
+
+        // When & Then
+        UserStatsResponse stats = refreshed();
+        assertMatchesRecount(stats);
+        assertEquals(3L, stats.getActiveUsers());
+    }
+
+    @Test
+    void should_match_recount_after_delete() {
+        // Given
+        statsEngine.get();
+        users.removeIf(u -> u.getId() == 6L || u.getId() == 2L);
+
+        // When & Then
+        UserStatsResponse stats = refreshed();
+        assertMatchesRecount(stats);
+        assertEquals(0L, stats.getTodayNewUsers());
+    }
+
+    @Test
+    void should_serve_cached_snapshot_within_ttl() {
+        // Given
+        UserStatsResponse first = statsEngine.get();
+        users.add(user(8L, "sales", "active", today));
+
+        // When
+        UserStatsResponse second = statsEngine.get();
+
+        // Then: TTL内不重新统计，变更在下次刷新后可见
+        assertSame(first, second);
+        assertEquals(7L, second.getTotalUsers());
+        verify(userMapper, times(1)).countGroupByRoleAndStatus();
+        assertEquals(8L, refreshed().getTotalUsers());
+    }
+
+    @Test
+    void should_return_unmodifiable_distributions() {
+        UserStatsResponse stats = statsEngine.get();
+        assertThrows(UnsupportedOperationException.class, () -> stats.getRoleDistribution().put("sales", 0L));
+        assertThrows(UnsupportedOperationException.class, () -> stats.getWeeklyTrendByRole().get("sales").put(today.toString(), 0L));
+    }
+
+    /**
+     * 使当前快照过期并同步刷新
+     */
+    private UserStatsResponse refreshed() {
+        ReflectionTestUtils.setField(statsEngine, "maxStaleSeconds", -1L);
+        try {
+            return statsEngine.get();
+        } finally {
+            ReflectionTestUtils.setField(statsEngine, "maxStaleSeconds", 300L);
+        }
+    }
+
+    private void assertMatchesRecount(UserStatsResponse stats) {
+        LocalDate weekStart = today.minusDays(UserStatsEngine.WEEK_DAYS - 1);
+        LocalDate monthStart = today.minusDays(UserStatsEngine.MONTH_DAYS - 1);
+
+        assertEquals(users.size(), stats.getTotalUsers());
+        assertEquals(count(u -> u.getStatus().equalsIgnoreCase("active")), stats.getActiveUsers());
+        for (String role : Arrays.asList("super_admin", "director", "leader", "sales", "agent")) {
+            assertEquals(count(u -> u.getRole().equalsIgnoreCase(role)), stats.getRoleDistribution().get(role), role);
+        }
+        for (String status : Arrays.asList("ACTIVE", "INACTIVE", "SUSPENDED")) {
+            assertEquals(count(u -> u.getStatus().equalsIgnoreCase(status)), stats.getStatusDistribution().get(status), status);
+        }
+        assertEquals(count(u -> day(u).equals(today)), stats.getTodayNewUsers());
+        assertEquals(count(u -> !day(u).isBefore(weekStart)), stats.getWeekNewUsers());
+        assertEquals(count(u -> !day(u).isBefore(monthStart)), stats.getMonthNewUsers());
+
+        assertEquals(UserStatsEngine.WEEK_DAYS, stats.getWeeklyTrend().size());
+        assertEquals(UserStatsEngine.MONTH_DAYS, stats.getMonthlyTrend().size());
+        for (int i = 0; i < UserStatsEngine.MONTH_DAYS; i++) {
+            LocalDate d = monthStart.plusDays(i);
+            assertEquals(count(u -> day(u).equals(d)), stats.getMonthlyTrend().get(d.toString()), d.toString());
+            if (!d.isBefore(weekStart)) {
+                assertEquals(count(u -> day(u).equals(d)), stats.getWeeklyTrend().get(d.toString()), d.toString());
+            }
+        }
+        for (Map.Entry<String, Map<String, Long>> series : stats.getMonthlyTrendByRole().entrySet()) {
+            for (Map.Entry<String, Long> point : series.getValue().entrySet()) {
+                assertEquals(count(u -> u.getRole().equals(series.getKey()) && day(u).toString().equals(point.getKey())),
+                        point.getValue(), series.getKey() + " " + point.getKey());
+            }
+        }
+        for (Map.Entry<String, Map<String, Long>> series : stats.getWeeklyTrendByStatus().entrySet()) {
+            for (Map.Entry<String, Long> point : series.getValue().entrySet()) {
+                assertEquals(count(u -> u.getStatus().equals(series.getKey()) && day(u).toString().equals(point.getKey())),
+                        point.getValue(), series.getKey() + " " + point.getKey());
+            }
+        }
+    }
+
+    private long count(Predicate<User> predicate) {
+        return users.stream().filter(predicate).count();
+    }
+
+    /**
+     * 对应 SELECT role, status, COUNT(*) AS cnt FROM users GROUP BY role, status
+     */
+    private List<Map<String, Object>> groupByRoleAndStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (User u : users) {
+            counts.merge(u.getRole() + "|" + u.getStatus(), 1L, Long::sum);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        counts.forEach((key, cnt) -> {
+            String[] parts = key.split("\\|");
+            Map<String, Object> row = new HashMap<>();
+            row.put("role", parts[0]);
+            row.put("status", parts[1]);
+            row.put("cnt", cnt);
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    /**
+     * 对应 SELECT DATE(created_at) AS day, role, status, COUNT(*) AS cnt FROM users
+     * WHERE created_at >= #{since} GROUP BY day, role, status
+     */
+    private List<Map<String, Object>> groupByDayRoleAndStatus(LocalDate since) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (User u : users) {
+            if (!day(u).isBefore(since)) {
+                counts.merge(day(u) + "|" + u.getRole() + "|" + u.getStatus(), 1L, Long::sum);
+            }
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        counts.forEach((key, cnt) -> {
+            String[] parts = key.split("\\|");
+            Map<String, Object> row = new HashMap<>();
+            row.put("day", java.sql.Date.valueOf(parts[0]));
+            row.put("role", parts[1]);
+            row.put("status", parts[2]);
+            row.put("cnt", cnt);
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    private static LocalDate day(User user) {
+        return user.getCreatedAt().toLocalDate();
+    }
+
+    private static User user(Long id, String role, String status, LocalDate createdOn) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        user.setStatus(status);
+        user.setCreatedAt(LocalDateTime.of(createdOn, java.time.LocalTime.NOON));
+        return user;
+    }
+}